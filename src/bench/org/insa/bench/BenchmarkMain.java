@@ -0,0 +1,55 @@
+package org.insa.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>
+ * Run the benchmarks of this package with the GC profiler (allocation rate, in
+ * bytes per operation and MB/s, and number of collections), and write the
+ * results in JSON.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code BenchmarkMain [map.mapgr] [results.json] [regexp...]}. Without
+ * a map, {@link ShortestPathBenchmark}, {@link DijkstraQueueBenchmark} and
+ * {@link SuccessorIterationBenchmark} are skipped. The results are written in
+ * {@code jmh-results.json} by default, and the regular expressions select the
+ * benchmarks to run (all by default). The JMH command line (the main class of
+ * {@code org.openjdk.jmh.Main}) can also be used directly for finer control,
+ * e.g. {@code -prof gc -rf json -p map=...}.
+ * </p>
+ *
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        String map = args.length > 0 ? args[0] : "";
+        String output = args.length > 1 ? args[1] : "jmh-results.json";
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON).result(output);
+        if (args.length > 2) {
+            for (int i = 2; i < args.length; ++i) {
+                builder.include(args[i]);
+            }
+        }
+        else {
+            builder.include(BenchmarkMain.class.getPackage().getName() + ".*");
+        }
+        if (map.isEmpty()) {
+            builder.exclude(ShortestPathBenchmark.class.getSimpleName());
+            builder.exclude(DijkstraQueueBenchmark.class.getSimpleName());
+            builder.exclude(SuccessorIterationBenchmark.class.getSimpleName());
+        }
+        else {
+            builder.param("map", map);
+        }
+
+        new Runner(builder.build()).run();
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.insa.bench;
+
+import java.io.File;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.contraction.ContractionHierarchy;
+import org.insa.algo.contraction.ContractionHierarchyBuilder;
+import org.insa.graph.Graph;
+import org.insa.graph.io.GraphReaderFactory;
+
+/**
+ * <p>
+ * Benchmark of the construction of contraction hierarchies with an increasing
+ * number of threads, reporting the time, speedup and efficiency of each build,
+ * and checking that all the builds produce the same hierarchy.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ * {@code ContractionHierarchyBuildBenchmark map.mapgr [filterIndex] [maxThreads]},
+ * preferably on a large (e.g. belgium) map. The default maximum number of
+ * threads is the number of available processors.
+ * </p>
+ *
+ */
+public class ContractionHierarchyBuildBenchmark {
+
+    /**
+     * @return true if both hierarchies have the same ranks and edges.
+     */
+    private static boolean same(ContractionHierarchy first, ContractionHierarchy second) {
+        if (first.size() != second.size() || first.getEdgeCount() != second.getEdgeCount()) {
+            return false;
+        }
+        for (int node = 0; node < first.size(); ++node) {
+            if (first.getRank(node) != second.getRank(node)) {
+                return false;
+            }
+        }
+        for (int edge = 0; edge < first.getEdgeCount(); ++edge) {
+            if (first.getSource(edge) != second.getSource(edge)
+                    || first.getTarget(edge) != second.getTarget(edge)
+                    || Float.compare(first.getCost(edge), second.getCost(edge)) != 0
+                    || first.getMiddle(edge) != second.getMiddle(edge)
+                    || first.getFirstChild(edge) != second.getFirstChild(edge)
+                    || first.getSecondChild(edge) != second.getSecondChild(edge)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println(
+                    "usage: ContractionHierarchyBuildBenchmark map.mapgr [filterIndex] [maxThreads]");
+            System.exit(1);
+        }
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters()
+                .get(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+        final int maxThreads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
+        Graph graph = GraphReaderFactory.createGraphReader(new File(args[0])).read();
+        System.out.println("Graph: " + graph);
+        System.out.println("Inspector: " + inspector);
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        // Warm-up.
+        new ContractionHierarchyBuilder(graph, inspector, maxThreads).build();
+
+        ContractionHierarchy reference = null;
+        long referenceTime = 0;
+        System.out.println(String.format("%8s %10s %8s %10s %8s %10s %s", "threads", "time (ms)",
+                "speedup", "efficiency", "rounds", "shortcuts", "same"));
+        for (int nbThreads = 1; nbThreads <= maxThreads; ++nbThreads) {
+            ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(graph,
+                    inspector, nbThreads);
+            long begin = System.nanoTime();
+            ContractionHierarchy hierarchy = builder.build();
+            long time = (System.nanoTime() - begin) / 1000000;
+            if (reference == null) {
+                reference = hierarchy;
+                referenceTime = time;
+            }
+            double speedup = (double) referenceTime / Math.max(time, 1);
+            System.out.println(String.format("%8d %10d %8.2f %9.0f%% %8d %10d %s", nbThreads, time,
+                    speedup, 100 * speedup / nbThreads, builder.getNbRounds(),
+                    hierarchy.getShortcutCount(), same(reference, hierarchy)));
+        }
+    }
+
+}
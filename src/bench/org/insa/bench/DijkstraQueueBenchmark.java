@@ -0,0 +1,185 @@
+package org.insa.bench;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.shortestpath.PrimitiveDijkstraAlgorithm;
+import org.insa.algo.shortestpath.RadixDijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.algo.utils.BinaryHeap;
+import org.insa.algo.utils.BinarySearchTree;
+import org.insa.algo.utils.PriorityQueue;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Comparison of the priority queues of Dijkstra's algorithm on a seeded set of
+ * random queries (see {@link QuerySet}): a lazy Dijkstra (without decrease-key,
+ * outdated entries are skipped) on {@link BinaryHeap} and on
+ * {@link BinarySearchTree}, {@link PrimitiveDijkstraAlgorithm} and
+ * {@link RadixDijkstraAlgorithm}. Each operation solves the next query of the
+ * set, so the throughput is a number of queries per second.
+ * </p>
+ *
+ * <p>
+ * The map must be given with {@code -p map=/path/to/map.mapgr}.
+ * </p>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraQueueBenchmark {
+
+    /**
+     * Entry of the queues of the lazy Dijkstra, ties broken by node.
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        final int node;
+        final double key;
+
+        Entry(int node, double key) {
+            this.node = node;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = Double.compare(this.key, other.key);
+            return result != 0 ? result : Integer.compare(this.node, other.node);
+        }
+
+    }
+
+    /**
+     * Queues compared by this benchmark.
+     */
+    public enum Queue {
+        BINARY_HEAP, BINARY_SEARCH_TREE, PRIMITIVE_BINARY_HEAP, RADIX_HEAP;
+
+        /**
+         * @param data Query to solve.
+         *
+         * @return Cost of the shortest path of the given query.
+         */
+        public double solve(ShortestPathData data) {
+            switch (this) {
+            case BINARY_HEAP:
+                return dijkstra(data, new BinaryHeap<>());
+            case BINARY_SEARCH_TREE:
+                return dijkstra(data, new BinarySearchTree<>());
+            case PRIMITIVE_BINARY_HEAP:
+                return getCost(new PrimitiveDijkstraAlgorithm(data).run());
+            default:
+                return getCost(new RadixDijkstraAlgorithm(data).run());
+            }
+        }
+    }
+
+    // Path of the map.
+    @Param({ "" })
+    public String map;
+
+    // Queue to measure.
+    @Param({ "BINARY_HEAP", "BINARY_SEARCH_TREE", "PRIMITIVE_BINARY_HEAP", "RADIX_HEAP" })
+    public Queue queue;
+
+    // Index of the filter (0: all roads in length, 2: cars in time).
+    @Param({ "0", "2" })
+    public int filter;
+
+    // Number of queries, and seed used to draw them.
+    @Param({ "100" })
+    public int nbQueries;
+
+    @Param({ "42" })
+    public long seed;
+
+    // Queries to solve.
+    private QuerySet queries;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Graph graph = QuerySet.readGraph(this.map);
+        this.queries = new QuerySet(graph, QuerySet.getFilter(this.filter), this.nbQueries,
+                this.seed);
+    }
+
+    @Benchmark
+    public double query() {
+        return this.queue.solve(this.queries.next());
+    }
+
+    /**
+     * @return Cost of the path of the given solution, or infinity if there is
+     *         none.
+     */
+    private static double getCost(ShortestPathSolution solution) {
+        if (solution.getPath() == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cost = 0;
+        for (Arc arc: solution.getPath().getArcs()) {
+            cost += solution.getInputData().getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Dijkstra's algorithm with the given queue, without decrease-key (outdated
+     * entries are skipped).
+     *
+     * @return Cost of the shortest path of the given query.
+     */
+    private static double dijkstra(ShortestPathData data, PriorityQueue<Entry> queue) {
+        CompactGraph graph = data.getGraph().getCompactGraph();
+        CompiledArcInspector inspector = data.getCompiledArcInspector();
+        double[] distances = new double[graph.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        boolean[] marked = new boolean[graph.size()];
+        int destination = data.getDestination().getId();
+        distances[data.getOrigin().getId()] = 0;
+        queue.insert(new Entry(data.getOrigin().getId(), 0));
+        while (!queue.isEmpty()) {
+            int node = queue.deleteMin().node;
+            if (marked[node]) {
+                continue;
+            }
+            marked[node] = true;
+            if (node == destination) {
+                break;
+            }
+            for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+                int successor = graph.getTarget(arc);
+                if (inspector.isAllowed(arc) && !marked[successor]
+                        && distances[node] + inspector.getCost(arc) < distances[successor]) {
+                    distances[successor] = distances[node] + inspector.getCost(arc);
+                    queue.insert(new Entry(successor, distances[successor]));
+                }
+            }
+        }
+        return distances[destination];
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.insa.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.algo.utils.Label;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Label#compareTo(Label)} on consecutive pairs of an array
+ * of labels with seeded random costs (one operation is one comparison).
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LabelBenchmark {
+
+    /**
+     * Number of labels (and of comparisons per invocation).
+     */
+    public static final int NB_LABELS = 1024;
+
+    // Seed used to draw the costs.
+    @Param({ "42" })
+    public long seed;
+
+    // Labels to compare.
+    private Label[] labels;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(this.seed);
+        this.labels = new Label[NB_LABELS];
+        for (int i = 0; i < NB_LABELS; ++i) {
+            this.labels[i] = new Label(null);
+            this.labels[i].setCost(random.nextFloat() * 1000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_LABELS)
+    public int compareTo() {
+        int result = 0;
+        for (int i = 0; i < NB_LABELS; ++i) {
+            result += this.labels[i].compareTo(this.labels[(i + 1) % NB_LABELS]);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.insa.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.graph.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Point#distance(Point, Point)} on consecutive pairs of an
+ * array of seeded random points in metropolitan France (one operation is one
+ * distance).
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointBenchmark {
+
+    /**
+     * Number of points (and of distances per invocation).
+     */
+    public static final int NB_POINTS = 1024;
+
+    // Seed used to draw the points.
+    @Param({ "42" })
+    public long seed;
+
+    // Points.
+    private Point[] points;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(this.seed);
+        this.points = new Point[NB_POINTS];
+        for (int i = 0; i < NB_POINTS; ++i) {
+            this.points[i] = new Point(-5 + random.nextFloat() * 13,
+                    42 + random.nextFloat() * 9);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NB_POINTS)
+    public double distance() {
+        double result = 0;
+        for (int i = 0; i < NB_POINTS; ++i) {
+            result += Point.distance(this.points[i], this.points[(i + 1) % NB_POINTS]);
+        }
+        return result;
+    }
+
+}
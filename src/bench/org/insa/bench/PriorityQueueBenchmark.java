@@ -0,0 +1,161 @@
+package org.insa.bench;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.algo.utils.PriorityQueue;
+import org.insa.algo.utils.PriorityQueueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p>
+ * Benchmark of the insert, deleteMin and remove operations of the priority
+ * queues (see {@link PriorityQueueType}), on elements with seeded random keys.
+ * </p>
+ *
+ * <p>
+ * Each operation of the benchmark processes a whole batch: inserting
+ * {@code size} elements in an empty queue, emptying a queue of {@code size}
+ * elements with deleteMin, or removing {@link #NB_REMOVED} random elements from
+ * a queue of {@code size} elements (the queues are filled before each
+ * operation, outside of the measurement).
+ * </p>
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityQueueBenchmark {
+
+    /**
+     * Maximum number of elements removed by {@link #remove(Filled)} (the remove
+     * operation of {@link org.insa.algo.utils.BinaryHeap} is linear).
+     */
+    public static final int NB_REMOVED = 1000;
+
+    /**
+     * Element of the queues: a node and its key, ties broken by node.
+     */
+    public static final class Item implements Comparable<Item> {
+
+        final int node;
+        final double key;
+
+        Item(int node, double key) {
+            this.node = node;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            int result = Double.compare(this.key, other.key);
+            return result != 0 ? result : Integer.compare(this.node, other.node);
+        }
+
+    }
+
+    /**
+     * Queue filled with all the elements before each operation, and the elements
+     * to remove from it. JMH may give this state another instance of
+     * {@link PriorityQueueBenchmark} than the one running the benchmark (with
+     * equal but not identical elements), so the elements to remove must be taken
+     * from here.
+     */
+    @State(Scope.Thread)
+    public static class Filled {
+
+        PriorityQueue<Item> queue;
+        Item[] removed;
+
+        @Setup(Level.Invocation)
+        public void fill(PriorityQueueBenchmark benchmark) {
+            this.queue = benchmark.newQueue();
+            for (Item item: benchmark.items) {
+                this.queue.insert(item);
+            }
+            this.removed = benchmark.removed;
+        }
+
+    }
+
+    // Type of queue.
+    @Param({ "BINARY_HEAP", "INDEXED_BINARY_HEAP", "PAIRING_HEAP", "FOUR_ARY_HEAP",
+            "EIGHT_ARY_HEAP" })
+    public PriorityQueueType type;
+
+    // Number of elements, and seed used to draw their keys.
+    @Param({ "1000", "100000" })
+    public int size;
+
+    @Param({ "42" })
+    public long seed;
+
+    // Elements in insertion order, and elements removed by remove().
+    private Item[] items;
+    private Item[] removed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(this.seed);
+        this.items = new Item[this.size];
+        for (int i = 0; i < this.size; ++i) {
+            this.items[i] = new Item(i, random.nextDouble() * this.size);
+        }
+        List<Item> shuffled = Arrays.asList(this.items.clone());
+        Collections.shuffle(shuffled, random);
+        this.removed = shuffled.subList(0, Math.min(this.size, NB_REMOVED))
+                .toArray(new Item[0]);
+    }
+
+    /**
+     * @return A new empty queue of the benchmarked type.
+     */
+    PriorityQueue<Item> newQueue() {
+        return this.type.create(item -> item.key, item -> item.node, this.size);
+    }
+
+    @Benchmark
+    public PriorityQueue<Item> insert() {
+        PriorityQueue<Item> queue = newQueue();
+        for (Item item: this.items) {
+            queue.insert(item);
+        }
+        return queue;
+    }
+
+    @Benchmark
+    public void deleteMin(Filled filled, Blackhole blackhole) {
+        PriorityQueue<Item> queue = filled.queue;
+        while (!queue.isEmpty()) {
+            blackhole.consume(queue.deleteMin());
+        }
+    }
+
+    @Benchmark
+    public PriorityQueue<Item> remove(Filled filled) {
+        PriorityQueue<Item> queue = filled.queue;
+        for (Item item: filled.removed) {
+            queue.remove(item);
+        }
+        return queue;
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.insa.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.graph.Graph;
+import org.insa.graph.io.GraphReaderFactory;
+
+/**
+ * <p>
+ * Reproducible set of shortest-path queries on a graph: the origins and
+ * destinations are drawn from a {@link Random} initialized with a given seed, so
+ * two runs (or two benchmarks) with the same graph, filter and seed solve
+ * exactly the same queries.
+ * </p>
+ *
+ */
+public final class QuerySet {
+
+    // Queries of this set.
+    private final ShortestPathData[] queries;
+
+    // Index of the next query returned by next().
+    private int next;
+
+    /**
+     * Create a new set of queries with distinct origins and destinations.
+     *
+     * @param graph Graph of the queries.
+     * @param inspector Arc inspector (filter and cost) of the queries.
+     * @param nbQueries Number of queries.
+     * @param seed Seed of the random generator.
+     *
+     * @throws IllegalArgumentException if the number of queries is not positive
+     *         or if the graph has less than two nodes.
+     */
+    public QuerySet(Graph graph, ArcInspector inspector, int nbQueries, long seed) {
+        if (nbQueries <= 0) {
+            throw new IllegalArgumentException("invalid number of queries: " + nbQueries);
+        }
+        if (graph.size() < 2) {
+            throw new IllegalArgumentException("invalid graph size: " + graph.size());
+        }
+        Random random = new Random(seed);
+        this.queries = new ShortestPathData[nbQueries];
+        for (int i = 0; i < nbQueries; ++i) {
+            int origin = random.nextInt(graph.size()), destination;
+            do {
+                destination = random.nextInt(graph.size());
+            }
+            while (destination == origin);
+            this.queries[i] = new ShortestPathData(graph, graph.get(origin),
+                    graph.get(destination), inspector);
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Read the graph stored in the given file.
+     *
+     * @param path Path of the graph file (.mapgr).
+     *
+     * @return The graph read.
+     *
+     * @throws IllegalArgumentException if no path is given.
+     * @throws IOException if the graph cannot be read.
+     */
+    public static Graph readGraph(String path) throws IOException {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "invalid map: no map given (e.g. -p map=/path/to/map.mapgr)");
+        }
+        return GraphReaderFactory.createGraphReader(new File(path)).read();
+    }
+
+    /**
+     * @param filterIndex Index of the filter in
+     *        {@link ArcInspectorFactory#getAllFilters()}.
+     *
+     * @return The corresponding arc inspector.
+     */
+    public static ArcInspector getFilter(int filterIndex) {
+        return ArcInspectorFactory.getAllFilters().get(filterIndex);
+    }
+
+    /**
+     * @return Number of queries in this set.
+     */
+    public int size() {
+        return this.queries.length;
+    }
+
+    /**
+     * @param index Index of the query.
+     *
+     * @return Query at the given index.
+     */
+    public ShortestPathData get(int index) {
+        return this.queries[index];
+    }
+
+    /**
+     * @return Next query of this set, going back to the first query after the
+     *         last one.
+     */
+    public ShortestPathData next() {
+        ShortestPathData query = this.queries[this.next];
+        this.next = (this.next + 1) % this.queries.length;
+        return query;
+    }
+
+}
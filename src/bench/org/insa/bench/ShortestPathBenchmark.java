@@ -0,0 +1,105 @@
+package org.insa.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.algo.shortestpath.AStarAlgorithm;
+import org.insa.algo.shortestpath.BellmanFordAlgorithm;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Benchmark of the shortest-path algorithms on a seeded set of random queries
+ * (see {@link QuerySet}). Each operation solves the next query of the set, so
+ * the throughput is a number of queries per second.
+ * </p>
+ *
+ * <p>
+ * The map must be given with {@code -p map=/path/to/map.mapgr}. Bellman-Ford
+ * runs in <i>O(nm)</i> and should only be measured on small maps (e.g. insa),
+ * use {@code -p algorithm=DIJKSTRA,A_STAR} on larger ones.
+ * </p>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortestPathBenchmark {
+
+    /**
+     * Algorithms measured by this benchmark.
+     */
+    public enum Algorithm {
+        DIJKSTRA, A_STAR, BELLMAN_FORD;
+
+        /**
+         * @param data Query to solve.
+         *
+         * @return A new algorithm of this kind for the given query.
+         */
+        public ShortestPathAlgorithm create(ShortestPathData data) {
+            switch (this) {
+            case A_STAR:
+                return new AStarAlgorithm(data);
+            case BELLMAN_FORD:
+                return new BellmanFordAlgorithm(data);
+            default:
+                return new DijkstraAlgorithm(data);
+            }
+        }
+    }
+
+    // Path of the map.
+    @Param({ "" })
+    public String map;
+
+    // Algorithm to measure.
+    @Param({ "DIJKSTRA", "A_STAR", "BELLMAN_FORD" })
+    public Algorithm algorithm;
+
+    // Index of the filter (0: all roads in length, 2: cars in time).
+    @Param({ "0", "2" })
+    public int filter;
+
+    // Number of queries, and seed used to draw them.
+    @Param({ "100" })
+    public int nbQueries;
+
+    @Param({ "42" })
+    public long seed;
+
+    // Queries to solve.
+    private QuerySet queries;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Graph graph = QuerySet.readGraph(this.map);
+        this.queries = new QuerySet(graph, QuerySet.getFilter(this.filter), this.nbQueries,
+                this.seed);
+    }
+
+    @Benchmark
+    public ShortestPathSolution query() {
+        return this.algorithm.create(this.queries.next()).run();
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.insa.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Benchmark of the traversal of the successors of the nodes of a graph, comparing
+ * the iterator-based traversal ({@link Node#iterator()}) with the indexed,
+ * allocation-free traversal ({@link Node#getSuccessor(int)}). Each operation
+ * sums the lengths of all the arcs of the graph, and the GC profiler
+ * ({@code -prof gc}) reports the bytes allocated per traversal.
+ * </p>
+ *
+ * <p>
+ * The map must be given with {@code -p map=/path/to/map.mapgr}, preferably a
+ * large (e.g. belgium) one. Dijkstra queries, which also traverse successors,
+ * are measured by {@link ShortestPathBenchmark}.
+ * </p>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuccessorIterationBenchmark {
+
+    // Path of the map.
+    @Param({ "" })
+    public String map;
+
+    // Graph to traverse.
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.graph = QuerySet.readGraph(this.map);
+    }
+
+    @Benchmark
+    public double iterators() {
+        double total = 0;
+        for (Node node: this.graph.getNodes()) {
+            for (Arc arc: node) {
+                total += arc.getLength();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double indices() {
+        double total = 0;
+        for (int n = 0; n < this.graph.size(); ++n) {
+            Node node = this.graph.get(n);
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                total += node.getSuccessor(i).getLength();
+            }
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,29 @@
+#!/bin/sh
+#
+# Build and run the JMH benchmarks of src/bench.
+#
+# Usage: src/bench/run.sh [map.mapgr] [results.json] [regexp...]
+# (see org.insa.bench.BenchmarkMain).
+#
+# The JMH jars are not part of the repository, they must be copied in libs/jmh:
+#   jmh-core-1.37.jar, jmh-generator-annprocess-1.37.jar (org.openjdk.jmh),
+#   jopt-simple-5.0.4.jar (net.sf.jopt-simple), commons-math3-3.6.1.jar
+#   (org.apache.commons), all available on Maven Central.
+
+cd "$(dirname "$0")/../.." || exit 1
+
+if ! ls libs/jmh/jmh-core-*.jar libs/jmh/jmh-generator-annprocess-*.jar >/dev/null 2>&1; then
+    echo "JMH not found, copy the jars listed in $0 in libs/jmh" >&2
+    exit 1
+fi
+
+CLASSES=target/bench-classes
+CP="libs/*:libs/jmh/*:res"
+
+# javac does not expand wildcards in the processor path.
+PROCESSOR_PATH=$(ls libs/jmh/*.jar | tr '\n' ':')
+
+rm -rf "$CLASSES" && mkdir -p "$CLASSES" || exit 1
+javac -encoding UTF-8 -nowarn -d "$CLASSES" -cp "$CP" -processorpath "$PROCESSOR_PATH" \
+    $(find src/main src/bench -name "*.java") || exit 1
+java -cp "$CLASSES:$CP" org.insa.bench.BenchmarkMain "$@"
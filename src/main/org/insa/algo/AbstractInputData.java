@@ -81,6 +81,26 @@ public abstract class AbstractInputData {
         return this.arcInspector.getMaximumSpeed();
     }
 
+    /**
+     * @return Arc inspector associated with this input data.
+     */
+    public ArcInspector getArcInspector() {
+        return this.arcInspector;
+    }
+
+    /**
+     * Retrieve the compiled version of the arc inspector of this input data for
+     * its graph, which gives the costs and permissions of the arcs by index in
+     * the compact representation of the graph.
+     * 
+     * @return Compiled arc inspector for this input data.
+     * 
+     * @see CompiledArcInspector#of(Graph, ArcInspector)
+     */
+    public CompiledArcInspector getCompiledArcInspector() {
+        return CompiledArcInspector.of(this.graph, this.arcInspector);
+    }
+
     /**
      * Check if the given arc is allowed for the filter corresponding to this input.
      * 
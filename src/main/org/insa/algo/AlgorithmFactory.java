@@ -7,9 +7,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.insa.algo.arcflags.ArcFlagsAlgorithm;
+import org.insa.algo.contraction.ContractionHierarchyAlgorithm;
+import org.insa.algo.landmarks.ALTAlgorithm;
+import org.insa.algo.overlay.CRPAlgorithm;
 import org.insa.algo.shortestpath.AStarAlgorithm;
 import org.insa.algo.shortestpath.BellmanFordAlgorithm;
+import org.insa.algo.shortestpath.BidirectionalAStarAlgorithm;
+import org.insa.algo.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.algo.shortestpath.DeltaSteppingAlgorithm;
 import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.PrimitiveDijkstraAlgorithm;
+import org.insa.algo.shortestpath.RadixDijkstraAlgorithm;
 import org.insa.algo.shortestpath.ShortestPathAlgorithm;
 import org.insa.algo.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
@@ -32,6 +41,23 @@ public class AlgorithmFactory {
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford", BellmanFordAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra", DijkstraAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (primitive)",
+                PrimitiveDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (radix heap)",
+                RadixDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (bidirectional)",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (bidirectional)",
+                BidirectionalAStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Delta-stepping",
+                DeltaSteppingAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (landmarks)", ALTAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (arc-flags)",
+                ArcFlagsAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction hierarchies",
+                ContractionHierarchyAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Customizable route planning",
+                CRPAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
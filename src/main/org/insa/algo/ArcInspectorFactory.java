@@ -12,10 +12,34 @@ import org.insa.graph.GraphStatistics;
 
 public class ArcInspectorFactory {
 
+    // Restrictions of roads that are open (not forbidden and not private).
+    private static final int OPEN_ROAD_RESTRICTIONS = AccessRestriction.maskOf(EnumSet
+            .complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+
+    // Filters of this factory, created once so that the same instances are always
+    // returned (see CompiledArcInspector).
+    private static final List<ArcInspector> FILTERS = createFilters();
+
     /**
+     * <p>
+     * Retrieve all the arc filters of this factory.
+     * </p>
+     * 
+     * <p>
+     * Filters are only created once, so each call returns the same instances (in
+     * a new list).
+     * </p>
+     * 
      * @return List of all arc filters in this factory.
      */
     public static List<ArcInspector> getAllFilters() {
+        return new ArrayList<>(FILTERS);
+    }
+
+    /**
+     * @return A new list containing new instances of all the filters.
+     */
+    private static List<ArcInspector> createFilters() {
         List<ArcInspector> filters = new ArrayList<>();
 
         // Common filters:
@@ -53,8 +77,7 @@ public class ArcInspectorFactory {
             @Override
             public boolean isAllowed(Arc arc) {
                 return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.MOTORCAR, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+                        .isAllowedForAny(AccessMode.MOTORCAR, OPEN_ROAD_RESTRICTIONS);
             }
 
             @Override
@@ -111,8 +134,7 @@ public class ArcInspectorFactory {
             @Override
             public boolean isAllowed(Arc arc) {
                 return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.MOTORCAR, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+                        .isAllowedForAny(AccessMode.MOTORCAR, OPEN_ROAD_RESTRICTIONS);
             }
 
             @Override
@@ -142,8 +164,7 @@ public class ArcInspectorFactory {
             @Override
             public boolean isAllowed(Arc arc) {
                 return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.FOOT, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+                        .isAllowedForAny(AccessMode.FOOT, OPEN_ROAD_RESTRICTIONS);
             }
 
             @Override
@@ -0,0 +1,124 @@
+package org.insa.algo;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Pre-computed costs and permissions of an {@link ArcInspector} for all the
+ * arcs of a graph, indexed by the arc indices of the {@link CompactGraph} of the
+ * graph.
+ * </p>
+ *
+ * <p>
+ * The inspector is evaluated once for each arc when the compiled inspector is
+ * created, and compiled inspectors are cached for each pair (graph, inspector),
+ * so {@link #isAllowed(int)} and {@link #getCost(int)} are simple array lookups.
+ * Inspectors are compared by reference (see
+ * {@link ArcInspectorFactory#getAllFilters()}), and must not change over time.
+ * Both the graphs and the inspectors are weak keys of the cache, so a compiled
+ * inspector is dropped as soon as its graph or its inspector is not used
+ * anymore (e.g. an inspector created for a single request).
+ * </p>
+ *
+ */
+public final class CompiledArcInspector {
+
+    // Cache of compiled inspectors, per graph and per inspector (a compiled
+    // inspector holds no reference to its graph or its inspector, otherwise the
+    // weak keys would never be collected).
+    private static final Map<Graph, Map<ArcInspector, CompiledArcInspector>> CACHE = new WeakHashMap<>();
+
+    /**
+     * Retrieve the compiled version of the given inspector for the given graph,
+     * compiling it if it has not been compiled yet.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> if the inspector has already been compiled
+     * for the graph, <i>O(m)</i> otherwise where <i>m</i> is the number of arcs.
+     * </p>
+     *
+     * @param graph Graph for which the inspector should be compiled.
+     * @param inspector Inspector to compile.
+     *
+     * @return The compiled inspector.
+     */
+    public static CompiledArcInspector of(Graph graph, ArcInspector inspector) {
+        CompiledArcInspector compiled;
+        synchronized (CACHE) {
+            Map<ArcInspector, CompiledArcInspector> inspectors = CACHE.get(graph);
+            compiled = inspectors == null ? null : inspectors.get(inspector);
+        }
+        if (compiled == null) {
+            compiled = new CompiledArcInspector(graph.getCompactGraph(), inspector);
+            synchronized (CACHE) {
+                compiled = CACHE.computeIfAbsent(graph, g -> new WeakHashMap<>())
+                        .merge(inspector, compiled, (previous, current) -> previous);
+            }
+        }
+        return compiled;
+    }
+
+    // Cost of each arc.
+    private final float[] costs;
+
+    // Allowed arcs (one bit per arc).
+    private final long[] allowed;
+
+    /**
+     * Compile the given inspector for all the arcs of the given graph.
+     *
+     * @param graph Graph containing the arcs.
+     * @param inspector Inspector to compile.
+     */
+    private CompiledArcInspector(CompactGraph graph, ArcInspector inspector) {
+        final int nbArcs = graph.getArcCount();
+        this.costs = new float[nbArcs];
+        this.allowed = new long[(nbArcs + 63) >>> 6];
+        for (int index = 0; index < nbArcs; ++index) {
+            Arc arc = graph.getArc(index);
+            if (inspector.isAllowed(arc)) {
+                this.allowed[index >>> 6] |= 1L << index;
+            }
+            this.costs[index] = (float) inspector.getCost(arc);
+        }
+    }
+
+    /**
+     * @return Number of arcs in this compiled inspector.
+     */
+    public int getArcCount() {
+        return this.costs.length;
+    }
+
+    /**
+     * Check if the given arc can be used (is allowed).
+     *
+     * @param arc Index of the arc to check.
+     *
+     * @return true if the given arc is allowed.
+     *
+     * @see ArcInspector#isAllowed(Arc)
+     */
+    public boolean isAllowed(int arc) {
+        return (this.allowed[arc >>> 6] & (1L << arc)) != 0;
+    }
+
+    /**
+     * Find the cost of the given arc.
+     *
+     * @param arc Index of the arc for which the cost should be returned.
+     *
+     * @return Cost of the arc.
+     *
+     * @see ArcInspector#getCost(Arc)
+     */
+    public float getCost(int arc) {
+        return this.costs[arc];
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.insa.algo.arcflags;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+
+/**
+ * <p>
+ * Arc-flags of a graph for a given {@link ArcInspector}: the nodes of the graph
+ * are partitioned into regions, and each arc has one flag per region, set if the
+ * arc is on a shortest path to a node of the region.
+ * </p>
+ *
+ * <p>
+ * A search towards a destination only needs to follow the arcs flagged for the
+ * region of the destination. Flags are stored in a {@code long} array indexed by
+ * arc (index in the {@link org.insa.graph.CompactGraph} of the graph) then by
+ * word, so the flags of an arc are contiguous.
+ * </p>
+ *
+ * @see ArcFlagsBuilder
+ * @see ArcFlagsFactory
+ */
+public final class ArcFlags {
+
+    // ID of the map and key of the inspector.
+    private final String mapId, inspectorKey;
+
+    // Region of each node, and number of regions.
+    private final int[] regions;
+    private final int nbRegions;
+
+    // Number of words per arc, and flags (arc * nbWords + region / 64).
+    private final int nbWords;
+    private final long[] flags;
+
+    /**
+     * Create new arc-flags.
+     *
+     * @param mapId ID of the map of the flags.
+     * @param inspectorKey Key of the inspector used to compute the flags.
+     * @param regions Region of each node.
+     * @param nbRegions Number of regions.
+     * @param flags Flags of the arcs.
+     */
+    ArcFlags(String mapId, String inspectorKey, int[] regions, int nbRegions, long[] flags) {
+        if (flags.length % getWordCount(nbRegions) != 0) {
+            throw new IllegalArgumentException("invalid size of flags");
+        }
+        this.mapId = mapId;
+        this.inspectorKey = inspectorKey;
+        this.regions = regions;
+        this.nbRegions = nbRegions;
+        this.nbWords = getWordCount(nbRegions);
+        this.flags = flags;
+    }
+
+    /**
+     * @param nbRegions Number of regions.
+     *
+     * @return Number of words needed to store the flags of an arc.
+     */
+    static int getWordCount(int nbRegions) {
+        return Math.max(1, (nbRegions + 63) / 64);
+    }
+
+    /**
+     * @return ID of the map of these flags.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Key of the inspector used to compute the flags.
+     *
+     * @see PreprocessingCache#getInspectorKey(ArcInspector)
+     */
+    public String getInspectorKey() {
+        return this.inspectorKey;
+    }
+
+    /**
+     * @return Number of nodes in the graph of these flags.
+     */
+    public int getNodeCount() {
+        return this.regions.length;
+    }
+
+    /**
+     * @return Number of arcs in the graph of these flags.
+     */
+    public int getArcCount() {
+        return this.flags.length / this.nbWords;
+    }
+
+    /**
+     * @return Number of regions.
+     */
+    public int getRegionCount() {
+        return this.nbRegions;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Region of the node.
+     */
+    public int getRegion(int node) {
+        return this.regions[node];
+    }
+
+    /**
+     * @param arc Index of the arc in the compact graph.
+     * @param region Region to check.
+     *
+     * @return true if the arc is on a shortest path to a node of the region.
+     */
+    public boolean isFlagged(int arc, int region) {
+        return (this.flags[arc * this.nbWords + (region >>> 6)] & (1L << region)) != 0;
+    }
+
+    /**
+     * @return Regions of the nodes (not copied).
+     */
+    int[] getRegions() {
+        return this.regions;
+    }
+
+    /**
+     * @return Flags of the arcs (not copied).
+     */
+    long[] getFlags() {
+        return this.flags;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[map=%s, inspector=%s, #regions=%d]", getClass().getSimpleName(),
+                getMapId(), getInspectorKey(), getRegionCount());
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.insa.algo.arcflags;
+
+import org.insa.algo.shortestpath.PrimitiveDijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm with arc-flags: arcs whose flag for the
+ * region of the destination is not set are skipped.
+ * </p>
+ * 
+ * <p>
+ * Arc-flags are retrieved from {@link ArcFlagsFactory} for the graph and the arc
+ * inspector of the input data, so the pruning is exact for any cost (e.g. travel
+ * times in {@link org.insa.algo.AbstractInputData.Mode#TIME}). The first run on a
+ * graph may therefore be slow if the flags have to be built.
+ * </p>
+ *
+ */
+public class ArcFlagsAlgorithm extends PrimitiveDijkstraAlgorithm {
+
+    // Flags of the graph and region of the destination for the current run.
+    private ArcFlags flags;
+    private int region;
+
+    public ArcFlagsAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected boolean isPruned(int arc) {
+        return !this.flags.isFlagged(arc, this.region);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        this.flags = ArcFlagsFactory.getArcFlags(data.getGraph(), data.getArcInspector());
+        this.region = this.flags.getRegion(data.getDestination().getId());
+        return super.doRun();
+    }
+
+}
@@ -0,0 +1,334 @@
+package org.insa.algo.arcflags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.GraphStatistics;
+import org.insa.graph.GraphStatistics.BoundingBox;
+
+/**
+ * <p>
+ * Builder of {@link ArcFlags} for a given partition of the nodes into regions
+ * (e.g. a grid over the bounding box of the graph, see
+ * {@link #createGridPartition(Graph, int, int)}).
+ * </p>
+ *
+ * <p>
+ * The flag of a region is set for all the arcs between two nodes of the region,
+ * and for all the arcs on a shortest path to a boundary node of the region (a
+ * node of the region with an incoming arc from another region). These arcs are
+ * found with a one-to-all Dijkstra's algorithm from each boundary node on the
+ * transpose graph: an arc <i>(u, v)</i> is on a shortest path to the boundary
+ * node <i>b</i> if <i>d(u, b) = cost(u, v) + d(v, b)</i>.
+ * </p>
+ *
+ * <p>
+ * Regions are processed in parallel by a pool of threads, so the preprocessing
+ * time is roughly the number of boundary nodes times the time of a one-to-all
+ * run, divided by the number of threads.
+ * </p>
+ *
+ */
+public class ArcFlagsBuilder {
+
+    // Relative tolerance when checking if an arc is on a shortest path.
+    private static final double EPSILON = 1e-6;
+
+    /**
+     * Partition the nodes of the given graph with a grid over its bounding box.
+     * Empty cells are ignored, so the number of regions may be lower than the
+     * number of cells. Nodes without coordinates are put in the first region.
+     *
+     * @param graph Graph to partition.
+     * @param rows Number of rows of the grid.
+     * @param columns Number of columns of the grid.
+     *
+     * @return Region of each node, regions being numbered from 0 in the order of
+     *         the cells (row by row, from the top-left cell).
+     */
+    public static int[] createGridPartition(Graph graph, int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("invalid grid: " + rows + "x" + columns);
+        }
+        CompactGraph compactGraph = graph.getCompactGraph();
+        final int nbNodes = compactGraph.size();
+
+        // Bounding box of the graph (computed from the nodes if unknown).
+        float left = Float.POSITIVE_INFINITY, right = Float.NEGATIVE_INFINITY;
+        float top = Float.NEGATIVE_INFINITY, bottom = Float.POSITIVE_INFINITY;
+        GraphStatistics statistics = graph.getGraphInformation();
+        if (statistics != null && statistics.getBoundingBox() != null) {
+            BoundingBox box = statistics.getBoundingBox();
+            left = box.getTopLeftPoint().getLongitude();
+            top = box.getTopLeftPoint().getLatitude();
+            right = box.getBottomRightPoint().getLongitude();
+            bottom = box.getBottomRightPoint().getLatitude();
+        }
+        else {
+            for (int node = 0; node < nbNodes; ++node) {
+                float longitude = compactGraph.getLongitude(node);
+                float latitude = compactGraph.getLatitude(node);
+                if (!Float.isNaN(longitude) && !Float.isNaN(latitude)) {
+                    left = Math.min(longitude, left);
+                    right = Math.max(longitude, right);
+                    bottom = Math.min(latitude, bottom);
+                    top = Math.max(latitude, top);
+                }
+            }
+        }
+
+        // Cell of each node.
+        int[] cells = new int[nbNodes];
+        boolean[] used = new boolean[rows * columns];
+        for (int node = 0; node < nbNodes; ++node) {
+            float longitude = compactGraph.getLongitude(node);
+            float latitude = compactGraph.getLatitude(node);
+            int cell = 0;
+            if (!Float.isNaN(longitude) && !Float.isNaN(latitude) && right > left
+                    && top > bottom) {
+                int row = (int) ((top - latitude) / (top - bottom) * rows);
+                int column = (int) ((longitude - left) / (right - left) * columns);
+                row = Math.max(0, Math.min(rows - 1, row));
+                column = Math.max(0, Math.min(columns - 1, column));
+                cell = row * columns + column;
+            }
+            cells[node] = cell;
+            used[cell] = true;
+        }
+
+        // Number the non-empty cells.
+        int[] regionOfCell = new int[used.length];
+        int nbRegions = 0;
+        for (int cell = 0; cell < used.length; ++cell) {
+            regionOfCell[cell] = used[cell] ? nbRegions++ : -1;
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            cells[node] = regionOfCell[cells[node]];
+        }
+        return cells;
+    }
+
+    // Graph and inspector.
+    private final Graph graph;
+    private final ArcInspector inspector;
+
+    // Compact graphs and compiled inspectors, forward and backward.
+    private final CompactGraph forwardGraph, backwardGraph;
+    private final CompiledArcInspector forwardInspector, backwardInspector;
+
+    // Number of threads used to process the regions.
+    private final int nbThreads;
+
+    /**
+     * Create a new builder for the given graph and inspector, using one thread per
+     * available processor.
+     *
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the costs.
+     */
+    public ArcFlagsBuilder(Graph graph, ArcInspector inspector) {
+        this(graph, inspector, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new builder for the given graph and inspector.
+     *
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the costs.
+     * @param nbThreads Number of threads used to process the regions.
+     */
+    public ArcFlagsBuilder(Graph graph, ArcInspector inspector, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.graph = graph;
+        this.inspector = inspector;
+        this.forwardGraph = graph.getCompactGraph();
+        this.backwardGraph = graph.getTransposeGraph().getCompactGraph();
+        this.forwardInspector = CompiledArcInspector.of(graph, inspector);
+        this.backwardInspector = CompiledArcInspector.of(graph.getTransposeGraph(), inspector);
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Compute the flags for a grid partition of the graph (see
+     * {@link #createGridPartition(Graph, int, int)}).
+     *
+     * @param rows Number of rows of the grid.
+     * @param columns Number of columns of the grid.
+     *
+     * @return The arc-flags.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     */
+    public ArcFlags build(int rows, int columns) throws InterruptedException {
+        return build(createGridPartition(this.graph, rows, columns));
+    }
+
+    /**
+     * Compute the flags for the given partition.
+     *
+     * @param regions Region of each node, regions being numbered from 0.
+     *
+     * @return The arc-flags.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     */
+    public ArcFlags build(int[] regions) throws InterruptedException {
+        final int nbNodes = this.forwardGraph.size();
+        final int nbArcs = this.forwardGraph.getArcCount();
+        if (regions.length != nbNodes) {
+            throw new IllegalArgumentException("invalid number of regions: " + regions.length);
+        }
+        int nbRegions = 0;
+        for (int region: regions) {
+            if (region < 0) {
+                throw new IllegalArgumentException("invalid region: " + region);
+            }
+            nbRegions = Math.max(region + 1, nbRegions);
+        }
+
+        // Compute the arcs of each region in parallel...
+        ExecutorService executor = Tasks.newFixedThreadPool(this.nbThreads, "arc-flags");
+        final int nbWords = ArcFlags.getWordCount(nbRegions);
+        long[] flags = new long[nbArcs * nbWords];
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int region = 0; region < nbRegions; ++region) {
+                futures.add(executor.submit(regionTask(regions, region)));
+            }
+
+            // ...and merge them.
+            for (int region = 0; region < nbRegions; ++region) {
+                long[] arcs = Tasks.await(futures.get(region));
+                final int word = region >>> 6;
+                final long mask = 1L << region;
+                for (int i = 0; i < arcs.length; ++i) {
+                    for (long bits = arcs[i]; bits != 0; bits &= bits - 1) {
+                        int arc = (i << 6) + Long.numberOfTrailingZeros(bits);
+                        flags[arc * nbWords + word] |= mask;
+                    }
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        return new ArcFlags(this.graph.getMapId(),
+                PreprocessingCache.getInspectorKey(this.inspector), regions, nbRegions, flags);
+    }
+
+    /**
+     * Create a task that computes the arcs flagged for the given region, as a
+     * bitset indexed by arc.
+     */
+    private Callable<long[]> regionTask(int[] regions, int region) {
+        return () -> {
+            final int nbNodes = this.forwardGraph.size();
+            long[] arcs = new long[(this.forwardGraph.getArcCount() + 63) >>> 6];
+
+            // Arcs inside the region.
+            for (int node = 0; node < nbNodes; ++node) {
+                if (regions[node] != region) {
+                    continue;
+                }
+                for (int arc = this.forwardGraph.getFirstArc(node); arc < this.forwardGraph
+                        .getEndArc(node); ++arc) {
+                    if (regions[this.forwardGraph.getTarget(arc)] == region
+                            && this.forwardInspector.isAllowed(arc)) {
+                        arcs[arc >>> 6] |= 1L << arc;
+                    }
+                }
+            }
+
+            // Arcs on shortest paths to the boundary nodes.
+            double[] distances = new double[nbNodes];
+            PrimitiveBinaryHeap heap = new PrimitiveBinaryHeap(nbNodes);
+            for (int node = 0; node < nbNodes; ++node) {
+                if (regions[node] == region && isBoundary(regions, node)) {
+                    computeDistancesTo(node, distances, heap);
+                    flagShortestPathArcs(distances, arcs);
+                }
+            }
+            return arcs;
+        };
+    }
+
+    /**
+     * @return true if the given node has an incoming arc from another region.
+     */
+    private boolean isBoundary(int[] regions, int node) {
+        for (int arc = this.backwardGraph.getFirstArc(node); arc < this.backwardGraph
+                .getEndArc(node); ++arc) {
+            if (regions[this.backwardGraph.getTarget(arc)] != regions[node]
+                    && this.backwardInspector.isAllowed(arc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the distances from all the nodes to the given node, with Dijkstra's
+     * algorithm on the transpose graph.
+     */
+    private void computeDistancesTo(int target, double[] distances, PrimitiveBinaryHeap heap) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        heap.clear();
+        distances[target] = 0;
+        heap.insert(target, 0);
+        while (!heap.isEmpty()) {
+            int node = heap.deleteMin();
+            double distance = distances[node];
+            for (int arc = this.backwardGraph.getFirstArc(node); arc < this.backwardGraph
+                    .getEndArc(node); ++arc) {
+                if (!this.backwardInspector.isAllowed(arc)) {
+                    continue;
+                }
+                int successor = this.backwardGraph.getTarget(arc);
+                double newDistance = distance + this.backwardInspector.getCost(arc);
+                if (newDistance < distances[successor]) {
+                    distances[successor] = newDistance;
+                    heap.insertOrDecreaseKey(successor, newDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flag the arcs that are on a shortest path according to the given distances
+     * to a node.
+     */
+    private void flagShortestPathArcs(double[] distances, long[] arcs) {
+        for (int node = 0; node < distances.length; ++node) {
+            double distance = distances[node];
+            if (Double.isInfinite(distance)) {
+                continue;
+            }
+            for (int arc = this.forwardGraph.getFirstArc(node); arc < this.forwardGraph
+                    .getEndArc(node); ++arc) {
+                if (this.forwardInspector.isAllowed(arc)
+                        && distances[this.forwardGraph.getTarget(arc)]
+                                + this.forwardInspector.getCost(arc) <= distance
+                                        + EPSILON * Math.max(1, distance)) {
+                    arcs[arc >>> 6] |= 1L << arc;
+                }
+            }
+        }
+    }
+
+}
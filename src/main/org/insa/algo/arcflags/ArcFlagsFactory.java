@@ -0,0 +1,131 @@
+package org.insa.algo.arcflags;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Factory class used to retrieve the {@link ArcFlags} of a graph for a given
+ * {@link ArcInspector}.
+ * </p>
+ * 
+ * <p>
+ * Arc-flags are cached per graph and per inspector (see
+ * {@link PreprocessingCache}). If the {@link PreprocessingCache#DIRECTORY_PROPERTY}
+ * system property is set, arc-flags are read from the corresponding directory
+ * (see {@link #getArcFlagsFile(File, Graph, ArcInspector)}), or built and then
+ * saved into it if no valid file is found.
+ * </p>
+ *
+ */
+public class ArcFlagsFactory {
+
+    /**
+     * Number of rows and columns of the grid used by
+     * {@link #getArcFlags(Graph, ArcInspector)}.
+     */
+    public static final int DEFAULT_GRID_ROWS = 8, DEFAULT_GRID_COLUMNS = 8;
+
+    // Cache of arc-flags, per graph and per inspector.
+    private static final PreprocessingCache<ArcFlags> CACHE = new PreprocessingCache<>();
+
+    /**
+     * Retrieve the arc-flags of the given graph for the given inspector, reading
+     * or building them if they are not in the cache.
+     * 
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the flags.
+     * 
+     * @return The arc-flags of the graph for the inspector.
+     */
+    public static ArcFlags getArcFlags(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> {
+            File directory = PreprocessingCache.getDirectory();
+            return PreprocessingCache.readOrBuild(
+                    directory == null ? null : getArcFlagsFile(directory, graph, inspector),
+                    file -> readArcFlags(file, graph, inspector),
+                    () -> buildArcFlags(graph, inspector), ArcFlagsFactory::writeArcFlags);
+        });
+    }
+
+    /**
+     * Build arc-flags for the given graph and inspector, with the default grid.
+     * 
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the flags.
+     * 
+     * @return The new arc-flags.
+     */
+    public static ArcFlags buildArcFlags(Graph graph, ArcInspector inspector) {
+        try {
+            return new ArcFlagsBuilder(graph, inspector).build(DEFAULT_GRID_ROWS,
+                    DEFAULT_GRID_COLUMNS);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while building arc-flags", exception);
+        }
+    }
+
+    /**
+     * Retrieve the file storing the arc-flags of the given graph for the given
+     * inspector in the given directory. The name of the file is made of the ID of
+     * the map and a hash of the key of the inspector.
+     * 
+     * @param directory Directory containing the flags.
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the flags.
+     * 
+     * @return The arc-flags file (which may not exist).
+     */
+    public static File getArcFlagsFile(File directory, Graph graph, ArcInspector inspector) {
+        return PreprocessingCache.getFile(directory, graph,
+                PreprocessingCache.getInspectorKey(inspector), "mapaf");
+    }
+
+    /**
+     * Read arc-flags from the given file.
+     * 
+     * @param file File to read.
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the flags.
+     * 
+     * @return The arc-flags read.
+     * 
+     * @throws IOException if the file cannot be read or does not contain
+     *         arc-flags for the given graph and inspector.
+     */
+    public static ArcFlags readArcFlags(File file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return new BinaryArcFlagsReader(dis).readArcFlags(graph, inspector);
+        }
+    }
+
+    /**
+     * Write arc-flags to the given file.
+     * 
+     * @param file File to write.
+     * @param flags Arc-flags to write.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeArcFlags(File file, ArcFlags flags) throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            new BinaryArcFlagsWriter(dos).writeArcFlags(flags);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.insa.algo.arcflags;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+import org.insa.graph.io.BadFormatException;
+import org.insa.graph.io.BinaryReader;
+import org.insa.graph.io.MapMismatchException;
+
+/**
+ * <p>
+ * Reader of {@link ArcFlags} in binary format.
+ * </p>
+ * 
+ * <p>
+ * An arc-flags file contains the ID of the map (32 bytes, like graph files), the
+ * key of the arc inspector (see {@link PreprocessingCache#getInspectorKey(ArcInspector)}),
+ * the number of nodes and of regions, the region of each node, and then the
+ * number of arcs and the flags of each arc as {@code long} words.
+ * </p>
+ *
+ */
+public class BinaryArcFlagsReader extends BinaryReader {
+
+    // Map version and magic number targeted for this reader.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x1A4D3AF1;
+
+    // Length of the map id field (in bytes)
+    protected static final int MAP_ID_FIELD_LENGTH = 32;
+
+    /**
+     * Create a new BinaryArcFlagsReader that read from the given input stream.
+     * 
+     * @param dis Input stream to read from.
+     */
+    public BinaryArcFlagsReader(DataInputStream dis) {
+        super(MAGIC_NUMBER, VERSION, dis);
+    }
+
+    /**
+     * Read arc-flags for the given graph and inspector, and close the input
+     * stream.
+     * 
+     * @param graph Graph of the flags.
+     * @param inspector Inspector used to compute the flags.
+     * 
+     * @return Arc-flags read.
+     * 
+     * @throws MapMismatchException if the flags are not for the given graph.
+     * @throws BadFormatException if the flags were computed for another
+     *         inspector, or if the content of the file is invalid.
+     * @throws IOException if an error occurs while reading.
+     */
+    public ArcFlags readArcFlags(Graph graph, ArcInspector inspector) throws IOException {
+
+        // Read and check magic number and version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map ID and inspector key, and check against graph and inspector.
+        String mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        String inspectorKey = dis.readUTF();
+        if (!inspectorKey.equals(PreprocessingCache.getInspectorKey(inspector))) {
+            throw new BadFormatException();
+        }
+
+        // Read regions.
+        int nbNodes = dis.readInt();
+        int nbRegions = dis.readInt();
+        if (nbNodes != graph.size() || nbRegions < 1) {
+            throw new BadFormatException();
+        }
+        int[] regions = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            regions[node] = dis.readInt();
+            if (regions[node] < 0 || regions[node] >= nbRegions) {
+                throw new BadFormatException();
+            }
+        }
+        checkByteOrThrow(255);
+
+        // Read flags.
+        int nbArcs = dis.readInt();
+        if (nbArcs != graph.getCompactGraph().getArcCount()) {
+            throw new BadFormatException();
+        }
+        long[] flags = new long[nbArcs * ArcFlags.getWordCount(nbRegions)];
+        for (int i = 0; i < flags.length; ++i) {
+            flags[i] = dis.readLong();
+        }
+        checkByteOrThrow(254);
+
+        this.dis.close();
+
+        return new ArcFlags(mapId, inspectorKey, regions, nbRegions, flags);
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.insa.algo.arcflags;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graph.io.BinaryWriter;
+
+/**
+ * Writer of {@link ArcFlags} in binary format (see {@link BinaryArcFlagsReader}).
+ *
+ */
+public class BinaryArcFlagsWriter extends BinaryWriter {
+
+    /**
+     * Create a new BinaryArcFlagsWriter that writes to the given output stream.
+     * 
+     * @param dos Output stream to write to.
+     */
+    public BinaryArcFlagsWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given arc-flags and close the output stream.
+     * 
+     * @param flags Arc-flags to write.
+     * 
+     * @throws IOException if an error occurs while writing.
+     */
+    public void writeArcFlags(ArcFlags flags) throws IOException {
+
+        // Write magic number and version.
+        dos.writeInt(BinaryArcFlagsReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryArcFlagsReader.VERSION);
+
+        // Write map id and inspector key.
+        byte[] bytes = Arrays.copyOf(flags.getMapId().getBytes("UTF-8"),
+                BinaryArcFlagsReader.MAP_ID_FIELD_LENGTH);
+        dos.write(bytes);
+        dos.writeUTF(flags.getInspectorKey());
+
+        // Write regions.
+        dos.writeInt(flags.getNodeCount());
+        dos.writeInt(flags.getRegionCount());
+        for (int region: flags.getRegions()) {
+            dos.writeInt(region);
+        }
+        dos.writeByte(255);
+
+        // Write flags.
+        dos.writeInt(flags.getArcCount());
+        for (long word: flags.getFlags()) {
+            dos.writeLong(word);
+        }
+        dos.writeByte(254);
+
+        dos.flush();
+        dos.close();
+    }
+
+}
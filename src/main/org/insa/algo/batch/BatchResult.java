@@ -0,0 +1,122 @@
+package org.insa.algo.batch;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.algo.shortestpath.ShortestPathSolution;
+
+/**
+ * <p>
+ * Solutions of a batch of shortest-path queries run by a
+ * {@link BatchRoutingService}, with the throughput of the batch and the
+ * distribution of the latencies of its queries.
+ * </p>
+ *
+ * <p>
+ * The latency of a query is the time spent running its algorithm on a worker,
+ * not including the time spent waiting for a worker.
+ * </p>
+ *
+ */
+public final class BatchResult {
+
+    // Solutions, in the order of the queries.
+    private final List<ShortestPathSolution> solutions;
+
+    // Latencies of the queries (in nanoseconds), sorted.
+    private final long[] latencies;
+
+    // Time between the submission of the first query and the completion of the
+    // last one (in nanoseconds).
+    private final long elapsedTime;
+
+    /**
+     * Create a new result.
+     *
+     * @param solutions Solutions, in the order of the queries.
+     * @param latencies Latency of each query (in nanoseconds).
+     * @param elapsedTime Time taken by the whole batch (in nanoseconds).
+     */
+    BatchResult(List<ShortestPathSolution> solutions, long[] latencies, long elapsedTime) {
+        this.solutions = Collections.unmodifiableList(solutions);
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * @return Number of queries in the batch.
+     */
+    public int size() {
+        return this.solutions.size();
+    }
+
+    /**
+     * @return Solutions of the queries, in the order in which the queries were
+     *         given.
+     */
+    public List<ShortestPathSolution> getSolutions() {
+        return this.solutions;
+    }
+
+    /**
+     * @return Time between the submission of the first query and the completion
+     *         of the last one.
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(this.elapsedTime);
+    }
+
+    /**
+     * @return Number of queries completed per second (0 for an empty batch).
+     */
+    public double getThroughput() {
+        return this.elapsedTime == 0 ? 0 : size() * 1e9 / this.elapsedTime;
+    }
+
+    /**
+     * Retrieve a percentile of the latencies, using the nearest-rank method.
+     *
+     * @param percentile Percentile to retrieve, in {@code [0, 100]} (e.g. 50 for
+     *        the median, 100 for the maximum).
+     *
+     * @return Latency below which the given percentage of the queries fall (0 for
+     *         an empty batch).
+     */
+    public Duration getLatency(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("invalid percentile: " + percentile);
+        }
+        if (this.latencies.length == 0) {
+            return Duration.ZERO;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * this.latencies.length);
+        return Duration.ofNanos(this.latencies[Math.max(rank - 1, 0)]);
+    }
+
+    /**
+     * @return Mean latency of the queries (0 for an empty batch).
+     */
+    public Duration getMeanLatency() {
+        if (this.latencies.length == 0) {
+            return Duration.ZERO;
+        }
+        long total = 0;
+        for (long latency: this.latencies) {
+            total += latency;
+        }
+        return Duration.ofNanos(total / this.latencies.length);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s[#queries=%d, elapsed=%.1fms, throughput=%.1f/s, p50=%.3fms, p90=%.3fms, p99=%.3fms, max=%.3fms]",
+                getClass().getSimpleName(), size(), this.elapsedTime / 1e6, getThroughput(),
+                getLatency(50).toNanos() / 1e6, getLatency(90).toNanos() / 1e6,
+                getLatency(99).toNanos() / 1e6, getLatency(100).toNanos() / 1e6);
+    }
+
+}
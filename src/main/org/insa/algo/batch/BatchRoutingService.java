@@ -0,0 +1,264 @@
+package org.insa.algo.batch;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.insa.algo.shortestpath.ShortestPathAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.algo.utils.SearchWorkspace;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Service running batches of shortest-path queries concurrently on a single
+ * graph.
+ * </p>
+ *
+ * <p>
+ * Each query creates its own algorithm (see the function given when creating
+ * the service), so no mutable state is shared between the queries: the graph
+ * and the data derived from it (compact graph, compiled inspectors,
+ * heuristics, etc.) are read-only, and the search state of each worker is
+ * borrowed from the pool of {@link SearchWorkspace} of its thread. Queries can
+ * be run either by a fixed pool of threads (see
+ * {@link #withFixedThreadPool(Graph, Function, int)}) or by one virtual thread
+ * per query when the runtime supports them (see
+ * {@link #withVirtualThreads(Graph, Function)}).
+ * </p>
+ *
+ * <pre>
+ * try (BatchRoutingService service = BatchRoutingService.withFixedThreadPool(graph,
+ *         PrimitiveDijkstraAlgorithm::new, 8)) {
+ *     BatchResult result = service.run(queries);
+ *     System.out.println(result.getThroughput() + " " + result.getLatency(99));
+ * }
+ * </pre>
+ *
+ */
+public class BatchRoutingService implements AutoCloseable {
+
+    /**
+     * @return true if virtual threads are available in the current runtime (Java
+     *         21 or later).
+     */
+    public static boolean isVirtualThreadAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        }
+        catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Create a new service running the queries on a fixed pool of threads.
+     *
+     * @param graph Graph of the queries.
+     * @param algorithm Function creating the algorithm of a query.
+     * @param nbThreads Number of threads of the pool.
+     *
+     * @return A new service, owning its pool of threads.
+     */
+    public static BatchRoutingService withFixedThreadPool(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithm,
+            int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        ExecutorService executor = Tasks.newFixedThreadPool(nbThreads, "batch-routing");
+        return new BatchRoutingService(graph, algorithm, executor, true, false);
+    }
+
+    /**
+     * Create a new service running each query on its own virtual thread.
+     *
+     * @param graph Graph of the queries.
+     * @param algorithm Function creating the algorithm of a query.
+     *
+     * @return A new service, owning its executor.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not available
+     *         (see {@link #isVirtualThreadAvailable()}).
+     */
+    public static BatchRoutingService withVirtualThreads(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithm) {
+        // The executor is retrieved by reflection so that this class can be
+        // compiled and used on older runtimes.
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (NoSuchMethodException exception) {
+            throw new UnsupportedOperationException(
+                    "virtual threads are not available in this runtime");
+        }
+        catch (IllegalAccessException | InvocationTargetException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return new BatchRoutingService(graph, algorithm, executor, true, true);
+    }
+
+    // Graph of the queries.
+    private final Graph graph;
+
+    // Function creating the algorithm of a query.
+    private final Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithm;
+
+    // Executor running the queries, and true if it is owned by this service.
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    // true if the executor uses a new thread for each query, in which case the
+    // workspaces of the thread are released after each query.
+    private final boolean threadPerQuery;
+
+    /**
+     * Create a new service running the queries on the given executor. The
+     * executor is not shut down when this service is closed.
+     *
+     * @param graph Graph of the queries.
+     * @param algorithm Function creating the algorithm of a query.
+     * @param executor Executor running the queries.
+     */
+    public BatchRoutingService(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithm,
+            ExecutorService executor) {
+        this(graph, algorithm, executor, false, false);
+    }
+
+    private BatchRoutingService(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithm,
+            ExecutorService executor, boolean ownsExecutor, boolean threadPerQuery) {
+        this.graph = graph;
+        this.algorithm = algorithm;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.threadPerQuery = threadPerQuery;
+
+        // Create the shared compact graph now rather than in the first queries.
+        graph.getCompactGraph();
+    }
+
+    /**
+     * @return Graph of the queries of this service.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Run the given queries and wait for their solutions.
+     *
+     * @param queries Queries to run, all on the graph of this service.
+     *
+     * @return Solutions of the queries, in the same order, and statistics of the
+     *         batch.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the solutions.
+     */
+    public BatchResult run(Collection<ShortestPathData> queries) throws InterruptedException {
+        return run(queries.iterator());
+    }
+
+    /**
+     * Run the given queries and wait for their solutions. Queries are submitted
+     * while the stream is consumed, so the first queries may be running before
+     * the last ones are created.
+     *
+     * @param queries Queries to run, all on the graph of this service.
+     *
+     * @return Solutions of the queries, in the same order, and statistics of the
+     *         batch.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the solutions.
+     */
+    public BatchResult run(Stream<ShortestPathData> queries) throws InterruptedException {
+        return run(queries.iterator());
+    }
+
+    private BatchResult run(Iterator<ShortestPathData> queries) throws InterruptedException {
+        final long start = System.nanoTime();
+        List<Future<Query>> futures = new ArrayList<>();
+        try {
+            while (queries.hasNext()) {
+                ShortestPathData data = queries.next();
+                if (data.getGraph() != this.graph) {
+                    throw new IllegalArgumentException("query on another graph: " + data);
+                }
+                futures.add(this.executor.submit(() -> runQuery(data)));
+            }
+
+            List<ShortestPathSolution> solutions = new ArrayList<>(futures.size());
+            long[] latencies = new long[futures.size()];
+            for (int i = 0; i < latencies.length; ++i) {
+                Query query = Tasks.await(futures.get(i));
+                solutions.add(query.solution);
+                latencies[i] = query.latency;
+            }
+            return new BatchResult(solutions, latencies, System.nanoTime() - start);
+        }
+        finally {
+            // Do not leave queries running if the batch failed.
+            for (Future<Query> future: futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Run a single query on the current thread.
+     */
+    private Query runQuery(ShortestPathData data) {
+        try {
+            long start = System.nanoTime();
+            ShortestPathSolution solution = this.algorithm.apply(data).run();
+            return new Query(solution, System.nanoTime() - start);
+        }
+        finally {
+            if (this.threadPerQuery) {
+                SearchWorkspace.releaseThreadWorkspaces();
+            }
+        }
+    }
+
+    /**
+     * Stop the executor of this service if it has been created by the service.
+     * Batches cannot be run anymore after this call.
+     */
+    @Override
+    public void close() {
+        if (this.ownsExecutor) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Solution and latency of a query.
+     */
+    private static class Query {
+
+        final ShortestPathSolution solution;
+        final long latency;
+
+        Query(ShortestPathSolution solution, long latency) {
+            this.solution = solution;
+            this.latency = latency;
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.insa.algo.contraction;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+import org.insa.graph.io.BadFormatException;
+import org.insa.graph.io.BinaryReader;
+import org.insa.graph.io.MapMismatchException;
+
+/**
+ * <p>
+ * Reader of {@link ContractionHierarchy} in binary format.
+ * </p>
+ * 
+ * <p>
+ * A hierarchy file contains the ID of the map (32 bytes, like graph files), the
+ * key of the arc inspector (see
+ * {@link PreprocessingCache#getInspectorKey(ArcInspector)}), the number of
+ * nodes and the rank of each node, and then the number of edges and, for each
+ * edge, its source, target, cost (as {@code float}), middle node and children.
+ * </p>
+ *
+ */
+public class BinaryContractionHierarchyReader extends BinaryReader {
+
+    // Map version and magic number targeted for this reader.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x1A4D3C48;
+
+    // Length of the map id field (in bytes)
+    protected static final int MAP_ID_FIELD_LENGTH = 32;
+
+    /**
+     * Create a new BinaryContractionHierarchyReader that read from the given input
+     * stream.
+     * 
+     * @param dis Input stream to read from.
+     */
+    public BinaryContractionHierarchyReader(DataInputStream dis) {
+        super(MAGIC_NUMBER, VERSION, dis);
+    }
+
+    /**
+     * Read a hierarchy for the given graph and inspector, and close the input
+     * stream.
+     * 
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector used to compute the costs.
+     * 
+     * @return Hierarchy read.
+     * 
+     * @throws MapMismatchException if the hierarchy is not for the given graph.
+     * @throws BadFormatException if the hierarchy was computed for another
+     *         inspector, or if the content of the file is invalid.
+     * @throws IOException if an error occurs while reading.
+     */
+    public ContractionHierarchy readHierarchy(Graph graph, ArcInspector inspector)
+            throws IOException {
+
+        // Read and check magic number and version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map ID and inspector key, and check against graph and inspector.
+        String mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        String inspectorKey = dis.readUTF();
+        if (!inspectorKey.equals(PreprocessingCache.getInspectorKey(inspector))) {
+            throw new BadFormatException();
+        }
+
+        // Read ranks.
+        int nbNodes = dis.readInt();
+        if (nbNodes != graph.size()) {
+            throw new BadFormatException();
+        }
+        int[] ranks = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            ranks[node] = dis.readInt();
+        }
+        checkByteOrThrow(255);
+
+        // Read edges.
+        int nbEdges = dis.readInt();
+        int nbArcs = graph.getCompactGraph().getArcCount();
+        if (nbEdges < 0) {
+            throw new BadFormatException();
+        }
+        int[] sources = new int[nbEdges], targets = new int[nbEdges], middles = new int[nbEdges];
+        int[] firstChildren = new int[nbEdges], secondChildren = new int[nbEdges];
+        float[] costs = new float[nbEdges];
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            sources[edge] = dis.readInt();
+            targets[edge] = dis.readInt();
+            costs[edge] = dis.readFloat();
+            middles[edge] = dis.readInt();
+            firstChildren[edge] = dis.readInt();
+            secondChildren[edge] = dis.readInt();
+            if (sources[edge] < 0 || sources[edge] >= nbNodes || targets[edge] < 0
+                    || targets[edge] >= nbNodes) {
+                throw new BadFormatException();
+            }
+            if (middles[edge] == -1 ? firstChildren[edge] < 0 || firstChildren[edge] >= nbArcs
+                    : middles[edge] < 0 || middles[edge] >= nbNodes || firstChildren[edge] < 0
+                            || firstChildren[edge] >= nbEdges || secondChildren[edge] < 0
+                            || secondChildren[edge] >= nbEdges) {
+                throw new BadFormatException();
+            }
+        }
+        checkByteOrThrow(254);
+
+        this.dis.close();
+
+        return new ContractionHierarchy(mapId, inspectorKey, ranks, sources, targets, costs,
+                middles, firstChildren, secondChildren);
+    }
+
+}
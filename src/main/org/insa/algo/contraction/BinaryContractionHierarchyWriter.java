@@ -0,0 +1,68 @@
+package org.insa.algo.contraction;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graph.io.BinaryWriter;
+
+/**
+ * Writer of {@link ContractionHierarchy} in binary format (see
+ * {@link BinaryContractionHierarchyReader}).
+ *
+ */
+public class BinaryContractionHierarchyWriter extends BinaryWriter {
+
+    /**
+     * Create a new BinaryContractionHierarchyWriter that writes to the given
+     * output stream.
+     * 
+     * @param dos Output stream to write to.
+     */
+    public BinaryContractionHierarchyWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given hierarchy and close the output stream.
+     * 
+     * @param hierarchy Hierarchy to write.
+     * 
+     * @throws IOException if an error occurs while writing.
+     */
+    public void writeHierarchy(ContractionHierarchy hierarchy) throws IOException {
+
+        // Write magic number and version.
+        dos.writeInt(BinaryContractionHierarchyReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryContractionHierarchyReader.VERSION);
+
+        // Write map id and inspector key.
+        byte[] bytes = Arrays.copyOf(hierarchy.getMapId().getBytes("UTF-8"),
+                BinaryContractionHierarchyReader.MAP_ID_FIELD_LENGTH);
+        dos.write(bytes);
+        dos.writeUTF(hierarchy.getInspectorKey());
+
+        // Write ranks.
+        dos.writeInt(hierarchy.size());
+        for (int node = 0; node < hierarchy.size(); ++node) {
+            dos.writeInt(hierarchy.getRank(node));
+        }
+        dos.writeByte(255);
+
+        // Write edges.
+        dos.writeInt(hierarchy.getEdgeCount());
+        for (int edge = 0; edge < hierarchy.getEdgeCount(); ++edge) {
+            dos.writeInt(hierarchy.getSource(edge));
+            dos.writeInt(hierarchy.getTarget(edge));
+            dos.writeFloat(hierarchy.getCost(edge));
+            dos.writeInt(hierarchy.getMiddle(edge));
+            dos.writeInt(hierarchy.getFirstChild(edge));
+            dos.writeInt(hierarchy.getSecondChild(edge));
+        }
+        dos.writeByte(254);
+
+        dos.flush();
+        dos.close();
+    }
+
+}
@@ -0,0 +1,357 @@
+package org.insa.algo.contraction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.matrix.DistanceMatrix;
+import org.insa.algo.matrix.DistanceMatrixBuilder;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.Node;
+
+/**
+ * <p>
+ * Builder of {@link DistanceMatrix} using the buckets of a
+ * {@link ContractionHierarchy}.
+ * </p>
+ *
+ * <p>
+ * A backward upward search is run from each destination, and each node settled
+ * by this search stores the destination and its distance in its bucket. A
+ * forward upward search is then run from each origin, and the cost to each
+ * destination is the minimum, over the nodes settled by the search, of the
+ * distance to the node plus the distance stored in its buckets. Since the
+ * search spaces of a hierarchy are small, the cost of a matrix is roughly the
+ * cost of one query per origin and per destination, instead of one query per
+ * pair. Both kinds of searches are run in parallel on a pool of threads shared
+ * by the whole application (see {@link Tasks#getSharedPool(int)}).
+ * </p>
+ *
+ */
+public class BucketDistanceMatrixBuilder {
+
+    // Hierarchy used by the searches.
+    private final ContractionHierarchy hierarchy;
+
+    // Number of threads used to run the searches.
+    private final int nbThreads;
+
+    // Search states not used by a running search (at most one per thread is
+    // created). They are not kept per thread, since the threads of the shared pool
+    // outlive this builder.
+    private final Queue<UpwardSearch> searches;
+
+    /**
+     * Create a new builder for the given hierarchy, using one thread per available
+     * processor.
+     *
+     * @param hierarchy Hierarchy of the graph for the inspector used to compute the
+     *        costs.
+     */
+    public BucketDistanceMatrixBuilder(ContractionHierarchy hierarchy) {
+        this(hierarchy, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new builder for the given hierarchy.
+     *
+     * @param hierarchy Hierarchy of the graph for the inspector used to compute the
+     *        costs.
+     * @param nbThreads Number of threads used to run the searches.
+     */
+    public BucketDistanceMatrixBuilder(ContractionHierarchy hierarchy, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.hierarchy = hierarchy;
+        this.nbThreads = nbThreads;
+        this.searches = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Compute the costs from the given origins to the given destinations.
+     *
+     * @param origins Origins (rows of the matrix).
+     * @param destinations Destinations (columns of the matrix).
+     *
+     * @return The distance matrix.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     */
+    public DistanceMatrix build(List<Node> origins, List<Node> destinations)
+            throws InterruptedException {
+        return build(DistanceMatrixBuilder.getIds(origins),
+                DistanceMatrixBuilder.getIds(destinations));
+    }
+
+    /**
+     * Compute the costs from the given origins to the given destinations.
+     *
+     * @param origins IDs of the origins (rows of the matrix).
+     * @param destinations IDs of the destinations (columns of the matrix).
+     *
+     * @return The distance matrix.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     * @throws IllegalArgumentException if an origin or a destination is not a node
+     *         of the hierarchy, or if the matrix is too large.
+     */
+    public DistanceMatrix build(int[] origins, int[] destinations) throws InterruptedException {
+        final int nbNodes = this.hierarchy.size();
+        for (int origin: origins) {
+            if (origin < 0 || origin >= nbNodes) {
+                throw new IllegalArgumentException("invalid origin: " + origin);
+            }
+        }
+        for (int destination: destinations) {
+            if (destination < 0 || destination >= nbNodes) {
+                throw new IllegalArgumentException("invalid destination: " + destination);
+            }
+        }
+        final int nbDestinations = destinations.length;
+        double[] costs = new double[DistanceMatrix.getSize(origins.length, nbDestinations)];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+
+        ExecutorService executor = Tasks.getSharedPool(this.nbThreads);
+        List<Future<SearchSpace>> backwardFutures = new ArrayList<>();
+        List<Future<?>> forwardFutures = new ArrayList<>();
+        try {
+            // Backward searches from the destinations...
+            for (int destination: destinations) {
+                backwardFutures.add(executor.submit(() -> {
+                    UpwardSearch search = acquireSearch();
+                    try {
+                        search.run(destination, false);
+                        return search.getSearchSpace();
+                    }
+                    finally {
+                        this.searches.offer(search);
+                    }
+                }));
+            }
+
+            // ...stored in the buckets of the nodes they settle...
+            int[] bucketOffsets = new int[nbNodes + 1];
+            SearchSpace[] spaces = new SearchSpace[nbDestinations];
+            for (int column = 0; column < nbDestinations; ++column) {
+                spaces[column] = Tasks.await(backwardFutures.get(column));
+                for (int node: spaces[column].nodes) {
+                    bucketOffsets[node + 1]++;
+                }
+            }
+            for (int node = 0; node < nbNodes; ++node) {
+                bucketOffsets[node + 1] += bucketOffsets[node];
+            }
+            int[] bucketColumns = new int[bucketOffsets[nbNodes]];
+            double[] bucketDistances = new double[bucketOffsets[nbNodes]];
+            int[] next = Arrays.copyOf(bucketOffsets, nbNodes);
+            for (int column = 0; column < nbDestinations; ++column) {
+                for (int i = 0; i < spaces[column].nodes.length; ++i) {
+                    int index = next[spaces[column].nodes[i]]++;
+                    bucketColumns[index] = column;
+                    bucketDistances[index] = spaces[column].distances[i];
+                }
+            }
+
+            // ...and forward searches from the origins, scanning the buckets.
+            for (int i = 0; i < origins.length; ++i) {
+                final int row = i;
+                forwardFutures.add(executor.submit(() -> {
+                    UpwardSearch search = acquireSearch();
+                    SearchSpace space;
+                    try {
+                        search.run(origins[row], true);
+                        space = search.getSearchSpace();
+                    }
+                    finally {
+                        this.searches.offer(search);
+                    }
+                    int[] nodes = space.nodes;
+                    double[] distances = space.distances;
+                    final int offset = row * nbDestinations;
+                    for (int k = 0; k < nodes.length; ++k) {
+                        for (int index = bucketOffsets[nodes[k]]; index < bucketOffsets[nodes[k]
+                                + 1]; ++index) {
+                            int column = bucketColumns[index];
+                            double cost = distances[k] + bucketDistances[index];
+                            if (cost < costs[offset + column]) {
+                                costs[offset + column] = cost;
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future: forwardFutures) {
+                Tasks.await(future);
+            }
+        }
+        finally {
+            // Do not leave the searches of a failed build in the shared pool.
+            for (Future<?> future: backwardFutures) {
+                future.cancel(false);
+            }
+            for (Future<?> future: forwardFutures) {
+                future.cancel(false);
+            }
+        }
+        return new DistanceMatrix(origins.clone(), destinations.clone(), costs);
+    }
+
+    /**
+     * @return A search state not used by any running search.
+     */
+    private UpwardSearch acquireSearch() {
+        UpwardSearch search = this.searches.poll();
+        return search != null ? search : new UpwardSearch(this.hierarchy.size());
+    }
+
+    /**
+     * Nodes settled by an upward search, and their distances.
+     */
+    private static class SearchSpace {
+
+        final int[] nodes;
+        final double[] distances;
+
+        SearchSpace(int[] nodes, double[] distances) {
+            this.nodes = nodes;
+            this.distances = distances;
+        }
+
+    }
+
+    /**
+     * Reusable state of an upward search (forward or backward) on the hierarchy,
+     * with stall-on-demand.
+     */
+    private class UpwardSearch {
+
+        // Distances of the nodes (infinite if not reached).
+        private final double[] distances;
+
+        // Queue of the search.
+        private final PrimitiveBinaryHeap heap;
+
+        // Nodes touched by the last search.
+        private int[] touched;
+        private int nbTouched;
+
+        // Nodes settled (and not stalled) by the last search, and their distances.
+        private int[] settled;
+        private double[] settledDistances;
+        private int nbSettled;
+
+        UpwardSearch(int nbNodes) {
+            this.distances = new double[nbNodes];
+            Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+            this.heap = new PrimitiveBinaryHeap(nbNodes);
+            this.touched = new int[64];
+            this.settled = new int[64];
+            this.settledDistances = new double[64];
+        }
+
+        /**
+         * Run a forward search on the upward graph, or a backward search on the
+         * downward graph, from the given node.
+         */
+        void run(int source, boolean forward) {
+            final ContractionHierarchy hierarchy = BucketDistanceMatrixBuilder.this.hierarchy;
+            for (int i = 0; i < this.nbTouched; ++i) {
+                this.distances[this.touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            this.nbTouched = 0;
+            this.nbSettled = 0;
+            this.heap.clear();
+
+            relax(source, 0);
+            while (!this.heap.isEmpty()) {
+                int node = this.heap.deleteMin();
+                double distance = this.distances[node];
+                if (isStalled(hierarchy, node, distance, forward)) {
+                    continue;
+                }
+                if (this.nbSettled == this.settled.length) {
+                    this.settled = Arrays.copyOf(this.settled, 2 * this.nbSettled);
+                    this.settledDistances = Arrays.copyOf(this.settledDistances,
+                            2 * this.nbSettled);
+                }
+                this.settled[this.nbSettled] = node;
+                this.settledDistances[this.nbSettled++] = distance;
+
+                if (forward) {
+                    for (int index = hierarchy.getFirstUpEdge(node); index < hierarchy
+                            .getEndUpEdge(node); ++index) {
+                        int edge = hierarchy.getUpEdge(index);
+                        relax(hierarchy.getTarget(edge), distance + hierarchy.getCost(edge));
+                    }
+                }
+                else {
+                    for (int index = hierarchy.getFirstDownEdge(node); index < hierarchy
+                            .getEndDownEdge(node); ++index) {
+                        int edge = hierarchy.getDownEdge(index);
+                        relax(hierarchy.getSource(edge), distance + hierarchy.getCost(edge));
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return true if the given node can be reached with a lower cost from a
+         *         node of higher rank (see {@link ContractionHierarchyQuery}).
+         */
+        private boolean isStalled(ContractionHierarchy hierarchy, int node, double distance,
+                boolean forward) {
+            if (forward) {
+                for (int index = hierarchy.getFirstDownEdge(node); index < hierarchy
+                        .getEndDownEdge(node); ++index) {
+                    int edge = hierarchy.getDownEdge(index);
+                    if (this.distances[hierarchy.getSource(edge)]
+                            + hierarchy.getCost(edge) < distance) {
+                        return true;
+                    }
+                }
+            }
+            else {
+                for (int index = hierarchy.getFirstUpEdge(node); index < hierarchy
+                        .getEndUpEdge(node); ++index) {
+                    int edge = hierarchy.getUpEdge(index);
+                    if (this.distances[hierarchy.getTarget(edge)]
+                            + hierarchy.getCost(edge) < distance) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void relax(int node, double distance) {
+            if (distance < this.distances[node]) {
+                if (Double.isInfinite(this.distances[node])) {
+                    if (this.nbTouched == this.touched.length) {
+                        this.touched = Arrays.copyOf(this.touched, 2 * this.touched.length);
+                    }
+                    this.touched[this.nbTouched++] = node;
+                }
+                this.distances[node] = distance;
+                this.heap.insertOrDecreaseKey(node, distance);
+            }
+        }
+
+        /**
+         * @return Copy of the nodes settled by the last search and their distances.
+         */
+        SearchSpace getSearchSpace() {
+            return new SearchSpace(Arrays.copyOf(this.settled, this.nbSettled),
+                    Arrays.copyOf(this.settledDistances, this.nbSettled));
+        }
+
+    }
+
+}
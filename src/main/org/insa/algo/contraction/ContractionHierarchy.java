@@ -0,0 +1,313 @@
+package org.insa.algo.contraction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+
+/**
+ * <p>
+ * Contraction hierarchy of a graph for a given {@link ArcInspector}: a rank for
+ * each node (order of contraction), and a set of edges made of the allowed arcs
+ * of the graph and of the shortcuts added during the contraction.
+ * </p>
+ *
+ * <p>
+ * Each edge is either an original edge, corresponding to an arc of the
+ * {@link org.insa.graph.CompactGraph} of the graph, or a shortcut <i>(u, w)</i>
+ * through a middle node <i>v</i>, made of the edges <i>(u, v)</i> and <i>(v,
+ * w)</i>. Edges are split into an upward graph (edges from a node to a node of
+ * higher rank, stored with their source) and a downward graph (edges from a node
+ * to a node of lower rank, stored with their target), used respectively by the
+ * forward and the backward searches of {@link ContractionHierarchyQuery}.
+ * </p>
+ *
+ * @see ContractionHierarchyBuilder
+ * @see ContractionHierarchyFactory
+ */
+public final class ContractionHierarchy {
+
+    // ID of the map and key of the inspector.
+    private final String mapId, inspectorKey;
+
+    // Rank of each node.
+    private final int[] ranks;
+
+    // Edges: source, target, cost, and middle node (-1 for original edges). For
+    // original edges, the first child is the index of the arc in the compact graph,
+    // for shortcuts the children are the two halves of the shortcut.
+    private final int[] sources, targets, middles, firstChildren, secondChildren;
+    private final float[] costs;
+
+    // Upward and downward graphs (offsets per node and edge indices).
+    private final int[] upOffsets, upEdges, downOffsets, downEdges;
+
+    // Search state of the queries, one per thread.
+    private final ThreadLocal<ContractionHierarchyQuery> queries = ThreadLocal
+            .withInitial(() -> new ContractionHierarchyQuery(this));
+
+    /**
+     * Create a new hierarchy.
+     *
+     * @param mapId ID of the map of the hierarchy.
+     * @param inspectorKey Key of the inspector used to compute the costs.
+     * @param ranks Rank of each node.
+     * @param sources Source of each edge.
+     * @param targets Target of each edge.
+     * @param costs Cost of each edge.
+     * @param middles Middle node of each edge (-1 for original edges).
+     * @param firstChildren Arc of each original edge, or first half of each
+     *        shortcut.
+     * @param secondChildren Second half of each shortcut (ignored for original
+     *        edges).
+     */
+    ContractionHierarchy(String mapId, String inspectorKey, int[] ranks, int[] sources,
+            int[] targets, float[] costs, int[] middles, int[] firstChildren,
+            int[] secondChildren) {
+        this.mapId = mapId;
+        this.inspectorKey = inspectorKey;
+        this.ranks = ranks;
+        this.sources = sources;
+        this.targets = targets;
+        this.costs = costs;
+        this.middles = middles;
+        this.firstChildren = firstChildren;
+        this.secondChildren = secondChildren;
+
+        // Split the edges into the upward and the downward graphs.
+        final int nbNodes = ranks.length;
+        this.upOffsets = new int[nbNodes + 1];
+        this.downOffsets = new int[nbNodes + 1];
+        int nbUp = 0;
+        for (int edge = 0; edge < sources.length; ++edge) {
+            if (isUpward(edge)) {
+                this.upOffsets[sources[edge] + 1]++;
+                nbUp++;
+            }
+            else {
+                this.downOffsets[targets[edge] + 1]++;
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            this.upOffsets[node + 1] += this.upOffsets[node];
+            this.downOffsets[node + 1] += this.downOffsets[node];
+        }
+        this.upEdges = new int[nbUp];
+        this.downEdges = new int[sources.length - nbUp];
+        int[] upNext = new int[nbNodes], downNext = new int[nbNodes];
+        for (int edge = 0; edge < sources.length; ++edge) {
+            if (isUpward(edge)) {
+                this.upEdges[this.upOffsets[sources[edge]] + upNext[sources[edge]]++] = edge;
+            }
+            else {
+                this.downEdges[this.downOffsets[targets[edge]]
+                        + downNext[targets[edge]]++] = edge;
+            }
+        }
+    }
+
+    private boolean isUpward(int edge) {
+        return this.ranks[this.sources[edge]] < this.ranks[this.targets[edge]];
+    }
+
+    /**
+     * @return ID of the map of this hierarchy.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Key of the inspector used to compute the costs.
+     *
+     * @see PreprocessingCache#getInspectorKey(ArcInspector)
+     */
+    public String getInspectorKey() {
+        return this.inspectorKey;
+    }
+
+    /**
+     * @return Number of nodes in this hierarchy.
+     */
+    public int size() {
+        return this.ranks.length;
+    }
+
+    /**
+     * @return Number of edges (original edges and shortcuts) in this hierarchy.
+     */
+    public int getEdgeCount() {
+        return this.sources.length;
+    }
+
+    /**
+     * @return Number of shortcuts in this hierarchy.
+     */
+    public int getShortcutCount() {
+        int count = 0;
+        for (int middle: this.middles) {
+            if (middle != -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Rank of the node (0 for the first contracted node).
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return ID of the source of the edge.
+     */
+    public int getSource(int edge) {
+        return this.sources[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return ID of the target of the edge.
+     */
+    public int getTarget(int edge) {
+        return this.targets[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Cost of the edge.
+     */
+    public float getCost(int edge) {
+        return this.costs[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Middle node of the edge if it is a shortcut, -1 otherwise.
+     */
+    public int getMiddle(int edge) {
+        return this.middles[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Index of the arc of the edge if it is an original edge, or index of
+     *         the first half of the edge if it is a shortcut.
+     */
+    public int getFirstChild(int edge) {
+        return this.firstChildren[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Index of the second half of the edge if it is a shortcut, -1
+     *         otherwise.
+     */
+    public int getSecondChild(int edge) {
+        return this.secondChildren[edge];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index of the first upward edge of the node.
+     */
+    int getFirstUpEdge(int node) {
+        return this.upOffsets[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index after the last upward edge of the node.
+     */
+    int getEndUpEdge(int node) {
+        return this.upOffsets[node + 1];
+    }
+
+    /**
+     * @param index Index in the upward graph.
+     *
+     * @return Index of the edge.
+     */
+    int getUpEdge(int index) {
+        return this.upEdges[index];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index of the first downward edge to the node.
+     */
+    int getFirstDownEdge(int node) {
+        return this.downOffsets[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index after the last downward edge to the node.
+     */
+    int getEndDownEdge(int node) {
+        return this.downOffsets[node + 1];
+    }
+
+    /**
+     * @param index Index in the downward graph.
+     *
+     * @return Index of the edge.
+     */
+    int getDownEdge(int index) {
+        return this.downEdges[index];
+    }
+
+    /**
+     * Unpack the given edge into arcs of the compact graph.
+     *
+     * @param edge Index of the edge to unpack.
+     * @param arcs List where the indices of the arcs of the edge are appended, in
+     *        order.
+     */
+    public void unpack(int edge, List<Integer> arcs) {
+        ArrayList<Integer> stack = new ArrayList<>();
+        stack.add(edge);
+        while (!stack.isEmpty()) {
+            int current = stack.remove(stack.size() - 1);
+            if (this.middles[current] == -1) {
+                arcs.add(this.firstChildren[current]);
+            }
+            else {
+                stack.add(this.secondChildren[current]);
+                stack.add(this.firstChildren[current]);
+            }
+        }
+    }
+
+    /**
+     * @return Search state for the current thread (created on the first call of
+     *         each thread).
+     */
+    public ContractionHierarchyQuery getQuery() {
+        return this.queries.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[map=%s, inspector=%s, #nodes=%d, #edges=%d]",
+                getClass().getSimpleName(), getMapId(), getInspectorKey(), size(),
+                getEdgeCount());
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.insa.algo.contraction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.shortestpath.ShortestPathAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Path;
+
+/**
+ * <p>
+ * Shortest path algorithm answering queries on a {@link ContractionHierarchy}.
+ * </p>
+ * 
+ * <p>
+ * The hierarchy is retrieved from {@link ContractionHierarchyFactory} for the
+ * graph and the arc inspector of the input data, so the first run on a graph may
+ * be slow if the hierarchy has to be built. Only the origin and the destination
+ * are notified to the observers since the nodes settled by the query are not
+ * meaningful on the original graph.
+ * </p>
+ *
+ */
+public class ContractionHierarchyAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes settled during the last run.
+    private int nbSettledNodes;
+
+    public ContractionHierarchyAlgorithm(ShortestPathData data) {
+        super(data);
+        this.nbSettledNodes = 0;
+    }
+
+    /**
+     * @return Number of nodes settled by the upward searches during the last run.
+     */
+    public int getNbSettledNodes() {
+        return this.nbSettledNodes;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        ContractionHierarchy hierarchy = ContractionHierarchyFactory.getHierarchy(graph,
+                data.getArcInspector());
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // The origin is the destination, the solution is infeasible (like the
+        // other algorithms)...
+        if (origin == destination) {
+            this.nbSettledNodes = 0;
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        ContractionHierarchyQuery query = hierarchy.getQuery();
+        double cost = query.run(origin, destination);
+        this.nbSettledNodes = query.getNbSettledNodes();
+
+        // ...as well as when there is no path.
+        if (Double.isInfinite(cost)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Create the path from the unpacked arcs.
+        List<Integer> indices = query.getArcs();
+        ArrayList<Arc> arcs = new ArrayList<>(indices.size());
+        for (int arc: indices) {
+            arcs.add(compactGraph.getArc(arc));
+        }
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -0,0 +1,725 @@
+package org.insa.algo.contraction;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Builder of {@link ContractionHierarchy}: contracts the nodes of a graph,
+ * adding shortcuts between the neighbors of each contracted node when no
+ * witness path is found.
+ * </p>
+ *
+ * <p>
+ * The priority of a node is computed from its edge difference (number of
+ * shortcuts added minus number of edges removed by its contraction), its number
+ * of contracted neighbors and its level in the hierarchy. Nodes are contracted
+ * in rounds: each round selects the remaining nodes whose priority is lower than
+ * the priorities of all their neighbors (ties being broken by ID), which form an
+ * independent set, contracts them, and then recomputes the priorities of their
+ * neighbors.
+ * </p>
+ *
+ * <p>
+ * Since the nodes of a round are not adjacent, they are contracted in parallel
+ * in a {@link ForkJoinPool}, each thread running its witness searches with its
+ * own search state. The witness searches of a round avoid all the nodes of the
+ * round, and the shortcuts are added in the order of the IDs of the contracted
+ * nodes, so the hierarchy does not depend on the number of threads.
+ * </p>
+ *
+ * <p>
+ * Witness searches are Dijkstra's searches limited by cost and by number of
+ * settled nodes, so some unnecessary shortcuts may be added, but the hierarchy
+ * is always correct.
+ * </p>
+ *
+ */
+public class ContractionHierarchyBuilder {
+
+    // Maximum number of nodes settled by witness searches when simulating a
+    // contraction and when contracting.
+    private static final int SIMULATION_SETTLED_LIMIT = 50;
+    private static final int CONTRACTION_SETTLED_LIMIT = 500;
+
+    // Number of iterations below which a parallel loop is not split anymore.
+    private static final int TASK_THRESHOLD = 64;
+
+    /**
+     * Parallel loop over a range of indices, split until it contains at most
+     * {@link ContractionHierarchyBuilder#TASK_THRESHOLD} indices.
+     */
+    private static class ForTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Range of indices, and action to run for each index.
+        private final int from, to;
+        private final IntConsumer action;
+
+        private ForTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                for (int i = from; i < to; ++i) {
+                    action.accept(i);
+                }
+            }
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ForTask(from, middle, action), new ForTask(middle, to, action));
+            }
+        }
+
+    }
+
+    /**
+     * Result of the contraction of a node: its uncontracted neighbors and the
+     * shortcuts to add.
+     */
+    private static class ContractionResult {
+
+        // Neighbors of the contracted node.
+        private final int[] neighbors;
+
+        // Shortcuts: source, target, cost and halves.
+        private final int[] sources, targets, firstChildren, secondChildren;
+        private final float[] costs;
+
+        private ContractionResult(int[] neighbors, int[] sources, int[] targets,
+                float[] costs, int[] firstChildren, int[] secondChildren) {
+            this.neighbors = neighbors;
+            this.sources = sources;
+            this.targets = targets;
+            this.costs = costs;
+            this.firstChildren = firstChildren;
+            this.secondChildren = secondChildren;
+        }
+
+    }
+
+    /**
+     * Search state of a thread: witness searches, neighbors of the node being
+     * contracted and shortcuts found. The graph is only read.
+     */
+    private class Contraction {
+
+        // Witness search state.
+        private final double[] witnessDistances;
+        private final PrimitiveBinaryHeap witnessHeap;
+        private int[] witnessTouched;
+        private int nbWitnessTouched;
+
+        // Targets of the witness searches (out-neighbors of the node being
+        // contracted), used to stop the searches when all of them are settled.
+        private final boolean[] witnessTargets;
+
+        // Neighbors of the node being contracted (deduplicated, minimum cost).
+        private int[] inNeighbors, outNeighbors;
+        private double[] inCosts, outCosts;
+        private int[] inNeighborEdges, outNeighborEdges;
+        private int nbInNeighbors, nbOutNeighbors;
+
+        // Index of each node in the neighbors of the node being contracted (-1 if
+        // it is not a neighbor).
+        private final int[] inIndices, outIndices;
+
+        // Shortcuts found by the last contraction.
+        private int nbShortcuts;
+        private int[] shortcutSources, shortcutTargets, shortcutFirstChildren,
+                shortcutSecondChildren;
+        private float[] shortcutCosts;
+
+        private Contraction() {
+            this.witnessDistances = new double[nbNodes];
+            Arrays.fill(this.witnessDistances, Double.POSITIVE_INFINITY);
+            this.witnessHeap = new PrimitiveBinaryHeap(nbNodes);
+            this.witnessTouched = new int[64];
+            this.witnessTargets = new boolean[nbNodes];
+
+            this.inNeighbors = new int[16];
+            this.outNeighbors = new int[16];
+            this.inCosts = new double[16];
+            this.outCosts = new double[16];
+            this.inNeighborEdges = new int[16];
+            this.outNeighborEdges = new int[16];
+            this.inIndices = new int[nbNodes];
+            this.outIndices = new int[nbNodes];
+            Arrays.fill(this.inIndices, -1);
+            Arrays.fill(this.outIndices, -1);
+
+            this.shortcutSources = new int[16];
+            this.shortcutTargets = new int[16];
+            this.shortcutCosts = new float[16];
+            this.shortcutFirstChildren = new int[16];
+            this.shortcutSecondChildren = new int[16];
+        }
+
+        /**
+         * Compute the priority of the given node.
+         */
+        private double computePriority(int node) {
+            contract(node, SIMULATION_SETTLED_LIMIT);
+            int edgeDifference = this.nbShortcuts - this.nbInNeighbors - this.nbOutNeighbors;
+            return 2 * edgeDifference + contractedNeighbors[node] + levels[node];
+        }
+
+        /**
+         * Compute the contraction of the given node.
+         */
+        private ContractionResult computeContraction(int node) {
+            contract(node, CONTRACTION_SETTLED_LIMIT);
+            int[] neighbors = Arrays.copyOf(this.inNeighbors,
+                    this.nbInNeighbors + this.nbOutNeighbors);
+            System.arraycopy(this.outNeighbors, 0, neighbors, this.nbInNeighbors,
+                    this.nbOutNeighbors);
+            return new ContractionResult(neighbors,
+                    Arrays.copyOf(this.shortcutSources, this.nbShortcuts),
+                    Arrays.copyOf(this.shortcutTargets, this.nbShortcuts),
+                    Arrays.copyOf(this.shortcutCosts, this.nbShortcuts),
+                    Arrays.copyOf(this.shortcutFirstChildren, this.nbShortcuts),
+                    Arrays.copyOf(this.shortcutSecondChildren, this.nbShortcuts));
+        }
+
+        /**
+         * Find the shortcuts required to contract the given node, with witness
+         * searches limited to the given number of settled nodes.
+         */
+        private void contract(int node, int settledLimit) {
+            collectNeighbors(node);
+            for (int j = 0; j < this.nbOutNeighbors; ++j) {
+                this.witnessTargets[this.outNeighbors[j]] = true;
+            }
+            this.nbShortcuts = 0;
+            for (int i = 0; i < this.nbInNeighbors; ++i) {
+                int source = this.inNeighbors[i];
+
+                // Maximum cost of a path through the node.
+                double maxCost = 0;
+                for (int j = 0; j < this.nbOutNeighbors; ++j) {
+                    if (this.outNeighbors[j] != source) {
+                        maxCost = Math.max(this.inCosts[i] + this.outCosts[j], maxCost);
+                    }
+                }
+                witnessSearch(source, node, maxCost, settledLimit);
+
+                for (int j = 0; j < this.nbOutNeighbors; ++j) {
+                    int target = this.outNeighbors[j];
+                    double cost = this.inCosts[i] + this.outCosts[j];
+                    if (target == source || this.witnessDistances[target] <= cost) {
+                        continue;
+                    }
+                    addShortcut(source, target, (float) cost, this.inNeighborEdges[i],
+                            this.outNeighborEdges[j]);
+                }
+            }
+            for (int j = 0; j < this.nbOutNeighbors; ++j) {
+                this.witnessTargets[this.outNeighbors[j]] = false;
+            }
+        }
+
+        private void addShortcut(int source, int target, float cost, int firstChild,
+                int secondChild) {
+            if (this.nbShortcuts == this.shortcutSources.length) {
+                int capacity = 2 * this.nbShortcuts;
+                this.shortcutSources = Arrays.copyOf(this.shortcutSources, capacity);
+                this.shortcutTargets = Arrays.copyOf(this.shortcutTargets, capacity);
+                this.shortcutCosts = Arrays.copyOf(this.shortcutCosts, capacity);
+                this.shortcutFirstChildren = Arrays.copyOf(this.shortcutFirstChildren,
+                        capacity);
+                this.shortcutSecondChildren = Arrays.copyOf(this.shortcutSecondChildren,
+                        capacity);
+            }
+            this.shortcutSources[this.nbShortcuts] = source;
+            this.shortcutTargets[this.nbShortcuts] = target;
+            this.shortcutCosts[this.nbShortcuts] = cost;
+            this.shortcutFirstChildren[this.nbShortcuts] = firstChild;
+            this.shortcutSecondChildren[this.nbShortcuts] = secondChild;
+            this.nbShortcuts++;
+        }
+
+        /**
+         * Collect the uncontracted neighbors of the given node, keeping the
+         * cheapest edge for each neighbor.
+         */
+        private void collectNeighbors(int node) {
+            this.nbInNeighbors = 0;
+            for (int i = 0; i < nbInEdges[node]; ++i) {
+                int edge = inEdges[node][i];
+                int source = sources[edge];
+                if (contracted[source]) {
+                    continue;
+                }
+                int index = this.inIndices[source];
+                if (index == -1) {
+                    if (this.nbInNeighbors == this.inNeighbors.length) {
+                        this.inNeighbors = Arrays.copyOf(this.inNeighbors,
+                                2 * this.nbInNeighbors);
+                        this.inCosts = Arrays.copyOf(this.inCosts, 2 * this.nbInNeighbors);
+                        this.inNeighborEdges = Arrays.copyOf(this.inNeighborEdges,
+                                2 * this.nbInNeighbors);
+                    }
+                    index = this.nbInNeighbors++;
+                    this.inIndices[source] = index;
+                    this.inNeighbors[index] = source;
+                    this.inCosts[index] = Double.POSITIVE_INFINITY;
+                }
+                if (costs[edge] < this.inCosts[index]) {
+                    this.inCosts[index] = costs[edge];
+                    this.inNeighborEdges[index] = edge;
+                }
+            }
+
+            this.nbOutNeighbors = 0;
+            for (int i = 0; i < nbOutEdges[node]; ++i) {
+                int edge = outEdges[node][i];
+                int target = targets[edge];
+                if (contracted[target]) {
+                    continue;
+                }
+                int index = this.outIndices[target];
+                if (index == -1) {
+                    if (this.nbOutNeighbors == this.outNeighbors.length) {
+                        this.outNeighbors = Arrays.copyOf(this.outNeighbors,
+                                2 * this.nbOutNeighbors);
+                        this.outCosts = Arrays.copyOf(this.outCosts, 2 * this.nbOutNeighbors);
+                        this.outNeighborEdges = Arrays.copyOf(this.outNeighborEdges,
+                                2 * this.nbOutNeighbors);
+                    }
+                    index = this.nbOutNeighbors++;
+                    this.outIndices[target] = index;
+                    this.outNeighbors[index] = target;
+                    this.outCosts[index] = Double.POSITIVE_INFINITY;
+                }
+                if (costs[edge] < this.outCosts[index]) {
+                    this.outCosts[index] = costs[edge];
+                    this.outNeighborEdges[index] = edge;
+                }
+            }
+
+            // Reset the indices for the next call.
+            for (int i = 0; i < this.nbInNeighbors; ++i) {
+                this.inIndices[this.inNeighbors[i]] = -1;
+            }
+            for (int i = 0; i < this.nbOutNeighbors; ++i) {
+                this.outIndices[this.outNeighbors[i]] = -1;
+            }
+        }
+
+        /**
+         * Run a witness search from the given source on the uncontracted nodes,
+         * except the given node and the nodes of the current round, until the
+         * given cost or number of settled nodes is reached, or until all the
+         * targets are settled. Distances are available in witnessDistances until
+         * the next search.
+         */
+        private void witnessSearch(int source, int excluded, double maxCost,
+                int settledLimit) {
+            for (int i = 0; i < this.nbWitnessTouched; ++i) {
+                this.witnessDistances[this.witnessTouched[i]] = Double.POSITIVE_INFINITY;
+            }
+            this.nbWitnessTouched = 0;
+            this.witnessHeap.clear();
+
+            witnessTouch(source);
+            this.witnessDistances[source] = 0;
+            this.witnessHeap.insert(source, 0);
+            int nbSettled = 0, nbSettledTargets = 0;
+            while (!this.witnessHeap.isEmpty() && nbSettled < settledLimit
+                    && nbSettledTargets < this.nbOutNeighbors
+                    && this.witnessHeap.findMinKey() <= maxCost) {
+                int node = this.witnessHeap.deleteMin();
+                nbSettled++;
+                if (this.witnessTargets[node]) {
+                    nbSettledTargets++;
+                }
+                double distance = this.witnessDistances[node];
+                for (int i = 0; i < nbOutEdges[node]; ++i) {
+                    int edge = outEdges[node][i];
+                    int target = targets[edge];
+                    if (target == excluded || contracted[target] || selected[target]) {
+                        continue;
+                    }
+                    double newDistance = distance + costs[edge];
+                    if (newDistance < this.witnessDistances[target]) {
+                        if (Double.isInfinite(this.witnessDistances[target])) {
+                            witnessTouch(target);
+                        }
+                        this.witnessDistances[target] = newDistance;
+                        this.witnessHeap.insertOrDecreaseKey(target, newDistance);
+                    }
+                }
+            }
+        }
+
+        private void witnessTouch(int node) {
+            if (this.nbWitnessTouched == this.witnessTouched.length) {
+                this.witnessTouched = Arrays.copyOf(this.witnessTouched,
+                        2 * this.nbWitnessTouched);
+            }
+            this.witnessTouched[this.nbWitnessTouched++] = node;
+        }
+
+    }
+
+    // Graph and inspector.
+    private final Graph graph;
+    private final ArcInspector inspector;
+
+    // Number of nodes, and number of threads used to contract them.
+    private final int nbNodes;
+    private final int nbThreads;
+
+    // Edges (see ContractionHierarchy).
+    private int nbEdges;
+    private int[] sources, targets, middles, firstChildren, secondChildren;
+    private float[] costs;
+
+    // Outgoing and incoming edges of each node (edges to contracted nodes are
+    // removed after each round).
+    private final int[][] outEdges, inEdges;
+    private final int[] nbOutEdges, nbInEdges;
+
+    // Contraction state of each node.
+    private final boolean[] contracted;
+    private final int[] contractedNeighbors, levels;
+    private final double[] priorities;
+
+    // Nodes of the current round.
+    private final boolean[] selected;
+
+    // Number of rounds of the last build.
+    private int nbRounds;
+
+    /**
+     * Create a new builder for the given graph and inspector, using one thread per
+     * available processor.
+     *
+     * @param graph Graph to contract.
+     * @param inspector Inspector used to compute the costs (only allowed arcs are
+     *        kept).
+     */
+    public ContractionHierarchyBuilder(Graph graph, ArcInspector inspector) {
+        this(graph, inspector, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new builder for the given graph and inspector.
+     *
+     * @param graph Graph to contract.
+     * @param inspector Inspector used to compute the costs (only allowed arcs are
+     *        kept).
+     * @param nbThreads Number of threads used to contract the nodes.
+     */
+    public ContractionHierarchyBuilder(Graph graph, ArcInspector inspector, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.graph = graph;
+        this.inspector = inspector;
+        this.nbThreads = nbThreads;
+        CompactGraph compactGraph = graph.getCompactGraph();
+        CompiledArcInspector compiled = CompiledArcInspector.of(graph, inspector);
+        this.nbNodes = compactGraph.size();
+
+        int capacity = Math.max(16, 2 * compactGraph.getArcCount());
+        this.sources = new int[capacity];
+        this.targets = new int[capacity];
+        this.costs = new float[capacity];
+        this.middles = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.secondChildren = new int[capacity];
+        this.outEdges = new int[nbNodes][];
+        this.inEdges = new int[nbNodes][];
+        this.nbOutEdges = new int[nbNodes];
+        this.nbInEdges = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            int degree = compactGraph.getNumberOfSuccessors(node);
+            this.outEdges[node] = new int[Math.max(degree, 2)];
+            this.inEdges[node] = new int[Math.max(degree, 2)];
+        }
+
+        // Add the allowed arcs, keeping only the cheapest arc between two nodes.
+        int[] lastEdges = new int[nbNodes];
+        Arrays.fill(lastEdges, -1);
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                    .getEndArc(node); ++arc) {
+                int target = compactGraph.getTarget(arc);
+                if (!compiled.isAllowed(arc) || target == node) {
+                    continue;
+                }
+                int edge = lastEdges[target];
+                if (edge != -1 && this.sources[edge] == node) {
+                    if (compiled.getCost(arc) < this.costs[edge]) {
+                        this.costs[edge] = compiled.getCost(arc);
+                        this.firstChildren[edge] = arc;
+                    }
+                }
+                else {
+                    lastEdges[target] = addEdge(node, target, compiled.getCost(arc), -1, arc, -1);
+                }
+            }
+        }
+
+        this.contracted = new boolean[nbNodes];
+        this.contractedNeighbors = new int[nbNodes];
+        this.levels = new int[nbNodes];
+        this.priorities = new double[nbNodes];
+        this.selected = new boolean[nbNodes];
+    }
+
+    /**
+     * @return Number of threads used to contract the nodes.
+     */
+    public int getNbThreads() {
+        return this.nbThreads;
+    }
+
+    /**
+     * @return Number of rounds of the last call to {@link #build()}.
+     */
+    public int getNbRounds() {
+        return this.nbRounds;
+    }
+
+    /**
+     * Contract all the nodes of the graph and create the hierarchy. This method
+     * must be called only once per builder.
+     *
+     * @return The contraction hierarchy.
+     */
+    public ContractionHierarchy build() {
+        final ThreadLocal<Contraction> contractions = ThreadLocal.withInitial(Contraction::new);
+        final ForkJoinPool pool = new ForkJoinPool(this.nbThreads);
+        try {
+            int[] remaining = new int[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                remaining[node] = node;
+            }
+            final int[] initial = remaining;
+            parallelFor(pool, initial.length, i -> this.priorities[initial[i]] = contractions
+                    .get().computePriority(initial[i]));
+
+            int[] ranks = new int[nbNodes];
+            int rank = 0;
+            boolean[] affected = new boolean[nbNodes];
+            this.nbRounds = 0;
+            while (remaining.length > 0) {
+                this.nbRounds++;
+
+                // Select the nodes with a lower priority than all their neighbors...
+                final int[] candidates = remaining;
+                final boolean[] minimums = new boolean[candidates.length];
+                parallelFor(pool, candidates.length,
+                        i -> minimums[i] = isLocalMinimum(candidates[i]));
+                int size = 0;
+                for (boolean minimum: minimums) {
+                    size += minimum ? 1 : 0;
+                }
+                final int[] round = new int[size];
+                for (int i = 0, j = 0; i < candidates.length; ++i) {
+                    if (minimums[i]) {
+                        round[j++] = candidates[i];
+                        this.selected[candidates[i]] = true;
+                    }
+                }
+
+                // ...contract them without modifying the graph...
+                final ContractionResult[] results = new ContractionResult[round.length];
+                parallelFor(pool, round.length,
+                        i -> results[i] = contractions.get().computeContraction(round[i]));
+
+                // ...and update the graph in the order of the round.
+                int nbAffected = 0;
+                for (int i = 0; i < round.length; ++i) {
+                    int node = round[i];
+                    ContractionResult result = results[i];
+                    this.contracted[node] = true;
+                    this.selected[node] = false;
+                    ranks[node] = rank++;
+                    for (int j = 0; j < result.sources.length; ++j) {
+                        addShortcut(result.sources[j], result.targets[j], result.costs[j], node,
+                                result.firstChildren[j], result.secondChildren[j]);
+                    }
+                    for (int neighbor: result.neighbors) {
+                        if (!affected[neighbor]) {
+                            affected[neighbor] = true;
+                            nbAffected++;
+                        }
+                        this.contractedNeighbors[neighbor]++;
+                        this.levels[neighbor] = Math.max(this.levels[node] + 1,
+                                this.levels[neighbor]);
+                    }
+                }
+
+                // Update the remaining nodes and retrieve the neighbors of the
+                // contracted nodes.
+                final int[] neighbors = new int[nbAffected];
+                int[] newRemaining = new int[remaining.length - round.length];
+                for (int i = 0, j = 0, k = 0; i < remaining.length; ++i) {
+                    int node = remaining[i];
+                    if (affected[node]) {
+                        affected[node] = false;
+                        neighbors[j++] = node;
+                    }
+                    if (!this.contracted[node]) {
+                        newRemaining[k++] = node;
+                    }
+                }
+                remaining = newRemaining;
+
+                // Remove the edges to the contracted nodes, and then update the
+                // priorities of the neighbors (witness searches read the edges of
+                // other nodes, so this cannot be done in a single loop).
+                parallelFor(pool, neighbors.length, i -> removeContractedEdges(neighbors[i]));
+                parallelFor(pool, neighbors.length, i -> this.priorities[neighbors[i]] = contractions
+                        .get().computePriority(neighbors[i]));
+            }
+
+            return new ContractionHierarchy(this.graph.getMapId(),
+                    PreprocessingCache.getInspectorKey(this.inspector), ranks,
+                    Arrays.copyOf(this.sources, this.nbEdges),
+                    Arrays.copyOf(this.targets, this.nbEdges),
+                    Arrays.copyOf(this.costs, this.nbEdges),
+                    Arrays.copyOf(this.middles, this.nbEdges),
+                    Arrays.copyOf(this.firstChildren, this.nbEdges),
+                    Arrays.copyOf(this.secondChildren, this.nbEdges));
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Run the given action for each index in [0, count) in the given pool.
+     */
+    private static void parallelFor(ForkJoinPool pool, int count, IntConsumer action) {
+        pool.invoke(new ForTask(0, count, action));
+    }
+
+    /**
+     * @return true if the given node must be contracted before all its
+     *         uncontracted neighbors.
+     */
+    private boolean isLocalMinimum(int node) {
+        for (int i = 0; i < this.nbInEdges[node]; ++i) {
+            int source = this.sources[this.inEdges[node][i]];
+            if (!this.contracted[source] && isBefore(source, node)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < this.nbOutEdges[node]; ++i) {
+            int target = this.targets[this.outEdges[node][i]];
+            if (!this.contracted[target] && isBefore(target, node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the first node must be contracted before the second one.
+     */
+    private boolean isBefore(int first, int second) {
+        return this.priorities[first] < this.priorities[second]
+                || this.priorities[first] == this.priorities[second] && first < second;
+    }
+
+    /**
+     * Remove the edges from and to contracted nodes from the lists of the given
+     * node.
+     */
+    private void removeContractedEdges(int node) {
+        int[] edges = this.inEdges[node];
+        int count = 0;
+        for (int i = 0; i < this.nbInEdges[node]; ++i) {
+            if (!this.contracted[this.sources[edges[i]]]) {
+                edges[count++] = edges[i];
+            }
+        }
+        this.nbInEdges[node] = count;
+
+        edges = this.outEdges[node];
+        count = 0;
+        for (int i = 0; i < this.nbOutEdges[node]; ++i) {
+            if (!this.contracted[this.targets[edges[i]]]) {
+                edges[count++] = edges[i];
+            }
+        }
+        this.nbOutEdges[node] = count;
+    }
+
+    /**
+     * Add a shortcut, or replace the existing edge between the given nodes if any.
+     * Such an edge has not been used by any shortcut yet since both its nodes are
+     * not contracted, so it can be replaced in place.
+     */
+    private void addShortcut(int source, int target, float cost, int middle, int firstChild,
+            int secondChild) {
+        for (int i = 0; i < this.nbOutEdges[source]; ++i) {
+            int edge = this.outEdges[source][i];
+            if (this.targets[edge] == target) {
+                if (cost < this.costs[edge]) {
+                    this.costs[edge] = cost;
+                    this.middles[edge] = middle;
+                    this.firstChildren[edge] = firstChild;
+                    this.secondChildren[edge] = secondChild;
+                }
+                return;
+            }
+        }
+        addEdge(source, target, cost, middle, firstChild, secondChild);
+    }
+
+    /**
+     * Add a new edge.
+     *
+     * @return Index of the new edge.
+     */
+    private int addEdge(int source, int target, float cost, int middle, int firstChild,
+            int secondChild) {
+        if (this.nbEdges == this.sources.length) {
+            int capacity = 2 * this.nbEdges;
+            this.sources = Arrays.copyOf(this.sources, capacity);
+            this.targets = Arrays.copyOf(this.targets, capacity);
+            this.costs = Arrays.copyOf(this.costs, capacity);
+            this.middles = Arrays.copyOf(this.middles, capacity);
+            this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+            this.secondChildren = Arrays.copyOf(this.secondChildren, capacity);
+        }
+        int edge = this.nbEdges++;
+        this.sources[edge] = source;
+        this.targets[edge] = target;
+        this.costs[edge] = cost;
+        this.middles[edge] = middle;
+        this.firstChildren[edge] = firstChild;
+        this.secondChildren[edge] = secondChild;
+
+        if (this.nbOutEdges[source] == this.outEdges[source].length) {
+            this.outEdges[source] = Arrays.copyOf(this.outEdges[source],
+                    2 * this.nbOutEdges[source]);
+        }
+        this.outEdges[source][this.nbOutEdges[source]++] = edge;
+        if (this.nbInEdges[target] == this.inEdges[target].length) {
+            this.inEdges[target] = Arrays.copyOf(this.inEdges[target], 2 * this.nbInEdges[target]);
+        }
+        this.inEdges[target][this.nbInEdges[target]++] = edge;
+        return edge;
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.insa.algo.contraction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Factory class used to retrieve the {@link ContractionHierarchy} of a graph for
+ * a given {@link ArcInspector}.
+ * </p>
+ * 
+ * <p>
+ * Hierarchies are cached per graph and per inspector (see
+ * {@link PreprocessingCache}). If the
+ * {@link PreprocessingCache#DIRECTORY_PROPERTY} system property is set,
+ * hierarchies are read from the corresponding directory (see
+ * {@link #getHierarchyFile(File, Graph, ArcInspector)}), or built and then saved
+ * into it if no valid file is found.
+ * </p>
+ *
+ */
+public class ContractionHierarchyFactory {
+
+    // Cache of hierarchies, per graph and per inspector.
+    private static final PreprocessingCache<ContractionHierarchy> CACHE = new PreprocessingCache<>();
+
+    /**
+     * Retrieve the hierarchy of the given graph for the given inspector, reading
+     * or building it if it is not in the cache.
+     * 
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector used to compute the costs.
+     * 
+     * @return The hierarchy of the graph for the inspector.
+     */
+    public static ContractionHierarchy getHierarchy(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> {
+            File directory = PreprocessingCache.getDirectory();
+            return PreprocessingCache.readOrBuild(
+                    directory == null ? null : getHierarchyFile(directory, graph, inspector),
+                    file -> readHierarchy(file, graph, inspector),
+                    () -> buildHierarchy(graph, inspector),
+                    ContractionHierarchyFactory::writeHierarchy);
+        });
+    }
+
+    /**
+     * Build the hierarchy of the given graph for the given inspector.
+     * 
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector used to compute the costs.
+     * 
+     * @return The new hierarchy.
+     */
+    public static ContractionHierarchy buildHierarchy(Graph graph, ArcInspector inspector) {
+        return new ContractionHierarchyBuilder(graph, inspector).build();
+    }
+
+    /**
+     * Retrieve the file storing the hierarchy of the given graph for the given
+     * inspector in the given directory. The name of the file is made of the ID of
+     * the map and a hash of the key of the inspector.
+     * 
+     * @param directory Directory containing the hierarchies.
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector used to compute the costs.
+     * 
+     * @return The hierarchy file (which may not exist).
+     */
+    public static File getHierarchyFile(File directory, Graph graph, ArcInspector inspector) {
+        return PreprocessingCache.getFile(directory, graph,
+                PreprocessingCache.getInspectorKey(inspector), "mapch");
+    }
+
+    /**
+     * Read a hierarchy from the given file.
+     * 
+     * @param file File to read.
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector used to compute the costs.
+     * 
+     * @return The hierarchy read.
+     * 
+     * @throws IOException if the file cannot be read or does not contain a
+     *         hierarchy for the given graph and inspector.
+     */
+    public static ContractionHierarchy readHierarchy(File file, Graph graph,
+            ArcInspector inspector) throws IOException {
+        try (DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return new BinaryContractionHierarchyReader(dis).readHierarchy(graph, inspector);
+        }
+    }
+
+    /**
+     * Write a hierarchy to the given file.
+     * 
+     * @param file File to write.
+     * @param hierarchy Hierarchy to write.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeHierarchy(File file, ContractionHierarchy hierarchy)
+            throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            new BinaryContractionHierarchyWriter(dos).writeHierarchy(hierarchy);
+        }
+    }
+
+}
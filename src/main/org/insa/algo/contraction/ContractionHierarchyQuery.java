@@ -0,0 +1,254 @@
+package org.insa.algo.contraction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+
+/**
+ * <p>
+ * Search state for shortest path queries on a {@link ContractionHierarchy}: a
+ * forward search from the origin on the upward graph and a backward search from
+ * the destination on the downward graph, until the minimum keys of both queues
+ * are not lower than the best path found. Nodes that can be reached with a
+ * lower cost from a node of higher rank are not relaxed (stall-on-demand).
+ * </p>
+ *
+ * <p>
+ * The arrays of the searches are allocated once and only the entries touched by
+ * a query are reset after it, so the cost of a query only depends on the size of
+ * its search spaces. A query object must not be used by multiple threads at the
+ * same time (see {@link ContractionHierarchy#getQuery()}).
+ * </p>
+ *
+ */
+public final class ContractionHierarchyQuery {
+
+    // Hierarchy of this query.
+    private final ContractionHierarchy hierarchy;
+
+    // Distances and predecessor edges of both searches.
+    private final double[] forwardDistances, backwardDistances;
+    private final int[] forwardEdges, backwardEdges;
+
+    // Queues of both searches.
+    private final PrimitiveBinaryHeap forwardHeap, backwardHeap;
+
+    // Nodes touched by the last query.
+    private int[] touched;
+    private int nbTouched;
+
+    // Result of the last query.
+    private double cost;
+    private int meetingNode;
+    private int nbSettledNodes;
+
+    /**
+     * Create a new search state for the given hierarchy.
+     *
+     * @param hierarchy Hierarchy to search.
+     */
+    ContractionHierarchyQuery(ContractionHierarchy hierarchy) {
+        final int nbNodes = hierarchy.size();
+        this.hierarchy = hierarchy;
+        this.forwardDistances = new double[nbNodes];
+        this.backwardDistances = new double[nbNodes];
+        Arrays.fill(this.forwardDistances, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.backwardDistances, Double.POSITIVE_INFINITY);
+        this.forwardEdges = new int[nbNodes];
+        this.backwardEdges = new int[nbNodes];
+        this.forwardHeap = new PrimitiveBinaryHeap(nbNodes);
+        this.backwardHeap = new PrimitiveBinaryHeap(nbNodes);
+        this.touched = new int[64];
+        this.nbTouched = 0;
+        this.meetingNode = -1;
+    }
+
+    /**
+     * Compute the cost of the shortest path between the given nodes.
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Cost of the shortest path, or infinity if there is none.
+     */
+    public double run(int origin, int destination) {
+        reset();
+        this.cost = Double.POSITIVE_INFINITY;
+        this.meetingNode = -1;
+        this.nbSettledNodes = 0;
+
+        touch(origin);
+        touch(destination);
+        this.forwardDistances[origin] = 0;
+        this.forwardEdges[origin] = -1;
+        this.forwardHeap.insert(origin, 0);
+        this.backwardDistances[destination] = 0;
+        this.backwardEdges[destination] = -1;
+        this.backwardHeap.insert(destination, 0);
+        if (origin == destination) {
+            this.cost = 0;
+            this.meetingNode = origin;
+        }
+
+        boolean forward = true;
+        while (true) {
+            boolean forwardActive = !this.forwardHeap.isEmpty()
+                    && this.forwardHeap.findMinKey() < this.cost;
+            boolean backwardActive = !this.backwardHeap.isEmpty()
+                    && this.backwardHeap.findMinKey() < this.cost;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+            if (forward ? !forwardActive : !backwardActive) {
+                forward = !forward;
+            }
+            if (forward) {
+                settleForward();
+            }
+            else {
+                settleBackward();
+            }
+            forward = !forward;
+        }
+        return this.cost;
+    }
+
+    private void settleForward() {
+        final ContractionHierarchy hierarchy = this.hierarchy;
+        int node = this.forwardHeap.deleteMin();
+        this.nbSettledNodes++;
+        double distance = this.forwardDistances[node];
+
+        // Stall-on-demand: the node is not relaxed if a shorter path to it comes
+        // from a node of higher rank.
+        for (int index = hierarchy.getFirstDownEdge(node); index < hierarchy
+                .getEndDownEdge(node); ++index) {
+            int edge = hierarchy.getDownEdge(index);
+            if (this.forwardDistances[hierarchy.getSource(edge)]
+                    + hierarchy.getCost(edge) < distance) {
+                return;
+            }
+        }
+
+        for (int index = hierarchy.getFirstUpEdge(node); index < hierarchy
+                .getEndUpEdge(node); ++index) {
+            int edge = hierarchy.getUpEdge(index);
+            int target = hierarchy.getTarget(edge);
+            double newDistance = distance + hierarchy.getCost(edge);
+            if (newDistance < this.forwardDistances[target]) {
+                if (Double.isInfinite(this.forwardDistances[target])
+                        && Double.isInfinite(this.backwardDistances[target])) {
+                    touch(target);
+                }
+                this.forwardDistances[target] = newDistance;
+                this.forwardEdges[target] = edge;
+                this.forwardHeap.insertOrDecreaseKey(target, newDistance);
+                if (newDistance + this.backwardDistances[target] < this.cost) {
+                    this.cost = newDistance + this.backwardDistances[target];
+                    this.meetingNode = target;
+                }
+            }
+        }
+    }
+
+    private void settleBackward() {
+        final ContractionHierarchy hierarchy = this.hierarchy;
+        int node = this.backwardHeap.deleteMin();
+        this.nbSettledNodes++;
+        double distance = this.backwardDistances[node];
+
+        // Stall-on-demand (see settleForward()).
+        for (int index = hierarchy.getFirstUpEdge(node); index < hierarchy
+                .getEndUpEdge(node); ++index) {
+            int edge = hierarchy.getUpEdge(index);
+            if (this.backwardDistances[hierarchy.getTarget(edge)]
+                    + hierarchy.getCost(edge) < distance) {
+                return;
+            }
+        }
+
+        for (int index = hierarchy.getFirstDownEdge(node); index < hierarchy
+                .getEndDownEdge(node); ++index) {
+            int edge = hierarchy.getDownEdge(index);
+            int source = hierarchy.getSource(edge);
+            double newDistance = distance + hierarchy.getCost(edge);
+            if (newDistance < this.backwardDistances[source]) {
+                if (Double.isInfinite(this.forwardDistances[source])
+                        && Double.isInfinite(this.backwardDistances[source])) {
+                    touch(source);
+                }
+                this.backwardDistances[source] = newDistance;
+                this.backwardEdges[source] = edge;
+                this.backwardHeap.insertOrDecreaseKey(source, newDistance);
+                if (newDistance + this.forwardDistances[source] < this.cost) {
+                    this.cost = newDistance + this.forwardDistances[source];
+                    this.meetingNode = source;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remember that the given node has been touched by the current query.
+     */
+    private void touch(int node) {
+        if (this.nbTouched == this.touched.length) {
+            this.touched = Arrays.copyOf(this.touched, 2 * this.touched.length);
+        }
+        this.touched[this.nbTouched++] = node;
+    }
+
+    /**
+     * Reset the entries touched by the last query.
+     */
+    private void reset() {
+        for (int i = 0; i < this.nbTouched; ++i) {
+            this.forwardDistances[this.touched[i]] = Double.POSITIVE_INFINITY;
+            this.backwardDistances[this.touched[i]] = Double.POSITIVE_INFINITY;
+        }
+        this.nbTouched = 0;
+        this.forwardHeap.clear();
+        this.backwardHeap.clear();
+    }
+
+    /**
+     * @return Number of nodes settled by both searches during the last query.
+     */
+    public int getNbSettledNodes() {
+        return this.nbSettledNodes;
+    }
+
+    /**
+     * Retrieve the arcs of the shortest path found by the last query, unpacking
+     * the shortcuts.
+     *
+     * @return Indices of the arcs of the path in the compact graph (empty if there
+     *         is no path or if the origin is the destination).
+     */
+    public List<Integer> getArcs() {
+        List<Integer> arcs = new ArrayList<>();
+        if (this.meetingNode == -1) {
+            return arcs;
+        }
+
+        // Edges from the origin to the meeting node...
+        List<Integer> edges = new ArrayList<>();
+        for (int edge = this.forwardEdges[this.meetingNode]; edge != -1; edge = this.forwardEdges[this.hierarchy
+                .getSource(edge)]) {
+            edges.add(edge);
+        }
+        for (int i = edges.size() - 1; i >= 0; --i) {
+            this.hierarchy.unpack(edges.get(i), arcs);
+        }
+
+        // ...and from the meeting node to the destination.
+        for (int edge = this.backwardEdges[this.meetingNode]; edge != -1; edge = this.backwardEdges[this.hierarchy
+                .getTarget(edge)]) {
+            this.hierarchy.unpack(edge, arcs);
+        }
+        return arcs;
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.insa.algo.landmarks;
+
+import org.insa.algo.shortestpath.AStarAlgorithm;
+import org.insa.algo.shortestpath.Heuristic;
+import org.insa.algo.shortestpath.ShortestPathData;
+
+/**
+ * <p>
+ * Implementation of the A* algorithm with landmarks lower bounds (ALT) instead of
+ * the geometric heuristic.
+ * </p>
+ * 
+ * <p>
+ * Landmarks are retrieved from {@link LandmarksFactory} for the graph and the arc
+ * inspector of the input data, so the bounds are computed on the actual costs
+ * of the arcs (e.g. travel times in {@link org.insa.algo.AbstractInputData.Mode#TIME}).
+ * The first run on a graph may therefore be slow if the landmarks have to be
+ * built.
+ * </p>
+ *
+ */
+public class ALTAlgorithm extends AStarAlgorithm {
+
+    public ALTAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected Heuristic createHeuristic(ShortestPathData data) {
+        return LandmarksFactory.getLandmarks(data.getGraph(), data.getArcInspector())
+                .getHeuristic(data.getDestination().getId());
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.insa.algo.landmarks;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+import org.insa.graph.io.BadFormatException;
+import org.insa.graph.io.BinaryReader;
+import org.insa.graph.io.MapMismatchException;
+
+/**
+ * <p>
+ * Reader of {@link Landmarks} in binary format.
+ * </p>
+ * 
+ * <p>
+ * A landmarks file contains the ID of the map (32 bytes, like graph files), the
+ * key of the arc inspector (see {@link PreprocessingCache#getInspectorKey(ArcInspector)}),
+ * the number of nodes and of landmarks, the IDs of the landmarks, and then the
+ * distances from the landmarks and to the landmarks as {@code float}, node by
+ * node.
+ * </p>
+ *
+ */
+public class BinaryLandmarksReader extends BinaryReader {
+
+    // Map version and magic number targeted for this reader.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x1A4D3A2C;
+
+    // Length of the map id field (in bytes)
+    protected static final int MAP_ID_FIELD_LENGTH = 32;
+
+    /**
+     * Create a new BinaryLandmarksReader that read from the given input stream.
+     * 
+     * @param dis Input stream to read from.
+     */
+    public BinaryLandmarksReader(DataInputStream dis) {
+        super(MAGIC_NUMBER, VERSION, dis);
+    }
+
+    /**
+     * Read landmarks for the given graph and inspector, and close the input
+     * stream.
+     * 
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector used to compute the distances.
+     * 
+     * @return Landmarks read.
+     * 
+     * @throws MapMismatchException if the landmarks are not for the given graph.
+     * @throws BadFormatException if the landmarks were computed for another
+     *         inspector, or if the content of the file is invalid.
+     * @throws IOException if an error occurs while reading.
+     */
+    public Landmarks readLandmarks(Graph graph, ArcInspector inspector) throws IOException {
+
+        // Read and check magic number and version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map ID and inspector key, and check against graph and inspector.
+        String mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        String inspectorKey = dis.readUTF();
+        if (!inspectorKey.equals(PreprocessingCache.getInspectorKey(inspector))) {
+            throw new BadFormatException();
+        }
+
+        // Read number of nodes and landmarks.
+        int nbNodes = dis.readInt();
+        int nbLandmarks = dis.readInt();
+        if (nbNodes != graph.size() || nbLandmarks < 0) {
+            throw new BadFormatException();
+        }
+        int[] landmarks = new int[nbLandmarks];
+        for (int i = 0; i < nbLandmarks; ++i) {
+            landmarks[i] = dis.readInt();
+            if (landmarks[i] < 0 || landmarks[i] >= nbNodes) {
+                throw new BadFormatException();
+            }
+        }
+        checkByteOrThrow(255);
+
+        // Read distances.
+        float[] forward = readDistances(nbNodes * nbLandmarks);
+        checkByteOrThrow(254);
+        float[] backward = readDistances(nbNodes * nbLandmarks);
+        checkByteOrThrow(253);
+
+        this.dis.close();
+
+        return new Landmarks(mapId, inspectorKey, landmarks, nbNodes, forward, backward);
+    }
+
+    /**
+     * Read the given number of distances from the input stream.
+     * 
+     * @param count Number of distances to read.
+     * 
+     * @return Array containing the distances.
+     * 
+     * @throws IOException if an error occurs while reading.
+     */
+    protected float[] readDistances(int count) throws IOException {
+        float[] distances = new float[count];
+        for (int i = 0; i < count; ++i) {
+            distances[i] = dis.readFloat();
+        }
+        return distances;
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.insa.algo.landmarks;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graph.io.BinaryWriter;
+
+/**
+ * Writer of {@link Landmarks} in binary format (see
+ * {@link BinaryLandmarksReader}).
+ *
+ */
+public class BinaryLandmarksWriter extends BinaryWriter {
+
+    /**
+     * Create a new BinaryLandmarksWriter that writes to the given output stream.
+     * 
+     * @param dos Output stream to write to.
+     */
+    public BinaryLandmarksWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given landmarks and close the output stream.
+     * 
+     * @param landmarks Landmarks to write.
+     * 
+     * @throws IOException if an error occurs while writing.
+     */
+    public void writeLandmarks(Landmarks landmarks) throws IOException {
+
+        // Write magic number and version.
+        dos.writeInt(BinaryLandmarksReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryLandmarksReader.VERSION);
+
+        // Write map id and inspector key.
+        byte[] bytes = Arrays.copyOf(landmarks.getMapId().getBytes("UTF-8"),
+                BinaryLandmarksReader.MAP_ID_FIELD_LENGTH);
+        dos.write(bytes);
+        dos.writeUTF(landmarks.getInspectorKey());
+
+        // Write number of nodes and landmarks.
+        dos.writeInt(landmarks.getNodeCount());
+        dos.writeInt(landmarks.size());
+        for (int i = 0; i < landmarks.size(); ++i) {
+            dos.writeInt(landmarks.getLandmark(i));
+        }
+        dos.writeByte(255);
+
+        // Write distances.
+        for (float distance: landmarks.getForwardDistances()) {
+            dos.writeFloat(distance);
+        }
+        dos.writeByte(254);
+        for (float distance: landmarks.getBackwardDistances()) {
+            dos.writeFloat(distance);
+        }
+        dos.writeByte(253);
+
+        dos.flush();
+        dos.close();
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.insa.algo.landmarks;
+
+import java.util.Arrays;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.shortestpath.Heuristic;
+import org.insa.algo.utils.PreprocessingCache;
+
+/**
+ * <p>
+ * Distances between a set of landmarks and all the nodes of a graph, for a given
+ * {@link ArcInspector}, used to compute lower bounds of the cost of shortest
+ * paths with the triangle inequality (ALT).
+ * </p>
+ *
+ * <p>
+ * For any landmark <i>L</i> and nodes <i>v</i> and <i>t</i>, both <i>d(L, t) -
+ * d(L, v)</i> and <i>d(v, L) - d(t, L)</i> are lower bounds of <i>d(v, t)</i>.
+ * The heuristic returned by {@link #getHeuristic(int)} is the maximum of these
+ * bounds over all landmarks, which is consistent.
+ * </p>
+ *
+ * <p>
+ * Distances are stored in {@code float} arrays indexed by node then by landmark,
+ * so the distances of a node to all the landmarks are contiguous. Unreachable
+ * nodes have an infinite distance, and bounds involving them are ignored.
+ * </p>
+ *
+ * <p>
+ * Since the distances are rounded to the nearest float, the difference of two
+ * stored distances can exceed the difference of the actual distances by up to
+ * one ulp of the larger one, and the arc costs used by the searches are also
+ * rounded to floats. The bounds are therefore computed in {@code double} and
+ * lowered by twice the ulp of the largest stored distance (e.g. 0.125 m for
+ * distances up to 1000 km), so they never exceed the actual costs.
+ * </p>
+ *
+ * @see LandmarksBuilder
+ * @see LandmarksFactory
+ */
+public final class Landmarks {
+
+    // ID of the map and key of the inspector.
+    private final String mapId, inspectorKey;
+
+    // IDs of the landmarks.
+    private final int[] landmarks;
+
+    // Number of nodes.
+    private final int nbNodes;
+
+    // Distances from the landmarks to the nodes, and from the nodes to the
+    // landmarks (node * landmarks.length + landmark).
+    private final float[] forward, backward;
+
+    // Margin subtracted from the bounds to make up for the rounding of the
+    // distances (see class documentation).
+    private final double margin;
+
+    /**
+     * Create a new set of landmarks.
+     *
+     * @param mapId ID of the map of the landmarks.
+     * @param inspectorKey Key of the inspector used to compute the distances.
+     * @param landmarks IDs of the landmarks.
+     * @param nbNodes Number of nodes in the graph.
+     * @param forward Distances from the landmarks to the nodes.
+     * @param backward Distances from the nodes to the landmarks.
+     */
+    Landmarks(String mapId, String inspectorKey, int[] landmarks, int nbNodes, float[] forward,
+            float[] backward) {
+        if (forward.length != nbNodes * landmarks.length
+                || backward.length != nbNodes * landmarks.length) {
+            throw new IllegalArgumentException("invalid size of distance tables");
+        }
+        this.mapId = mapId;
+        this.inspectorKey = inspectorKey;
+        this.landmarks = landmarks;
+        this.nbNodes = nbNodes;
+        this.forward = forward;
+        this.backward = backward;
+        this.margin = 2 * Math.ulp(Math.max(getMaximumDistance(forward),
+                getMaximumDistance(backward)));
+    }
+
+    /**
+     * @return Largest finite distance in the given array (0 if there is none).
+     */
+    private static float getMaximumDistance(float[] distances) {
+        float maximum = 0;
+        for (float distance: distances) {
+            if (distance < Float.POSITIVE_INFINITY && distance > maximum) {
+                maximum = distance;
+            }
+        }
+        return maximum;
+    }
+
+    /**
+     * @return ID of the map of these landmarks.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Key of the inspector used to compute the distances.
+     *
+     * @see PreprocessingCache#getInspectorKey(ArcInspector)
+     */
+    public String getInspectorKey() {
+        return this.inspectorKey;
+    }
+
+    /**
+     * @return Number of landmarks.
+     */
+    public int size() {
+        return this.landmarks.length;
+    }
+
+    /**
+     * @return Number of nodes in the graph of these landmarks.
+     */
+    public int getNodeCount() {
+        return this.nbNodes;
+    }
+
+    /**
+     * @param index Index of the landmark.
+     *
+     * @return ID of the node of the landmark at the given index.
+     */
+    public int getLandmark(int index) {
+        return this.landmarks[index];
+    }
+
+    /**
+     * @param index Index of the landmark.
+     * @param node ID of the node.
+     *
+     * @return Distance from the landmark at the given index to the given node
+     *         (infinite if the node cannot be reached).
+     */
+    public float getDistanceFrom(int index, int node) {
+        return this.forward[node * this.landmarks.length + index];
+    }
+
+    /**
+     * @param index Index of the landmark.
+     * @param node ID of the node.
+     *
+     * @return Distance from the given node to the landmark at the given index
+     *         (infinite if the landmark cannot be reached).
+     */
+    public float getDistanceTo(int index, int node) {
+        return this.backward[node * this.landmarks.length + index];
+    }
+
+    /**
+     * Compute a lower bound of the cost of the shortest path between the given
+     * nodes.
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Lower bound of the cost of the shortest path from origin to
+     *         destination.
+     */
+    public double getLowerBound(int origin, int destination) {
+        return getHeuristic(destination).estimate(origin);
+    }
+
+    /**
+     * Create a heuristic towards the given destination. The distances between the
+     * destination and the landmarks are copied, so each estimate only reads the
+     * distances of the estimated node.
+     *
+     * @param destination ID of the destination.
+     *
+     * @return A new heuristic towards the given destination.
+     */
+    public Heuristic getHeuristic(int destination) {
+        final int nbLandmarks = this.landmarks.length;
+        final float[] fromLandmarks = Arrays.copyOfRange(this.forward, destination * nbLandmarks,
+                (destination + 1) * nbLandmarks);
+        final float[] toLandmarks = Arrays.copyOfRange(this.backward, destination * nbLandmarks,
+                (destination + 1) * nbLandmarks);
+        final double margin = this.margin;
+        return node -> {
+            double best = 0;
+            for (int i = 0, j = node * nbLandmarks; i < nbLandmarks; ++i, ++j) {
+                float from = this.forward[j], to = this.backward[j];
+                if (from < Float.POSITIVE_INFINITY
+                        && fromLandmarks[i] < Float.POSITIVE_INFINITY
+                        && (double) fromLandmarks[i] - from > best) {
+                    best = (double) fromLandmarks[i] - from;
+                }
+                if (to < Float.POSITIVE_INFINITY && toLandmarks[i] < Float.POSITIVE_INFINITY
+                        && (double) to - toLandmarks[i] > best) {
+                    best = (double) to - toLandmarks[i];
+                }
+            }
+            return best > margin ? best - margin : 0;
+        };
+    }
+
+    /**
+     * @return Distances from the landmarks to the nodes (not copied).
+     */
+    float[] getForwardDistances() {
+        return this.forward;
+    }
+
+    /**
+     * @return Distances from the nodes to the landmarks (not copied).
+     */
+    float[] getBackwardDistances() {
+        return this.backward;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[map=%s, inspector=%s, #landmarks=%d]",
+                getClass().getSimpleName(), getMapId(), getInspectorKey(), size());
+    }
+
+}
@@ -0,0 +1,414 @@
+package org.insa.algo.landmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Builder of {@link Landmarks}: selects landmarks in a graph with one of the
+ * available strategies, and computes the distances between the landmarks and all
+ * the nodes with one-to-all Dijkstra's algorithms, on the graph (from the
+ * landmarks) and on its transpose (to the landmarks).
+ * </p>
+ *
+ * <p>
+ * One-to-all runs are distributed over a pool of threads: all the runs at once
+ * for {@link Selection#PLANAR}, and the two runs of each new landmark for the
+ * other strategies, which need the distances of the previous landmarks to select
+ * the next one. If {@link Selection#PLANAR} selects less landmarks than
+ * requested (e.g. nodes without coordinates), the remaining landmarks are
+ * selected with {@link Selection#FARTHEST}.
+ * </p>
+ *
+ */
+public class LandmarksBuilder {
+
+    /**
+     * Available strategies to select landmarks.
+     *
+     */
+    public enum Selection {
+
+        /**
+         * Each new landmark is the node farthest from the landmarks already selected
+         * (the first one being the node farthest from a random node).
+         */
+        FARTHEST("Farthest"),
+
+        /**
+         * Each new landmark is a leaf of the shortest path tree of a random node,
+         * chosen in the subtree where the current landmarks give the worst lower
+         * bounds and that contains no landmark (Goldberg and Harrelson).
+         */
+        AVOID("Avoid"),
+
+        /**
+         * The map is divided into sectors around its center, and the landmark of
+         * each sector is the node farthest from the center.
+         */
+        PLANAR("Planar");
+
+        // Name of this strategy.
+        private final String name;
+
+        private Selection(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return A human-readable name for this strategy.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+    }
+
+    // Seed of the random generator used to select nodes.
+    private static final long SEED = 0x1A7L;
+
+    // Graph and inspector.
+    private final Graph graph;
+    private final ArcInspector inspector;
+
+    // Compact graphs and compiled inspectors, forward and backward.
+    private final CompactGraph forwardGraph, backwardGraph;
+    private final CompiledArcInspector forwardInspector, backwardInspector;
+
+    // Number of threads used for one-to-all runs.
+    private final int nbThreads;
+
+    // Landmarks selected so far, and their distances (one array per landmark).
+    private final List<Integer> landmarks = new ArrayList<>();
+    private final List<float[]> forwardDistances = new ArrayList<>();
+    private final List<float[]> backwardDistances = new ArrayList<>();
+
+    // Nodes selected as landmarks so far.
+    private boolean[] selected;
+
+    /**
+     * Create a new builder for the given graph and inspector, using one thread per
+     * available processor.
+     *
+     * @param graph Graph in which landmarks should be selected.
+     * @param inspector Inspector used to compute the distances.
+     */
+    public LandmarksBuilder(Graph graph, ArcInspector inspector) {
+        this(graph, inspector, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new builder for the given graph and inspector.
+     *
+     * @param graph Graph in which landmarks should be selected.
+     * @param inspector Inspector used to compute the distances.
+     * @param nbThreads Number of threads used to compute the distances.
+     */
+    public LandmarksBuilder(Graph graph, ArcInspector inspector, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.graph = graph;
+        this.inspector = inspector;
+        this.forwardGraph = graph.getCompactGraph();
+        this.backwardGraph = graph.getTransposeGraph().getCompactGraph();
+        this.forwardInspector = CompiledArcInspector.of(graph, inspector);
+        this.backwardInspector = CompiledArcInspector.of(graph.getTransposeGraph(), inspector);
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Select landmarks and compute their distances to all the nodes.
+     *
+     * @param count Number of landmarks to select (at most the number of nodes).
+     * @param selection Strategy used to select the landmarks.
+     *
+     * @return The landmarks.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     */
+    public Landmarks build(int count, Selection selection) throws InterruptedException {
+        final int nbNodes = this.forwardGraph.size();
+        count = Math.min(count, nbNodes);
+        this.landmarks.clear();
+        this.selected = new boolean[nbNodes];
+        this.forwardDistances.clear();
+        this.backwardDistances.clear();
+
+        Random random = new Random(SEED);
+        ExecutorService executor = Tasks.newFixedThreadPool(this.nbThreads, "landmarks");
+        try {
+            if (selection == Selection.PLANAR) {
+                addLandmarks(executor, selectPlanar(count));
+            }
+            while (this.landmarks.size() < count) {
+                int landmark;
+                if (this.landmarks.isEmpty() || selection != Selection.AVOID) {
+                    landmark = selectFarthest(random);
+                }
+                else {
+                    landmark = selectAvoid(random);
+                }
+                addLandmarks(executor, new int[] { landmark });
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        // Store the distances node by node.
+        final int nbLandmarks = this.landmarks.size();
+        int[] ids = new int[nbLandmarks];
+        float[] forward = new float[nbNodes * nbLandmarks];
+        float[] backward = new float[nbNodes * nbLandmarks];
+        for (int i = 0; i < nbLandmarks; ++i) {
+            ids[i] = this.landmarks.get(i);
+            float[] from = this.forwardDistances.get(i), to = this.backwardDistances.get(i);
+            for (int node = 0; node < nbNodes; ++node) {
+                forward[node * nbLandmarks + i] = from[node];
+                backward[node * nbLandmarks + i] = to[node];
+            }
+        }
+        return new Landmarks(this.graph.getMapId(),
+                PreprocessingCache.getInspectorKey(this.inspector), ids, nbNodes, forward,
+                backward);
+    }
+
+    /**
+     * Add the given landmarks, computing their distances in parallel.
+     */
+    private void addLandmarks(ExecutorService executor, int[] newLandmarks)
+            throws InterruptedException {
+        List<Future<float[]>> forward = new ArrayList<>(), backward = new ArrayList<>();
+        for (int landmark: newLandmarks) {
+            forward.add(executor.submit(distancesTask(forwardGraph, forwardInspector, landmark)));
+            backward.add(
+                    executor.submit(distancesTask(backwardGraph, backwardInspector, landmark)));
+        }
+        for (int i = 0; i < newLandmarks.length; ++i) {
+            this.landmarks.add(newLandmarks[i]);
+            this.selected[newLandmarks[i]] = true;
+            this.forwardDistances.add(Tasks.await(forward.get(i)));
+            this.backwardDistances.add(Tasks.await(backward.get(i)));
+        }
+    }
+
+    private static Callable<float[]> distancesTask(CompactGraph graph,
+            CompiledArcInspector inspector, int source) {
+        return () -> {
+            ShortestPathTree tree = new ShortestPathTree(graph, inspector, source);
+            float[] distances = new float[graph.size()];
+            for (int node = 0; node < distances.length; ++node) {
+                distances[node] = (float) tree.distances[node];
+            }
+            return distances;
+        };
+    }
+
+    /**
+     * Select the node farthest from the current landmarks (or from a random node if
+     * there is no landmark yet) among the reachable nodes.
+     */
+    private int selectFarthest(Random random) {
+        final int nbNodes = this.forwardGraph.size();
+        double[] distances;
+        if (this.landmarks.isEmpty()) {
+            distances = new ShortestPathTree(this.forwardGraph, this.forwardInspector,
+                    random.nextInt(nbNodes)).distances;
+        }
+        else {
+            distances = new double[nbNodes];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            for (float[] from: this.forwardDistances) {
+                for (int node = 0; node < nbNodes; ++node) {
+                    distances[node] = Math.min(from[node], distances[node]);
+                }
+            }
+        }
+        int best = -1;
+        for (int node = 0; node < nbNodes; ++node) {
+            if (!Double.isInfinite(distances[node]) && !this.selected[node]
+                    && (best == -1 || distances[node] > distances[best])) {
+                best = node;
+            }
+        }
+        return best == -1 ? selectRandom(random) : best;
+    }
+
+    /**
+     * Select a new landmark using the "avoid" strategy.
+     */
+    private int selectAvoid(Random random) {
+        final int nbNodes = this.forwardGraph.size();
+        final int root = random.nextInt(nbNodes);
+        ShortestPathTree tree = new ShortestPathTree(this.forwardGraph, this.forwardInspector,
+                root);
+
+        // Lower bounds from the root with the current landmarks.
+        float[] fromRoot = new float[this.landmarks.size()];
+        float[] toRoot = new float[this.landmarks.size()];
+        for (int i = 0; i < fromRoot.length; ++i) {
+            fromRoot[i] = this.forwardDistances.get(i)[root];
+            toRoot[i] = this.backwardDistances.get(i)[root];
+        }
+
+        // Compute the size of each subtree (sum of the differences between the
+        // distances and the lower bounds), in reverse order of settlement.
+        double[] sizes = new double[nbNodes];
+        boolean[] hasLandmark = Arrays.copyOf(this.selected, nbNodes);
+        int[] bestChild = new int[nbNodes];
+        Arrays.fill(bestChild, -1);
+        for (int i = tree.size - 1; i >= 0; --i) {
+            int node = tree.order[i];
+            double bound = 0;
+            for (int j = 0; j < fromRoot.length; ++j) {
+                float from = this.forwardDistances.get(j)[node];
+                float to = this.backwardDistances.get(j)[node];
+                if (!Float.isInfinite(from) && !Float.isInfinite(fromRoot[j])) {
+                    bound = Math.max(from - fromRoot[j], bound);
+                }
+                if (!Float.isInfinite(to) && !Float.isInfinite(toRoot[j])) {
+                    bound = Math.max(toRoot[j] - to, bound);
+                }
+            }
+            sizes[node] += Math.max(tree.distances[node] - bound, 0);
+            if (hasLandmark[node]) {
+                sizes[node] = 0;
+            }
+            int parent = tree.parents[node];
+            if (parent != -1) {
+                hasLandmark[parent] |= hasLandmark[node];
+                sizes[parent] += sizes[node];
+                if (bestChild[parent] == -1 || sizes[node] > sizes[bestChild[parent]]) {
+                    bestChild[parent] = node;
+                }
+            }
+        }
+
+        // Go down the tree following the largest subtrees.
+        int node = root;
+        while (bestChild[node] != -1 && sizes[bestChild[node]] > 0) {
+            node = bestChild[node];
+        }
+        return hasLandmark[node] || node == root ? selectRandom(random) : node;
+    }
+
+    /**
+     * Select landmarks using the "planar" strategy. Nodes without coordinates are
+     * ignored, so less than count landmarks may be returned.
+     */
+    private int[] selectPlanar(int count) {
+        final int nbNodes = this.forwardGraph.size();
+        double centerLongitude = 0, centerLatitude = 0;
+        int nbLocated = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            if (!Float.isNaN(this.forwardGraph.getLongitude(node))
+                    && !Float.isNaN(this.forwardGraph.getLatitude(node))) {
+                centerLongitude += this.forwardGraph.getLongitude(node);
+                centerLatitude += this.forwardGraph.getLatitude(node);
+                nbLocated++;
+            }
+        }
+        if (nbLocated == 0) {
+            return new int[0];
+        }
+        centerLongitude /= nbLocated;
+        centerLatitude /= nbLocated;
+        final double scale = Math.cos(Math.toRadians(centerLatitude));
+
+        int[] best = new int[count];
+        double[] bestDistances = new double[count];
+        Arrays.fill(best, -1);
+        for (int node = 0; node < nbNodes; ++node) {
+            double dx = (this.forwardGraph.getLongitude(node) - centerLongitude) * scale;
+            double dy = this.forwardGraph.getLatitude(node) - centerLatitude;
+            if (Double.isNaN(dx) || Double.isNaN(dy)) {
+                continue;
+            }
+            int sector = (int) ((Math.atan2(dy, dx) + Math.PI) / (2 * Math.PI) * count);
+            sector = Math.min(sector, count - 1);
+            double distance = dx * dx + dy * dy;
+            if (best[sector] == -1 || distance > bestDistances[sector]) {
+                best[sector] = node;
+                bestDistances[sector] = distance;
+            }
+        }
+        return Arrays.stream(best).filter(node -> node != -1).toArray();
+    }
+
+    /**
+     * Select a random node that is not a landmark yet.
+     */
+    private int selectRandom(Random random) {
+        int node;
+        do {
+            node = random.nextInt(this.forwardGraph.size());
+        }
+        while (this.selected[node]);
+        return node;
+    }
+
+    /**
+     * Shortest path tree computed by a one-to-all Dijkstra's algorithm.
+     */
+    private static class ShortestPathTree {
+
+        // Distances from the source, and parent of each node in the tree (-1 for
+        // the source and the unreachable nodes).
+        private final double[] distances;
+        private final int[] parents;
+
+        // Nodes in order of settlement, and number of reachable nodes.
+        private final int[] order;
+        private final int size;
+
+        ShortestPathTree(CompactGraph graph, CompiledArcInspector inspector, int source) {
+            final int nbNodes = graph.size();
+            this.distances = new double[nbNodes];
+            this.parents = new int[nbNodes];
+            this.order = new int[nbNodes];
+            Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(this.parents, -1);
+            boolean[] marked = new boolean[nbNodes];
+
+            PrimitiveBinaryHeap heap = new PrimitiveBinaryHeap(nbNodes);
+            this.distances[source] = 0;
+            heap.insert(source, 0);
+            int size = 0;
+            while (!heap.isEmpty()) {
+                int node = heap.deleteMin();
+                marked[node] = true;
+                this.order[size++] = node;
+                for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+                    if (!inspector.isAllowed(arc)) {
+                        continue;
+                    }
+                    int successor = graph.getTarget(arc);
+                    double distance = this.distances[node] + inspector.getCost(arc);
+                    if (!marked[successor] && distance < this.distances[successor]) {
+                        this.distances[successor] = distance;
+                        this.parents[successor] = node;
+                        heap.insertOrDecreaseKey(successor, distance);
+                    }
+                }
+            }
+            this.size = size;
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.insa.algo.landmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.landmarks.LandmarksBuilder.Selection;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Factory class used to retrieve the {@link Landmarks} of a graph for a given
+ * {@link ArcInspector}.
+ * </p>
+ * 
+ * <p>
+ * Landmarks are cached per graph and per inspector (see
+ * {@link PreprocessingCache}). If the {@link PreprocessingCache#DIRECTORY_PROPERTY}
+ * system property is set, landmarks are read from the corresponding directory
+ * (see {@link #getLandmarksFile(File, Graph, ArcInspector)}), or built and then
+ * saved into it if no valid file is found.
+ * </p>
+ *
+ */
+public class LandmarksFactory {
+
+    /**
+     * Number of landmarks built by {@link #getLandmarks(Graph, ArcInspector)}.
+     */
+    public static final int DEFAULT_NUMBER_OF_LANDMARKS = 16;
+
+    /**
+     * Selection strategy used by {@link #getLandmarks(Graph, ArcInspector)}.
+     */
+    public static final Selection DEFAULT_SELECTION = Selection.AVOID;
+
+    // Cache of landmarks, per graph and per inspector.
+    private static final PreprocessingCache<Landmarks> CACHE = new PreprocessingCache<>();
+
+    /**
+     * Retrieve the landmarks of the given graph for the given inspector, reading
+     * or building them if they are not in the cache.
+     * 
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector used to compute the distances.
+     * 
+     * @return The landmarks of the graph for the inspector.
+     */
+    public static Landmarks getLandmarks(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> {
+            File directory = PreprocessingCache.getDirectory();
+            return PreprocessingCache.readOrBuild(
+                    directory == null ? null : getLandmarksFile(directory, graph, inspector),
+                    file -> readLandmarks(file, graph, inspector),
+                    () -> buildLandmarks(graph, inspector), LandmarksFactory::writeLandmarks);
+        });
+    }
+
+    /**
+     * Build landmarks for the given graph and inspector, with the default number
+     * of landmarks and selection strategy.
+     * 
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector used to compute the distances.
+     * 
+     * @return The new landmarks.
+     */
+    public static Landmarks buildLandmarks(Graph graph, ArcInspector inspector) {
+        try {
+            return new LandmarksBuilder(graph, inspector).build(DEFAULT_NUMBER_OF_LANDMARKS,
+                    DEFAULT_SELECTION);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while building landmarks", exception);
+        }
+    }
+
+    /**
+     * Retrieve the file storing the landmarks of the given graph for the given
+     * inspector in the given directory. The name of the file is made of the ID of
+     * the map and a hash of the key of the inspector.
+     * 
+     * @param directory Directory containing the landmarks.
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector used to compute the distances.
+     * 
+     * @return The landmarks file (which may not exist).
+     */
+    public static File getLandmarksFile(File directory, Graph graph, ArcInspector inspector) {
+        return PreprocessingCache.getFile(directory, graph,
+                PreprocessingCache.getInspectorKey(inspector), "mapalt");
+    }
+
+    /**
+     * Read landmarks from the given file.
+     * 
+     * @param file File to read.
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector used to compute the distances.
+     * 
+     * @return The landmarks read.
+     * 
+     * @throws IOException if the file cannot be read or does not contain
+     *         landmarks for the given graph and inspector.
+     */
+    public static Landmarks readLandmarks(File file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return new BinaryLandmarksReader(dis).readLandmarks(graph, inspector);
+        }
+    }
+
+    /**
+     * Write landmarks to the given file.
+     * 
+     * @param file File to write.
+     * @param landmarks Landmarks to write.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeLandmarks(File file, Landmarks landmarks) throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            new BinaryLandmarksWriter(dos).writeLandmarks(landmarks);
+        }
+    }
+
+}
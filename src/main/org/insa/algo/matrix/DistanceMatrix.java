@@ -0,0 +1,132 @@
+package org.insa.algo.matrix;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Costs of the shortest paths from a list of origins to a list of destinations,
+ * stored row by row in a single array.
+ * </p>
+ *
+ * <p>
+ * The cost from a node to itself is 0, and the cost from an origin to a
+ * destination that cannot be reached from it is infinite.
+ * </p>
+ *
+ * @see DistanceMatrixBuilder
+ * @see org.insa.algo.contraction.BucketDistanceMatrixBuilder
+ */
+public final class DistanceMatrix {
+
+    /**
+     * Maximum number of costs of a matrix (the largest array that can be
+     * allocated on most virtual machines).
+     */
+    public static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Compute the number of costs of a matrix, checking that such a matrix can be
+     * stored.
+     *
+     * @param nbOrigins Number of origins (rows).
+     * @param nbDestinations Number of destinations (columns).
+     *
+     * @return Number of costs of the matrix.
+     *
+     * @throws IllegalArgumentException if the matrix has more than
+     *         {@link #MAX_SIZE} costs.
+     */
+    public static int getSize(int nbOrigins, int nbDestinations) {
+        long size = (long) nbOrigins * nbDestinations;
+        if (nbOrigins < 0 || nbDestinations < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "invalid matrix size: " + nbOrigins + " x " + nbDestinations);
+        }
+        return (int) size;
+    }
+
+    // IDs of the origins and the destinations.
+    private final int[] origins, destinations;
+
+    // Costs, row by row (one row per origin).
+    private final double[] costs;
+
+    /**
+     * Create a new matrix.
+     *
+     * @param origins IDs of the origins.
+     * @param destinations IDs of the destinations.
+     * @param costs Costs from each origin to each destination, row by row (the cost
+     *        from the origin <i>i</i> to the destination <i>j</i> being at index
+     *        i * destinations.length + j).
+     */
+    public DistanceMatrix(int[] origins, int[] destinations, double[] costs) {
+        if (costs.length != getSize(origins.length, destinations.length)) {
+            throw new IllegalArgumentException("invalid number of costs: " + costs.length);
+        }
+        this.origins = origins;
+        this.destinations = destinations;
+        this.costs = costs;
+    }
+
+    /**
+     * @return Number of origins (rows) of this matrix.
+     */
+    public int getOriginCount() {
+        return this.origins.length;
+    }
+
+    /**
+     * @return Number of destinations (columns) of this matrix.
+     */
+    public int getDestinationCount() {
+        return this.destinations.length;
+    }
+
+    /**
+     * @param index Index of the origin.
+     *
+     * @return ID of the origin.
+     */
+    public int getOrigin(int index) {
+        return this.origins[index];
+    }
+
+    /**
+     * @param index Index of the destination.
+     *
+     * @return ID of the destination.
+     */
+    public int getDestination(int index) {
+        return this.destinations[index];
+    }
+
+    /**
+     * @param origin Index of the origin.
+     * @param destination Index of the destination.
+     *
+     * @return Cost of the shortest path from the origin to the destination.
+     */
+    public double getCost(int origin, int destination) {
+        return this.costs[origin * this.destinations.length + destination];
+    }
+
+    /**
+     * @return Copy of the costs of this matrix, one array per origin.
+     */
+    public double[][] toArray() {
+        double[][] array = new double[this.origins.length][];
+        for (int origin = 0; origin < array.length; ++origin) {
+            array[origin] = Arrays.copyOfRange(this.costs, origin * this.destinations.length,
+                    (origin + 1) * this.destinations.length);
+        }
+        return array;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[#origins=%d, #destinations=%d]", getClass().getSimpleName(),
+                getOriginCount(), getDestinationCount());
+    }
+
+}
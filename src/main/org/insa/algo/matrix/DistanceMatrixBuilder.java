@@ -0,0 +1,260 @@
+package org.insa.algo.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+
+/**
+ * <p>
+ * Builder of {@link DistanceMatrix} running a one-to-many Dijkstra's algorithm
+ * from each origin, stopped when all the destinations are settled.
+ * </p>
+ *
+ * <p>
+ * Origins are processed in parallel on a pool of threads shared by the whole
+ * application (see {@link Tasks#getSharedPool(int)}). Search states are reused
+ * from one origin to the next (and from one matrix to the next), only resetting
+ * the entries touched by the previous search, so the cost of a search only
+ * depends on the number of nodes it settles. This builder does not need any
+ * preprocessing: with many origins and destinations on a large graph,
+ * {@link org.insa.algo.contraction.BucketDistanceMatrixBuilder} is much faster
+ * once a hierarchy is available.
+ * </p>
+ *
+ */
+public class DistanceMatrixBuilder {
+
+    /**
+     * Retrieve the IDs of the given nodes.
+     *
+     * @param nodes List of nodes.
+     *
+     * @return IDs of the nodes, in the same order.
+     */
+    public static int[] getIds(List<Node> nodes) {
+        int[] ids = new int[nodes.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = nodes.get(i).getId();
+        }
+        return ids;
+    }
+
+    // Compact graph and compiled inspector.
+    private final CompactGraph compactGraph;
+    private final CompiledArcInspector inspector;
+
+    // Number of threads used to process the origins.
+    private final int nbThreads;
+
+    // Search states not used by a running search (at most one per thread is
+    // created). They are not kept per thread, since the threads of the shared pool
+    // outlive this builder.
+    private final Queue<Search> searches;
+
+    /**
+     * Create a new builder for the given graph and inspector, using one thread per
+     * available processor.
+     *
+     * @param graph Graph of the matrices.
+     * @param inspector Inspector used to compute the costs.
+     */
+    public DistanceMatrixBuilder(Graph graph, ArcInspector inspector) {
+        this(graph, inspector, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new builder for the given graph and inspector.
+     *
+     * @param graph Graph of the matrices.
+     * @param inspector Inspector used to compute the costs.
+     * @param nbThreads Number of threads used to process the origins.
+     */
+    public DistanceMatrixBuilder(Graph graph, ArcInspector inspector, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.compactGraph = graph.getCompactGraph();
+        this.inspector = CompiledArcInspector.of(graph, inspector);
+        this.nbThreads = nbThreads;
+        this.searches = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Compute the costs from the given origins to the given destinations.
+     *
+     * @param origins Origins (rows of the matrix).
+     * @param destinations Destinations (columns of the matrix).
+     *
+     * @return The distance matrix.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     */
+    public DistanceMatrix build(List<Node> origins, List<Node> destinations)
+            throws InterruptedException {
+        return build(getIds(origins), getIds(destinations));
+    }
+
+    /**
+     * Compute the costs from the given origins to the given destinations.
+     *
+     * @param origins IDs of the origins (rows of the matrix).
+     * @param destinations IDs of the destinations (columns of the matrix).
+     *
+     * @return The distance matrix.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     * @throws IllegalArgumentException if an origin or a destination is not a node
+     *         of the graph, or if the matrix is too large.
+     */
+    public DistanceMatrix build(int[] origins, int[] destinations) throws InterruptedException {
+        final int nbNodes = this.compactGraph.size();
+
+        // Mark the destinations.
+        boolean[] isDestination = new boolean[nbNodes];
+        int nbTargets = 0;
+        for (int destination: destinations) {
+            if (destination < 0 || destination >= nbNodes) {
+                throw new IllegalArgumentException("invalid destination: " + destination);
+            }
+            if (!isDestination[destination]) {
+                isDestination[destination] = true;
+                nbTargets++;
+            }
+        }
+        for (int origin: origins) {
+            if (origin < 0 || origin >= nbNodes) {
+                throw new IllegalArgumentException("invalid origin: " + origin);
+            }
+        }
+
+        final int nbDestinations = destinations.length;
+        final int nbDistinctTargets = nbTargets;
+        double[] costs = new double[DistanceMatrix.getSize(origins.length, nbDestinations)];
+        ExecutorService executor = Tasks.getSharedPool(this.nbThreads);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < origins.length; ++i) {
+                final int row = i;
+                futures.add(executor.submit(() -> {
+                    Search search = acquireSearch();
+                    try {
+                        search.run(origins[row], isDestination, nbDistinctTargets);
+                        for (int column = 0; column < nbDestinations; ++column) {
+                            costs[row * nbDestinations + column] = search
+                                    .getDistance(destinations[column]);
+                        }
+                    }
+                    finally {
+                        this.searches.offer(search);
+                    }
+                }));
+            }
+            for (Future<?> future: futures) {
+                Tasks.await(future);
+            }
+        }
+        finally {
+            // Do not leave the searches of a failed build in the shared pool.
+            for (Future<?> future: futures) {
+                future.cancel(false);
+            }
+        }
+        return new DistanceMatrix(origins.clone(), destinations.clone(), costs);
+    }
+
+    /**
+     * @return A search state not used by any running search.
+     */
+    private Search acquireSearch() {
+        Search search = this.searches.poll();
+        return search != null ? search : new Search(this.compactGraph.size());
+    }
+
+    /**
+     * Reusable state of a one-to-many search.
+     */
+    private class Search {
+
+        // Distances of the nodes (infinite if not reached).
+        private final double[] distances;
+
+        // Queue of the search.
+        private final PrimitiveBinaryHeap heap;
+
+        // Nodes touched by the last search.
+        private int[] touched;
+        private int nbTouched;
+
+        Search(int nbNodes) {
+            this.distances = new double[nbNodes];
+            Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+            this.heap = new PrimitiveBinaryHeap(nbNodes);
+            this.touched = new int[64];
+            this.nbTouched = 0;
+        }
+
+        /**
+         * Compute the distances from the given origin until the given number of
+         * targets are settled.
+         */
+        void run(int origin, boolean[] isTarget, int nbTargets) {
+            final CompactGraph graph = DistanceMatrixBuilder.this.compactGraph;
+            final CompiledArcInspector inspector = DistanceMatrixBuilder.this.inspector;
+            for (int i = 0; i < this.nbTouched; ++i) {
+                this.distances[this.touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            this.nbTouched = 0;
+            this.heap.clear();
+
+            relax(origin, 0);
+            while (nbTargets > 0 && !this.heap.isEmpty()) {
+                int node = this.heap.deleteMin();
+                if (isTarget[node]) {
+                    nbTargets--;
+                }
+                double distance = this.distances[node];
+                for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+                    if (inspector.isAllowed(arc)) {
+                        relax(graph.getTarget(arc), distance + inspector.getCost(arc));
+                    }
+                }
+            }
+        }
+
+        private void relax(int node, double distance) {
+            if (distance < this.distances[node]) {
+                if (Double.isInfinite(this.distances[node])) {
+                    if (this.nbTouched == this.touched.length) {
+                        this.touched = Arrays.copyOf(this.touched, 2 * this.touched.length);
+                    }
+                    this.touched[this.nbTouched++] = node;
+                }
+                this.distances[node] = distance;
+                this.heap.insertOrDecreaseKey(node, distance);
+            }
+        }
+
+        /**
+         * @return Distance of the given node in the last search.
+         */
+        double getDistance(int node) {
+            return this.distances[node];
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.insa.algo.overlay;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graph.Graph;
+import org.insa.graph.io.BadFormatException;
+import org.insa.graph.io.BinaryReader;
+import org.insa.graph.io.MapMismatchException;
+
+/**
+ * <p>
+ * Reader of {@link OverlayGraph} in binary format.
+ * </p>
+ * 
+ * <p>
+ * An overlay file contains the ID of the map (32 bytes, like graph files), the
+ * number of nodes and of levels, and then, for each level, the number of cells,
+ * the cell of each node, and the entries and the exits of each cell (number of
+ * nodes followed by their IDs).
+ * </p>
+ *
+ */
+public class BinaryOverlayReader extends BinaryReader {
+
+    // Map version and magic number targeted for this reader.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x1A4D3C52;
+
+    // Length of the map id field (in bytes)
+    protected static final int MAP_ID_FIELD_LENGTH = 32;
+
+    /**
+     * Create a new BinaryOverlayReader that read from the given input stream.
+     * 
+     * @param dis Input stream to read from.
+     */
+    public BinaryOverlayReader(DataInputStream dis) {
+        super(MAGIC_NUMBER, VERSION, dis);
+    }
+
+    /**
+     * Read an overlay for the given graph, and close the input stream.
+     * 
+     * @param graph Graph of the overlay.
+     * 
+     * @return Overlay read.
+     * 
+     * @throws MapMismatchException if the overlay is not for the given graph.
+     * @throws BadFormatException if the content of the file is invalid.
+     * @throws IOException if an error occurs while reading.
+     */
+    public OverlayGraph readOverlay(Graph graph) throws IOException {
+
+        // Read and check magic number and version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map ID and check against graph.
+        String mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+
+        // Read number of nodes and levels.
+        int nbNodes = dis.readInt();
+        int nbLevels = dis.readInt();
+        if (nbNodes != graph.size() || nbLevels < 1) {
+            throw new BadFormatException();
+        }
+
+        // Read cells, entries and exits of each level.
+        int[][] cells = new int[nbLevels][];
+        int[] cellCounts = new int[nbLevels];
+        int[][] entryOffsets = new int[nbLevels][], entries = new int[nbLevels][];
+        int[][] exitOffsets = new int[nbLevels][], exits = new int[nbLevels][];
+        for (int level = 0; level < nbLevels; ++level) {
+            cellCounts[level] = dis.readInt();
+            if (cellCounts[level] < 0 || cellCounts[level] > nbNodes) {
+                throw new BadFormatException();
+            }
+            cells[level] = new int[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                cells[level][node] = dis.readInt();
+                if (cells[level][node] < 0 || cells[level][node] >= cellCounts[level]) {
+                    throw new BadFormatException();
+                }
+            }
+            entryOffsets[level] = new int[cellCounts[level] + 1];
+            exitOffsets[level] = new int[cellCounts[level] + 1];
+            int[] levelEntries = new int[nbNodes], levelExits = new int[nbNodes];
+            for (int cell = 0; cell < cellCounts[level]; ++cell) {
+                entryOffsets[level][cell + 1] = readNodes(cells[level], cell, levelEntries,
+                        entryOffsets[level][cell]);
+                exitOffsets[level][cell + 1] = readNodes(cells[level], cell, levelExits,
+                        exitOffsets[level][cell]);
+            }
+            entries[level] = Arrays.copyOf(levelEntries, entryOffsets[level][cellCounts[level]]);
+            exits[level] = Arrays.copyOf(levelExits, exitOffsets[level][cellCounts[level]]);
+            checkByteOrThrow(255);
+        }
+        checkByteOrThrow(254);
+
+        this.dis.close();
+
+        return new OverlayGraph(mapId, cells, cellCounts, entryOffsets, entries, exitOffsets,
+                exits);
+    }
+
+    /**
+     * Read the entries or the exits of a cell into the given array.
+     * 
+     * @param cells Cell of each node at the level.
+     * @param cell Cell of the nodes.
+     * @param nodes Array receiving the nodes.
+     * @param offset Offset of the first node in the array.
+     * 
+     * @return Offset following the last node read.
+     * 
+     * @throws BadFormatException if the nodes are invalid or are not in the cell.
+     * @throws IOException if an error occurs while reading.
+     */
+    protected int readNodes(int[] cells, int cell, int[] nodes, int offset)
+            throws IOException {
+        int count = dis.readInt();
+        if (count < 0 || count > nodes.length - offset) {
+            throw new BadFormatException();
+        }
+        for (int i = offset; i < offset + count; ++i) {
+            nodes[i] = dis.readInt();
+            if (nodes[i] < 0 || nodes[i] >= cells.length || cells[nodes[i]] != cell) {
+                throw new BadFormatException();
+            }
+        }
+        return offset + count;
+    }
+
+}
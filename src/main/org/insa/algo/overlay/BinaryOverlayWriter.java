@@ -0,0 +1,71 @@
+package org.insa.algo.overlay;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graph.io.BinaryWriter;
+
+/**
+ * Writer of {@link OverlayGraph} in binary format (see
+ * {@link BinaryOverlayReader}).
+ *
+ */
+public class BinaryOverlayWriter extends BinaryWriter {
+
+    /**
+     * Create a new BinaryOverlayWriter that writes to the given output stream.
+     * 
+     * @param dos Output stream to write to.
+     */
+    public BinaryOverlayWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given overlay and close the output stream.
+     * 
+     * @param overlay Overlay to write.
+     * 
+     * @throws IOException if an error occurs while writing.
+     */
+    public void writeOverlay(OverlayGraph overlay) throws IOException {
+
+        // Write magic number and version.
+        dos.writeInt(BinaryOverlayReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryOverlayReader.VERSION);
+
+        // Write map id.
+        byte[] bytes = Arrays.copyOf(overlay.getMapId().getBytes("UTF-8"),
+                BinaryOverlayReader.MAP_ID_FIELD_LENGTH);
+        dos.write(bytes);
+
+        // Write number of nodes and levels.
+        dos.writeInt(overlay.size());
+        dos.writeInt(overlay.getLevelCount());
+
+        // Write cells, entries and exits of each level.
+        for (int level = 1; level <= overlay.getLevelCount(); ++level) {
+            dos.writeInt(overlay.getCellCount(level));
+            for (int node = 0; node < overlay.size(); ++node) {
+                dos.writeInt(overlay.getCell(node, level));
+            }
+            for (int cell = 0; cell < overlay.getCellCount(level); ++cell) {
+                dos.writeInt(overlay.getEntryCount(level, cell));
+                for (int i = 0; i < overlay.getEntryCount(level, cell); ++i) {
+                    dos.writeInt(overlay.getEntry(level, cell, i));
+                }
+                dos.writeInt(overlay.getExitCount(level, cell));
+                for (int i = 0; i < overlay.getExitCount(level, cell); ++i) {
+                    dos.writeInt(overlay.getExit(level, cell, i));
+                }
+            }
+            dos.writeByte(255);
+        }
+        dos.writeByte(254);
+
+        dos.flush();
+        dos.close();
+    }
+
+}
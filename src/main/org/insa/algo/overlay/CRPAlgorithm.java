@@ -0,0 +1,88 @@
+package org.insa.algo.overlay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.shortestpath.ShortestPathAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Path;
+
+/**
+ * <p>
+ * Customizable route planning: shortest path algorithm answering queries on the
+ * {@link OverlayMetric} of the graph for the arc inspector of the input data
+ * (see {@link OverlayQuery}).
+ * </p>
+ *
+ * <p>
+ * The overlay and its metric are retrieved from {@link OverlayFactory}, so the
+ * first run on a graph builds the overlay, and the first run with each inspector
+ * customizes it. Only the origin and the destination are notified to the
+ * observers since the nodes settled on the overlay are not meaningful on the
+ * original graph.
+ * </p>
+ *
+ */
+public class CRPAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes settled during the last run.
+    private int nbSettledNodes;
+
+    public CRPAlgorithm(ShortestPathData data) {
+        super(data);
+        this.nbSettledNodes = 0;
+    }
+
+    /**
+     * @return Number of nodes settled by the searches during the last run.
+     */
+    public int getNbSettledNodes() {
+        return this.nbSettledNodes;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        OverlayMetric metric = OverlayFactory.getMetric(graph, data.getArcInspector());
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // The origin is the destination, the solution is infeasible (like the
+        // other algorithms)...
+        if (origin == destination) {
+            this.nbSettledNodes = 0;
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        OverlayQuery query = new OverlayQuery(graph, metric, data.getArcInspector());
+        double cost = query.run(origin, destination);
+        this.nbSettledNodes = query.getNbSettledNodes();
+
+        // ...as well as when there is no path.
+        if (Double.isInfinite(cost)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Create the path from the unpacked arcs.
+        List<Integer> indices = query.getArcs();
+        ArrayList<Arc> arcs = new ArrayList<>(indices.size());
+        for (int arc: indices) {
+            arcs.add(compactGraph.getArc(arc));
+        }
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -0,0 +1,188 @@
+package org.insa.algo.overlay;
+
+import java.util.Arrays;
+
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.graph.CompactGraph;
+
+/**
+ * <p>
+ * Dijkstra's algorithm restricted to a cell of an {@link OverlayGraph}, either
+ * on the arcs of the graph, or on the cliques of the cells of the level below
+ * and the arcs between these cells.
+ * </p>
+ *
+ * <p>
+ * The arrays of the search are allocated once and only the entries touched by a
+ * search are reset before the next one, so the cost of a search only depends on
+ * the size of the cell. A search object must not be used by multiple threads at
+ * the same time.
+ * </p>
+ *
+ */
+final class CellSearch {
+
+    // Overlay, graph and compiled inspector of the search.
+    private final OverlayGraph overlay;
+    private final CompactGraph graph;
+    private final CompiledArcInspector inspector;
+
+    // Distances and predecessor arcs (-1 if none) of the nodes.
+    private final double[] distances;
+    private final int[] arcs;
+
+    // Queue of the search.
+    private final PrimitiveBinaryHeap heap;
+
+    // Nodes touched by the last search.
+    private int[] touched;
+    private int nbTouched;
+
+    /**
+     * Create a new search on the given overlay.
+     *
+     * @param overlay Overlay containing the cells.
+     * @param graph Compact graph of the overlay.
+     * @param inspector Compiled inspector for the graph.
+     */
+    CellSearch(OverlayGraph overlay, CompactGraph graph, CompiledArcInspector inspector) {
+        final int nbNodes = graph.size();
+        this.overlay = overlay;
+        this.graph = graph;
+        this.inspector = inspector;
+        this.distances = new double[nbNodes];
+        Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+        this.arcs = new int[nbNodes];
+        this.heap = new PrimitiveBinaryHeap(nbNodes);
+        this.touched = new int[64];
+        this.nbTouched = 0;
+    }
+
+    /**
+     * Compute the distances from the given node on the arcs inside its cell at the
+     * given level, until the given target is settled.
+     *
+     * @param source ID of the source.
+     * @param level Level of the cell (from 1).
+     * @param target ID of the target, or -1 to stop when all the exits of the cell
+     *        are settled.
+     */
+    void searchArcs(int source, int level, int target) {
+        start(source);
+        final int cell = this.overlay.getCell(source, level);
+        int nbExits = this.overlay.getExitCount(level, cell);
+        while (!this.heap.isEmpty()) {
+            int node = this.heap.deleteMin();
+            if (node == target || (target == -1
+                    && this.overlay.getExitIndex(level, node) != -1 && --nbExits == 0)) {
+                break;
+            }
+            double distance = this.distances[node];
+            for (int arc = this.graph.getFirstArc(node); arc < this.graph
+                    .getEndArc(node); ++arc) {
+                int successor = this.graph.getTarget(arc);
+                if (this.inspector.isAllowed(arc)
+                        && this.overlay.getCell(successor, level) == cell) {
+                    relax(successor, distance + this.inspector.getCost(arc), arc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the distances from the given entry of a cell to the exits of the
+     * cell, using the cliques of the cells of the level below and the arcs between
+     * these cells.
+     *
+     * @param source ID of the source (an entry of its cell at the given level).
+     * @param level Level of the cell (from 2).
+     * @param subWeights Weights of the cliques of the level below.
+     */
+    void searchCliques(int source, int level, double[] subWeights) {
+        start(source);
+        final int cell = this.overlay.getCell(source, level);
+        final int subLevel = level - 1;
+        int nbExits = this.overlay.getExitCount(level, cell);
+        while (!this.heap.isEmpty()) {
+            int node = this.heap.deleteMin();
+            if (this.overlay.getExitIndex(level, node) != -1 && --nbExits == 0) {
+                break;
+            }
+            double distance = this.distances[node];
+            int subCell = this.overlay.getCell(node, subLevel);
+
+            // Paths inside the cell of the node...
+            int entry = this.overlay.getEntryIndex(subLevel, node);
+            if (entry != -1) {
+                int nbSubExits = this.overlay.getExitCount(subLevel, subCell);
+                int offset = this.overlay.getCliqueOffset(subLevel, subCell)
+                        + entry * nbSubExits;
+                for (int exit = 0; exit < nbSubExits; ++exit) {
+                    relax(this.overlay.getExit(subLevel, subCell, exit),
+                            distance + subWeights[offset + exit], -1);
+                }
+            }
+
+            // ...and arcs to other cells inside the cell of the source.
+            if (this.overlay.getExitIndex(subLevel, node) != -1) {
+                for (int arc = this.graph.getFirstArc(node); arc < this.graph
+                        .getEndArc(node); ++arc) {
+                    int successor = this.graph.getTarget(arc);
+                    if (this.inspector.isAllowed(arc)
+                            && this.overlay.getCell(successor, subLevel) != subCell
+                            && this.overlay.getCell(successor, level) == cell) {
+                        relax(successor, distance + this.inspector.getCost(arc), arc);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Distance of the node in the last search (infinite if the node has not
+     *         been reached).
+     */
+    double getDistance(int node) {
+        return this.distances[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Predecessor arc of the node in the last search (-1 if the node is the
+     *         source or has been reached through a clique).
+     */
+    int getArc(int node) {
+        return this.arcs[node];
+    }
+
+    /**
+     * Reset the entries touched by the last search and start a new one.
+     */
+    private void start(int source) {
+        for (int i = 0; i < this.nbTouched; ++i) {
+            this.distances[this.touched[i]] = Double.POSITIVE_INFINITY;
+        }
+        this.nbTouched = 0;
+        this.heap.clear();
+        relax(source, 0, -1);
+    }
+
+    private void relax(int node, double distance, int arc) {
+        if (distance < this.distances[node]) {
+            if (Double.isInfinite(this.distances[node])) {
+                if (this.nbTouched == this.touched.length) {
+                    this.touched = Arrays.copyOf(this.touched, 2 * this.touched.length);
+                }
+                this.touched[this.nbTouched++] = node;
+            }
+            this.distances[node] = distance;
+            this.arcs[node] = arc;
+            this.heap.insertOrDecreaseKey(node, distance);
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package org.insa.algo.overlay;
+
+import java.util.Arrays;
+
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Builder of the {@link OverlayGraph} of a graph.
+ * </p>
+ *
+ * <p>
+ * Nodes are partitioned by recursive coordinate bisection: a set of nodes is
+ * split at the median of its longest side (in longitude or latitude) until it
+ * fits in a cell of the lowest level. A set of nodes becomes a cell of a level
+ * when its size is not greater than the maximum cell size of the level, so cells
+ * are nested and balanced, although their boundaries are not as small as with a
+ * dedicated graph partitioner. Nodes without coordinates are put at the end of
+ * each split.
+ * </p>
+ *
+ */
+public class OverlayBuilder {
+
+    // Maximum cell sizes of the default levels.
+    private static final int[] DEFAULT_CELL_SIZES = { 1 << 7, 1 << 10, 1 << 13, 1 << 16 };
+
+    /**
+     * Retrieve the default maximum cell sizes for a graph with the given number of
+     * nodes: the cell sizes of the default levels (128, 1024, 8192 and 65536 nodes)
+     * that are lower than the number of nodes.
+     *
+     * @param nbNodes Number of nodes of the graph.
+     *
+     * @return Maximum cell size of each level, in increasing order.
+     */
+    public static int[] getDefaultCellSizes(int nbNodes) {
+        int nbLevels = 0;
+        while (nbLevels < DEFAULT_CELL_SIZES.length && DEFAULT_CELL_SIZES[nbLevels] < nbNodes) {
+            nbLevels++;
+        }
+        if (nbLevels == 0) {
+            return new int[] { Math.max(1, nbNodes / 2) };
+        }
+        return Arrays.copyOf(DEFAULT_CELL_SIZES, nbLevels);
+    }
+
+    // Graph of the overlay.
+    private final Graph graph;
+    private final CompactGraph compactGraph;
+
+    /**
+     * Create a new builder for the given graph.
+     *
+     * @param graph Graph of the overlay.
+     */
+    public OverlayBuilder(Graph graph) {
+        this.graph = graph;
+        this.compactGraph = graph.getCompactGraph();
+    }
+
+    /**
+     * Build the overlay with the default cell sizes (see
+     * {@link #getDefaultCellSizes(int)}).
+     *
+     * @return The overlay.
+     */
+    public OverlayGraph build() {
+        return build(getDefaultCellSizes(this.compactGraph.size()));
+    }
+
+    /**
+     * Build the overlay with the given maximum cell sizes.
+     *
+     * @param cellSizes Maximum number of nodes in a cell of each level, from the
+     *        lowest level, in strictly increasing order.
+     *
+     * @return The overlay.
+     */
+    public OverlayGraph build(int... cellSizes) {
+        if (cellSizes.length == 0) {
+            throw new IllegalArgumentException("no level");
+        }
+        for (int level = 0; level < cellSizes.length; ++level) {
+            if (cellSizes[level] < 1 || (level > 0 && cellSizes[level] <= cellSizes[level - 1])) {
+                throw new IllegalArgumentException("invalid cell sizes: "
+                        + Arrays.toString(cellSizes));
+            }
+        }
+        final int nbNodes = this.compactGraph.size();
+        final int nbLevels = cellSizes.length;
+
+        // Partition the nodes.
+        int[][] cells = new int[nbLevels][nbNodes];
+        int[] cellCounts = new int[nbLevels];
+        int[] order = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            order[node] = node;
+        }
+        partition(order, 0, nbNodes, nbLevels, cellSizes, cells, cellCounts,
+                new long[nbNodes]);
+
+        // Find the entries and the exits of the cells at each level.
+        int[][] entryOffsets = new int[nbLevels][], entries = new int[nbLevels][];
+        int[][] exitOffsets = new int[nbLevels][], exits = new int[nbLevels][];
+        for (int level = 0; level < nbLevels; ++level) {
+            final int[] levelCells = cells[level];
+            boolean[] isEntry = new boolean[nbNodes], isExit = new boolean[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arc = this.compactGraph.getFirstArc(node); arc < this.compactGraph
+                        .getEndArc(node); ++arc) {
+                    int target = this.compactGraph.getTarget(arc);
+                    if (levelCells[target] != levelCells[node]) {
+                        isExit[node] = true;
+                        isEntry[target] = true;
+                    }
+                }
+            }
+            entryOffsets[level] = new int[cellCounts[level] + 1];
+            entries[level] = groupByCell(isEntry, levelCells, entryOffsets[level]);
+            exitOffsets[level] = new int[cellCounts[level] + 1];
+            exits[level] = groupByCell(isExit, levelCells, exitOffsets[level]);
+        }
+
+        return new OverlayGraph(this.graph.getMapId(), cells, cellCounts, entryOffsets, entries,
+                exitOffsets, exits);
+    }
+
+    /**
+     * Split the nodes of order[from:to] recursively, assigning them to new cells of
+     * the levels lower than the given level for which they are small enough.
+     */
+    private void partition(int[] order, int from, int to, int level, int[] cellSizes,
+            int[][] cells, int[] cellCounts, long[] keys) {
+        final int size = to - from;
+        while (level > 0 && size <= cellSizes[level - 1]) {
+            int cell = cellCounts[level - 1]++;
+            for (int i = from; i < to; ++i) {
+                cells[level - 1][order[i]] = cell;
+            }
+            level--;
+        }
+        if (level == 0) {
+            return;
+        }
+
+        // Find the longest side of the bounding box of the nodes...
+        float left = Float.POSITIVE_INFINITY, right = Float.NEGATIVE_INFINITY;
+        float bottom = Float.POSITIVE_INFINITY, top = Float.NEGATIVE_INFINITY;
+        for (int i = from; i < to; ++i) {
+            float longitude = this.compactGraph.getLongitude(order[i]);
+            float latitude = this.compactGraph.getLatitude(order[i]);
+            if (!Float.isNaN(longitude) && !Float.isNaN(latitude)) {
+                left = Math.min(longitude, left);
+                right = Math.max(longitude, right);
+                bottom = Math.min(latitude, bottom);
+                top = Math.max(latitude, top);
+            }
+        }
+        boolean byLongitude = (right - left) * Math.cos(Math.toRadians((top + bottom) / 2))
+                >= top - bottom;
+
+        // ...sort the nodes along it, and split them at the median.
+        for (int i = from; i < to; ++i) {
+            float coordinate = byLongitude ? this.compactGraph.getLongitude(order[i])
+                    : this.compactGraph.getLatitude(order[i]);
+            keys[i] = ((long) toSortableInt(coordinate) << 32) | order[i];
+        }
+        Arrays.sort(keys, from, to);
+        for (int i = from; i < to; ++i) {
+            order[i] = (int) keys[i];
+        }
+        int middle = (from + to) >>> 1;
+        partition(order, from, middle, level, cellSizes, cells, cellCounts, keys);
+        partition(order, middle, to, level, cellSizes, cells, cellCounts, keys);
+    }
+
+    /**
+     * @return Integer with the same order as the given float (NaN being greater
+     *         than all the other values).
+     */
+    private static int toSortableInt(float value) {
+        int bits = Float.floatToIntBits(Float.isNaN(value) ? Float.POSITIVE_INFINITY : value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
+    /**
+     * Group the selected nodes by cell.
+     *
+     * @param selected Selection of the nodes.
+     * @param cells Cell of each node.
+     * @param offsets Array filled with the offset of each cell in the result.
+     *
+     * @return IDs of the selected nodes, by cell.
+     */
+    private static int[] groupByCell(boolean[] selected, int[] cells, int[] offsets) {
+        for (int node = 0; node < selected.length; ++node) {
+            if (selected[node]) {
+                offsets[cells[node] + 1]++;
+            }
+        }
+        for (int cell = 1; cell < offsets.length; ++cell) {
+            offsets[cell] += offsets[cell - 1];
+        }
+        int[] nodes = new int[offsets[offsets.length - 1]];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int node = 0; node < selected.length; ++node) {
+            if (selected[node]) {
+                nodes[next[cells[node]]++] = node;
+            }
+        }
+        return nodes;
+    }
+
+}
@@ -0,0 +1,147 @@
+package org.insa.algo.overlay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Customization of an {@link OverlayGraph} for a given {@link ArcInspector},
+ * computing the {@link OverlayMetric} of the overlay.
+ * </p>
+ *
+ * <p>
+ * Levels are processed from the lowest one. The cliques of the cells of the
+ * first level are computed with a Dijkstra's algorithm from each entry on the
+ * arcs inside the cell, and the cliques of the upper levels with a Dijkstra's
+ * algorithm on the cliques of the level below, so each level only explores
+ * boundary nodes of the level below. The cells of a level are independent and
+ * processed in parallel by a pool of threads.
+ * </p>
+ *
+ */
+public class OverlayCustomizer {
+
+    // Overlay and inspector.
+    private final OverlayGraph overlay;
+    private final ArcInspector inspector;
+
+    // Compact graph and compiled inspector.
+    private final CompactGraph compactGraph;
+    private final CompiledArcInspector compiledInspector;
+
+    // Number of threads used to process the cells.
+    private final int nbThreads;
+
+    // Search state, one per thread.
+    private final ThreadLocal<CellSearch> searches;
+
+    /**
+     * Create a new customizer for the given overlay and inspector, using one
+     * thread per available processor.
+     *
+     * @param graph Graph of the overlay.
+     * @param overlay Overlay to customize.
+     * @param inspector Inspector used to compute the costs.
+     */
+    public OverlayCustomizer(Graph graph, OverlayGraph overlay, ArcInspector inspector) {
+        this(graph, overlay, inspector, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new customizer for the given overlay and inspector.
+     *
+     * @param graph Graph of the overlay.
+     * @param overlay Overlay to customize.
+     * @param inspector Inspector used to compute the costs.
+     * @param nbThreads Number of threads used to process the cells.
+     */
+    public OverlayCustomizer(Graph graph, OverlayGraph overlay, ArcInspector inspector,
+            int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        if (!graph.getMapId().equals(overlay.getMapId()) || graph.size() != overlay.size()) {
+            throw new IllegalArgumentException("overlay of another graph: " + overlay);
+        }
+        this.overlay = overlay;
+        this.inspector = inspector;
+        this.compactGraph = graph.getCompactGraph();
+        this.compiledInspector = CompiledArcInspector.of(graph, inspector);
+        this.nbThreads = nbThreads;
+        this.searches = ThreadLocal.withInitial(
+                () -> new CellSearch(overlay, this.compactGraph, this.compiledInspector));
+    }
+
+    /**
+     * Compute the weights of the cliques of all the cells.
+     *
+     * @return The metric of the overlay.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting for the computations.
+     */
+    public OverlayMetric customize() throws InterruptedException {
+        final int nbLevels = this.overlay.getLevelCount();
+        double[][] weights = new double[nbLevels][];
+
+        ExecutorService executor = Tasks.newFixedThreadPool(this.nbThreads, "overlay-customization");
+        try {
+            for (int level = 1; level <= nbLevels; ++level) {
+                weights[level - 1] = new double[this.overlay.getCliqueSize(level)];
+                List<Future<?>> futures = new ArrayList<>();
+                for (int cell = 0; cell < this.overlay.getCellCount(level); ++cell) {
+                    final int currentLevel = level, currentCell = cell;
+                    futures.add(executor
+                            .submit(() -> customizeCell(currentLevel, currentCell, weights)));
+                }
+                for (Future<?> future: futures) {
+                    Tasks.await(future);
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        return new OverlayMetric(this.overlay,
+                PreprocessingCache.getInspectorKey(this.inspector), weights);
+    }
+
+    /**
+     * Compute the weights of the clique of the given cell, the weights of the level
+     * below being known.
+     */
+    private void customizeCell(int level, int cell, double[][] weights) {
+        final int nbEntries = this.overlay.getEntryCount(level, cell);
+        final int nbExits = this.overlay.getExitCount(level, cell);
+        if (nbExits == 0) {
+            return;
+        }
+        CellSearch search = this.searches.get();
+        double[] cellWeights = weights[level - 1];
+        int offset = this.overlay.getCliqueOffset(level, cell);
+        for (int entry = 0; entry < nbEntries; ++entry) {
+            int source = this.overlay.getEntry(level, cell, entry);
+            if (level == 1) {
+                search.searchArcs(source, level, -1);
+            }
+            else {
+                search.searchCliques(source, level, weights[level - 2]);
+            }
+            for (int exit = 0; exit < nbExits; ++exit, ++offset) {
+                cellWeights[offset] = search
+                        .getDistance(this.overlay.getExit(level, cell, exit));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.insa.algo.overlay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Factory class used to retrieve the {@link OverlayGraph} of a graph and its
+ * {@link OverlayMetric} for a given {@link ArcInspector}.
+ * </p>
+ *
+ * <p>
+ * The overlay is built once per graph, and customized once per inspector, both
+ * being cached (see {@link PreprocessingCache}). Changing the inspector of an
+ * algorithm thus only costs a customization the first time the inspector is used
+ * on a graph. If the {@link PreprocessingCache#DIRECTORY_PROPERTY} system
+ * property is set, overlays are read from the corresponding directory (see
+ * {@link #getOverlayFile(File, Graph)}), or built and then saved into it if no
+ * valid file is found. Metrics are not stored, since they are customized much
+ * faster than the overlay is built.
+ * </p>
+ *
+ */
+public class OverlayFactory {
+
+    // Cache of overlays, per graph.
+    private static final PreprocessingCache<OverlayGraph> OVERLAYS = new PreprocessingCache<>();
+
+    // Cache of metrics, per graph and per inspector.
+    private static final PreprocessingCache<OverlayMetric> METRICS = new PreprocessingCache<>();
+
+    /**
+     * Retrieve the overlay of the given graph, reading or building it if it is not
+     * in the cache.
+     *
+     * @param graph Graph of the overlay.
+     *
+     * @return The overlay of the graph.
+     */
+    public static OverlayGraph getOverlay(Graph graph) {
+        return OVERLAYS.get(graph, graph, () -> {
+            File directory = PreprocessingCache.getDirectory();
+            return PreprocessingCache.readOrBuild(
+                    directory == null ? null : getOverlayFile(directory, graph),
+                    file -> readOverlay(file, graph), () -> new OverlayBuilder(graph).build(),
+                    OverlayFactory::writeOverlay);
+        });
+    }
+
+    /**
+     * Retrieve the metric of the overlay of the given graph for the given
+     * inspector, customizing the overlay if the metric is not in the cache.
+     *
+     * @param graph Graph of the overlay.
+     * @param inspector Inspector used to compute the weights.
+     *
+     * @return The metric of the overlay for the inspector.
+     */
+    public static OverlayMetric getMetric(Graph graph, ArcInspector inspector) {
+        return METRICS.get(graph, inspector,
+                () -> customize(graph, getOverlay(graph), inspector));
+    }
+
+    /**
+     * Customize the given overlay for the given inspector.
+     *
+     * @param graph Graph of the overlay.
+     * @param overlay Overlay to customize.
+     * @param inspector Inspector used to compute the weights.
+     *
+     * @return The new metric.
+     */
+    public static OverlayMetric customize(Graph graph, OverlayGraph overlay,
+            ArcInspector inspector) {
+        try {
+            return new OverlayCustomizer(graph, overlay, inspector).customize();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while customizing overlay", exception);
+        }
+    }
+
+    /**
+     * Retrieve the file storing the overlay of the given graph in the given
+     * directory. The name of the file is made of the ID of the map.
+     *
+     * @param directory Directory containing the overlays.
+     * @param graph Graph of the overlay.
+     *
+     * @return The overlay file (which may not exist).
+     */
+    public static File getOverlayFile(File directory, Graph graph) {
+        return PreprocessingCache.getFile(directory, graph, null, "mapov");
+    }
+
+    /**
+     * Read an overlay from the given file.
+     *
+     * @param file File to read.
+     * @param graph Graph of the overlay.
+     *
+     * @return The overlay read.
+     *
+     * @throws IOException if the file cannot be read or does not contain an
+     *         overlay for the given graph.
+     */
+    public static OverlayGraph readOverlay(File file, Graph graph) throws IOException {
+        try (DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return new BinaryOverlayReader(dis).readOverlay(graph);
+        }
+    }
+
+    /**
+     * Write an overlay to the given file.
+     *
+     * @param file File to write.
+     * @param overlay Overlay to write.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeOverlay(File file, OverlayGraph overlay) throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            new BinaryOverlayWriter(dos).writeOverlay(overlay);
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+package org.insa.algo.overlay;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Metric-independent overlay of a graph for customizable route planning: a
+ * multi-level partition of the nodes into nested cells, and the boundary nodes
+ * of each cell at each level.
+ * </p>
+ *
+ * <p>
+ * Levels are numbered from 1 (smallest cells) to {@link #getLevelCount()}
+ * (largest cells), each cell of a level being included in a cell of the next
+ * level. At a given level, a node is an entry of its cell if it has an incoming
+ * arc from another cell of the level, and an exit of its cell if it has an
+ * outgoing arc to another cell of the level. Boundaries are computed from all
+ * the arcs of the graph, so the overlay does not depend on any
+ * {@link org.insa.algo.ArcInspector}: the costs between the entries and the
+ * exits of each cell (the clique of the cell) are computed for each inspector by
+ * {@link OverlayCustomizer}.
+ * </p>
+ *
+ * @see OverlayBuilder
+ * @see OverlayFactory
+ */
+public final class OverlayGraph {
+
+    // ID of the map.
+    private final String mapId;
+
+    // Cell of each node at each level.
+    private final int[][] cells;
+
+    // Number of cells at each level.
+    private final int[] cellCounts;
+
+    // Entries and exits of the cells at each level (offsets per cell and node IDs).
+    private final int[][] entryOffsets, entries, exitOffsets, exits;
+
+    // Index of each node among the entries and the exits of its cell at each level
+    // (-1 if the node is not an entry or an exit).
+    private final int[][] entryIndices, exitIndices;
+
+    // Offset of the clique of each cell in the weights of each level, and number of
+    // weights of each level.
+    private final int[][] cliqueOffsets;
+    private final int[] cliqueSizes;
+
+    /**
+     * Create a new overlay.
+     *
+     * @param mapId ID of the map of the overlay.
+     * @param cells Cell of each node at each level (index 0 for level 1).
+     * @param cellCounts Number of cells at each level.
+     * @param entryOffsets Offset of the entries of each cell in entries, at each
+     *        level (one more offset than the number of cells).
+     * @param entries Entries of the cells, at each level.
+     * @param exitOffsets Offset of the exits of each cell in exits, at each level.
+     * @param exits Exits of the cells, at each level.
+     */
+    OverlayGraph(String mapId, int[][] cells, int[] cellCounts, int[][] entryOffsets,
+            int[][] entries, int[][] exitOffsets, int[][] exits) {
+        this.mapId = mapId;
+        this.cells = cells;
+        this.cellCounts = cellCounts;
+        this.entryOffsets = entryOffsets;
+        this.entries = entries;
+        this.exitOffsets = exitOffsets;
+        this.exits = exits;
+
+        final int nbLevels = cells.length;
+        final int nbNodes = nbLevels == 0 ? 0 : cells[0].length;
+        this.entryIndices = new int[nbLevels][];
+        this.exitIndices = new int[nbLevels][];
+        this.cliqueOffsets = new int[nbLevels][];
+        this.cliqueSizes = new int[nbLevels];
+        for (int level = 0; level < nbLevels; ++level) {
+            this.entryIndices[level] = createIndices(nbNodes, cellCounts[level],
+                    entryOffsets[level], entries[level]);
+            this.exitIndices[level] = createIndices(nbNodes, cellCounts[level],
+                    exitOffsets[level], exits[level]);
+            this.cliqueOffsets[level] = new int[cellCounts[level]];
+            int size = 0;
+            for (int cell = 0; cell < cellCounts[level]; ++cell) {
+                this.cliqueOffsets[level][cell] = size;
+                size = Math.addExact(size, Math.multiplyExact(
+                        entryOffsets[level][cell + 1] - entryOffsets[level][cell],
+                        exitOffsets[level][cell + 1] - exitOffsets[level][cell]));
+            }
+            this.cliqueSizes[level] = size;
+        }
+    }
+
+    private static int[] createIndices(int nbNodes, int nbCells, int[] offsets, int[] nodes) {
+        int[] indices = new int[nbNodes];
+        Arrays.fill(indices, -1);
+        for (int cell = 0; cell < nbCells; ++cell) {
+            for (int i = offsets[cell]; i < offsets[cell + 1]; ++i) {
+                indices[nodes[i]] = i - offsets[cell];
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * @return ID of the map of this overlay.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Number of nodes in this overlay.
+     */
+    public int size() {
+        return this.cells.length == 0 ? 0 : this.cells[0].length;
+    }
+
+    /**
+     * @return Number of levels of this overlay.
+     */
+    public int getLevelCount() {
+        return this.cells.length;
+    }
+
+    /**
+     * @param level Level (from 1).
+     *
+     * @return Number of cells at the given level.
+     */
+    public int getCellCount(int level) {
+        return this.cellCounts[level - 1];
+    }
+
+    /**
+     * @param node ID of the node.
+     * @param level Level (from 1).
+     *
+     * @return Cell of the node at the given level.
+     */
+    public int getCell(int node, int level) {
+        return this.cells[level - 1][node];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param cell Cell of the level.
+     *
+     * @return Number of entries of the cell.
+     */
+    public int getEntryCount(int level, int cell) {
+        return this.entryOffsets[level - 1][cell + 1] - this.entryOffsets[level - 1][cell];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param cell Cell of the level.
+     * @param index Index of the entry in the cell.
+     *
+     * @return ID of the entry.
+     */
+    public int getEntry(int level, int cell, int index) {
+        return this.entries[level - 1][this.entryOffsets[level - 1][cell] + index];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param node ID of the node.
+     *
+     * @return Index of the node among the entries of its cell at the given level,
+     *         or -1 if the node is not an entry.
+     */
+    public int getEntryIndex(int level, int node) {
+        return this.entryIndices[level - 1][node];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param cell Cell of the level.
+     *
+     * @return Number of exits of the cell.
+     */
+    public int getExitCount(int level, int cell) {
+        return this.exitOffsets[level - 1][cell + 1] - this.exitOffsets[level - 1][cell];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param cell Cell of the level.
+     * @param index Index of the exit in the cell.
+     *
+     * @return ID of the exit.
+     */
+    public int getExit(int level, int cell, int index) {
+        return this.exits[level - 1][this.exitOffsets[level - 1][cell] + index];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param node ID of the node.
+     *
+     * @return Index of the node among the exits of its cell at the given level, or
+     *         -1 if the node is not an exit.
+     */
+    public int getExitIndex(int level, int node) {
+        return this.exitIndices[level - 1][node];
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param cell Cell of the level.
+     *
+     * @return Offset of the clique of the cell in the weights of the level: the
+     *         weight between the entry <i>i</i> and the exit <i>j</i> of the cell
+     *         is at offset + i * {@link #getExitCount(int, int)} + j.
+     */
+    public int getCliqueOffset(int level, int cell) {
+        return this.cliqueOffsets[level - 1][cell];
+    }
+
+    /**
+     * @param level Level (from 1).
+     *
+     * @return Number of weights of the cliques of the given level.
+     */
+    public int getCliqueSize(int level) {
+        return this.cliqueSizes[level - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder cells = new StringBuilder();
+        for (int level = 1; level <= getLevelCount(); ++level) {
+            cells.append(level == 1 ? "" : "/").append(getCellCount(level));
+        }
+        return String.format("%s[map=%s, #nodes=%d, #cells=%s]", getClass().getSimpleName(),
+                getMapId(), size(), cells);
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.insa.algo.overlay;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+
+/**
+ * <p>
+ * Metric of an {@link OverlayGraph} for a given {@link ArcInspector}: for each
+ * cell of each level, the costs of the shortest paths inside the cell from each
+ * entry to each exit of the cell (infinite if there is no such path).
+ * </p>
+ *
+ * @see OverlayCustomizer
+ * @see OverlayFactory
+ */
+public final class OverlayMetric {
+
+    // Overlay of this metric and key of the inspector.
+    private final OverlayGraph overlay;
+    private final String inspectorKey;
+
+    // Weights of the cliques of each level.
+    private final double[][] weights;
+
+    /**
+     * Create a new metric.
+     *
+     * @param overlay Overlay of the metric.
+     * @param inspectorKey Key of the inspector used to compute the weights.
+     * @param weights Weights of the cliques of each level (index 0 for level 1),
+     *        laid out as described in {@link OverlayGraph#getCliqueOffset(int, int)}.
+     */
+    OverlayMetric(OverlayGraph overlay, String inspectorKey, double[][] weights) {
+        this.overlay = overlay;
+        this.inspectorKey = inspectorKey;
+        this.weights = weights;
+    }
+
+    /**
+     * @return Overlay of this metric.
+     */
+    public OverlayGraph getOverlay() {
+        return this.overlay;
+    }
+
+    /**
+     * @return Key of the inspector used to compute the weights.
+     *
+     * @see PreprocessingCache#getInspectorKey(ArcInspector)
+     */
+    public String getInspectorKey() {
+        return this.inspectorKey;
+    }
+
+    /**
+     * @param level Level (from 1).
+     * @param cell Cell of the level.
+     * @param entry Index of the entry in the cell.
+     * @param exit Index of the exit in the cell.
+     *
+     * @return Cost of the shortest path inside the cell from the entry to the exit.
+     */
+    public double getWeight(int level, int cell, int entry, int exit) {
+        return this.weights[level - 1][this.overlay.getCliqueOffset(level, cell)
+                + entry * this.overlay.getExitCount(level, cell) + exit];
+    }
+
+    /**
+     * @param level Level (from 1).
+     *
+     * @return Weights of the cliques of the given level.
+     */
+    double[] getWeights(int level) {
+        return this.weights[level - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[overlay=%s, inspector=%s]", getClass().getSimpleName(),
+                this.overlay, getInspectorKey());
+    }
+
+}
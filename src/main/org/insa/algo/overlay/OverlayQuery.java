@@ -0,0 +1,460 @@
+package org.insa.algo.overlay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PreprocessingCache;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Multi-level bidirectional Dijkstra's algorithm on an {@link OverlayMetric}.
+ * </p>
+ *
+ * <p>
+ * Each node is searched at the highest level where its cell contains neither
+ * the origin nor the destination (level 0, i.e. the arcs of the graph, for the
+ * nodes in the cells of the lowest level of the origin and the destination). At
+ * a level <i>l &gt; 0</i>, a node only relaxes the clique of its cell if it is
+ * an entry of its cell, and the arcs to other cells if it is an exit, so the
+ * searches go through the cells far from the origin and the destination with a
+ * few edges of the upper levels. The backward search runs on the same edges
+ * reversed, so the searches meet as in the bidirectional Dijkstra's algorithm.
+ * </p>
+ *
+ * <p>
+ * The arrays of the searches are allocated once per thread and shared by the
+ * queries of the thread, and only the entries touched by a query are reset
+ * after it, so the cost of a query only depends on the size of its search
+ * spaces. Only the edges of the shortest path are kept after a query, and their
+ * cliques are unpacked with a Dijkstra's algorithm inside their cell by
+ * {@link #getArcs()}. A query object must not be used by multiple threads at
+ * the same time.
+ * </p>
+ *
+ */
+public final class OverlayQuery {
+
+    /**
+     * Arrays of both searches, shared by the queries of a thread.
+     */
+    private static final class Searches {
+
+        // Distances, parents and edges from the parents, as described in
+        // OverlayQuery.
+        final double[] forwardDistances, backwardDistances;
+        final int[] forwardParents, backwardParents;
+        final int[] forwardEdges, backwardEdges;
+
+        // Queues of both searches.
+        final PrimitiveBinaryHeap forwardHeap, backwardHeap;
+
+        // Nodes settled by the current query.
+        int[] settled;
+        int nbSettled;
+
+        Searches(int nbNodes) {
+            this.forwardDistances = new double[nbNodes];
+            this.backwardDistances = new double[nbNodes];
+            Arrays.fill(this.forwardDistances, Double.POSITIVE_INFINITY);
+            Arrays.fill(this.backwardDistances, Double.POSITIVE_INFINITY);
+            this.forwardParents = new int[nbNodes];
+            this.backwardParents = new int[nbNodes];
+            this.forwardEdges = new int[nbNodes];
+            this.backwardEdges = new int[nbNodes];
+            this.forwardHeap = new PrimitiveBinaryHeap(nbNodes);
+            this.backwardHeap = new PrimitiveBinaryHeap(nbNodes);
+            this.settled = new int[64];
+            this.nbSettled = 0;
+        }
+
+        /**
+         * Remember that the given node has been settled by the current query.
+         */
+        void settle(int node) {
+            if (this.nbSettled == this.settled.length) {
+                this.settled = Arrays.copyOf(this.settled, 2 * this.settled.length);
+            }
+            this.settled[this.nbSettled++] = node;
+        }
+
+        /**
+         * Reset the entries touched by the current query, i.e. the nodes settled by
+         * a search or still in the queue of a search.
+         */
+        void reset() {
+            for (int i = 0; i < this.nbSettled; ++i) {
+                reset(this.settled[i]);
+            }
+            this.nbSettled = 0;
+            while (!this.forwardHeap.isEmpty()) {
+                reset(this.forwardHeap.deleteMin());
+            }
+            while (!this.backwardHeap.isEmpty()) {
+                reset(this.backwardHeap.deleteMin());
+            }
+        }
+
+        private void reset(int node) {
+            this.forwardDistances[node] = Double.POSITIVE_INFINITY;
+            this.backwardDistances[node] = Double.POSITIVE_INFINITY;
+        }
+
+    }
+
+    // Searches of each thread (reallocated for a graph larger than the previous
+    // ones).
+    private static final ThreadLocal<Searches> SEARCHES = new ThreadLocal<>();
+
+    // Overlay and weights of the metric.
+    private final OverlayGraph overlay;
+    private final double[][] weights;
+
+    // Compact graphs and compiled inspectors, forward and backward.
+    private final CompactGraph forwardGraph, backwardGraph;
+    private final CompiledArcInspector forwardInspector, backwardInspector;
+
+    // Searches of the current thread during a query: distances, parent node
+    // (previous node for the forward search, next node for the backward search),
+    // and edge from the parent (an arc of the graph of the search if positive, a
+    // clique of level -edge otherwise).
+    private Searches searches;
+    private double[] forwardDistances, backwardDistances;
+    private int[] forwardParents, backwardParents;
+    private int[] forwardEdges, backwardEdges;
+    private PrimitiveBinaryHeap forwardHeap, backwardHeap;
+
+    // Cells of the origin and the destination at each level.
+    private final int[] originCells, destinationCells;
+
+    // Search used to unpack the cliques (lazily created).
+    private CellSearch unpackSearch;
+
+    // Result of the last query: nodes of the shortest path, and edge from each
+    // node to the next one (an arc of the graph if positive, a clique of level
+    // -edge otherwise).
+    private int origin, destination, meetingNode;
+    private double cost;
+    private int nbSettledNodes;
+    private final List<Integer> pathNodes, pathEdges;
+
+    /**
+     * Create a new query for the given graph and metric.
+     *
+     * @param graph Graph of the metric.
+     * @param metric Metric to search.
+     * @param inspector Inspector used to compute the weights of the metric.
+     */
+    public OverlayQuery(Graph graph, OverlayMetric metric, ArcInspector inspector) {
+        this.overlay = metric.getOverlay();
+        if (!graph.getMapId().equals(this.overlay.getMapId())
+                || graph.size() != this.overlay.size()) {
+            throw new IllegalArgumentException("metric of another graph: " + metric);
+        }
+        if (!PreprocessingCache.getInspectorKey(inspector).equals(metric.getInspectorKey())) {
+            throw new IllegalArgumentException("metric of another inspector: " + metric);
+        }
+        final int nbLevels = this.overlay.getLevelCount();
+        this.weights = new double[nbLevels][];
+        for (int level = 1; level <= nbLevels; ++level) {
+            this.weights[level - 1] = metric.getWeights(level);
+        }
+
+        Graph transposeGraph = graph.getTransposeGraph();
+        this.forwardGraph = graph.getCompactGraph();
+        this.backwardGraph = transposeGraph.getCompactGraph();
+        this.forwardInspector = CompiledArcInspector.of(graph, inspector);
+        this.backwardInspector = CompiledArcInspector.of(transposeGraph, inspector);
+
+        this.originCells = new int[nbLevels];
+        this.destinationCells = new int[nbLevels];
+        this.meetingNode = -1;
+        this.pathNodes = new ArrayList<>();
+        this.pathEdges = new ArrayList<>();
+    }
+
+    /**
+     * Compute the cost of the shortest path between the given nodes.
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Cost of the shortest path, or infinity if there is none.
+     */
+    public double run(int origin, int destination) {
+        Searches searches = SEARCHES.get();
+        if (searches == null || searches.forwardDistances.length < this.forwardGraph.size()) {
+            searches = new Searches(this.forwardGraph.size());
+            SEARCHES.set(searches);
+        }
+        this.searches = searches;
+        this.forwardDistances = searches.forwardDistances;
+        this.backwardDistances = searches.backwardDistances;
+        this.forwardParents = searches.forwardParents;
+        this.backwardParents = searches.backwardParents;
+        this.forwardEdges = searches.forwardEdges;
+        this.backwardEdges = searches.backwardEdges;
+        this.forwardHeap = searches.forwardHeap;
+        this.backwardHeap = searches.backwardHeap;
+        try {
+            search(origin, destination);
+            storePath();
+        }
+        finally {
+            searches.reset();
+            this.searches = null;
+            this.forwardDistances = this.backwardDistances = null;
+            this.forwardParents = this.backwardParents = null;
+            this.forwardEdges = this.backwardEdges = null;
+            this.forwardHeap = this.backwardHeap = null;
+        }
+        return this.cost;
+    }
+
+    /**
+     * Run both searches between the given nodes.
+     */
+    private void search(int origin, int destination) {
+        for (int level = 1; level <= this.overlay.getLevelCount(); ++level) {
+            this.originCells[level - 1] = this.overlay.getCell(origin, level);
+            this.destinationCells[level - 1] = this.overlay.getCell(destination, level);
+        }
+        this.origin = origin;
+        this.destination = destination;
+        this.cost = Double.POSITIVE_INFINITY;
+        this.meetingNode = -1;
+        this.nbSettledNodes = 0;
+
+        this.forwardDistances[origin] = 0;
+        this.forwardParents[origin] = -1;
+        this.forwardHeap.insert(origin, 0);
+        this.backwardDistances[destination] = 0;
+        this.backwardParents[destination] = -1;
+        this.backwardHeap.insert(destination, 0);
+        if (origin == destination) {
+            this.cost = 0;
+            this.meetingNode = origin;
+        }
+
+        boolean forward = true;
+        while (!this.forwardHeap.isEmpty() && !this.backwardHeap.isEmpty()
+                && this.forwardHeap.findMinKey() + this.backwardHeap.findMinKey() < this.cost) {
+            if (forward) {
+                settleForward();
+            }
+            else {
+                settleBackward();
+            }
+            forward = !forward;
+        }
+    }
+
+    /**
+     * Store the nodes and the edges of the shortest path found by the searches.
+     */
+    private void storePath() {
+        this.pathNodes.clear();
+        this.pathEdges.clear();
+        if (this.meetingNode == -1) {
+            return;
+        }
+
+        // Edges from the origin to the meeting node...
+        for (int node = this.meetingNode; node != this.origin; node = this.forwardParents[node]) {
+            this.pathNodes.add(node);
+            this.pathEdges.add(this.forwardEdges[node]);
+        }
+        this.pathNodes.add(this.origin);
+        Collections.reverse(this.pathNodes);
+        Collections.reverse(this.pathEdges);
+
+        // ...and from the meeting node to the destination, replacing the arcs of
+        // the transpose graph by the corresponding arcs of the graph.
+        for (int node = this.meetingNode; node != this.destination; node = this.backwardParents[node]) {
+            int next = this.backwardParents[node], edge = this.backwardEdges[node];
+            this.pathEdges.add(edge >= 0 ? findArc(node, next) : edge);
+            this.pathNodes.add(next);
+        }
+    }
+
+    /**
+     * @return Highest level where the cell of the given node contains neither the
+     *         origin nor the destination, or 0 if there is none.
+     */
+    private int getQueryLevel(int node) {
+        for (int level = this.overlay.getLevelCount(); level > 0; --level) {
+            int cell = this.overlay.getCell(node, level);
+            if (cell != this.originCells[level - 1] && cell != this.destinationCells[level - 1]) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    private void settleForward() {
+        final OverlayGraph overlay = this.overlay;
+        int node = this.forwardHeap.deleteMin();
+        this.searches.settle(node);
+        this.nbSettledNodes++;
+        double distance = this.forwardDistances[node];
+        int level = getQueryLevel(node);
+        int cell = level == 0 ? -1 : overlay.getCell(node, level);
+
+        // Clique of the cell of the node...
+        int entry = level == 0 ? -1 : overlay.getEntryIndex(level, node);
+        if (entry != -1) {
+            int nbExits = overlay.getExitCount(level, cell);
+            int offset = overlay.getCliqueOffset(level, cell) + entry * nbExits;
+            for (int exit = 0; exit < nbExits; ++exit) {
+                relaxForward(node, overlay.getExit(level, cell, exit),
+                        distance + this.weights[level - 1][offset + exit], -level);
+            }
+        }
+
+        // ...and arcs (to other cells if the level is not 0).
+        if (level == 0 || overlay.getExitIndex(level, node) != -1) {
+            for (int arc = this.forwardGraph.getFirstArc(node); arc < this.forwardGraph
+                    .getEndArc(node); ++arc) {
+                int successor = this.forwardGraph.getTarget(arc);
+                if (this.forwardInspector.isAllowed(arc)
+                        && (level == 0 || overlay.getCell(successor, level) != cell)) {
+                    relaxForward(node, successor, distance + this.forwardInspector.getCost(arc),
+                            arc);
+                }
+            }
+        }
+    }
+
+    private void settleBackward() {
+        final OverlayGraph overlay = this.overlay;
+        int node = this.backwardHeap.deleteMin();
+        this.searches.settle(node);
+        this.nbSettledNodes++;
+        double distance = this.backwardDistances[node];
+        int level = getQueryLevel(node);
+        int cell = level == 0 ? -1 : overlay.getCell(node, level);
+
+        // Clique of the cell of the node (reversed)...
+        int exit = level == 0 ? -1 : overlay.getExitIndex(level, node);
+        if (exit != -1) {
+            int nbExits = overlay.getExitCount(level, cell);
+            int offset = overlay.getCliqueOffset(level, cell) + exit;
+            for (int entry = 0; entry < overlay.getEntryCount(level, cell); ++entry) {
+                relaxBackward(node, overlay.getEntry(level, cell, entry),
+                        distance + this.weights[level - 1][offset + entry * nbExits], -level);
+            }
+        }
+
+        // ...and arcs (from other cells if the level is not 0).
+        if (level == 0 || overlay.getEntryIndex(level, node) != -1) {
+            for (int arc = this.backwardGraph.getFirstArc(node); arc < this.backwardGraph
+                    .getEndArc(node); ++arc) {
+                int predecessor = this.backwardGraph.getTarget(arc);
+                if (this.backwardInspector.isAllowed(arc)
+                        && (level == 0 || overlay.getCell(predecessor, level) != cell)) {
+                    relaxBackward(node, predecessor,
+                            distance + this.backwardInspector.getCost(arc), arc);
+                }
+            }
+        }
+    }
+
+    private void relaxForward(int parent, int node, double distance, int edge) {
+        if (distance < this.forwardDistances[node]) {
+            this.forwardDistances[node] = distance;
+            this.forwardParents[node] = parent;
+            this.forwardEdges[node] = edge;
+            this.forwardHeap.insertOrDecreaseKey(node, distance);
+            if (distance + this.backwardDistances[node] < this.cost) {
+                this.cost = distance + this.backwardDistances[node];
+                this.meetingNode = node;
+            }
+        }
+    }
+
+    private void relaxBackward(int parent, int node, double distance, int edge) {
+        if (distance < this.backwardDistances[node]) {
+            this.backwardDistances[node] = distance;
+            this.backwardParents[node] = parent;
+            this.backwardEdges[node] = edge;
+            this.backwardHeap.insertOrDecreaseKey(node, distance);
+            if (distance + this.forwardDistances[node] < this.cost) {
+                this.cost = distance + this.forwardDistances[node];
+                this.meetingNode = node;
+            }
+        }
+    }
+
+    /**
+     * @return Number of nodes settled by both searches during the last query.
+     */
+    public int getNbSettledNodes() {
+        return this.nbSettledNodes;
+    }
+
+    /**
+     * Retrieve the arcs of the shortest path found by the last query, unpacking
+     * the cliques.
+     *
+     * @return Indices of the arcs of the path in the compact graph (empty if there
+     *         is no path or if the origin is the destination).
+     */
+    public List<Integer> getArcs() {
+        List<Integer> arcs = new ArrayList<>();
+        for (int i = 0; i < this.pathEdges.size(); ++i) {
+            int edge = this.pathEdges.get(i);
+            if (edge >= 0) {
+                arcs.add(edge);
+            }
+            else {
+                arcs.addAll(unpack(this.pathNodes.get(i), this.pathNodes.get(i + 1), -edge));
+            }
+        }
+        return arcs;
+    }
+
+    /**
+     * Find the arcs of the shortest path between the given nodes inside their cell
+     * at the given level.
+     */
+    private List<Integer> unpack(int source, int target, int level) {
+        if (this.unpackSearch == null) {
+            this.unpackSearch = new CellSearch(this.overlay, this.forwardGraph,
+                    this.forwardInspector);
+        }
+        this.unpackSearch.searchArcs(source, level, target);
+        List<Integer> arcs = new ArrayList<>();
+        int node = target;
+        while (node != source) {
+            int arc = this.unpackSearch.getArc(node);
+            arcs.add(arc);
+            node = this.forwardGraph.getOrigin(arc);
+        }
+        Collections.reverse(arcs);
+        return arcs;
+    }
+
+    /**
+     * Find the allowed arc with the minimum cost between the given nodes.
+     */
+    private int findArc(int origin, int destination) {
+        int best = -1;
+        for (int arc = this.forwardGraph.getFirstArc(origin); arc < this.forwardGraph
+                .getEndArc(origin); ++arc) {
+            if (this.forwardGraph.getTarget(arc) == destination
+                    && this.forwardInspector.isAllowed(arc)
+                    && (best == -1 || this.forwardInspector.getCost(arc) < this.forwardInspector
+                            .getCost(best))) {
+                best = arc;
+            }
+        }
+        return best;
+    }
+
+}
@@ -1,22 +1,41 @@
 package org.insa.algo.shortestpath;
 
 import org.insa.algo.utils.LabelStar;
+import org.insa.algo.utils.PriorityQueueType;
 import org.insa.algo.utils.Label;
 import org.insa.graph.Node;
 
 public class AStarAlgorithm extends DijkstraAlgorithm {
 
-	
+	/* Heuristique de la requête courante (précalculée par graphe) */
+	private Heuristic heuristic;
 	
     public AStarAlgorithm(ShortestPathData data) {
         super(data);
     }
+
+    /* A* avec l'implémentation donnée du tas */
+    public AStarAlgorithm(ShortestPathData data, PriorityQueueType queueType) {
+        super(data, queueType);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+    	this.heuristic = createHeuristic(getInputData());
+    	return super.doRun();
+    }
+
+    /* Création de l'heuristique utilisée pour estimer le coût jusqu'à la destination */
+    protected Heuristic createHeuristic(ShortestPathData data) {
+    	return HeuristicProvider.of(data.getGraph()).getHeuristic(data);
+    }
+
     @Override
 	/* Réécriture de la méthode newLabel */
 	/* afin d'utiliser LabelStar au lieu de Label dans l'algo */
 	protected Label newLabel(Node node, ShortestPathData data) {
-		return new LabelStar(node, data);
+		return new LabelStar(node, (float) this.heuristic.estimate(node.getId()));
 	}
 
 
-}
\ No newline at end of file
+}
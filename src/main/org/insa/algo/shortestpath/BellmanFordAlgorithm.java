@@ -41,8 +41,10 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         boolean found = false;
         for (int i = 0; !found && i < nbNodes; ++i) {
             found = true;
-            for (Node node: graph.getNodes()) {
-                for (Arc arc: node.getSuccessors()) {
+            for (int n = 0; n < nbNodes; ++n) {
+                Node node = graph.get(n);
+                for (int s = 0; s < node.getNumberOfSuccessors(); ++s) {
+                    Arc arc = node.getSuccessor(s);
 
                     // Small test to check allowed roads...
                     if (!data.isAllowed(arc)) {
@@ -0,0 +1,62 @@
+package org.insa.algo.shortestpath;
+
+/**
+ * <p>
+ * Implementation of a bidirectional A* algorithm, based on
+ * {@link BidirectionalDijkstraAlgorithm} with averaged potentials.
+ * </p>
+ *
+ * <p>
+ * Given a heuristic <i>h<sub>t</sub></i> towards the destination and a heuristic
+ * <i>h<sub>s</sub></i> towards the origin (see {@link HeuristicProvider}), the
+ * forward search uses the potential <i>p(v) = (h<sub>t</sub>(v) -
+ * h<sub>s</sub>(v)) / 2</i> and the backward search the potential <i>-p(v)</i>.
+ * Both potentials are consistent when the heuristics are, and their sum is
+ * constant, so the stopping criterion of the bidirectional Dijkstra's algorithm
+ * remains valid.
+ * </p>
+ *
+ * <p>
+ * The heuristics are computed in the mode of the input data (length or time),
+ * and only arcs allowed by the arc inspector of the input data are used.
+ * </p>
+ *
+ */
+public class BidirectionalAStarAlgorithm extends BidirectionalDijkstraAlgorithm {
+
+    // Heuristics towards the destination and towards the origin for the current
+    // run.
+    private Heuristic toDestination, toOrigin;
+
+    public BidirectionalAStarAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        this.toDestination = createHeuristic(data, data.getDestination().getId());
+        this.toOrigin = createHeuristic(data, data.getOrigin().getId());
+        return super.doRun();
+    }
+
+    /**
+     * Create the heuristic used to estimate the cost between any node and the
+     * given target, in the mode of the given data.
+     *
+     * @param data Input data of the algorithm.
+     * @param target ID of the target node (origin or destination of the data).
+     *
+     * @return A consistent heuristic towards the given target.
+     */
+    protected Heuristic createHeuristic(ShortestPathData data, int target) {
+        return HeuristicProvider.of(data.getGraph()).getHeuristic(target, data.getMode(),
+                data.getMaximumSpeed(), HeuristicProvider.Bound.GREAT_CIRCLE);
+    }
+
+    @Override
+    protected double getPotential(int node) {
+        return (this.toDestination.estimate(node) - this.toOrigin.estimate(node)) / 2;
+    }
+
+}
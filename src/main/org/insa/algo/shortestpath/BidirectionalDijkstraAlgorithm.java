@@ -0,0 +1,266 @@
+package org.insa.algo.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.algo.utils.SearchWorkspace;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Path;
+
+/**
+ * <p>
+ * Implementation of a bidirectional Dijkstra's algorithm: a forward search from
+ * the origin on the graph and a backward search from the destination on the
+ * transpose graph (see {@link Graph#getTransposeGraph()}) are run alternately,
+ * until the searches meet.
+ * </p>
+ *
+ * <p>
+ * The algorithm maintains the cost <i>μ</i> of the best path found so far,
+ * updated each time an arc scanned by one search reaches a node already reached
+ * by the other search, and stops as soon as the sum of the minimum keys of both
+ * queues is greater than or equal to <i>μ</i>.
+ * </p>
+ *
+ * <p>
+ * Keys can be shifted by a potential (see {@link #getPotential(int)}), the
+ * forward search using the potential and the backward search its opposite. Such
+ * symmetric potentials leave the stopping criterion unchanged, see
+ * {@link BidirectionalAStarAlgorithm}.
+ * </p>
+ *
+ * <p>
+ * Both searches work on the compact representations of the graphs (see
+ * {@link CompactGraph}) with the compiled arc inspector of the input data (see
+ * {@link CompiledArcInspector}), like {@link PrimitiveDijkstraAlgorithm}, and
+ * each search stores its state in its own {@link SearchWorkspace}.
+ * </p>
+ *
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes reached by the forward and backward searches during the
+    // last run.
+    private int nbForwardReachedNodes, nbBackwardReachedNodes;
+
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.nbForwardReachedNodes = 0;
+        this.nbBackwardReachedNodes = 0;
+    }
+
+    /**
+     * Retrieve the potential of the given node for the forward search, the
+     * potential for the backward search being the opposite. The potential must be
+     * consistent, i.e. for any allowed arc <i>(u, v)</i>, <i>cost(u, v) - p(u) +
+     * p(v) &ge; 0</i>.
+     *
+     * @param node ID of the node.
+     *
+     * @return Forward potential of the node (0 for this implementation).
+     */
+    protected double getPotential(int node) {
+        return 0;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final int nbNodes = getInputData().getGraph().size();
+        try (SearchWorkspace forwardWorkspace = SearchWorkspace.acquire(nbNodes);
+                SearchWorkspace backwardWorkspace = SearchWorkspace.acquire(nbNodes)) {
+            return doRun(forwardWorkspace, backwardWorkspace);
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace forwardWorkspace,
+            SearchWorkspace backwardWorkspace) {
+
+        // Retrieve the graphs.
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        Graph transposeGraph = graph.getTransposeGraph();
+        CompactGraph forwardGraph = graph.getCompactGraph();
+        CompactGraph backwardGraph = transposeGraph.getCompactGraph();
+        CompiledArcInspector forwardInspector = data.getCompiledArcInspector();
+        CompiledArcInspector backwardInspector = CompiledArcInspector.of(transposeGraph,
+                data.getArcInspector());
+
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        // Initialize distances, predecessors and marks for each search.
+        PrimitiveBinaryHeap forwardHeap = forwardWorkspace.getHeap();
+        PrimitiveBinaryHeap backwardHeap = backwardWorkspace.getHeap();
+        forwardWorkspace.setDistance(origin, 0, -1);
+        forwardHeap.insert(origin, getPotential(origin));
+        backwardWorkspace.setDistance(destination, 0, -1);
+        backwardHeap.insert(destination, -getPotential(destination));
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // Best path found so far, and node where the searches meet on this path.
+        double bestCost = Double.POSITIVE_INFINITY;
+        int meetingNode = -1;
+
+        this.nbForwardReachedNodes = 0;
+        this.nbBackwardReachedNodes = 0;
+        boolean forward = true;
+        while (origin != destination && !forwardHeap.isEmpty() && !backwardHeap.isEmpty()
+                && forwardHeap.findMinKey() + backwardHeap.findMinKey() < bestCost) {
+
+            // Select the search to advance.
+            final PrimitiveBinaryHeap heap;
+            final CompactGraph compactGraph;
+            final CompiledArcInspector inspector;
+            final SearchWorkspace workspace, otherWorkspace;
+            final double sign;
+            if (forward) {
+                heap = forwardHeap;
+                compactGraph = forwardGraph;
+                inspector = forwardInspector;
+                workspace = forwardWorkspace;
+                otherWorkspace = backwardWorkspace;
+                sign = 1;
+            }
+            else {
+                heap = backwardHeap;
+                compactGraph = backwardGraph;
+                inspector = backwardInspector;
+                workspace = backwardWorkspace;
+                otherWorkspace = forwardWorkspace;
+                sign = -1;
+            }
+
+            int node = heap.deleteMin();
+            workspace.mark(node);
+            notifyNodeMarked(graph.get(node));
+
+            for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                    .getEndArc(node); ++arc) {
+                // Small test to check allowed roads...
+                if (!inspector.isAllowed(arc)) {
+                    continue;
+                }
+
+                int successor = compactGraph.getTarget(arc);
+                if (workspace.isMarked(successor)) {
+                    continue;
+                }
+
+                double oldDistance = workspace.getDistance(successor);
+                double newDistance = workspace.getDistance(node) + inspector.getCost(arc);
+
+                if (Double.isInfinite(oldDistance)) {
+                    notifyNodeReached(graph.get(successor));
+                    if (forward) {
+                        this.nbForwardReachedNodes++;
+                    }
+                    else {
+                        this.nbBackwardReachedNodes++;
+                    }
+                }
+
+                // Check if new distances would be better, if so update...
+                if (newDistance < oldDistance) {
+                    workspace.setDistance(successor, newDistance, arc);
+                    heap.insertOrDecreaseKey(successor,
+                            newDistance + sign * getPotential(successor));
+
+                    // Check if the searches meet with a better path.
+                    double otherDistance = otherWorkspace.getDistance(successor);
+                    if (newDistance + otherDistance < bestCost) {
+                        bestCost = newDistance + otherDistance;
+                        meetingNode = successor;
+                    }
+                }
+            }
+
+            forward = !forward;
+        }
+
+        ShortestPathSolution solution = null;
+
+        // The searches did not meet, the solution is infeasible...
+        if (meetingNode == -1) {
+            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        else {
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Create the path from the origin to the meeting node...
+            ArrayList<Arc> arcs = new ArrayList<>();
+            int arc = forwardWorkspace.getPredecessorArc(meetingNode);
+            while (arc != -1) {
+                arcs.add(forwardGraph.getArc(arc));
+                arc = forwardWorkspace.getPredecessorArc(forwardGraph.getOrigin(arc));
+            }
+            Collections.reverse(arcs);
+
+            // ...and from the meeting node to the destination, replacing the arcs of
+            // the transpose graph by the corresponding arcs of the graph.
+            int node = meetingNode;
+            while (node != destination) {
+                int next = backwardGraph.getOrigin(backwardWorkspace.getPredecessorArc(node));
+                arcs.add(forwardGraph.getArc(findArc(forwardGraph, forwardInspector, node, next)));
+                node = next;
+            }
+
+            // Create the final solution.
+            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+
+        return solution;
+    }
+
+    /**
+     * Find the allowed arc with the minimum cost between the given nodes.
+     *
+     * @param graph Graph containing the nodes.
+     * @param inspector Compiled inspector for the graph.
+     * @param origin ID of the origin of the arc.
+     * @param destination ID of the destination of the arc.
+     *
+     * @return Index of the arc in the graph, or -1 if there is no allowed arc
+     *         between the nodes.
+     */
+    private static int findArc(CompactGraph graph, CompiledArcInspector inspector, int origin,
+            int destination) {
+        int best = -1;
+        for (int arc = graph.getFirstArc(origin); arc < graph.getEndArc(origin); ++arc) {
+            if (graph.getTarget(arc) == destination && inspector.isAllowed(arc)
+                    && (best == -1 || inspector.getCost(arc) < inspector.getCost(best))) {
+                best = arc;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Number of nodes reached by the forward search during the last run.
+     */
+    public int getNbForwardReachedNodes() {
+        return this.nbForwardReachedNodes;
+    }
+
+    /**
+     * @return Number of nodes reached by the backward search during the last run.
+     */
+    public int getNbBackwardReachedNodes() {
+        return this.nbBackwardReachedNodes;
+    }
+
+    /**
+     * @return Number of nodes reached by both searches during the last run.
+     */
+    public int getNbReachedNodes() {
+        return this.nbForwardReachedNodes + this.nbBackwardReachedNodes;
+    }
+
+}
@@ -0,0 +1,428 @@
+package org.insa.algo.shortestpath;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.insa.algo.AbstractInputData.Mode;
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Path;
+
+/**
+ * <p>
+ * Implementation of the delta-stepping algorithm, computing the distances from
+ * the origin to all the nodes of the graph with a pool of threads.
+ * </p>
+ *
+ * <p>
+ * Nodes are kept in buckets of width <i>delta</i> according to their tentative
+ * distance. Buckets are processed in increasing order: the light arcs (arcs with
+ * a cost not greater than <i>delta</i>) of the nodes of the current bucket are
+ * relaxed in parallel until the bucket stays empty, and then the heavy arcs of
+ * all the nodes removed from the bucket are relaxed in parallel. Distances are
+ * updated without locks, with a compare-and-set on their bits (the bits of
+ * non-negative doubles have the same order as their values).
+ * </p>
+ *
+ * <p>
+ * The arcs are relaxed on an executor given by the caller, or on a pool of
+ * threads shared by the whole application (see {@link Tasks#getSharedPool(int)}),
+ * so that a query does not start its own threads.
+ * </p>
+ *
+ * <p>
+ * Predecessors are not recorded during the search, since concurrent updates
+ * could leave them inconsistent with the distances. The path to the destination
+ * is rebuilt afterwards from the arcs <i>(u, v)</i> such that <i>d(u) + cost(u,
+ * v) = d(v)</i>. Like
+ * {@link org.insa.algo.contraction.ContractionHierarchyAlgorithm}, only the
+ * origin and the destination are notified to the observers.
+ * </p>
+ *
+ */
+public class DeltaSteppingAlgorithm extends ShortestPathAlgorithm {
+
+    /**
+     * Default width of the buckets for {@link Mode#LENGTH} (in meters) and
+     * {@link Mode#TIME} (in seconds).
+     */
+    public static final double DEFAULT_LENGTH_DELTA = 1000, DEFAULT_TIME_DELTA = 10;
+
+    // Minimum number of nodes to relax in parallel.
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * @param mode Mode of the costs.
+     *
+     * @return Default width of the buckets for the given mode.
+     */
+    public static double getDefaultDelta(Mode mode) {
+        return mode == Mode.TIME ? DEFAULT_TIME_DELTA : DEFAULT_LENGTH_DELTA;
+    }
+
+    // Width of the buckets and number of threads.
+    private final double delta;
+    private final int nbThreads;
+
+    // Executor given by the caller (null to use a shared pool).
+    private final ExecutorService executor;
+
+    // Graph, compiled inspector and distances of the current run (bits of the
+    // distances).
+    private CompactGraph compactGraph;
+    private CompiledArcInspector inspector;
+    private AtomicLongArray distances;
+
+    /**
+     * Create a new algorithm with the default width of the buckets for the mode of
+     * the given data, using one thread per available processor.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data) {
+        this(data, getDefaultDelta(data.getMode()), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new algorithm, relaxing the arcs on the shared pool with the given
+     * number of threads (see {@link Tasks#getSharedPool(int)}).
+     *
+     * @param data Input data for this algorithm.
+     * @param delta Width of the buckets (in the unit of the costs).
+     * @param nbThreads Number of threads used to relax the arcs.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data, double delta, int nbThreads) {
+        this(data, delta, nbThreads, null);
+    }
+
+    /**
+     * Create a new algorithm, relaxing the arcs with the given executor.
+     *
+     * @param data Input data for this algorithm.
+     * @param delta Width of the buckets (in the unit of the costs).
+     * @param nbThreads Number of threads of the executor, used to split the work.
+     * @param executor Executor used to relax the arcs (not shut down by this
+     *        algorithm), or null to use a shared pool of threads.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data, double delta, int nbThreads,
+            ExecutorService executor) {
+        super(data);
+        if (!(delta > 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("invalid delta: " + delta);
+        }
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.delta = delta;
+        this.nbThreads = nbThreads;
+        this.executor = executor;
+    }
+
+    /**
+     * @return Width of the buckets.
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * @return Number of threads used to relax the arcs.
+     */
+    public int getNbThreads() {
+        return this.nbThreads;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Distance from the origin to the given node computed by the last run
+     *         (infinite if the node cannot be reached).
+     */
+    public double getDistance(int node) {
+        return Double.longBitsToDouble(this.distances.get(node));
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        this.compactGraph = graph.getCompactGraph();
+        this.inspector = data.getCompiledArcInspector();
+
+        final int nbNodes = this.compactGraph.size();
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        this.distances = new AtomicLongArray(nbNodes);
+        final long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int node = 0; node < nbNodes; ++node) {
+            this.distances.set(node, infinity);
+        }
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        ExecutorService executor = this.executor;
+        if (executor == null && this.nbThreads > 1) {
+            executor = Tasks.getSharedPool(this.nbThreads);
+        }
+        try {
+            search(origin, executor);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while relaxing arcs", exception);
+        }
+
+        // The destination has not been reached (or is the origin), the solution
+        // is infeasible...
+        if (origin == destination || Double.isInfinite(getDistance(destination))) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Create the final solution.
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arc: findPath(graph, origin, destination)) {
+            arcs.add(this.compactGraph.getArc(arc));
+        }
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+    /**
+     * Compute the distances from the given origin to all the nodes.
+     */
+    private void search(int origin, ExecutorService executor) throws InterruptedException {
+        final int nbNodes = this.compactGraph.size();
+
+        // Last bucket where each node has been queued or removed, and last phase
+        // where each node has been added to a frontier.
+        int[] queued = new int[nbNodes], framed = new int[nbNodes], removed = new int[nbNodes];
+        Arrays.fill(queued, -1);
+        Arrays.fill(removed, -1);
+        int phase = 0;
+
+        List<IntBuffer> buckets = new ArrayList<>();
+        this.distances.set(origin, Double.doubleToLongBits(0));
+        addToBucket(buckets, 0, origin, queued);
+
+        for (int index = 0; index < buckets.size(); ++index) {
+            IntBuffer bucket = buckets.get(index);
+            if (bucket == null) {
+                continue;
+            }
+            buckets.set(index, null);
+
+            // Nodes of the bucket whose distance did not decrease since they have
+            // been queued.
+            IntBuffer frontier = new IntBuffer();
+            ++phase;
+            for (int i = 0; i < bucket.size; ++i) {
+                int node = bucket.values[i];
+                if (getBucket(node) == index && framed[node] != phase) {
+                    framed[node] = phase;
+                    frontier.add(node);
+                }
+            }
+
+            // Relax the light arcs until the bucket stays empty...
+            IntBuffer settled = new IntBuffer();
+            while (frontier.size > 0) {
+                for (int i = 0; i < frontier.size; ++i) {
+                    int node = frontier.values[i];
+                    if (removed[node] != index) {
+                        removed[node] = index;
+                        settled.add(node);
+                    }
+                }
+                List<IntBuffer> updates = relax(frontier, true, executor);
+                frontier = new IntBuffer();
+                ++phase;
+                for (IntBuffer update: updates) {
+                    for (int i = 0; i < update.size; ++i) {
+                        int node = update.values[i];
+                        int target = getBucket(node);
+                        if (target == index) {
+                            if (framed[node] != phase) {
+                                framed[node] = phase;
+                                frontier.add(node);
+                            }
+                        }
+                        else {
+                            addToBucket(buckets, target, node, queued);
+                        }
+                    }
+                }
+            }
+
+            // ...and then the heavy arcs of the nodes removed from the bucket, which
+            // can only reach the next buckets.
+            for (IntBuffer update: relax(settled, false, executor)) {
+                for (int i = 0; i < update.size; ++i) {
+                    int node = update.values[i];
+                    addToBucket(buckets, getBucket(node), node, queued);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Bucket of the given node according to its current distance.
+     */
+    private int getBucket(int node) {
+        return (int) (getDistance(node) / this.delta);
+    }
+
+    private static void addToBucket(List<IntBuffer> buckets, int index, int node, int[] queued) {
+        if (queued[node] == index) {
+            return;
+        }
+        queued[node] = index;
+        while (buckets.size() <= index) {
+            buckets.add(null);
+        }
+        if (buckets.get(index) == null) {
+            buckets.set(index, new IntBuffer());
+        }
+        buckets.get(index).add(node);
+    }
+
+    /**
+     * Relax the light or heavy arcs of the given nodes, in parallel if there are
+     * enough nodes.
+     *
+     * @return Nodes whose distance has decreased (possibly with duplicates).
+     */
+    private List<IntBuffer> relax(IntBuffer nodes, boolean light, ExecutorService executor)
+            throws InterruptedException {
+        if (executor == null || nodes.size < PARALLEL_THRESHOLD) {
+            IntBuffer updates = new IntBuffer();
+            relax(nodes, 0, nodes.size, light, updates);
+            return Collections.singletonList(updates);
+        }
+        final int nbChunks = 4 * this.nbThreads;
+        List<Future<IntBuffer>> futures = new ArrayList<>(nbChunks);
+        for (int chunk = 0; chunk < nbChunks; ++chunk) {
+            final int from = (int) ((long) nodes.size * chunk / nbChunks);
+            final int to = (int) ((long) nodes.size * (chunk + 1) / nbChunks);
+            futures.add(executor.submit(() -> {
+                IntBuffer updates = new IntBuffer();
+                relax(nodes, from, to, light, updates);
+                return updates;
+            }));
+        }
+        List<IntBuffer> updates = new ArrayList<>(nbChunks);
+        for (Future<IntBuffer> future: futures) {
+            updates.add(Tasks.await(future));
+        }
+        return updates;
+    }
+
+    /**
+     * Relax the light or heavy arcs of nodes[from:to].
+     */
+    private void relax(IntBuffer nodes, int from, int to, boolean light, IntBuffer updates) {
+        final CompactGraph graph = this.compactGraph;
+        final CompiledArcInspector inspector = this.inspector;
+        final AtomicLongArray distances = this.distances;
+        for (int i = from; i < to; ++i) {
+            int node = nodes.values[i];
+            double distance = getDistance(node);
+            for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+                double cost = inspector.getCost(arc);
+                if ((cost <= this.delta) != light || !inspector.isAllowed(arc)) {
+                    continue;
+                }
+                int successor = graph.getTarget(arc);
+                long newBits = Double.doubleToLongBits(distance + cost);
+                long oldBits = distances.get(successor);
+                while (newBits < oldBits) {
+                    if (distances.compareAndSet(successor, oldBits, newBits)) {
+                        updates.add(successor);
+                        break;
+                    }
+                    oldBits = distances.get(successor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find a shortest path from the origin to the destination, with a
+     * breadth-first search from the destination on the arcs <i>(u, v)</i> such
+     * that <i>d(u) + cost(u, v) = d(v)</i> (the search avoids loops on arcs with a
+     * zero cost).
+     *
+     * @return Indices of the arcs of the path in the compact graph.
+     */
+    private List<Integer> findPath(Graph graph, int origin, int destination) {
+        final CompactGraph forwardGraph = this.compactGraph;
+        final CompactGraph backwardGraph = graph.getTransposeGraph().getCompactGraph();
+        final int nbNodes = forwardGraph.size();
+
+        // Arc from each visited node towards the destination.
+        int[] nextArcs = new int[nbNodes];
+        boolean[] visited = new boolean[nbNodes];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        visited[destination] = true;
+        queue.add(destination);
+        while (!queue.isEmpty() && !visited[origin]) {
+            int node = queue.poll();
+            double distance = getDistance(node);
+            for (int reverse = backwardGraph.getFirstArc(node); reverse < backwardGraph
+                    .getEndArc(node); ++reverse) {
+                int predecessor = backwardGraph.getTarget(reverse);
+                if (visited[predecessor]) {
+                    continue;
+                }
+                double predecessorDistance = getDistance(predecessor);
+                for (int arc = forwardGraph.getFirstArc(predecessor); arc < forwardGraph
+                        .getEndArc(predecessor); ++arc) {
+                    if (forwardGraph.getTarget(arc) == node && this.inspector.isAllowed(arc)
+                            && predecessorDistance + this.inspector.getCost(arc) == distance) {
+                        visited[predecessor] = true;
+                        nextArcs[predecessor] = arc;
+                        queue.add(predecessor);
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<Integer> arcs = new ArrayList<>();
+        for (int node = origin; node != destination; node = forwardGraph
+                .getTarget(nextArcs[node])) {
+            arcs.add(nextArcs[node]);
+        }
+        return arcs;
+    }
+
+    /**
+     * Growable array of integers.
+     */
+    private static class IntBuffer {
+
+        int[] values = new int[16];
+        int size = 0;
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, 2 * this.size);
+            }
+            this.values[this.size++] = value;
+        }
+
+    }
+
+}
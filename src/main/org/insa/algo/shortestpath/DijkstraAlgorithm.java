@@ -2,41 +2,55 @@ package org.insa.algo.shortestpath;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 
 import org.insa.algo.utils.Label;
 import org.insa.graph.*;
 import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.CompiledArcInspector;
 import org.insa.algo.utils.*;
 
 public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 	int NbReachedNodes;
+	/* type of the tas of labels */
+	private final PriorityQueueType queueType;
 
     public DijkstraAlgorithm(ShortestPathData data) {
+        this(data, PriorityQueueType.INDEXED_BINARY_HEAP);
+    }
+
+    /* Dijkstra with the given implementation of the tas */
+    public DijkstraAlgorithm(ShortestPathData data, PriorityQueueType queueType) {
         super(data);
         this.NbReachedNodes = 0;
+        this.queueType = queueType;
     }
 
     @Override
     protected ShortestPathSolution doRun() {
+        /* labels, tas of labels and predecessor arcs are borrowed from the pool */
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(getInputData().getGraph().size())) {
+            return doRun(workspace);
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace workspace) {
     	
         ShortestPathData data = getInputData();
         ShortestPathSolution solution = null;
         boolean fin = false;
         Graph graph = data.getGraph();
-        int SizeGraph = graph.size();
-        /* table of labels*/
-        Label tabLabel[] = new Label[SizeGraph];
-        /*tas of label*/
-        BinaryHeap<Label> tas = new BinaryHeap<Label>();
-        /* table of predecessors*/
-        Arc[] PredecessorArc = new Arc[SizeGraph];
+        CompactGraph compactGraph = graph.getCompactGraph();
+        /* costs and permissions of the arcs, indexed as the arcs of the compact graph */
+        CompiledArcInspector inspector = data.getCompiledArcInspector();
+        /* the tas of the workspace is reused (created once per type of tas) */
+        PriorityQueue<Label> tas = workspace.getLabelQueue(this.queueType);
+        boolean addressable = tas instanceof AddressablePriorityQueue;
         // Initialize
         Label deb = newLabel(data.getOrigin(),data);
-        tabLabel[(deb.getNode().getId())] = deb;
+        workspace.setObject(deb.getNode().getId(), deb);
+        deb.setCost(0);
         tas.insert(deb);
         deb.setInTas();
-        deb.setCost(0);
         //Notify observers about the first event (origin processed)
         notifyOriginProcessed(data.getOrigin());
         //While there are some unmarked nodes
@@ -49,50 +63,56 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
         	if (CurrentLabel.getNode() == data.getDestination()) {
         		fin = true;
         	}
-        	// Run through the successors of CurrentLabel
-        	Iterator <Arc> arc = CurrentLabel.getNode().iterator();
-        	while (arc.hasNext()) {
-        		Arc IteArc = arc.next();
+        	// Run through the successors of CurrentLabel, by their index in the compact graph
+        	int CurrentId = CurrentLabel.getNode().getId();
+        	int EndArc = compactGraph.getEndArc(CurrentId);
+        	for (int IteArc = compactGraph.getFirstArc(CurrentId); IteArc < EndArc; ++IteArc) {
         		
-        		//  check allowed roads...
-        		if (!data.isAllowed(IteArc)) {
+        		//  check allowed roads (lookup in the compiled inspector)...
+        		if (!inspector.isAllowed(IteArc)) {
 					continue;
 				}
-        		Node successor = IteArc.getDestination();
-        		//recorver the matching label from the table of Label
-        		Label SuccessorLabel = tabLabel[successor.getId()];
+        		int successor = compactGraph.getTarget(IteArc);
+        		//recorver the matching label from the workspace
+        		Label SuccessorLabel = workspace.getObject(successor);
         		// if label doesnt exist, we create
         		if (SuccessorLabel == null) {
+        			Node SuccessorNode = graph.get(successor);
         			//inform observers that the Node is reached for the first time 
-        			notifyNodeReached(IteArc.getDestination());
-        			SuccessorLabel = newLabel(successor,data);
-        			tabLabel[SuccessorLabel.getNode().getId()] = SuccessorLabel;
+        			notifyNodeReached(SuccessorNode);
+        			SuccessorLabel = newLabel(SuccessorNode,data);
+        			workspace.setObject(successor, SuccessorLabel);
         			this.NbReachedNodes ++;
         		}
         		// if it isnt' marked
         		if (!SuccessorLabel.getMarked()) {
-        			if ((SuccessorLabel.getTotalCost() > (CurrentLabel.getCost() + data.getCost(IteArc)
+        			float NewCost = CurrentLabel.getCost() + inspector.getCost(IteArc);
+        			if ((SuccessorLabel.getTotalCost() > (NewCost
         			+ (SuccessorLabel.getTotalCost() - SuccessorLabel.getCost())))
         			|| (SuccessorLabel.getCost()==Float.POSITIVE_INFINITY)){
-        				SuccessorLabel.setCost(CurrentLabel.getCost() + (float)data.getCost(IteArc));
-        				SuccessorLabel.setFather(CurrentLabel.getNode());
-        				//if the label is in the tas -> remove
-        				if (SuccessorLabel.getInTas()) {
+        				//if the tas cannot update a label in place, remove it before its cost changes
+        				if (SuccessorLabel.getInTas() && !addressable) {
         					tas.remove(SuccessorLabel);
         				}
+        				SuccessorLabel.setCost(NewCost);
+        				SuccessorLabel.setFather(CurrentLabel.getNode());
+        				//if the label is in the tas -> update its position
+        				if (SuccessorLabel.getInTas() && addressable) {
+        					((AddressablePriorityQueue<Label>) tas).decreaseKey(SuccessorLabel);
+        				}
         				//else -> insert
         				else 
         				{
         					SuccessorLabel.setInTas();
+        					tas.insert(SuccessorLabel);
         				}
-        				tas.insert(SuccessorLabel);
-        				PredecessorArc[IteArc.getDestination().getId()] = IteArc;
+        				workspace.setDistance(successor, NewCost, IteArc);
         			}
         		}
         	}  
         }
         // Destination has no predecessor, the solution is infeasible...
-        if (PredecessorArc[data.getDestination().getId()] == null) {
+        if (workspace.getPredecessorArc(data.getDestination().getId()) == -1) {
             solution = new ShortestPathSolution(data, Status.INFEASIBLE);
         }
         else {
@@ -100,12 +120,12 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
             // The destination has been found, notify the observers.
             notifyDestinationReached(data.getDestination());
 
-            // Create the path from the array of predecessors...
+            // Create the path from the predecessors...
             ArrayList<Arc> arcs = new ArrayList<>();
-            Arc arc = PredecessorArc[data.getDestination().getId()];
-            while (arc != null) {
-                arcs.add(arc);
-                arc = PredecessorArc[arc.getOrigin().getId()];
+            int arc = workspace.getPredecessorArc(data.getDestination().getId());
+            while (arc != -1) {
+                arcs.add(compactGraph.getArc(arc));
+                arc = workspace.getPredecessorArc(compactGraph.getOrigin(arc));
             }
 
             // Reverse the path...
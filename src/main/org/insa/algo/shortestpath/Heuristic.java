@@ -0,0 +1,22 @@
+package org.insa.algo.shortestpath;
+
+/**
+ * Lower bound of the cost of the shortest path from any node of a graph to a
+ * fixed destination, used to guide {@link AStarAlgorithm}.
+ *
+ * @see HeuristicProvider
+ */
+public interface Heuristic {
+
+    /**
+     * Estimate the cost of the shortest path from the given node to the
+     * destination of this heuristic. The estimate must never be greater than the
+     * actual cost (the heuristic must be admissible).
+     * 
+     * @param node ID of the node.
+     * 
+     * @return Estimated cost from the given node to the destination.
+     */
+    public double estimate(int node);
+
+}
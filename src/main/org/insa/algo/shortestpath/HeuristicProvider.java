@@ -0,0 +1,282 @@
+package org.insa.algo.shortestpath;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.algo.AbstractInputData.Mode;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.GraphStatistics;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+
+/**
+ * <p>
+ * Provider of {@link Heuristic} for a graph, based on the distance "as the crow
+ * flies" between nodes.
+ * </p>
+ *
+ * <p>
+ * The trigonometric values required to compute distances (unit vector of each
+ * node and radian latitudes / longitudes) are computed once per graph, and
+ * providers are cached per graph (see {@link #of(Graph)}). Each heuristic then
+ * only stores the values of its destination, so estimating the cost from a node
+ * does not compute any sine or cosine.
+ * </p>
+ *
+ * <p>
+ * Two bounds are available:
+ * </p>
+ * <ul>
+ * <li>{@link Bound#GREAT_CIRCLE}, the great-circle distance, computed from the
+ * chord between the unit vectors of the nodes (one square root and one arc sine
+ * per estimate);</li>
+ * <li>{@link Bound#EQUIRECTANGULAR}, a cheaper (one square root per estimate)
+ * but less precise bound, the distance in an equirectangular projection scaled
+ * for the most poleward latitude that a great circle between two nodes of the
+ * graph can reach.</li>
+ * </ul>
+ *
+ * <p>
+ * The length of a path on the sphere is <i>R &int; sqrt(d&phi;<sup>2</sup> +
+ * cos<sup>2</sup>&phi; d&lambda;<sup>2</sup>)</i>, so it is at least <i>R
+ * sqrt(&Delta;&phi;<sup>2</sup> + (c &Delta;&lambda;)<sup>2</sup>)</i>, where
+ * <i>c</i> is the minimum of <i>cos &phi;</i> along the path. Along a great
+ * circle, <i>tan &phi;</i> is a sinusoid of the longitude, so the great circle
+ * between two points whose latitudes are at most <i>L</i> (in absolute value)
+ * and whose longitudes differ by at most <i>&Lambda; &lt; &pi;</i> stays below
+ * the latitude <i>atan(tan L / cos(&Lambda; / 2))</i>. The equirectangular
+ * bound uses the cosine of this latitude, with <i>L</i> the most poleward
+ * latitude of the graph and <i>&Lambda;</i> its extent in longitude (the bound
+ * only depends on the latitudes for graphs that span more than &pi; in
+ * longitude).
+ * </p>
+ *
+ * <p>
+ * Both bounds are lower than the distance between the nodes along any road, so
+ * the heuristics are admissible in {@link Mode#LENGTH} and, divided by the
+ * maximum speed of the graph, in {@link Mode#TIME}. Nodes without coordinates
+ * are estimated at 0.
+ * </p>
+ *
+ */
+public final class HeuristicProvider {
+
+    /**
+     * Available lower bounds for the distance between nodes.
+     *
+     */
+    public enum Bound {
+        GREAT_CIRCLE, EQUIRECTANGULAR
+    }
+
+    // Cache of providers (a provider does not hold a reference to its graph).
+    private static final Map<Graph, HeuristicProvider> CACHE = new WeakHashMap<>();
+
+    /**
+     * Retrieve the heuristic provider for the given graph, creating it if needed.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> if a provider has already been created for
+     * the graph, <i>O(n)</i> otherwise.
+     * </p>
+     *
+     * @param graph Graph for which a provider should be retrieved.
+     *
+     * @return The heuristic provider of the given graph.
+     */
+    public static HeuristicProvider of(Graph graph) {
+        HeuristicProvider provider;
+        synchronized (CACHE) {
+            provider = CACHE.get(graph);
+        }
+        if (provider == null) {
+            provider = new HeuristicProvider(graph.getCompactGraph());
+            synchronized (CACHE) {
+                provider = CACHE.merge(graph, provider, (previous, current) -> previous);
+            }
+        }
+        return provider;
+    }
+
+    // Unit vector of each node.
+    private final double[] xs, ys, zs;
+
+    // Latitude and longitude of each node (in radians).
+    private final double[] latitudes, longitudes;
+
+    // Cosine of the most poleward latitude of the great circles between nodes.
+    private final double minCosLatitude;
+
+    // Maximum speed of the roads of the graph (in km/h).
+    private final int maximumSpeed;
+
+    /**
+     * Create a new provider for the given graph.
+     *
+     * @param graph Graph for which the provider should be created.
+     */
+    private HeuristicProvider(CompactGraph graph) {
+        final int nbNodes = graph.size();
+        this.xs = new double[nbNodes];
+        this.ys = new double[nbNodes];
+        this.zs = new double[nbNodes];
+        this.latitudes = new double[nbNodes];
+        this.longitudes = new double[nbNodes];
+        double maxAbsLatitude = 0;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int node = 0; node < nbNodes; ++node) {
+            double latitude = Math.toRadians(graph.getLatitude(node));
+            double longitude = Math.toRadians(graph.getLongitude(node));
+            double cosLatitude = Math.cos(latitude);
+            this.xs[node] = cosLatitude * Math.cos(longitude);
+            this.ys[node] = cosLatitude * Math.sin(longitude);
+            this.zs[node] = Math.sin(latitude);
+            this.latitudes[node] = latitude;
+            this.longitudes[node] = longitude;
+            if (!Double.isNaN(latitude)) {
+                maxAbsLatitude = Math.max(Math.abs(latitude), maxAbsLatitude);
+                minLongitude = Math.min(longitude, minLongitude);
+                maxLongitude = Math.max(longitude, maxLongitude);
+            }
+        }
+
+        // cos(atan(tan L / cos(extent / 2))), 0 if the bound is the pole.
+        double extent = Math.min(Math.max(maxLongitude - minLongitude, 0), Math.PI);
+        double tanMaxLatitude = Math.tan(maxAbsLatitude) / Math.cos(extent / 2);
+        this.minCosLatitude = Double.isFinite(tanMaxLatitude)
+                ? 1 / Math.sqrt(1 + tanMaxLatitude * tanMaxLatitude) : 0;
+
+        // The statistics of the graph may not be available, so the maximum speed is
+        // computed from the roads.
+        int maximumSpeed = 0;
+        for (RoadInformation info: graph.getRoadInformations()) {
+            maximumSpeed = Math.max(info.getMaximumSpeed(), maximumSpeed);
+        }
+        this.maximumSpeed = maximumSpeed;
+    }
+
+    /**
+     * Create a heuristic for the given input data, using the great-circle bound.
+     *
+     * @param data Input data (destination, mode and maximum speed).
+     *
+     * @return A new heuristic for the given data.
+     */
+    public Heuristic getHeuristic(ShortestPathData data) {
+        return getHeuristic(data, Bound.GREAT_CIRCLE);
+    }
+
+    /**
+     * Create a heuristic for the given input data, using the given bound.
+     *
+     * @param data Input data (destination, mode and maximum speed).
+     * @param bound Bound to use.
+     *
+     * @return A new heuristic for the given data.
+     */
+    public Heuristic getHeuristic(ShortestPathData data, Bound bound) {
+        return getHeuristic(data.getDestination().getId(), data.getMode(),
+                data.getMaximumSpeed(), bound);
+    }
+
+    /**
+     * <p>
+     * Create a heuristic towards the given destination.
+     * </p>
+     *
+     * <p>
+     * In {@link Mode#TIME}, distances are converted to travel times using the
+     * maximum of the given speed and of the maximum speed of the roads of the
+     * graph, since costs may be computed with either (see
+     * {@link org.insa.algo.ArcInspectorFactory}). If no speed is known, the
+     * heuristic is 0.
+     * </p>
+     *
+     * @param destination ID of the destination node.
+     * @param mode Mode of the costs to estimate.
+     * @param maximumSpeed Maximum speed of the input data (in km/h), or
+     *        {@link GraphStatistics#NO_MAXIMUM_SPEED}.
+     * @param bound Bound to use.
+     *
+     * @return A new heuristic towards the given destination.
+     */
+    public Heuristic getHeuristic(int destination, Mode mode, int maximumSpeed, Bound bound) {
+        double factor = 1;
+        if (mode == Mode.TIME) {
+            int speed = Math.max(maximumSpeed, this.maximumSpeed);
+            if (speed <= 0) {
+                return node -> 0;
+            }
+            factor = 3600.0 / (speed * 1000.0);
+        }
+        if (bound == Bound.EQUIRECTANGULAR) {
+            return new EquirectangularHeuristic(destination, factor);
+        }
+        return new GreatCircleHeuristic(destination, factor);
+    }
+
+    /**
+     * Heuristic based on the great-circle distance.
+     */
+    private class GreatCircleHeuristic implements Heuristic {
+
+        // Unit vector of the destination.
+        private final double x, y, z;
+
+        // Factor applied to distances (in meters).
+        private final double factor;
+
+        GreatCircleHeuristic(int destination, double factor) {
+            this.x = xs[destination];
+            this.y = ys[destination];
+            this.z = zs[destination];
+            this.factor = 2 * Point.EARTH_RADIUS * factor;
+        }
+
+        @Override
+        public double estimate(int node) {
+            double dx = xs[node] - this.x, dy = ys[node] - this.y, dz = zs[node] - this.z;
+            double halfChord = Math.sqrt(dx * dx + dy * dy + dz * dz) / 2;
+            if (!(halfChord > 0)) {
+                // Same point, or node without coordinates (NaN).
+                return 0;
+            }
+            return this.factor * Math.asin(Math.min(halfChord, 1));
+        }
+
+    }
+
+    /**
+     * Heuristic based on the distance in an equirectangular projection.
+     */
+    private class EquirectangularHeuristic implements Heuristic {
+
+        // Latitude and longitude of the destination (in radians).
+        private final double latitude, longitude;
+
+        // Factor applied to distances (in meters).
+        private final double factor;
+
+        EquirectangularHeuristic(int destination, double factor) {
+            this.latitude = latitudes[destination];
+            this.longitude = longitudes[destination];
+            this.factor = Point.EARTH_RADIUS * factor;
+        }
+
+        @Override
+        public double estimate(int node) {
+            double dLatitude = latitudes[node] - this.latitude;
+            double dLongitude = Math.abs(longitudes[node] - this.longitude);
+            if (dLongitude > Math.PI) {
+                dLongitude = 2 * Math.PI - dLongitude;
+            }
+            dLongitude *= minCosLatitude;
+            double distance = Math.sqrt(dLatitude * dLatitude + dLongitude * dLongitude);
+            return distance > 0 ? this.factor * distance : 0;
+        }
+
+    }
+
+}
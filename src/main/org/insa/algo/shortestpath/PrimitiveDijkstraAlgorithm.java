@@ -0,0 +1,157 @@
+package org.insa.algo.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.PrimitiveBinaryHeap;
+import org.insa.algo.utils.SearchWorkspace;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Path;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm on the compact representation of the
+ * graph (see {@link CompactGraph}).
+ * </p>
+ *
+ * <p>
+ * Distances, predecessor arcs and marks are stored in a {@link SearchWorkspace}
+ * borrowed for the run, and the priority queue is a {@link PrimitiveBinaryHeap}
+ * of node IDs, so no object is created for the nodes reached during the search
+ * and no array of the size of the graph is allocated or cleared. Costs
+ * and permissions of the arcs are read from the {@link CompiledArcInspector} of
+ * the input data. The solutions are the same as the ones of
+ * {@link DijkstraAlgorithm}.
+ * </p>
+ *
+ * <p>
+ * Subclasses can prune the search by skipping arcs that are not on a shortest
+ * path to the destination (see {@link #isPruned(int)}).
+ * </p>
+ *
+ */
+public class PrimitiveDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes reached during the last run.
+    private int nbReachedNodes;
+
+    public PrimitiveDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.nbReachedNodes = 0;
+    }
+
+    /**
+     * Check if the given arc can be skipped, i.e. if it is known not to be on a
+     * shortest path to the destination of the current run.
+     *
+     * @param arc Index of the arc in the compact graph.
+     *
+     * @return true if the arc should be skipped (false for this implementation).
+     */
+    protected boolean isPruned(int arc) {
+        return false;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(getInputData().getGraph().size())) {
+            return doRun(workspace);
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace workspace) {
+
+        // Retrieve the graph.
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        CompiledArcInspector inspector = data.getCompiledArcInspector();
+
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        // Initialize distances, predecessors and marks.
+        PrimitiveBinaryHeap heap = workspace.getHeap();
+        workspace.setDistance(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        this.nbReachedNodes = 0;
+        while (!heap.isEmpty()) {
+            int node = heap.deleteMin();
+            workspace.mark(node);
+            notifyNodeMarked(graph.get(node));
+            if (node == destination) {
+                break;
+            }
+
+            for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                    .getEndArc(node); ++arc) {
+                // Small test to check allowed roads...
+                if (!inspector.isAllowed(arc) || isPruned(arc)) {
+                    continue;
+                }
+
+                int successor = compactGraph.getTarget(arc);
+                if (workspace.isMarked(successor)) {
+                    continue;
+                }
+
+                double oldDistance = workspace.getDistance(successor);
+                double newDistance = workspace.getDistance(node) + inspector.getCost(arc);
+
+                if (Double.isInfinite(oldDistance)) {
+                    notifyNodeReached(graph.get(successor));
+                    this.nbReachedNodes++;
+                }
+
+                // Check if new distances would be better, if so update...
+                if (newDistance < oldDistance) {
+                    workspace.setDistance(successor, newDistance, arc);
+                    heap.insertOrDecreaseKey(successor, newDistance);
+                }
+            }
+        }
+
+        ShortestPathSolution solution = null;
+
+        // Destination has no predecessor, the solution is infeasible...
+        if (workspace.getPredecessorArc(destination) == -1) {
+            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        else {
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Create the path from the array of predecessors...
+            ArrayList<Arc> arcs = new ArrayList<>();
+            int arc = workspace.getPredecessorArc(destination);
+            while (arc != -1) {
+                arcs.add(compactGraph.getArc(arc));
+                arc = workspace.getPredecessorArc(compactGraph.getOrigin(arc));
+            }
+
+            // Reverse the path...
+            Collections.reverse(arcs);
+
+            // Create the final solution.
+            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+
+        return solution;
+    }
+
+    /**
+     * @return Number of nodes reached during the last run.
+     */
+    public int getNbReachedNodes() {
+        return this.nbReachedNodes;
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.insa.algo.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.CompiledArcInspector;
+import org.insa.algo.utils.RadixHeap;
+import org.insa.algo.utils.SearchWorkspace;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Path;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm with fixed-point costs and a
+ * {@link RadixHeap}.
+ * </p>
+ *
+ * <p>
+ * The cost of each arc is rounded to the nearest multiple of
+ * 1/{@link #COST_SCALE} of its unit (millimeters for lengths, milliseconds for
+ * travel times), so distances are integers and the keys removed from the queue
+ * never decrease, which is what a radix heap requires. The heap has no
+ * decrease-key operation: a node whose distance decreases is inserted again, and
+ * outdated entries are skipped when they are removed.
+ * </p>
+ *
+ * <p>
+ * Apart from the queue, the search is the same as
+ * {@link PrimitiveDijkstraAlgorithm}. Because of the rounding, the cost of the
+ * path found may exceed the cost of a shortest path by at most half a
+ * thousandth of a unit per arc of the path.
+ * </p>
+ *
+ */
+public class RadixDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    /**
+     * Number of fixed-point steps per unit of cost.
+     */
+    public static final double COST_SCALE = 1000;
+
+    // Number of nodes reached during the last run.
+    private int nbReachedNodes;
+
+    public RadixDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.nbReachedNodes = 0;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(getInputData().getGraph().size())) {
+            return doRun(workspace);
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace workspace) {
+
+        // Retrieve the graph.
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        CompiledArcInspector inspector = data.getCompiledArcInspector();
+
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        // Initialize distances (fixed-point, stored as doubles), predecessors and
+        // marks.
+        RadixHeap heap = workspace.getRadixHeap();
+        workspace.setDistance(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        this.nbReachedNodes = 0;
+        while (!heap.isEmpty()) {
+            int node = heap.deleteMin();
+            if (workspace.isMarked(node)) {
+                // Outdated entry.
+                continue;
+            }
+            workspace.mark(node);
+            notifyNodeMarked(graph.get(node));
+            if (node == destination) {
+                break;
+            }
+
+            final long distance = heap.getLastKey();
+            for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                    .getEndArc(node); ++arc) {
+                // Small test to check allowed roads...
+                if (!inspector.isAllowed(arc)) {
+                    continue;
+                }
+
+                int successor = compactGraph.getTarget(arc);
+                if (workspace.isMarked(successor)) {
+                    continue;
+                }
+
+                double oldDistance = workspace.getDistance(successor);
+                long newDistance = distance
+                        + (long) (inspector.getCost(arc) * COST_SCALE + 0.5);
+
+                if (Double.isInfinite(oldDistance)) {
+                    notifyNodeReached(graph.get(successor));
+                    this.nbReachedNodes++;
+                }
+
+                // Check if new distances would be better, if so update...
+                if (newDistance < oldDistance) {
+                    workspace.setDistance(successor, newDistance, arc);
+                    heap.insert(successor, newDistance);
+                }
+            }
+        }
+
+        ShortestPathSolution solution = null;
+
+        // Destination has no predecessor, the solution is infeasible...
+        if (workspace.getPredecessorArc(destination) == -1) {
+            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        else {
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Create the path from the array of predecessors...
+            ArrayList<Arc> arcs = new ArrayList<>();
+            int arc = workspace.getPredecessorArc(destination);
+            while (arc != -1) {
+                arcs.add(compactGraph.getArc(arc));
+                arc = workspace.getPredecessorArc(compactGraph.getOrigin(arc));
+            }
+
+            // Reverse the path...
+            Collections.reverse(arcs);
+
+            // Create the final solution.
+            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+
+        return solution;
+    }
+
+    /**
+     * @return Number of nodes reached during the last run.
+     */
+    public int getNbReachedNodes() {
+        return this.nbReachedNodes;
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.insa.algo.utils;
+
+/**
+ * Priority queue that keeps track of the position of its elements, so that the
+ * order can be restored in place when the key (as seen by compareTo) of an
+ * element changes, instead of removing and inserting the element again.
+ *
+ * <p>
+ * Elements are identified by reference, and an element cannot be inserted twice
+ * in the same queue.
+ * </p>
+ *
+ * @see IndexedBinaryHeap
+ * @see PairingHeap
+ * @see DAryHeap
+ */
+public interface AddressablePriorityQueue<E extends Comparable<E>> extends PriorityQueue<E> {
+
+    /**
+     * @param x Element to check.
+     *
+     * @return true if the given element is in this queue.
+     */
+    public boolean contains(E x);
+
+    /**
+     * Restore the order of the queue after the key of the given element has
+     * decreased.
+     *
+     * @param x Element whose key has decreased.
+     *
+     * @throws ElementNotFoundException if the element is not in the queue.
+     */
+    public void decreaseKey(E x) throws ElementNotFoundException;
+
+    /**
+     * Restore the order of the queue after the key of the given element has
+     * changed, either increased or decreased.
+     *
+     * @param x Element whose key has changed.
+     *
+     * @throws ElementNotFoundException if the element is not in the queue.
+     */
+    public void update(E x) throws ElementNotFoundException;
+
+    /**
+     * Remove all the elements from this queue.
+     */
+    public void clear();
+
+}
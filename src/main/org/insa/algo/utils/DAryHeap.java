@@ -0,0 +1,351 @@
+package org.insa.algo.utils;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a <i>d</i>-ary heap: each node has up to <i>d</i> children, so the
+ * heap is <i>log<sub>2</sub> d</i> times shallower than a binary heap, and the
+ * children of a node are contiguous in memory. Typical arities are 4 and 8.
+ * </p>
+ *
+ * <p>
+ * The key of each element, given by a function of the element, is stored in a
+ * {@code double} array next to the heap array, so percolating compares
+ * primitive values without dereferencing the elements. The key function must be
+ * consistent with the compareTo method of the elements, and the key of an
+ * element must not change while it is in the heap unless
+ * {@link #decreaseKey(Comparable)} or {@link #update(Comparable)} is called
+ * right after.
+ * </p>
+ *
+ * <p>
+ * Like {@link IndexedBinaryHeap}, positions are stored either in an array
+ * indexed by an integer key of the elements or in an identity map. Elements are
+ * identified by reference, and an element cannot be inserted twice in the same
+ * heap.
+ * </p>
+ *
+ */
+public class DAryHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    // Arity of the heap.
+    private final int arity;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array, and the key of each element of the heap array.
+    private E[] array;
+    private double[] keys;
+
+    // Function giving the key of the elements.
+    private final ToDoubleFunction<? super E> keyFunction;
+
+    // Integer key of the elements, and position of each key in the heap (or -1),
+    // if any.
+    private final ToIntFunction<? super E> indexer;
+    private final int[] positions;
+
+    // Handles (position in the heap) of the elements, if no integer key.
+    private final IdentityHashMap<E, Integer> handles;
+
+    /**
+     * Construct a new empty heap that stores the position of its elements in
+     * handles.
+     *
+     * @param arity Number of children of each node (at least 2).
+     * @param keyFunction Function giving the key of the elements.
+     */
+    public DAryHeap(int arity, ToDoubleFunction<? super E> keyFunction) {
+        this(arity, keyFunction, null, 0);
+    }
+
+    /**
+     * Construct a new empty heap that stores the position of its elements in an
+     * array indexed by the given integer key.
+     *
+     * @param arity Number of children of each node (at least 2).
+     * @param keyFunction Function giving the key of the elements.
+     * @param indexer Function that maps each element to a unique key in
+     *        {@code [0, capacity)}.
+     * @param capacity Number of possible keys.
+     */
+    public DAryHeap(int arity, ToDoubleFunction<? super E> keyFunction,
+            ToIntFunction<? super E> indexer, int capacity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("invalid arity: " + arity);
+        }
+        this.arity = arity;
+        this.currentSize = 0;
+        this.array = newArray(16);
+        this.keys = new double[16];
+        this.keyFunction = keyFunction;
+        this.indexer = indexer;
+        if (indexer != null) {
+            this.positions = new int[capacity];
+            Arrays.fill(this.positions, -1);
+            this.handles = null;
+        }
+        else {
+            this.positions = null;
+            this.handles = new IdentityHashMap<>();
+        }
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Heap to copy.
+     */
+    public DAryHeap(DAryHeap<E> heap) {
+        this.arity = heap.arity;
+        this.currentSize = heap.currentSize;
+        this.array = Arrays.copyOf(heap.array, heap.array.length);
+        this.keys = Arrays.copyOf(heap.keys, heap.keys.length);
+        this.keyFunction = heap.keyFunction;
+        this.indexer = heap.indexer;
+        this.positions = heap.positions == null ? null
+                : Arrays.copyOf(heap.positions, heap.positions.length);
+        this.handles = heap.handles == null ? null : new IdentityHashMap<>(heap.handles);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    /**
+     * @return Arity of this heap.
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * @param x Element to find.
+     *
+     * @return Position of the given element in the heap, or -1 if the element is
+     *         not in the heap.
+     */
+    private int positionOf(E x) {
+        int index;
+        if (this.indexer != null) {
+            int key = this.indexer.applyAsInt(x);
+            if (key < 0 || key >= this.positions.length) {
+                return -1;
+            }
+            index = this.positions[key];
+        }
+        else {
+            index = this.handles.getOrDefault(x, -1);
+        }
+        return index >= 0 && index < this.currentSize && this.array[index] == x ? index : -1;
+    }
+
+    /**
+     * Set an element and its key at the given index, and update its position.
+     */
+    private void arraySet(int index, E value, double key) {
+        this.array[index] = value;
+        this.keys[index] = key;
+        if (this.indexer != null) {
+            this.positions[this.indexer.applyAsInt(value)] = index;
+        }
+        else {
+            this.handles.put(value, index);
+        }
+    }
+
+    /**
+     * Forget the position of the given element.
+     */
+    private void clearPosition(E value) {
+        if (this.indexer != null) {
+            this.positions[this.indexer.applyAsInt(value)] = -1;
+        }
+        else {
+            this.handles.remove(value);
+        }
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     *
+     * @return Final index of the element.
+     */
+    private int percolateUp(int index) {
+        E x = this.array[index];
+        double key = this.keys[index];
+        while (index > 0) {
+            int parent = (index - 1) / this.arity;
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            this.arraySet(index, this.array[parent], this.keys[parent]);
+            index = parent;
+        }
+        this.arraySet(index, x, key);
+        return index;
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateDown(int index) {
+        E x = this.array[index];
+        double key = this.keys[index];
+        int first;
+        while ((first = index * this.arity + 1) < this.currentSize) {
+            int end = Math.min(first + this.arity, this.currentSize);
+            int child = first;
+            for (int i = first + 1; i < end; ++i) {
+                if (this.keys[i] < this.keys[child]) {
+                    child = i;
+                }
+            }
+            if (this.keys[child] >= key) {
+                break;
+            }
+            this.arraySet(index, this.array[child], this.keys[child]);
+            index = child;
+        }
+        this.arraySet(index, x, key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(E x) {
+        return positionOf(x) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log<sub>d</sub> n)</i>
+     * </p>
+     *
+     * @throws IllegalArgumentException if the element is already in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        if (positionOf(x) >= 0) {
+            throw new IllegalArgumentException("element already in the heap: " + x);
+        }
+        if (this.currentSize == this.array.length) {
+            this.array = Arrays.copyOf(this.array, this.array.length * 2);
+            this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+        }
+        int index = this.currentSize++;
+        this.arraySet(index, x, this.keyFunction.applyAsDouble(x));
+        this.percolateUp(index);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        clearPosition(x);
+        int indexLast = --this.currentSize;
+        if (index < indexLast) {
+            this.arraySet(index, this.array[indexLast], this.keys[indexLast]);
+            if (this.percolateUp(index) == index) {
+                this.percolateDown(index);
+            }
+        }
+        this.array[indexLast] = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log<sub>d</sub> n)</i>
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        this.keys[index] = this.keyFunction.applyAsDouble(x);
+        this.percolateUp(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(d log<sub>d</sub> n)</i>
+     * </p>
+     */
+    @Override
+    public void update(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        this.keys[index] = this.keyFunction.applyAsDouble(x);
+        if (this.percolateUp(index) == index) {
+            this.percolateDown(index);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            clearPosition(this.array[i]);
+            this.array[i] = null;
+        }
+        this.currentSize = 0;
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.array[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(d log<sub>d</sub> n)</i>
+     * </p>
+     */
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        clearPosition(minItem);
+        int indexLast = --this.currentSize;
+        if (indexLast > 0) {
+            this.arraySet(0, this.array[indexLast], this.keys[indexLast]);
+            this.percolateDown(0);
+        }
+        this.array[indexLast] = null;
+        return minItem;
+    }
+
+}
@@ -0,0 +1,345 @@
+package org.insa.algo.utils;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a binary heap that keeps track of the position of each of its
+ * elements, so that {@link #remove(Comparable)}, {@link #decreaseKey(Comparable)}
+ * and {@link #update(Comparable)} run in <i>O(log n)</i> instead of requiring a
+ * linear search in the heap.
+ * </p>
+ *
+ * <p>
+ * Positions are stored either:
+ * </p>
+ * <ul>
+ * <li>in an array indexed by an integer key of the elements (e.g. the ID of the
+ * node of a label), when the heap is created with
+ * {@link #IndexedBinaryHeap(ToIntFunction, int)} &mdash; this is the fastest
+ * option;</li>
+ * <li>in a handle associated with each element (an entry of an identity map),
+ * when the heap is created with {@link #IndexedBinaryHeap()}.</li>
+ * </ul>
+ *
+ * <p>
+ * Elements are identified by reference, and an element cannot be inserted twice
+ * in the same heap. Note that all "matching" is based on the compareTo method.
+ * </p>
+ *
+ */
+public class IndexedBinaryHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array.
+    private E[] array;
+
+    // Integer key of the elements, and position of each key in the heap (or -1),
+    // if any.
+    private final ToIntFunction<? super E> indexer;
+    private final int[] positions;
+
+    // Handles (position in the heap) of the elements, if no integer key.
+    private final IdentityHashMap<E, Integer> handles;
+
+    /**
+     * Construct a new empty heap that stores the position of its elements in
+     * handles.
+     */
+    public IndexedBinaryHeap() {
+        this.currentSize = 0;
+        this.array = newArray(16);
+        this.indexer = null;
+        this.positions = null;
+        this.handles = new IdentityHashMap<>();
+    }
+
+    /**
+     * Construct a new empty heap that stores the position of its elements in an
+     * array indexed by the given integer key.
+     *
+     * @param indexer Function that maps each element to a unique key in
+     *        {@code [0, capacity)}.
+     * @param capacity Number of possible keys.
+     */
+    public IndexedBinaryHeap(ToIntFunction<? super E> indexer, int capacity) {
+        this.currentSize = 0;
+        this.array = newArray(16);
+        this.indexer = indexer;
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, -1);
+        this.handles = null;
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Heap to copy.
+     */
+    public IndexedBinaryHeap(IndexedBinaryHeap<E> heap) {
+        this.currentSize = heap.currentSize;
+        this.array = Arrays.copyOf(heap.array, heap.array.length);
+        this.indexer = heap.indexer;
+        this.positions = heap.positions == null ? null
+                : Arrays.copyOf(heap.positions, heap.positions.length);
+        this.handles = heap.handles == null ? null : new IdentityHashMap<>(heap.handles);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    /**
+     * @param x Element to find.
+     *
+     * @return Position of the given element in the heap, or -1 if the element is
+     *         not in the heap.
+     */
+    private int positionOf(E x) {
+        int index;
+        if (this.indexer != null) {
+            int key = this.indexer.applyAsInt(x);
+            if (key < 0 || key >= this.positions.length) {
+                return -1;
+            }
+            index = this.positions[key];
+        }
+        else {
+            index = this.handles.getOrDefault(x, -1);
+        }
+        return index >= 0 && this.array[index] == x ? index : -1;
+    }
+
+    /**
+     * Set an element at the given index, and update its position.
+     *
+     * @param index Index at which the element should be set.
+     * @param value Element to set.
+     */
+    private void arraySet(int index, E value) {
+        this.array[index] = value;
+        if (this.indexer != null) {
+            this.positions[this.indexer.applyAsInt(value)] = index;
+        }
+        else {
+            this.handles.put(value, index);
+        }
+    }
+
+    /**
+     * Forget the position of the given element.
+     *
+     * @param value Element removed from the heap.
+     */
+    private void clearPosition(E value) {
+        if (this.indexer != null) {
+            this.positions[this.indexer.applyAsInt(value)] = -1;
+        }
+        else {
+            this.handles.remove(value);
+        }
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    private int index_parent(int index) {
+        return (index - 1) / 2;
+    }
+
+    /**
+     * @return Index of the left child of the given index.
+     */
+    private int index_left(int index) {
+        return index * 2 + 1;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     *
+     * @return Final index of the element.
+     */
+    private int percolateUp(int index) {
+        E x = this.array[index];
+
+        for (; index > 0
+                && x.compareTo(this.array[index_parent(index)]) < 0; index = index_parent(
+                        index)) {
+            this.arraySet(index, this.array[index_parent(index)]);
+        }
+
+        this.arraySet(index, x);
+        return index;
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateDown(int index) {
+        E x = this.array[index];
+        int ileft;
+        while ((ileft = index_left(index)) < this.currentSize) {
+            int ichild = ileft;
+            if (ileft + 1 < this.currentSize
+                    && this.array[ileft + 1].compareTo(this.array[ileft]) < 0) {
+                ichild = ileft + 1;
+            }
+            if (this.array[ichild].compareTo(x) >= 0) {
+                break;
+            }
+            this.arraySet(index, this.array[ichild]);
+            index = ichild;
+        }
+        this.arraySet(index, x);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to check.
+     *
+     * @return true if the given element is in this heap.
+     */
+    @Override
+    public boolean contains(E x) {
+        return positionOf(x) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the element is already in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        if (positionOf(x) >= 0) {
+            throw new IllegalArgumentException("element already in the heap: " + x);
+        }
+        if (this.currentSize == this.array.length) {
+            this.array = Arrays.copyOf(this.array, this.array.length * 2);
+        }
+        int index = this.currentSize++;
+        this.arraySet(index, x);
+        this.percolateUp(index);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        clearPosition(x);
+        int index_last = --this.currentSize;
+        if (index < index_last) {
+            this.arraySet(index, this.array[index_last]);
+            if (this.percolateUp(index) == index) {
+                this.percolateDown(index);
+            }
+        }
+        this.array[index_last] = null;
+    }
+
+    /**
+     * Restore the heap order after the key (as seen by compareTo) of the given
+     * element has decreased.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element whose key has decreased.
+     *
+     * @throws ElementNotFoundException if the element is not in the heap.
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        this.percolateUp(index);
+    }
+
+    /**
+     * Restore the heap order after the key (as seen by compareTo) of the given
+     * element has changed, either increased or decreased.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element whose key has changed.
+     *
+     * @throws ElementNotFoundException if the element is not in the heap.
+     */
+    @Override
+    public void update(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        if (this.percolateUp(index) == index) {
+            this.percolateDown(index);
+        }
+    }
+
+    /**
+     * Remove all the elements from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where <i>n</i> is the current size of the
+     * heap (not its capacity).
+     * </p>
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            clearPosition(this.array[i]);
+            this.array[i] = null;
+        }
+        this.currentSize = 0;
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.array[0];
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        clearPosition(minItem);
+        int index_last = --this.currentSize;
+        if (index_last > 0) {
+            this.arraySet(0, this.array[index_last]);
+            this.percolateDown(0);
+        }
+        this.array[index_last] = null;
+        return minItem;
+    }
+
+}
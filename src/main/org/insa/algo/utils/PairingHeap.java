@@ -0,0 +1,370 @@
+package org.insa.algo.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a pairing heap, a heap-ordered multi-way tree where
+ * {@link #insert(Comparable)} and {@link #decreaseKey(Comparable)} only link a
+ * tree to the root, in <i>O(1)</i>, and {@link #deleteMin()} merges the
+ * children of the root in two passes, in <i>O(log n)</i> amortized.
+ * </p>
+ *
+ * <p>
+ * Like {@link IndexedBinaryHeap}, the heap keeps track of the node of each of
+ * its elements, either in an array indexed by an integer key of the elements
+ * (see {@link #PairingHeap(ToIntFunction, int)}) or in an identity map (see
+ * {@link #PairingHeap()}). Elements are identified by reference, and an element
+ * cannot be inserted twice in the same heap.
+ * </p>
+ *
+ */
+public class PairingHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    /**
+     * Node of the heap. The previous node of a node is its left sibling, or its
+     * parent if the node is the first child of its parent.
+     */
+    private static class Entry<E> {
+
+        final E element;
+        Entry<E> child, next, previous;
+
+        Entry(E element) {
+            this.element = element;
+        }
+
+    }
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Root of the heap (null if the heap is empty).
+    private Entry<E> root;
+
+    // Integer key of the elements, and node of each key, if any.
+    private final ToIntFunction<? super E> indexer;
+    private final Entry<E>[] entries;
+
+    // Nodes of the elements, if no integer key.
+    private final IdentityHashMap<E, Entry<E>> handles;
+
+    // Buffer used to merge the children of a node.
+    private final ArrayList<Entry<E>> pairs;
+
+    /**
+     * Construct a new empty heap that stores the node of its elements in an
+     * identity map.
+     */
+    public PairingHeap() {
+        this(null, 0);
+    }
+
+    /**
+     * Construct a new empty heap that stores the node of its elements in an array
+     * indexed by the given integer key.
+     *
+     * @param indexer Function that maps each element to a unique key in
+     *        {@code [0, capacity)}.
+     * @param capacity Number of possible keys.
+     */
+    @SuppressWarnings("unchecked")
+    public PairingHeap(ToIntFunction<? super E> indexer, int capacity) {
+        this.currentSize = 0;
+        this.root = null;
+        this.indexer = indexer;
+        this.entries = indexer == null ? null : (Entry<E>[]) new Entry<?>[capacity];
+        this.handles = indexer == null ? new IdentityHashMap<>() : null;
+        this.pairs = new ArrayList<>();
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Heap to copy.
+     */
+    public PairingHeap(PairingHeap<E> heap) {
+        this(heap.indexer, heap.entries == null ? 0 : heap.entries.length);
+        if (heap.root == null) {
+            return;
+        }
+        ArrayDeque<Entry<E>> stack = new ArrayDeque<>();
+        stack.push(heap.root);
+        while (!stack.isEmpty()) {
+            Entry<E> entry = stack.pop();
+            insert(entry.element);
+            for (Entry<E> child = entry.child; child != null; child = child.next) {
+                stack.push(child);
+            }
+        }
+    }
+
+    /**
+     * @return Node of the given element, or null if the element is not in the
+     *         heap.
+     */
+    private Entry<E> entryOf(E x) {
+        Entry<E> entry;
+        if (this.indexer != null) {
+            int key = this.indexer.applyAsInt(x);
+            if (key < 0 || key >= this.entries.length) {
+                return null;
+            }
+            entry = this.entries[key];
+        }
+        else {
+            entry = this.handles.get(x);
+        }
+        return entry != null && entry.element == x ? entry : null;
+    }
+
+    /**
+     * Set or clear the node of the given element.
+     */
+    private void setEntry(E x, Entry<E> entry) {
+        if (this.indexer != null) {
+            this.entries[this.indexer.applyAsInt(x)] = entry;
+        }
+        else if (entry != null) {
+            this.handles.put(x, entry);
+        }
+        else {
+            this.handles.remove(x);
+        }
+    }
+
+    /**
+     * Link two trees (roots without siblings), the root with the larger element
+     * becoming the first child of the other one.
+     *
+     * @return Root of the linked tree.
+     */
+    private Entry<E> link(Entry<E> a, Entry<E> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.element.compareTo(a.element) < 0) {
+            Entry<E> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        b.previous = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.previous = b;
+        }
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Detach the given node (and its subtree) from its parent and siblings.
+     */
+    private void cut(Entry<E> entry) {
+        if (entry.previous.child == entry) {
+            entry.previous.child = entry.next;
+        }
+        else {
+            entry.previous.next = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.next = null;
+        entry.previous = null;
+    }
+
+    /**
+     * Merge the given list of siblings into a single tree, by linking them by
+     * pairs from left to right, and then linking the resulting trees from right
+     * to left.
+     *
+     * @return Root of the merged tree, or null if the list is empty.
+     */
+    private Entry<E> mergePairs(Entry<E> first) {
+        if (first == null) {
+            return null;
+        }
+        ArrayList<Entry<E>> pairs = this.pairs;
+        pairs.clear();
+        while (first != null) {
+            Entry<E> a = first, b = first.next;
+            first = b == null ? null : b.next;
+            a.next = a.previous = null;
+            if (b != null) {
+                b.next = b.previous = null;
+            }
+            pairs.add(link(a, b));
+        }
+        Entry<E> merged = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; --i) {
+            merged = link(pairs.get(i), merged);
+        }
+        pairs.clear();
+        return merged;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to check.
+     *
+     * @return true if the given element is in this heap.
+     */
+    public boolean contains(E x) {
+        return entryOf(x) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @throws IllegalArgumentException if the element is already in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        if (entryOf(x) != null) {
+            throw new IllegalArgumentException("element already in the heap: " + x);
+        }
+        Entry<E> entry = new Entry<>(x);
+        setEntry(x, entry);
+        this.root = link(this.root, entry);
+        this.currentSize++;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i> amortized
+     * </p>
+     */
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (entry == this.root) {
+            deleteMin();
+            return;
+        }
+        cut(entry);
+        Entry<E> children = mergePairs(entry.child);
+        entry.child = null;
+        this.root = link(this.root, children);
+        setEntry(x, null);
+        this.currentSize--;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (entry != this.root) {
+            cut(entry);
+            this.root = link(this.root, entry);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i> amortized
+     * </p>
+     */
+    @Override
+    public void update(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+
+        // The element may now be greater than its children, so its subtree is
+        // split from it.
+        Entry<E> children = mergePairs(entry.child);
+        entry.child = null;
+        if (entry == this.root) {
+            this.root = link(entry, children);
+        }
+        else {
+            cut(entry);
+            this.root = link(link(this.root, children), entry);
+        }
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.root.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i> amortized
+     * </p>
+     */
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        Entry<E> oldRoot = this.root;
+        this.root = mergePairs(oldRoot.child);
+        oldRoot.child = null;
+        setEntry(minItem, null);
+        this.currentSize--;
+        return minItem;
+    }
+
+    @Override
+    public void clear() {
+        if (this.root != null) {
+            ArrayDeque<Entry<E>> stack = new ArrayDeque<>();
+            stack.push(this.root);
+            while (!stack.isEmpty()) {
+                Entry<E> entry = stack.pop();
+                setEntry(entry.element, null);
+                for (Entry<E> child = entry.child; child != null; child = child.next) {
+                    stack.push(child);
+                }
+            }
+        }
+        this.root = null;
+        this.currentSize = 0;
+    }
+
+}
@@ -0,0 +1,244 @@
+package org.insa.algo.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.insa.algo.ArcInspector;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Cache of data preprocessed for a graph and a key (e.g. an arc inspector),
+ * shared by the factories of the speed-up techniques.
+ * </p>
+ *
+ * <p>
+ * Data is computed at most once per graph and per key: the first caller
+ * computes it, and the other callers for the same graph and key wait for its
+ * result. Only the lookup is synchronized, so data for other keys or other
+ * graphs can be retrieved or computed meanwhile. If the computation fails, the
+ * entry is dropped and the next caller computes the data again.
+ * </p>
+ *
+ * <p>
+ * If the {@link #DIRECTORY_PROPERTY} system property is set, the factories store
+ * their data in the corresponding directory (see
+ * {@link #readOrBuild(File, Reader, Supplier, Writer)}), so it is only built
+ * once per map.
+ * </p>
+ *
+ * @param <T> Type of the preprocessed data.
+ */
+public class PreprocessingCache<T> {
+
+    /**
+     * Name of the system property that can be used to specify a directory where
+     * preprocessed data is stored (e.g.
+     * {@code -Dorg.insa.algo.preprocessing.directory=preprocessing}).
+     */
+    public static final String DIRECTORY_PROPERTY = "org.insa.algo.preprocessing.directory";
+
+    // Logger for the files that cannot be read or written.
+    private static final Logger LOGGER = Logger.getLogger(PreprocessingCache.class.getName());
+
+    /**
+     * Function reading preprocessed data from a file.
+     *
+     * @param <T> Type of the data.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+
+        /**
+         * @param file File to read.
+         *
+         * @return The data read.
+         *
+         * @throws IOException if the file cannot be read or does not contain the
+         *         expected data.
+         */
+        T read(File file) throws IOException;
+
+    }
+
+    /**
+     * Function writing preprocessed data to a file.
+     *
+     * @param <T> Type of the data.
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+
+        /**
+         * @param file File to write.
+         * @param data Data to write.
+         *
+         * @throws IOException if the file cannot be written.
+         */
+        void write(File file, T data) throws IOException;
+
+    }
+
+    // Tasks computing the data, per graph and per key (compared by identity).
+    private final Map<Graph, Map<Object, FutureTask<T>>> tasks = new WeakHashMap<>();
+
+    /**
+     * Retrieve the data of the given graph for the given key, computing it with
+     * the given supplier if it is not in the cache.
+     *
+     * @param graph Graph of the data.
+     * @param key Key of the data for the graph (compared by identity).
+     * @param supplier Function computing the data.
+     *
+     * @return The data of the graph for the key.
+     *
+     * @throws IllegalStateException if the current thread is interrupted while
+     *         waiting for the data.
+     */
+    public T get(Graph graph, Object key, Supplier<T> supplier) {
+        FutureTask<T> task;
+        boolean owner = false;
+        synchronized (this.tasks) {
+            Map<Object, FutureTask<T>> tasks = this.tasks.computeIfAbsent(graph,
+                    g -> new IdentityHashMap<>());
+            task = tasks.get(key);
+            if (task == null) {
+                task = new FutureTask<>(supplier::get);
+                tasks.put(key, task);
+                owner = true;
+            }
+        }
+        if (owner) {
+            task.run();
+        }
+        try {
+            return Tasks.await(task);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for preprocessing",
+                    exception);
+        }
+        catch (RuntimeException | Error exception) {
+            remove(graph, key, task);
+            throw exception;
+        }
+    }
+
+    /**
+     * Drop the given failed task from the cache, unless it has already been
+     * replaced.
+     */
+    private void remove(Graph graph, Object key, FutureTask<T> task) {
+        synchronized (this.tasks) {
+            Map<Object, FutureTask<T>> tasks = this.tasks.get(graph);
+            if (tasks != null && tasks.get(key) == task) {
+                tasks.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the key identifying the given inspector in preprocessed data (e.g.
+     * in the files of landmarks, contraction hierarchies, arc-flags or overlay
+     * metrics), used to check that data was computed for the same inspector.
+     *
+     * @param inspector Inspector to identify.
+     *
+     * @return Key of the inspector (its description).
+     */
+    public static String getInspectorKey(ArcInspector inspector) {
+        return inspector.toString();
+    }
+
+    /**
+     * @return The directory where preprocessed data is stored, or null if the
+     *         {@link #DIRECTORY_PROPERTY} system property is not set.
+     */
+    public static File getDirectory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return directory == null ? null : new File(directory);
+    }
+
+    /**
+     * Retrieve the file storing data of the given graph in the given directory.
+     * The name of the file is made of the ID of the map and a hash of the given
+     * key.
+     *
+     * @param directory Directory containing the data.
+     * @param graph Graph of the data.
+     * @param key Key of the data for the graph (e.g. the key of an inspector), or
+     *        null if there is only one file per graph.
+     * @param extension Extension of the file (without the dot).
+     *
+     * @return The file (which may not exist).
+     */
+    public static File getFile(File directory, Graph graph, String key, String extension) {
+        String name = graph.getMapId().replaceAll("[^\\w.-]", "_");
+        if (key != null) {
+            name += "_" + String.format("%08x", key.hashCode());
+        }
+        return new File(directory, name + "." + extension);
+    }
+
+    /**
+     * Read data from the given file, or build it if the file does not exist or is
+     * invalid (e.g. outdated) and then write it into the file.
+     *
+     * <p>
+     * Since building the data can take a while, files that cannot be read or
+     * written are logged as warnings. A file that cannot be read is deleted, and so
+     * is a file that could only be partially written, so the next run does not
+     * try to read it again.
+     * </p>
+     *
+     * @param file File storing the data, or null to only build the data.
+     * @param reader Function reading the data.
+     * @param builder Function building the data.
+     * @param writer Function writing the data.
+     *
+     * @return The data.
+     */
+    public static <T> T readOrBuild(File file, Reader<T> reader, Supplier<T> builder,
+            Writer<T> writer) {
+        if (file != null && file.isFile()) {
+            try {
+                return reader.read(file);
+            }
+            catch (IOException exception) {
+                LOGGER.warning("cannot read " + file + ", building it again: " + exception);
+                delete(file);
+            }
+        }
+        T data = builder.get();
+        if (file != null) {
+            try {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+                writer.write(file, data);
+            }
+            catch (IOException exception) {
+                // The data can still be used.
+                LOGGER.warning("cannot write " + file + ": " + exception);
+                delete(file);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Delete the given file if it exists, logging a warning if it cannot be
+     * deleted.
+     */
+    private static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            LOGGER.warning("cannot delete " + file);
+        }
+    }
+
+}
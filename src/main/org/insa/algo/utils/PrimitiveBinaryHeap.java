@@ -0,0 +1,321 @@
+package org.insa.algo.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Binary min-heap of integer items (e.g. node IDs) with {@code double} keys.
+ * </p>
+ *
+ * <p>
+ * Items and keys are stored in primitive arrays, and the position of each item
+ * in the heap is stored in an array indexed by the item, so no object is created
+ * when inserting, updating or removing items, and {@link #decreaseKey(int, double)}
+ * runs in <i>O(log n)</i>.
+ * </p>
+ *
+ * <p>
+ * Items must be in {@code [0, capacity)} where {@code capacity} is the value
+ * given when creating the heap.
+ * </p>
+ *
+ */
+public class PrimitiveBinaryHeap {
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Items and keys of the heap (heap-ordered).
+    private final int[] items;
+    private final double[] keys;
+
+    // Position of each item in the heap, or -1 if the item is not in the heap.
+    private final int[] positions;
+
+    /**
+     * Construct a new empty heap that can hold items in {@code [0, capacity)}.
+     *
+     * @param capacity Maximum number of items in this heap.
+     */
+    public PrimitiveBinaryHeap(int capacity) {
+        this.currentSize = 0;
+        this.items = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * @return Maximum number of items in this heap.
+     */
+    public int capacity() {
+        return this.positions.length;
+    }
+
+    /**
+     * Check if the heap is empty.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return Current size (number of items) of this heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param item Item to check.
+     *
+     * @return true if the given item is in this heap.
+     */
+    public boolean contains(int item) {
+        return this.positions[item] >= 0;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param item Item for which the key should be retrieved.
+     *
+     * @return Key of the given item.
+     *
+     * @throws ElementNotFoundException if the item is not in this heap.
+     */
+    public double getKey(int item) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        return this.keys[this.positions[item]];
+    }
+
+    /**
+     * Insert the given item with the given key into the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param item Item to insert (must not be in the heap).
+     * @param key Key of the item.
+     */
+    public void insert(int item, double key) {
+        int index = this.currentSize++;
+        this.items[index] = item;
+        this.keys[index] = key;
+        this.positions[item] = index;
+        this.percolateUp(index);
+    }
+
+    /**
+     * Decrease the key of the given item.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param item Item to update.
+     * @param key New key for the item (must not be greater than the current one).
+     *
+     * @throws ElementNotFoundException if the item is not in this heap.
+     */
+    public void decreaseKey(int item, double key) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        int index = this.positions[item];
+        this.keys[index] = key;
+        this.percolateUp(index);
+    }
+
+    /**
+     * Change the key of the given item, which may be greater or lower than the
+     * current one.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param item Item to update.
+     * @param key New key for the item.
+     *
+     * @throws ElementNotFoundException if the item is not in this heap.
+     */
+    public void updateKey(int item, double key) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        int index = this.positions[item];
+        double oldKey = this.keys[index];
+        this.keys[index] = key;
+        if (key < oldKey) {
+            this.percolateUp(index);
+        }
+        else {
+            this.percolateDown(index);
+        }
+    }
+
+    /**
+     * Insert the given item, or decrease its key if it is already in the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param item Item to insert or update.
+     * @param key New key for the item.
+     */
+    public void insertOrDecreaseKey(int item, double key) {
+        if (contains(item)) {
+            decreaseKey(item, key);
+        }
+        else {
+            insert(item, key);
+        }
+    }
+
+    /**
+     * Retrieve (but not remove) the item with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return The item with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.items[0];
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return The smallest key in this heap.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public double findMinKey() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.keys[0];
+    }
+
+    /**
+     * Remove and return the item with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @return The item with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        int minItem = findMin();
+        this.positions[minItem] = -1;
+        int last = --this.currentSize;
+        if (last > 0) {
+            this.move(last, 0);
+            this.percolateDown(0);
+        }
+        return minItem;
+    }
+
+    /**
+     * Remove all the items from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where <i>n</i> is the current size of the
+     * heap (not its capacity).
+     * </p>
+     */
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.positions[this.items[i]] = -1;
+        }
+        this.currentSize = 0;
+    }
+
+    /**
+     * Move the item at the given index to the given index.
+     */
+    private void move(int from, int to) {
+        this.items[to] = this.items[from];
+        this.keys[to] = this.keys[from];
+        this.positions[this.items[to]] = to;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateUp(int index) {
+        int item = this.items[index];
+        double key = this.keys[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            this.move(parent, index);
+            index = parent;
+        }
+        this.items[index] = item;
+        this.keys[index] = key;
+        this.positions[item] = index;
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateDown(int index) {
+        int item = this.items[index];
+        double key = this.keys[index];
+        int child;
+        while ((child = index * 2 + 1) < this.currentSize) {
+            if (child + 1 < this.currentSize && this.keys[child + 1] < this.keys[child]) {
+                child += 1;
+            }
+            if (this.keys[child] >= key) {
+                break;
+            }
+            this.move(child, index);
+            index = child;
+        }
+        this.items[index] = item;
+        this.keys[index] = key;
+        this.positions[item] = index;
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.insa.algo.utils;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implementations of {@link PriorityQueue} that can be chosen by the algorithms
+ * (e.g. {@link org.insa.algo.shortestpath.DijkstraAlgorithm}).
+ * </p>
+ *
+ * <p>
+ * {@link BinarySearchTree} is not available here since it considers elements
+ * that compare equal (e.g. two labels with the same cost) as the same element.
+ * </p>
+ *
+ */
+public enum PriorityQueueType {
+
+    /**
+     * {@link BinaryHeap}, without decrease-key (an element is removed and inserted
+     * again, and removing an element requires a linear search).
+     */
+    BINARY_HEAP {
+        @Override
+        public <E extends Comparable<E>> PriorityQueue<E> create(
+                ToDoubleFunction<? super E> keyFunction, ToIntFunction<? super E> indexer,
+                int capacity) {
+            return new BinaryHeap<>();
+        }
+    },
+
+    /**
+     * {@link IndexedBinaryHeap} indexed by the integer keys of the elements.
+     */
+    INDEXED_BINARY_HEAP {
+        @Override
+        public <E extends Comparable<E>> PriorityQueue<E> create(
+                ToDoubleFunction<? super E> keyFunction, ToIntFunction<? super E> indexer,
+                int capacity) {
+            return new IndexedBinaryHeap<E>(indexer, capacity);
+        }
+    },
+
+    /**
+     * {@link PairingHeap} indexed by the integer keys of the elements.
+     */
+    PAIRING_HEAP {
+        @Override
+        public <E extends Comparable<E>> PriorityQueue<E> create(
+                ToDoubleFunction<? super E> keyFunction, ToIntFunction<? super E> indexer,
+                int capacity) {
+            return new PairingHeap<E>(indexer, capacity);
+        }
+    },
+
+    /**
+     * {@link DAryHeap} with 4 children per node, indexed by the integer keys of
+     * the elements.
+     */
+    FOUR_ARY_HEAP {
+        @Override
+        public <E extends Comparable<E>> PriorityQueue<E> create(
+                ToDoubleFunction<? super E> keyFunction, ToIntFunction<? super E> indexer,
+                int capacity) {
+            return new DAryHeap<>(4, keyFunction, indexer, capacity);
+        }
+    },
+
+    /**
+     * {@link DAryHeap} with 8 children per node, indexed by the integer keys of
+     * the elements.
+     */
+    EIGHT_ARY_HEAP {
+        @Override
+        public <E extends Comparable<E>> PriorityQueue<E> create(
+                ToDoubleFunction<? super E> keyFunction, ToIntFunction<? super E> indexer,
+                int capacity) {
+            return new DAryHeap<>(8, keyFunction, indexer, capacity);
+        }
+    };
+
+    /**
+     * Create a new empty queue of this type.
+     *
+     * @param keyFunction Function giving a key of the elements consistent with
+     *        their compareTo method (used by {@link DAryHeap}).
+     * @param indexer Function that maps each element to a unique key in
+     *        {@code [0, capacity)} (used by the queues that track the position of
+     *        their elements).
+     * @param capacity Number of possible integer keys.
+     *
+     * @return A new empty queue.
+     */
+    public abstract <E extends Comparable<E>> PriorityQueue<E> create(
+            ToDoubleFunction<? super E> keyFunction, ToIntFunction<? super E> indexer,
+            int capacity);
+
+}
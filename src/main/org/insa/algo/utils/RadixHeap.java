@@ -0,0 +1,232 @@
+package org.insa.algo.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Monotone min-heap of integer items (e.g. node IDs) with non-negative
+ * {@code long} keys, implemented as a radix heap.
+ * </p>
+ *
+ * <p>
+ * The heap keeps the last key removed, and can only hold keys greater than or
+ * equal to this key, which is the case for the keys of Dijkstra's algorithm with
+ * non-negative costs. Items are stored in 65 buckets: bucket 0 holds the items
+ * whose key is equal to the last key, and bucket <i>i &gt; 0</i> the items
+ * whose key first differs from the last key at bit <i>i - 1</i> (i.e. the
+ * highest bit set in {@code key ^ last}). When bucket 0 is empty, the items of
+ * the first non-empty bucket are redistributed to lower buckets. Since the items
+ * only move towards bucket 0, each item moves at most 64 times and no key is
+ * ever compared to more than one other key. Keys are typically fixed-point
+ * costs, e.g. lengths in millimeters or travel times in milliseconds.
+ * </p>
+ *
+ * <p>
+ * There is no decrease-key operation: an item whose key decreases is simply
+ * inserted again, so the same item can be in the heap several times and the
+ * caller should ignore the outdated entries when they are removed.
+ * </p>
+ *
+ */
+public class RadixHeap {
+
+    // Number of buckets (one per possible highest differing bit, plus one).
+    private static final int NB_BUCKETS = Long.SIZE + 1;
+
+    // Items and keys of each bucket.
+    private final int[][] items;
+    private final long[][] keys;
+    private final int[] sizes;
+
+    // Number of items in the heap.
+    private int currentSize;
+
+    // Last key removed from the heap (or lowest possible key).
+    private long lastKey;
+
+    /**
+     * Construct a new empty heap.
+     */
+    public RadixHeap() {
+        this.items = new int[NB_BUCKETS][];
+        this.keys = new long[NB_BUCKETS][];
+        for (int bucket = 0; bucket < NB_BUCKETS; ++bucket) {
+            this.items[bucket] = new int[16];
+            this.keys[bucket] = new long[16];
+        }
+        this.sizes = new int[NB_BUCKETS];
+        this.currentSize = 0;
+        this.lastKey = 0;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return Current size (number of entries) of this heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * @return Last key removed from the heap, i.e. the lowest key that can be
+     *         inserted.
+     */
+    public long getLastKey() {
+        return this.lastKey;
+    }
+
+    /**
+     * @return Index of the bucket for the given key.
+     */
+    private int bucketOf(long key) {
+        return Long.SIZE - Long.numberOfLeadingZeros(key ^ this.lastKey);
+    }
+
+    /**
+     * Add an entry to the given bucket.
+     */
+    private void push(int bucket, int item, long key) {
+        int size = this.sizes[bucket];
+        if (size == this.items[bucket].length) {
+            this.items[bucket] = Arrays.copyOf(this.items[bucket], 2 * size);
+            this.keys[bucket] = Arrays.copyOf(this.keys[bucket], 2 * size);
+        }
+        this.items[bucket][size] = item;
+        this.keys[bucket][size] = key;
+        this.sizes[bucket] = size + 1;
+    }
+
+    /**
+     * Insert the given item with the given key into the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param item Item to insert.
+     * @param key Key of the item.
+     *
+     * @throws IllegalArgumentException if the key is lower than the last key
+     *         removed from the heap (see {@link #getLastKey()}).
+     */
+    public void insert(int item, long key) {
+        if (key < this.lastKey) {
+            throw new IllegalArgumentException(
+                    "key lower than the last key removed: " + key + " < " + this.lastKey);
+        }
+        push(bucketOf(key), item, key);
+        this.currentSize++;
+    }
+
+    /**
+     * Make sure bucket 0 is not empty, by redistributing the items of the first
+     * non-empty bucket if needed.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    private void refill() throws EmptyPriorityQueueException {
+        if (this.sizes[0] > 0) {
+            return;
+        }
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        int bucket = 1;
+        while (this.sizes[bucket] == 0) {
+            bucket++;
+        }
+
+        // The minimum key of the bucket becomes the last key...
+        final int size = this.sizes[bucket];
+        final int[] bucketItems = this.items[bucket];
+        final long[] bucketKeys = this.keys[bucket];
+        long minKey = bucketKeys[0];
+        for (int i = 1; i < size; ++i) {
+            minKey = Math.min(bucketKeys[i], minKey);
+        }
+        this.lastKey = minKey;
+
+        // ...and all the items of the bucket move to lower buckets.
+        this.sizes[bucket] = 0;
+        for (int i = 0; i < size; ++i) {
+            push(bucketOf(bucketKeys[i]), bucketItems[i], bucketKeys[i]);
+        }
+    }
+
+    /**
+     * Retrieve (but not remove) an item with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> amortized
+     * </p>
+     *
+     * @return An item with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException {
+        refill();
+        return this.items[0][this.sizes[0] - 1];
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> amortized
+     * </p>
+     *
+     * @return The smallest key in this heap.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public long findMinKey() throws EmptyPriorityQueueException {
+        refill();
+        return this.lastKey;
+    }
+
+    /**
+     * Remove and return an item with the smallest key. The key of the item is
+     * then given by {@link #getLastKey()}.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log C)</i> amortized, where <i>C</i> is the
+     * maximum difference between two keys in the heap.
+     * </p>
+     *
+     * @return An item with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        refill();
+        this.currentSize--;
+        return this.items[0][--this.sizes[0]];
+    }
+
+    /**
+     * Remove all the items from this heap, and reset its last key to 0.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     */
+    public void clear() {
+        Arrays.fill(this.sizes, 0);
+        this.currentSize = 0;
+        this.lastKey = 0;
+    }
+
+}
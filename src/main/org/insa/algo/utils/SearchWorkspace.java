@@ -0,0 +1,401 @@
+package org.insa.algo.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>
+ * Reusable state of a search on a graph: distances, predecessor arcs, marks, an
+ * object (e.g. a {@link Label}) per node, and priority queues.
+ * </p>
+ *
+ * <p>
+ * Each entry is tagged with the version of the search that wrote it, and an
+ * entry whose version is not the current one is considered unset. Resetting the
+ * workspace between two searches only increments the current version (and
+ * clears the priority queues), so its cost does not depend on the size of the
+ * graph but only on the number of nodes still in the queues and of objects
+ * associated with nodes. The arrays are only reallocated when the workspace is
+ * used on a graph with more nodes than any previous one.
+ * </p>
+ *
+ * <p>
+ * The objects associated with the nodes are released when the workspace is
+ * reset or closed, so a pooled workspace does not keep the labels, nodes or arcs
+ * of a previous search (or of a graph that is not used anymore) reachable.
+ * </p>
+ *
+ * <p>
+ * Workspaces are pooled per thread and should be borrowed with
+ * {@link #acquire(int)} and given back with {@link #close()}, typically using a
+ * try-with-resources statement:
+ * </p>
+ *
+ * <pre>
+ * try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+ *     workspace.setDistance(origin, 0, -1);
+ *     workspace.getHeap().insert(origin, 0);
+ *     // ...
+ * }
+ * </pre>
+ *
+ * <p>
+ * A search that needs several workspaces at once (e.g. a bidirectional search)
+ * simply acquires several of them. A workspace must not be shared between
+ * threads while in use.
+ * </p>
+ *
+ * <p>
+ * Threads that only run a few searches (e.g. one virtual thread per query)
+ * should call {@link #releaseThreadWorkspaces()} before terminating, so that
+ * their workspaces go to a pool shared by all the threads instead of being
+ * discarded.
+ * </p>
+ *
+ */
+public final class SearchWorkspace implements AutoCloseable {
+
+    // Workspaces available for each thread.
+    private static final ThreadLocal<ArrayDeque<SearchWorkspace>> POOLS = ThreadLocal
+            .withInitial(ArrayDeque::new);
+
+    // Workspaces released by their threads, available for any thread.
+    private static final Queue<SearchWorkspace> SHARED_POOL = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Borrow a workspace from the pool of the current thread, or from the shared
+     * pool, or create a new one if none is available, ready for a search on a
+     * graph with the given number of nodes.
+     *
+     * @param nbNodes Number of nodes of the graph.
+     *
+     * @return A reset workspace with a capacity of at least the given number of
+     *         nodes.
+     */
+    public static SearchWorkspace acquire(int nbNodes) {
+        if (nbNodes < 0) {
+            throw new IllegalArgumentException("invalid number of nodes: " + nbNodes);
+        }
+        SearchWorkspace workspace = POOLS.get().pollFirst();
+        if (workspace == null) {
+            workspace = SHARED_POOL.poll();
+        }
+        if (workspace == null) {
+            workspace = new SearchWorkspace();
+        }
+        workspace.ensureCapacity(nbNodes);
+        workspace.reset();
+        workspace.inUse = true;
+        return workspace;
+    }
+
+    /**
+     * Move the workspaces available in the pool of the current thread to the
+     * pool shared by all the threads.
+     */
+    public static void releaseThreadWorkspaces() {
+        ArrayDeque<SearchWorkspace> pool = POOLS.get();
+        SHARED_POOL.addAll(pool);
+        pool.clear();
+    }
+
+    // Version of the current search (entries with another version are unset).
+    private int version;
+
+    // Version at which the distance and predecessor of each node, and the mark of
+    // each node, were last set.
+    private int[] reachedVersions, markedVersions;
+
+    // Distance and predecessor arc of each node.
+    private double[] distances;
+    private int[] predecessorArcs;
+
+    // Object associated with each node, allocated on first use, and nodes whose
+    // object is not null.
+    private Object[] objects;
+    private int[] objectNodes;
+    private int nbObjectNodes;
+
+    // Priority queues, allocated on first use.
+    private PrimitiveBinaryHeap heap;
+    private IndexedBinaryHeap<Label> labelHeap;
+    private RadixHeap radixHeap;
+
+    // Queues of labels of the other types (see getLabelQueue()), allocated on first
+    // use, only for the types whose creation depends on the capacity.
+    private final EnumMap<PriorityQueueType, AddressablePriorityQueue<Label>> labelQueues;
+
+    // true if this workspace has been acquired and not closed yet.
+    private boolean inUse;
+
+    private SearchWorkspace() {
+        this.version = 0;
+        this.reachedVersions = new int[0];
+        this.markedVersions = new int[0];
+        this.distances = new double[0];
+        this.predecessorArcs = new int[0];
+        this.objectNodes = new int[0];
+        this.nbObjectNodes = 0;
+        this.labelQueues = new EnumMap<>(PriorityQueueType.class);
+        this.inUse = false;
+    }
+
+    /**
+     * Make sure this workspace can hold the given number of nodes. The arrays are
+     * reallocated (and all entries unset) only if the current capacity is too
+     * small.
+     */
+    private void ensureCapacity(int nbNodes) {
+        if (nbNodes <= capacity()) {
+            return;
+        }
+        this.version = 0;
+        this.reachedVersions = new int[nbNodes];
+        this.markedVersions = new int[nbNodes];
+        this.distances = new double[nbNodes];
+        this.predecessorArcs = new int[nbNodes];
+        this.objects = null;
+        this.objectNodes = new int[0];
+        this.nbObjectNodes = 0;
+        this.heap = null;
+        this.labelHeap = null;
+        this.labelQueues.clear();
+    }
+
+    /**
+     * @return Maximum number of nodes of the graphs this workspace can be used
+     *         for.
+     */
+    public int capacity() {
+        return this.reachedVersions.length;
+    }
+
+    /**
+     * Unset all the entries of this workspace and clear its priority queues.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> plus the number of items remaining in the
+     * queues and of objects associated with nodes (<i>O(capacity)</i> once every
+     * 2<sup>31</sup> calls, when the version wraps around).
+     * </p>
+     */
+    public void reset() {
+        if (this.version == Integer.MAX_VALUE) {
+            Arrays.fill(this.reachedVersions, 0);
+            Arrays.fill(this.markedVersions, 0);
+            this.version = 0;
+        }
+        this.version++;
+        if (this.heap != null) {
+            this.heap.clear();
+        }
+        if (this.labelHeap != null) {
+            this.labelHeap.clear();
+        }
+        if (this.radixHeap != null) {
+            this.radixHeap.clear();
+        }
+        for (AddressablePriorityQueue<Label> queue: this.labelQueues.values()) {
+            queue.clear();
+        }
+        clearObjects();
+    }
+
+    /**
+     * Remove the objects associated with the nodes.
+     */
+    private void clearObjects() {
+        for (int i = 0; i < this.nbObjectNodes; ++i) {
+            this.objects[this.objectNodes[i]] = null;
+        }
+        this.nbObjectNodes = 0;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return true if a distance has been set for the given node since the last
+     *         reset.
+     */
+    public boolean isReached(int node) {
+        return this.reachedVersions[node] == this.version;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Distance of the given node, or {@link Double#POSITIVE_INFINITY} if
+     *         the node has not been reached since the last reset.
+     */
+    public double getDistance(int node) {
+        return isReached(node) ? this.distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Predecessor arc of the given node, or -1 if the node has not been
+     *         reached since the last reset.
+     */
+    public int getPredecessorArc(int node) {
+        return isReached(node) ? this.predecessorArcs[node] : -1;
+    }
+
+    /**
+     * Set the distance and the predecessor arc of the given node.
+     *
+     * @param node ID of the node.
+     * @param distance New distance of the node.
+     * @param predecessorArc New predecessor arc of the node (or -1).
+     */
+    public void setDistance(int node, double distance, int predecessorArc) {
+        this.reachedVersions[node] = this.version;
+        this.distances[node] = distance;
+        this.predecessorArcs[node] = predecessorArc;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return true if the given node has been marked since the last reset.
+     */
+    public boolean isMarked(int node) {
+        return this.markedVersions[node] == this.version;
+    }
+
+    /**
+     * Mark the given node.
+     *
+     * @param node ID of the node.
+     */
+    public void mark(int node) {
+        this.markedVersions[node] = this.version;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Object associated with the given node, or null if the node has not
+     *         been reached since the last reset.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getObject(int node) {
+        return this.objects != null && isReached(node) ? (T) this.objects[node] : null;
+    }
+
+    /**
+     * Associate an object with the given node. The node is considered reached
+     * (see {@link #isReached(int)}), with an infinite distance and no predecessor
+     * if it was not reached before.
+     *
+     * @param node ID of the node.
+     * @param object Object to associate with the node.
+     */
+    public void setObject(int node, Object object) {
+        if (this.objects == null) {
+            this.objects = new Object[capacity()];
+        }
+        if (!isReached(node)) {
+            setDistance(node, Double.POSITIVE_INFINITY, -1);
+        }
+        if (this.objects[node] == null && object != null) {
+            if (this.nbObjectNodes == this.objectNodes.length) {
+                this.objectNodes = Arrays.copyOf(this.objectNodes,
+                        Math.max(16, 2 * this.nbObjectNodes));
+            }
+            this.objectNodes[this.nbObjectNodes++] = node;
+        }
+        this.objects[node] = object;
+    }
+
+    /**
+     * @return Number of objects held by this workspace (used by the tests).
+     */
+    int getObjectCount() {
+        int count = 0;
+        for (int node = 0; this.objects != null && node < this.objects.length; ++node) {
+            count += this.objects[node] != null ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return Empty (since the last reset) heap of node IDs.
+     */
+    public PrimitiveBinaryHeap getHeap() {
+        if (this.heap == null) {
+            this.heap = new PrimitiveBinaryHeap(capacity());
+        }
+        return this.heap;
+    }
+
+    /**
+     * @return Empty (since the last reset) heap of labels, indexed by the ID of
+     *         their node.
+     */
+    public IndexedBinaryHeap<Label> getLabelHeap() {
+        if (this.labelHeap == null) {
+            this.labelHeap = new IndexedBinaryHeap<>(label -> label.getNode().getId(),
+                    capacity());
+        }
+        return this.labelHeap;
+    }
+
+    /**
+     * Retrieve a queue of labels of the given type, indexed by the ID of their
+     * node, and ordered by their total cost. The queues whose creation takes a
+     * time proportional to the capacity (i.e. all the queues but
+     * {@link PriorityQueueType#BINARY_HEAP}) are kept by this workspace, so that
+     * they are only created once.
+     *
+     * @param type Type of the queue.
+     *
+     * @return Empty (since the last reset) queue of labels of the given type.
+     *
+     * @see #getLabelHeap()
+     */
+    public PriorityQueue<Label> getLabelQueue(PriorityQueueType type) {
+        if (type == PriorityQueueType.INDEXED_BINARY_HEAP) {
+            return getLabelHeap();
+        }
+        AddressablePriorityQueue<Label> queue = this.labelQueues.get(type);
+        if (queue != null) {
+            return queue;
+        }
+        PriorityQueue<Label> created = type.create(Label::getTotalCost,
+                label -> label.getNode().getId(), capacity());
+        if (created instanceof AddressablePriorityQueue) {
+            this.labelQueues.put(type, (AddressablePriorityQueue<Label>) created);
+        }
+        return created;
+    }
+
+    /**
+     * @return Empty (since the last reset) radix heap of node IDs.
+     */
+    public RadixHeap getRadixHeap() {
+        if (this.radixHeap == null) {
+            this.radixHeap = new RadixHeap();
+        }
+        return this.radixHeap;
+    }
+
+    /**
+     * Give this workspace back to the pool of the current thread, after removing
+     * the objects associated with the nodes. The workspace must not be used
+     * anymore after this call.
+     */
+    @Override
+    public void close() {
+        if (!this.inUse) {
+            throw new IllegalStateException("workspace already released");
+        }
+        clearObjects();
+        this.inUse = false;
+        POOLS.get().addFirst(this);
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.insa.algo.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Helpers shared by the algorithms that run tasks on a pool of threads.
+ * </p>
+ *
+ * <p>
+ * Pools are made of daemon threads, so a pool that is not shut down (e.g. a
+ * pool shared by all the instances of an algorithm) never prevents the
+ * application from exiting.
+ * </p>
+ *
+ * <p>
+ * Algorithms that run for each query (e.g. distance matrices or delta-stepping)
+ * should use the pools shared by the whole application (see
+ * {@link #getSharedPool(int)}) instead of starting threads for each query.
+ * Tasks running on a shared pool must not wait for other tasks of the same
+ * pool.
+ * </p>
+ *
+ */
+public final class Tasks {
+
+    // Pools shared by the whole application, per number of threads (never shut
+    // down).
+    private static final ConcurrentHashMap<Integer, ExecutorService> SHARED_POOLS = new ConcurrentHashMap<>();
+
+    private Tasks() {
+    }
+
+    /**
+     * Retrieve the pool with the given number of daemon threads shared by the
+     * whole application, creating it on first use. The pool must not be shut down.
+     *
+     * @param nbThreads Number of threads of the pool.
+     *
+     * @return The shared pool with the given number of threads.
+     *
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public static ExecutorService getSharedPool(int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        return SHARED_POOLS.computeIfAbsent(nbThreads,
+                n -> newFixedThreadPool(n, "shared-pool-" + n));
+    }
+
+    /**
+     * Create a pool with a fixed number of daemon threads.
+     *
+     * @param nbThreads Number of threads of the pool.
+     * @param name Name of the threads of the pool.
+     *
+     * @return A new pool of threads.
+     *
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public static ExecutorService newFixedThreadPool(int nbThreads, String name) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        return Executors.newFixedThreadPool(nbThreads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Wait for the given task to complete and return its result. Runtime
+     * exceptions and errors thrown by the task are re-thrown as is, other
+     * exceptions are wrapped in an {@link IllegalStateException}.
+     *
+     * @param future Task to wait for.
+     *
+     * @return Result of the task.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting.
+     */
+    public static <T> T await(Future<T> future) throws InterruptedException {
+        return await(future, RuntimeException.class);
+    }
+
+    /**
+     * Wait for the given task to complete and return its result. Exceptions of the
+     * given type, runtime exceptions and errors thrown by the task are re-thrown
+     * as is, other exceptions are wrapped in an {@link IllegalStateException}.
+     *
+     * @param future Task to wait for.
+     * @param type Type of the checked exceptions to re-throw.
+     *
+     * @return Result of the task.
+     *
+     * @throws InterruptedException if the current thread is interrupted while
+     *         waiting.
+     * @throws E if the task threw an exception of the given type.
+     */
+    public static <T, E extends Exception> T await(Future<T> future, Class<E> type)
+            throws InterruptedException, E {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (type.isInstance(cause)) {
+                throw type.cast(cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
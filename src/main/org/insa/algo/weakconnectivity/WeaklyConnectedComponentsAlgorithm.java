@@ -78,7 +78,8 @@ public class WeaklyConnectedComponentsAlgorithm
         }
 
         for (Node node: getInputData().getGraph().getNodes()) {
-            for (Arc arc: node.getSuccessors()) {
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessor(i);
                 res.get(node.getId()).add(arc.getDestination().getId());
                 if (arc.getRoadInformation().isOneWay()) {
                     res.get(arc.getDestination().getId()).add(node.getId());
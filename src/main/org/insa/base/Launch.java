@@ -4,6 +4,7 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 
 import javax.swing.JFrame;
@@ -11,9 +12,9 @@ import javax.swing.SwingUtilities;
 
 import org.insa.graph.Graph;
 import org.insa.graph.Path;
-import org.insa.graph.io.BinaryGraphReader;
 import org.insa.graph.io.BinaryPathReader;
 import org.insa.graph.io.GraphReader;
+import org.insa.graph.io.GraphReaderFactory;
 import org.insa.graph.io.PathReader;
 import org.insa.graphics.drawing.Drawing;
 import org.insa.graphics.drawing.components.BasicDrawing;
@@ -52,8 +53,8 @@ public class Launch {
     	String mapName = "/Users/HaHa/Documents/3è année/Graphes/Maps/insa.mapgr";
     	String pathName = "/Users/HaHa/Documents/3è année/Graphes/Paths/path_fr31insa_rangueil_r2.path";
         // Create a graph reader.
-        GraphReader reader = new BinaryGraphReader(
-                new DataInputStream(new BufferedInputStream(new FileInputStream(mapName))));
+        // The type of reader can be selected with -Dorg.insa.graph.reader=...
+        GraphReader reader = GraphReaderFactory.createGraphReader(new File(mapName));
 
         // Read the graph.
         Graph graph = reader.read();
@@ -14,6 +14,14 @@ import java.util.EnumSet;
  * </p>
  * 
  * <p>
+ * Restrictions are stored in a packed form (4 bits per mode), together with a
+ * 64-bits permission matrix computed once per instance (instances are shared by
+ * all the arcs of a {@link RoadInformation}). Queries with bit masks (see
+ * {@link #isAllowedForAny(AccessMode, int)} and
+ * {@link #areAllAllowedForAny(int, int)}) only use bitwise operations.
+ * </p>
+ * 
+ * <p>
  * To each transport is associated at most one restriction per road (no
  * restriction corresponds to {@link AccessRestriction#UNKNOWN} but a road can
  * have different restrictions for different modes.
@@ -91,6 +99,24 @@ public class AccessRestrictions {
          */
         public static final EnumSet<AccessMode> MOTOR_VEHICLE = EnumSet
                 .range(AccessMode.SMALL_MOTORCYCLE, AccessMode.PUBLIC_TRANSPORT);
+
+        /**
+         * Convert the given set of modes to a bit mask, where the bit {@code i} is
+         * set if the mode of ordinal {@code i} is in the set.
+         * 
+         * @param modes Set of modes to convert.
+         * 
+         * @return Bit mask corresponding to the given modes.
+         * 
+         * @see AccessRestrictions#areAllAllowedForAny(int, int)
+         */
+        public static int maskOf(EnumSet<AccessMode> modes) {
+            int mask = 0;
+            for (AccessMode mode: modes) {
+                mask |= 1 << mode.ordinal();
+            }
+            return mask;
+        }
     }
 
     /**
@@ -151,29 +177,96 @@ public class AccessRestrictions {
                 AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
                 AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY);
 
+        /**
+         * Convert the given set of restrictions to a bit mask, where the bit
+         * {@code i} is set if the restriction of ordinal {@code i} is in the set.
+         * 
+         * @param restrictions Set of restrictions to convert.
+         * 
+         * @return Bit mask corresponding to the given restrictions.
+         * 
+         * @see AccessRestrictions#isAllowedForAny(AccessMode, int)
+         */
+        public static int maskOf(EnumSet<AccessRestriction> restrictions) {
+            int mask = 0;
+            for (AccessRestriction restriction: restrictions) {
+                mask |= 1 << restriction.ordinal();
+            }
+            return mask;
+        }
+
     }
 
-    // Map mode -> restriction
-    private final EnumMap<AccessMode, AccessRestriction> restrictions;
+    // Cached values of AccessMode.values() and AccessRestriction.values().
+    private static final AccessMode[] MODES = AccessMode.values();
+    private static final AccessRestriction[] RESTRICTIONS = AccessRestriction.values();
+
+    // Restriction of each mode: 4 bits per mode (ordinal of the restriction), in
+    // the order of AccessMode.
+    private final int restrictions;
+
+    // Permission matrix: 8 bits per mode, in the order of AccessMode, where the
+    // bit i of the byte of a mode is set if the restriction of the mode is the
+    // restriction of ordinal i.
+    private final long permissions;
 
     /**
      * Create new AccessRestrictions instances with unknown restrictions.
      */
     public AccessRestrictions() {
-        this.restrictions = new EnumMap<>(AccessMode.class);
-        for (AccessMode mode: AccessMode.values()) {
-            this.restrictions.put(mode, AccessRestriction.UNKNOWN);
-        }
+        this(pack(new EnumMap<>(AccessMode.class)));
     }
 
     /**
      * Create a new AccessRestrictions instances with the given restrictions.
      * 
      * @param restrictions Map of restrictions for this instance of
-     *        AccessRestrictions.
+     *        AccessRestrictions, modes that are not in the map have an
+     *        {@link AccessRestriction#UNKNOWN} restriction.
      */
     public AccessRestrictions(EnumMap<AccessMode, AccessRestriction> restrictions) {
+        this(pack(restrictions));
+    }
+
+    /**
+     * Create a new AccessRestrictions instances with the given packed
+     * restrictions.
+     * 
+     * @param restrictions Packed restrictions, where the 4 bits starting at bit
+     *        {@code 4 * mode.ordinal()} contain the ordinal of the restriction of
+     *        {@code mode}.
+     * 
+     * @throws IllegalArgumentException if one of the 4-bits groups is not the
+     *         ordinal of a restriction.
+     */
+    public AccessRestrictions(int restrictions) {
+        long permissions = 0;
+        for (int shift = 0; shift < 4 * MODES.length; shift += 4) {
+            int ordinal = (restrictions >>> shift) & 0xf;
+            if (ordinal >= RESTRICTIONS.length) {
+                throw new IllegalArgumentException(
+                        "invalid restrictions: " + Integer.toHexString(restrictions));
+            }
+            permissions |= 1L << (2 * shift + ordinal);
+        }
         this.restrictions = restrictions;
+        this.permissions = permissions;
+    }
+
+    /**
+     * @param restrictions Map of restrictions, modes that are not in the map have
+     *        an {@link AccessRestriction#UNKNOWN} restriction.
+     * 
+     * @return Packed form of the given restrictions.
+     */
+    private static int pack(EnumMap<AccessMode, AccessRestriction> restrictions) {
+        int packed = 0;
+        for (AccessMode mode: MODES) {
+            AccessRestriction restriction = restrictions.getOrDefault(mode,
+                    AccessRestriction.UNKNOWN);
+            packed |= restriction.ordinal() << (4 * mode.ordinal());
+        }
+        return packed;
     }
 
     /**
@@ -184,7 +277,7 @@ public class AccessRestrictions {
      * @return Restriction for the given mode.
      */
     public AccessRestriction getRestrictionFor(AccessMode mode) {
-        return restrictions.getOrDefault(mode, AccessRestriction.UNKNOWN);
+        return RESTRICTIONS[(this.restrictions >>> (4 * mode.ordinal())) & 0xf];
     }
 
     /**
@@ -201,6 +294,25 @@ public class AccessRestrictions {
         return restrictions.contains(getRestrictionFor(mode));
     }
 
+    /**
+     * Check if the restriction associated with the given mode is one of the given
+     * restrictions.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> (a shift and a bitwise and).
+     * </p>
+     * 
+     * @param mode Mode for which to check the restrictions.
+     * @param restrictionMask Mask of queried restrictions for the mode (see
+     *        {@link AccessRestriction#maskOf(EnumSet)}).
+     * 
+     * @return {@code true} if the restriction of the given mode is one of the given
+     *         restrictions.
+     */
+    public boolean isAllowedForAny(AccessMode mode, int restrictionMask) {
+        return ((this.permissions >>> (8 * mode.ordinal())) & restrictionMask) != 0;
+    }
+
     /**
      * Check if the restriction for the given mode corresponds to the given
      * restriction.
@@ -227,10 +339,48 @@ public class AccessRestrictions {
      */
     public boolean areAllAllowedForAny(EnumSet<AccessMode> modes,
             EnumSet<AccessRestriction> restrictions) {
-        boolean allowed = true;
-        for (AccessMode mode: modes) {
-            allowed = allowed && isAllowedForAny(mode, restrictions);
-        }
-        return allowed;
+        return areAllAllowedForAny(AccessMode.maskOf(modes),
+                AccessRestriction.maskOf(restrictions));
+    }
+
+    /**
+     * Check if the restriction associated to each given mode is one of the
+     * restrictions. The restriction may not be the same for all modes.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i> (a few bitwise operations).
+     * </p>
+     * 
+     * @param modeMask Mask of modes for which restrictions should be checked (see
+     *        {@link AccessMode#maskOf(EnumSet)}).
+     * @param restrictionMask Mask of wanted restrictions for the modes (see
+     *        {@link AccessRestriction#maskOf(EnumSet)}).
+     * 
+     * @return {@code true} if all the given modes are allowed for any of the given
+     *         restrictions.
+     */
+    public boolean areAllAllowedForAny(int modeMask, int restrictionMask) {
+        return (getAllowedModes(restrictionMask) & modeMask) == modeMask;
+    }
+
+    /**
+     * Retrieve the modes whose restriction is one of the given restrictions.
+     * 
+     * @param restrictionMask Mask of restrictions (see
+     *        {@link AccessRestriction#maskOf(EnumSet)}).
+     * 
+     * @return Mask of the modes whose restriction is one of the given restrictions
+     *         (see {@link AccessMode#maskOf(EnumSet)}).
+     */
+    public int getAllowedModes(int restrictionMask) {
+        // Keep the matching restriction of each mode (one byte per mode)...
+        long matches = this.permissions & ((restrictionMask & 0xffL) * 0x0101010101010101L);
+
+        // ...set the lowest bit of each non-zero byte...
+        long nonZero = ((((matches & 0x7f7f7f7f7f7f7f7fL) + 0x7f7f7f7f7f7f7f7fL) | matches)
+                >>> 7) & 0x0101010101010101L;
+
+        // ...and gather these bits in the highest byte.
+        return (int) ((nonZero * 0x0102040810204080L) >>> 56);
     }
 }
@@ -1,8 +1,8 @@
 package org.insa.graph;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Implementation of Arc that represents a "backward" arc in a graph, i.e., an
@@ -18,13 +18,20 @@ class ArcBackward extends Arc {
     /**
      * Create a new backward arc which corresponds to the reverse arc of the given
      * arc.
-     * 
+     *
      * @param originalArc Original forwarc arc corresponding to this backward arc.
      */
     protected ArcBackward(Arc originalArc) {
         this.originalArc = originalArc;
     }
 
+    /**
+     * @return Original forward arc corresponding to this backward arc.
+     */
+    Arc getOriginalArc() {
+        return this.originalArc;
+    }
+
     @Override
     public Node getOrigin() {
         return this.originalArc.getDestination();
@@ -47,9 +54,35 @@ class ArcBackward extends Arc {
 
     @Override
     public List<Point> getPoints() {
-        List<Point> pts = new ArrayList<>(this.originalArc.getPoints());
-        Collections.reverse(pts);
-        return pts;
+        return new ReversedPointList(this.originalArc.getPoints());
+    }
+
+    /**
+     * Reversed view of the points of the original arc.
+     *
+     */
+    private static class ReversedPointList extends AbstractList<Point> implements RandomAccess {
+
+        // Points of the original arc.
+        private final List<Point> points;
+
+        public ReversedPointList(List<Point> points) {
+            this.points = points;
+        }
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return this.points.get(this.points.size() - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return this.points.size();
+        }
+
     }
 
 }
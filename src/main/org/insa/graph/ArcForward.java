@@ -1,7 +1,9 @@
 package org.insa.graph;
 
+import java.util.AbstractList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Implementation of Arc that represents a "forward" arc in a graph, this is the
@@ -19,12 +21,16 @@ class ArcForward extends Arc {
     // Road information.
     private final RoadInformation info;
 
-    // Segments.
+    // Segments, if they are not stored in a point buffer.
     private final List<Point> points;
 
+    // Intermediate points in a point buffer (if points is null).
+    private final PointBuffer pointBuffer;
+    private final int pointOffset, pointCount;
+
     /**
      * Create a new ArcForward with the given attributes.
-     * 
+     *
      * @param origin Origin of this arc.
      * @param dest Destination of this arc.
      * @param length Length of this arc (in meters).
@@ -38,6 +44,54 @@ class ArcForward extends Arc {
         this.length = length;
         this.info = roadInformation;
         this.points = points;
+        this.pointBuffer = null;
+        this.pointOffset = 0;
+        this.pointCount = 0;
+    }
+
+    /**
+     * Create a new ArcForward with the given attributes, whose intermediate points
+     * are stored in the given buffer.
+     *
+     * @param origin Origin of this arc.
+     * @param dest Destination of this arc.
+     * @param length Length of this arc (in meters).
+     * @param roadInformation Road information for this arc.
+     * @param buffer Buffer containing the intermediate points of this arc (may be
+     *        null if count is 0).
+     * @param offset Index of the first intermediate point in the buffer.
+     * @param count Number of intermediate points.
+     */
+    protected ArcForward(Node origin, Node dest, float length, RoadInformation roadInformation,
+            PointBuffer buffer, int offset, int count) {
+        this.origin = origin;
+        this.destination = dest;
+        this.length = length;
+        this.info = roadInformation;
+        this.points = null;
+        this.pointBuffer = buffer;
+        this.pointOffset = offset;
+        this.pointCount = count;
+    }
+
+    /**
+     * Create a new ArcForward between the given nodes with the same attributes
+     * (length, road information and points) as the given arc. The given nodes must
+     * be at the same positions as the ones of the given arc.
+     *
+     * @param origin Origin of this arc.
+     * @param dest Destination of this arc.
+     * @param arc Arc to copy attributes from.
+     */
+    ArcForward(Node origin, Node dest, ArcForward arc) {
+        this.origin = origin;
+        this.destination = dest;
+        this.length = arc.length;
+        this.info = arc.info;
+        this.points = arc.points;
+        this.pointBuffer = arc.pointBuffer;
+        this.pointOffset = arc.pointOffset;
+        this.pointCount = arc.pointCount;
     }
 
     @Override
@@ -62,7 +116,38 @@ class ArcForward extends Arc {
 
     @Override
     public List<Point> getPoints() {
+        if (points == null) {
+            return new PackedPointList();
+        }
         return Collections.unmodifiableList(points);
     }
 
+    /**
+     * View of the points of this arc when they are stored in a point buffer: the
+     * origin, the intermediate points and the destination.
+     *
+     */
+    private class PackedPointList extends AbstractList<Point> implements RandomAccess {
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (index == 0) {
+                return origin.getPoint();
+            }
+            if (index == pointCount + 1) {
+                return destination.getPoint();
+            }
+            return pointBuffer.getPoint(pointOffset + index - 1);
+        }
+
+        @Override
+        public int size() {
+            return pointCount + 2;
+        }
+
+    }
+
 }
@@ -0,0 +1,445 @@
+package org.insa.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * <p>
+ * Immutable compressed-sparse-row (CSR) representation of a {@link Graph}.
+ * </p>
+ *
+ * <p>
+ * Nodes are identified by their ID (the same as in the corresponding
+ * {@link Graph}) and arcs by an index in {@code [0, getArcCount())}. The
+ * outgoing arcs of node {@code u} are the arcs with index in
+ * {@code [getFirstArc(u), getEndArc(u))}, in the same order as
+ * {@link Node#getSuccessors()}. All the data of the graph are stored in
+ * primitive arrays, so iterating over the successors of a node does not
+ * allocate anything:
+ * </p>
+ *
+ * <pre>
+ * for (int arc = graph.getFirstArc(node); arc &lt; graph.getEndArc(node); ++arc) {
+ *     int successor = graph.getTarget(arc);
+ *     float length = graph.getLength(arc);
+ * }
+ * </pre>
+ *
+ * <p>
+ * A compact graph can be obtained from an existing graph (see
+ * {@link Graph#getCompactGraph()}), or read directly from a file without
+ * creating any {@link Node} or {@link Arc} (see
+ * {@link org.insa.graph.io.BinaryGraphReader#readCompactGraph()}). In both
+ * cases, {@link #getGraph()}, {@link #getNode(int)} and {@link #getArc(int)}
+ * give access to the corresponding object graph so that code working with
+ * {@link Node} and {@link Arc} keeps working.
+ * </p>
+ *
+ */
+public final class CompactGraph {
+
+    // Map identifier and name.
+    private final String mapId, mapName;
+
+    // Index of the first outgoing arc of each node (size is number of nodes + 1).
+    private final int[] offsets;
+
+    // Destination, length and road information index of each arc.
+    private final int[] targets;
+    private final float[] lengths;
+    private final int[] roadInformationIndices;
+
+    // Road information shared by the arcs.
+    private final RoadInformation[] roadInformations;
+
+    // Index of the reverse arc of each arc (two-ways roads), or -1.
+    private final int[] reverseArcs;
+
+    // Position of the nodes (in degrees).
+    private final float[] longitudes, latitudes;
+
+    // Graph information of this graph.
+    private final GraphStatistics graphStatistics;
+
+    // Object graph and arcs corresponding to this graph (lazily created).
+    private Graph graph;
+    private volatile Arc[] arcs;
+
+    /**
+     * <p>
+     * Create a new compact graph from the given arrays.
+     * </p>
+     *
+     * <p>
+     * The arrays are not copied and must not be modified after the creation of
+     * the graph.
+     * </p>
+     *
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param offsets Index of the first outgoing arc of each node, followed by the
+     *        number of arcs.
+     * @param targets Destination of each arc.
+     * @param lengths Length of each arc (in meters).
+     * @param roadInformationIndices Index (in roadInformations) of the road
+     *        information of each arc.
+     * @param roadInformations Road information shared by the arcs.
+     * @param reverseArcs Index of the reverse arc of each arc (arcs corresponding
+     *        to two-ways roads), or -1 if the arc has no reverse arc.
+     * @param longitudes Longitude of each node (in degrees).
+     * @param latitudes Latitude of each node (in degrees).
+     * @param graphStatistics Information for this graph.
+     */
+    public CompactGraph(String mapId, String mapName, int[] offsets, int[] targets,
+            float[] lengths, int[] roadInformationIndices, RoadInformation[] roadInformations,
+            int[] reverseArcs, float[] longitudes, float[] latitudes,
+            GraphStatistics graphStatistics) {
+        this.mapId = mapId;
+        this.mapName = mapName;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.lengths = lengths;
+        this.roadInformationIndices = roadInformationIndices;
+        this.roadInformations = roadInformations;
+        this.reverseArcs = reverseArcs;
+        this.longitudes = longitudes;
+        this.latitudes = latitudes;
+        this.graphStatistics = graphStatistics;
+    }
+
+    /**
+     * Create the compact representation of the given graph.
+     *
+     * @param graph Graph to convert.
+     *
+     * @return A new compact graph backed by the given graph.
+     */
+    static CompactGraph of(Graph graph) {
+        final int nbNodes = graph.size();
+
+        int[] offsets = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] = offsets[node] + graph.get(node).getNumberOfSuccessors();
+        }
+        final int nbArcs = offsets[nbNodes];
+
+        int[] targets = new int[nbArcs];
+        float[] lengths = new float[nbArcs];
+        int[] roadInformationIndices = new int[nbArcs];
+        int[] reverseArcs = new int[nbArcs];
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        Arc[] arcs = new Arc[nbArcs];
+
+        // Road information are shared between arcs, and forward arcs are needed to
+        // find the reverse of backward arcs.
+        IdentityHashMap<RoadInformation, Integer> infoIndices = new IdentityHashMap<>();
+        List<RoadInformation> infos = new ArrayList<>();
+        IdentityHashMap<Arc, Integer> forwardIndices = new IdentityHashMap<>();
+
+        for (Node node: graph.getNodes()) {
+            Point point = node.getPoint();
+            longitudes[node.getId()] = point == null ? Float.NaN : point.getLongitude();
+            latitudes[node.getId()] = point == null ? Float.NaN : point.getLatitude();
+
+            int index = offsets[node.getId()];
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessor(i);
+                arcs[index] = arc;
+                targets[index] = arc.getDestination().getId();
+                lengths[index] = arc.getLength();
+                Integer infoIndex = infoIndices.get(arc.getRoadInformation());
+                if (infoIndex == null) {
+                    infoIndex = infos.size();
+                    infoIndices.put(arc.getRoadInformation(), infoIndex);
+                    infos.add(arc.getRoadInformation());
+                }
+                roadInformationIndices[index] = infoIndex;
+                reverseArcs[index] = -1;
+                if (arc instanceof ArcForward) {
+                    forwardIndices.put(arc, index);
+                }
+                ++index;
+            }
+        }
+
+        // Link backward arcs with their original arcs.
+        for (int index = 0; index < nbArcs; ++index) {
+            if (arcs[index] instanceof ArcBackward) {
+                Integer original = forwardIndices
+                        .get(((ArcBackward) arcs[index]).getOriginalArc());
+                if (original != null) {
+                    reverseArcs[index] = original;
+                    reverseArcs[original] = index;
+                }
+            }
+        }
+
+        CompactGraph compactGraph = new CompactGraph(graph.getMapId(), graph.getMapName(),
+                offsets, targets, lengths, roadInformationIndices,
+                infos.toArray(new RoadInformation[infos.size()]), reverseArcs, longitudes,
+                latitudes, graph.getGraphInformation());
+        compactGraph.graph = graph;
+        compactGraph.arcs = arcs;
+        return compactGraph;
+    }
+
+    /**
+     * @return ID of the map associated with this graph.
+     */
+    public String getMapId() {
+        return mapId;
+    }
+
+    /**
+     * @return Name of the map associated with this graph.
+     */
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return The GraphStatistics instance associated with this graph.
+     */
+    public GraphStatistics getGraphInformation() {
+        return graphStatistics;
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    public int getArcCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index of the first outgoing arc of the given node.
+     */
+    public int getFirstArc(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index following the last outgoing arc of the given node.
+     */
+    public int getEndArc(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Number of successors of the given node.
+     */
+    public int getNumberOfSuccessors(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Find the origin of the given arc.
+     *
+     * Complexity: O(log n).
+     *
+     * @param arc Index of the arc.
+     *
+     * @return ID of the origin node of the given arc.
+     */
+    public int getOrigin(int arc) {
+        // Find the last node whose first arc is lower or equal to arc (nodes without
+        // successors share their offset with the next node).
+        int low = 0, high = size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= arc) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return ID of the destination node of the given arc.
+     */
+    public int getTarget(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Length of the given arc, in meters.
+     */
+    public float getLength(int arc) {
+        return lengths[arc];
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Index of the road information of the given arc.
+     *
+     * @see #getRoadInformations()
+     */
+    public int getRoadInformationIndex(int arc) {
+        return roadInformationIndices[arc];
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Road information of the given arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return roadInformations[roadInformationIndices[arc]];
+    }
+
+    /**
+     * @return Road information shared by the arcs of this graph (unmodifiable).
+     */
+    public List<RoadInformation> getRoadInformations() {
+        return Collections.unmodifiableList(Arrays.asList(roadInformations));
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Index of the reverse arc of the given arc (if the arc is part of a
+     *         two-ways road), or -1.
+     */
+    public int getReverseArc(int arc) {
+        return reverseArcs[arc];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Longitude of the given node, in degrees.
+     */
+    public float getLongitude(int node) {
+        return longitudes[node];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Latitude of the given node, in degrees.
+     */
+    public float getLatitude(int node) {
+        return latitudes[node];
+    }
+
+    /**
+     * <p>
+     * Retrieve the object graph corresponding to this graph.
+     * </p>
+     *
+     * <p>
+     * If this compact graph was not created from an existing graph, the graph is
+     * created on the first call. In that case, arcs do not hold any intermediate
+     * point (their points are only their origin and their destination).
+     * </p>
+     *
+     * @return The graph corresponding to this compact graph.
+     */
+    public synchronized Graph getGraph() {
+        if (graph == null) {
+            createGraph();
+        }
+        return graph;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Node with the given ID in the graph corresponding to this compact
+     *         graph.
+     *
+     * @see #getGraph()
+     */
+    public Node getNode(int node) {
+        return getGraph().get(node);
+    }
+
+    /**
+     * Complexity: O(1) (once the corresponding graph has been created).
+     *
+     * @param arc Index of the arc.
+     *
+     * @return Arc with the given index in the graph corresponding to this compact
+     *         graph.
+     *
+     * @see #getGraph()
+     */
+    public Arc getArc(int arc) {
+        Arc[] arcs = this.arcs;
+        if (arcs == null) {
+            getGraph();
+            arcs = this.arcs;
+        }
+        return arcs[arc];
+    }
+
+    /**
+     * Create the graph (nodes and arcs) corresponding to this compact graph.
+     */
+    private void createGraph() {
+        final int nbNodes = size();
+        ArrayList<Node> nodes = new ArrayList<>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            nodes.add(new Node(node, new Point(longitudes[node], latitudes[node])));
+        }
+
+        // Create forward arcs first, and backward arcs for the reverse of two-ways
+        // roads.
+        Arc[] arcs = new Arc[targets.length];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = offsets[node]; arc < offsets[node + 1]; ++arc) {
+                if (arcs[arc] != null) {
+                    continue;
+                }
+                Node origin = nodes.get(node), destination = nodes.get(targets[arc]);
+                arcs[arc] = new ArcForward(origin, destination, lengths[arc],
+                        getRoadInformation(arc), null, 0, 0);
+                if (reverseArcs[arc] >= 0) {
+                    arcs[reverseArcs[arc]] = new ArcBackward(arcs[arc]);
+                }
+            }
+        }
+
+        // Add successors in the same order as in this graph.
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = offsets[node]; arc < offsets[node + 1]; ++arc) {
+                nodes.get(node).addSuccessor(arcs[arc]);
+            }
+        }
+
+        this.arcs = arcs;
+        this.graph = new Graph(mapId, mapName, nodes, graphStatistics, this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[id=%s, name=%s, #nodes=%d, #arcs=%d]",
+                getClass().getCanonicalName(), getMapId(), getMapName(), size(),
+                getArcCount());
+    }
+
+}
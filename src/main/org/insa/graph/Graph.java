@@ -30,6 +30,12 @@ public final class Graph implements Iterable<Node> {
     // Graph information of this graph.
     private final GraphStatistics graphStatistics;
 
+    // Compact representation of this graph (lazily created).
+    private CompactGraph compactGraph;
+
+    // Transpose of this graph (lazily created).
+    private Graph transposeGraph;
+
     /**
      * Create a new graph with the given ID, name, nodes and information.
      * 
@@ -45,6 +51,21 @@ public final class Graph implements Iterable<Node> {
         this.graphStatistics = graphStatistics;
     }
 
+    /**
+     * Create a new graph corresponding to the given compact graph.
+     * 
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param nodes List of nodes for this graph.
+     * @param graphStatistics Information for this graph.
+     * @param compactGraph Compact representation of this graph.
+     */
+    Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics,
+            CompactGraph compactGraph) {
+        this(mapId, mapName, nodes, graphStatistics);
+        this.compactGraph = compactGraph;
+    }
+
     /**
      * @return The GraphStatistics instance associated with this graph.
      */
@@ -81,6 +102,23 @@ public final class Graph implements Iterable<Node> {
         return this.nodes;
     }
 
+    /**
+     * Retrieve the compact (CSR) representation of this graph. The compact graph
+     * is created on the first call and then reused.
+     * 
+     * Complexity: O(n + m) for the first call, O(1) afterwards.
+     * 
+     * @return Compact representation of this graph.
+     * 
+     * @see CompactGraph
+     */
+    public synchronized CompactGraph getCompactGraph() {
+        if (this.compactGraph == null) {
+            this.compactGraph = CompactGraph.of(this);
+        }
+        return this.compactGraph;
+    }
+
     /**
      * @return ID of the map associated with this graph.
      */
@@ -95,6 +133,22 @@ public final class Graph implements Iterable<Node> {
         return mapName;
     }
 
+    /**
+     * Retrieve the transpose of this graph. The transpose graph is created (see
+     * {@link #transpose()}) on the first call and then reused, so the nodes and
+     * arcs of the returned graph must not be modified.
+     * 
+     * Complexity: O(n + m) for the first call, O(1) afterwards.
+     * 
+     * @return Transpose graph of this graph.
+     */
+    public synchronized Graph getTransposeGraph() {
+        if (this.transposeGraph == null) {
+            this.transposeGraph = transpose();
+        }
+        return this.transposeGraph;
+    }
+
     /**
      * @return Transpose graph of this graph.
      */
@@ -105,16 +159,15 @@ public final class Graph implements Iterable<Node> {
         }
         for (Node node: nodes) {
             Node orig = trNodes.get(node.getId());
-            for (Arc arc: node.getSuccessors()) {
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessor(i);
                 if (arc.getRoadInformation().isOneWay()) {
                     Node dest = trNodes.get(arc.getDestination().getId());
-                    dest.addSuccessor(new ArcBackward(new ArcForward(orig, dest, arc.getLength(),
-                            arc.getRoadInformation(), arc.getPoints())));
+                    dest.addSuccessor(new ArcBackward(copyArc(orig, dest, arc)));
                 }
                 else if (arc instanceof ArcForward) {
                     Node dest = trNodes.get(arc.getDestination().getId());
-                    Arc newArc = new ArcForward(orig, dest, arc.getLength(),
-                            arc.getRoadInformation(), arc.getPoints());
+                    Arc newArc = new ArcForward(orig, dest, (ArcForward) arc);
                     dest.addSuccessor(new ArcBackward(newArc));
                     orig.addSuccessor(newArc);
                 }
@@ -123,6 +176,18 @@ public final class Graph implements Iterable<Node> {
         return new Graph("R/" + mapId, mapName, trNodes, graphStatistics);
     }
 
+    /**
+     * Create a forward arc between the given nodes with the same attributes as the
+     * given arc, sharing its points if possible.
+     */
+    private static ArcForward copyArc(Node origin, Node destination, Arc arc) {
+        if (arc instanceof ArcForward) {
+            return new ArcForward(origin, destination, (ArcForward) arc);
+        }
+        return new ArcForward(origin, destination, arc.getLength(), arc.getRoadInformation(),
+                arc.getPoints());
+    }
+
     @Override
     public String toString() {
         return String.format("%s[id=%s, name=%s, #nodes=%d]", getClass().getCanonicalName(),
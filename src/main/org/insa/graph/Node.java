@@ -66,6 +66,59 @@ public final class Node implements Comparable<Node>, Iterable<Arc> {
         return arc;
     }
 
+    /**
+     * <p>
+     * Link the two given nodes with one or two arcs (depending on roadInformation),
+     * with the given attributes, the intermediate points of the arcs being stored
+     * in the given buffer.
+     * </p>
+     * 
+     * <p>
+     * This method behaves as
+     * {@link #linkNodes(Node, Node, float, RoadInformation, ArrayList)}, except
+     * that the points of the arcs are not stored in a list: the range of points in
+     * the buffer is reversed in place if needed, and the origin and destination
+     * points are not stored in the buffer.
+     * </p>
+     * 
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * @param length Length of the arc.
+     * @param roadInformation Information corresponding to the arc.
+     * @param buffer Buffer containing the intermediate points of the arc, from
+     *        origin to destination.
+     * @param offset Index of the first intermediate point in the buffer.
+     * @param count Number of intermediate points.
+     * 
+     * @return The newly created forward arc (origin to destination).
+     */
+    public static Arc linkNodes(Node origin, Node destination, float length,
+            RoadInformation roadInformation, PointBuffer buffer, int offset, int count) {
+        Arc arc = null;
+        if (roadInformation.isOneWay()) {
+            arc = new ArcForward(origin, destination, length, roadInformation, buffer, offset,
+                    count);
+            origin.addSuccessor(arc);
+        }
+        else {
+            Arc d2o;
+            if (origin.getId() < destination.getId()) {
+                arc = new ArcForward(origin, destination, length, roadInformation, buffer,
+                        offset, count);
+                d2o = new ArcBackward(arc);
+            }
+            else {
+                buffer.reverse(offset, count);
+                d2o = new ArcForward(destination, origin, length, roadInformation, buffer,
+                        offset, count);
+                arc = new ArcBackward(d2o);
+            }
+            origin.addSuccessor(arc);
+            destination.addSuccessor(d2o);
+        }
+        return arc;
+    }
+
     // ID of the node.
     private final int id;
 
@@ -75,6 +128,9 @@ public final class Node implements Comparable<Node>, Iterable<Arc> {
     // Successors.
     private final ArrayList<Arc> successors;
 
+    // Unmodifiable view of the successors (created once).
+    private final List<Arc> successorsView;
+
     /**
      * Create a new Node with the given ID corresponding to the given Point with an
      * empty list of successors.
@@ -86,6 +142,7 @@ public final class Node implements Comparable<Node>, Iterable<Arc> {
         this.id = id;
         this.point = point;
         this.successors = new ArrayList<Arc>();
+        this.successorsView = Collections.unmodifiableList(this.successors);
     }
 
     /**
@@ -119,12 +176,35 @@ public final class Node implements Comparable<Node>, Iterable<Arc> {
     }
 
     /**
-     * @return List of successors of this node (unmodifiable list).
+     * Retrieve the successor at the given index. Together with
+     * {@link #getNumberOfSuccessors()}, this can be used to iterate over the
+     * successors of this node without allocating an iterator:
+     * 
+     * <pre>
+     * for (int i = 0; i &lt; node.getNumberOfSuccessors(); ++i) {
+     *     Arc arc = node.getSuccessor(i);
+     * }
+     * </pre>
+     * 
+     * @param index Index of the successor, between 0 (included) and
+     *        {@link #getNumberOfSuccessors()} (excluded).
+     * 
+     * @return Arc to the successor at the given index.
+     * 
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Arc getSuccessor(int index) {
+        return this.successors.get(index);
+    }
+
+    /**
+     * @return List of successors of this node (unmodifiable list, the same view is
+     *         returned on every call).
      * 
      * @see Collections#unmodifiableList(List)
      */
     public List<Arc> getSuccessors() {
-        return Collections.unmodifiableList(this.successors);
+        return this.successorsView;
     }
 
     /**
@@ -158,7 +238,7 @@ public final class Node implements Comparable<Node>, Iterable<Arc> {
     }
 
 	public Iterator<Arc> iterator() {
-		return Collections.unmodifiableList(this.successors).iterator();
+		return this.successorsView.iterator();
 	}
 
 	
@@ -51,9 +51,8 @@ public class Path {
         	Node Origin = NodeIter.next();
         	while (NodeIter.hasNext()) {
         		Node Next = NodeIter.next();
-        		Iterator <Arc> ArcIter = Origin.iterator();
-        		while (ArcIter.hasNext()) {
-        			Arc arc = ArcIter.next();
+        		for (int i = 0; i < Origin.getNumberOfSuccessors(); ++i) {
+        			Arc arc = Origin.getSuccessor(i);
         			if (arc.getDestination().equals(Next)) {
         				if (!Fastest_Path) {
         					Fastest_Arc = arc;
@@ -116,14 +115,12 @@ public class Path {
         		node_precedent= node_actuel;
         		node_actuel  = NodeIter.next();
         		
-        		List<Arc> sucessors = node_precedent.getSuccessors();
-        		ListIterator <Arc> ArcIter = sucessors.listIterator();
         		Arc actuel_arc = null;
         		Arc shortest_arc = null;
         		float longuer=0;
         		
-        		while (ArcIter.hasNext()) {
-        			actuel_arc = ArcIter.next();
+        		for (int i = 0; i < node_precedent.getNumberOfSuccessors(); ++i) {
+        			actuel_arc = node_precedent.getSuccessor(i);
         			
         			if (actuel_arc.getDestination()== node_actuel) {
         				
@@ -20,11 +20,25 @@ public final class Point {
      * @return Distance between the two given points (in meters).
      */
     public static double distance(Point p1, Point p2) {
-        double sinLat = Math.sin(Math.toRadians(p1.getLatitude()))
-                * Math.sin(Math.toRadians(p2.getLatitude()));
-        double cosLat = Math.cos(Math.toRadians(p1.getLatitude()))
-                * Math.cos(Math.toRadians(p2.getLatitude()));
-        double cosLong = Math.cos(Math.toRadians(p2.getLongitude() - p1.getLongitude()));
+        return distance(p1.getLongitude(), p1.getLatitude(), p2.getLongitude(),
+                p2.getLatitude());
+    }
+
+    /**
+     * Compute the distance in meters between the two given positions.
+     * 
+     * @param longitude1 Longitude of the first position (in degrees).
+     * @param latitude1 Latitude of the first position (in degrees).
+     * @param longitude2 Longitude of the second position (in degrees).
+     * @param latitude2 Latitude of the second position (in degrees).
+     * 
+     * @return Distance between the two given positions (in meters).
+     */
+    public static double distance(float longitude1, float latitude1, float longitude2,
+            float latitude2) {
+        double sinLat = Math.sin(Math.toRadians(latitude1)) * Math.sin(Math.toRadians(latitude2));
+        double cosLat = Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2));
+        double cosLong = Math.cos(Math.toRadians(longitude2 - longitude1));
         return EARTH_RADIUS * Math.acos(sinLat + cosLat * cosLong);
     }
 
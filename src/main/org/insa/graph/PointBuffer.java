@@ -0,0 +1,165 @@
+package org.insa.graph;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Packed storage for the coordinates of a large number of points, used to store
+ * the geometry (intermediate points) of all the arcs of a graph.
+ * </p>
+ *
+ * <p>
+ * Coordinates are stored in a single {@code float} array (longitude and latitude
+ * of each point next to each other), and points are identified by their index
+ * in the buffer. The points of an arc are a contiguous range of indices, see
+ * {@link Node#linkNodes(Node, Node, float, RoadInformation, PointBuffer, int, int)}.
+ * </p>
+ *
+ * <p>
+ * {@link Point} instances are only created when the points of an arc are
+ * accessed through {@link Arc#getPoints()}.
+ * </p>
+ *
+ */
+public final class PointBuffer {
+
+    // Coordinates of the points (longitude, latitude, longitude, ...).
+    private float[] coordinates;
+
+    // Number of points in this buffer.
+    private int size;
+
+    /**
+     * Create a new empty buffer.
+     */
+    public PointBuffer() {
+        this(16);
+    }
+
+    /**
+     * Create a new empty buffer with the given initial capacity.
+     *
+     * @param capacity Initial capacity (number of points) of the buffer.
+     */
+    public PointBuffer(int capacity) {
+        this.coordinates = new float[2 * Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * @return Number of points in this buffer.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add a point at the end of this buffer.
+     *
+     * <p>
+     * <b>Complexity:</b> amortized <i>O(1)</i>
+     * </p>
+     *
+     * @param longitude Longitude of the point (in degrees).
+     * @param latitude Latitude of the point (in degrees).
+     *
+     * @return Index of the new point in this buffer.
+     */
+    public int add(float longitude, float latitude) {
+        if (2 * this.size == this.coordinates.length) {
+            this.coordinates = Arrays.copyOf(this.coordinates, 2 * this.coordinates.length);
+        }
+        this.coordinates[2 * this.size] = longitude;
+        this.coordinates[2 * this.size + 1] = latitude;
+        return this.size++;
+    }
+
+    /**
+     * Add the given number of points at the end of this buffer, with all their
+     * coordinates set to 0. The coordinates can then be set with
+     * {@link #set(int, float, float)}, e.g. by multiple threads working on
+     * different ranges of points.
+     *
+     * @param count Number of points to add.
+     *
+     * @return Index of the first point added.
+     */
+    public int addPoints(int count) {
+        int required = 2 * (this.size + count);
+        if (required > this.coordinates.length) {
+            this.coordinates = Arrays.copyOf(this.coordinates,
+                    Math.max(required, 2 * this.coordinates.length));
+        }
+        int first = this.size;
+        this.size += count;
+        return first;
+    }
+
+    /**
+     * Set the coordinates of the point at the given index.
+     *
+     * @param index Index of the point.
+     * @param longitude New longitude of the point (in degrees).
+     * @param latitude New latitude of the point (in degrees).
+     */
+    public void set(int index, float longitude, float latitude) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        this.coordinates[2 * index] = longitude;
+        this.coordinates[2 * index + 1] = latitude;
+    }
+
+    /**
+     * @param index Index of the point.
+     *
+     * @return Longitude of the point at the given index (in degrees).
+     */
+    public float getLongitude(int index) {
+        return this.coordinates[2 * index];
+    }
+
+    /**
+     * @param index Index of the point.
+     *
+     * @return Latitude of the point at the given index (in degrees).
+     */
+    public float getLatitude(int index) {
+        return this.coordinates[2 * index + 1];
+    }
+
+    /**
+     * @param index Index of the point.
+     *
+     * @return A new point corresponding to the given index.
+     */
+    public Point getPoint(int index) {
+        return new Point(getLongitude(index), getLatitude(index));
+    }
+
+    /**
+     * Reverse the order of the given range of points in this buffer.
+     *
+     * @param offset Index of the first point of the range.
+     * @param count Number of points in the range.
+     */
+    public void reverse(int offset, int count) {
+        for (int i = 2 * offset, j = 2 * (offset + count - 1); i < j; i += 2, j -= 2) {
+            float longitude = this.coordinates[i], latitude = this.coordinates[i + 1];
+            this.coordinates[i] = this.coordinates[j];
+            this.coordinates[i + 1] = this.coordinates[j + 1];
+            this.coordinates[j] = longitude;
+            this.coordinates[j + 1] = latitude;
+        }
+    }
+
+    /**
+     * Trim the capacity of this buffer to its current size.
+     */
+    public void trimToSize() {
+        if (2 * this.size < this.coordinates.length) {
+            this.coordinates = Arrays.copyOf(this.coordinates, 2 * Math.max(this.size, 1));
+        }
+    }
+
+}
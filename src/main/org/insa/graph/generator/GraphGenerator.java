@@ -0,0 +1,506 @@
+package org.insa.graph.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Random;
+
+import org.insa.graph.AccessRestrictions;
+import org.insa.graph.AccessRestrictions.AccessMode;
+import org.insa.graph.AccessRestrictions.AccessRestriction;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.GraphStatistics;
+import org.insa.graph.GraphStatistics.BoundingBox;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.RoadInformation.RoadType;
+import org.insa.graph.io.BinaryGraphWriter;
+
+/**
+ * <p>
+ * Base class of the generators of synthetic road graphs, used to benchmark
+ * the algorithms without real maps.
+ * </p>
+ *
+ * <p>
+ * Generators are deterministic: two generators of the same class with the same
+ * parameters and seed generate the same graph. Graphs are generated as
+ * {@link CompactGraph} (see {@link #generateCompactGraph()}), without creating
+ * any {@link org.insa.graph.Node} or {@link org.insa.graph.Arc}, so that graphs
+ * with tens of millions of arcs can be generated and written (see
+ * {@link #write(File)}) with a reasonable amount of memory. The roads are
+ * generated twice, first to count the arcs of each node, and then to fill the
+ * arrays of the graph.
+ * </p>
+ *
+ * <p>
+ * Subclasses place the nodes (see {@link #setPosition(int, double, double)})
+ * and create the roads between them (see
+ * {@link #addRoad(int, int, RoadType)}). The attributes of each road are then
+ * drawn by this class:
+ * </p>
+ * <ul>
+ * <li>roads of minor types (see {@link #canBeOneWay(RoadType)}) are one-way
+ * with the probability given by {@link #setOneWayRatio(double)}, in a random
+ * direction;</li>
+ * <li>the length of a road is the distance between its ends multiplied by a
+ * random factor in {@code [1, 1 + maximum detour]} (see
+ * {@link #setMaximumDetour(double)}), so that the distance remains a lower bound
+ * of the length;</li>
+ * <li>the speed limit and access restrictions only depend on the type of the
+ * road (see {@link #getMaximumSpeed(RoadType)} and
+ * {@link #getAccessRestrictions(RoadType)}).</li>
+ * </ul>
+ *
+ */
+public abstract class GraphGenerator {
+
+    /**
+     * Default ratio of one-way roads among the roads that can be one-way.
+     */
+    public static final double DEFAULT_ONE_WAY_RATIO = 0.1;
+
+    /**
+     * Default maximum detour of roads.
+     */
+    public static final double DEFAULT_MAXIMUM_DETOUR = 0.2;
+
+    /**
+     * Default position of the south-west corner of the graphs (Toulouse).
+     */
+    public static final Point DEFAULT_ORIGIN = new Point(1.4437f, 43.6043f);
+
+    // Length of a degree of latitude (in meters).
+    private static final double METERS_PER_DEGREE = Math.PI * Point.EARTH_RADIUS / 180;
+
+    // Map ID and name of the generated graphs.
+    private final String mapId, mapName;
+
+    // Seed of the generator.
+    private final long seed;
+
+    // Ratio of one-way roads, and maximum detour.
+    private double oneWayRatio;
+    private double maxDetour;
+
+    // Position of the south-west corner of the graph.
+    private Point origin;
+
+    // Position of the nodes of the graph being generated.
+    private float[] longitudes, latitudes;
+
+    // Random generator of the attributes of the roads.
+    private Random random;
+
+    // Arcs of the graph being generated: during the first pass, only offsets is
+    // allocated and holds the number of arcs of each node, and during the second
+    // pass, cursors holds the index of the next arc of each node.
+    private int[] offsets, cursors;
+    private int[] targets, roadInformationIndices, reverseArcs;
+    private float[] lengths;
+
+    // Statistics of the graph being generated.
+    private int nbOneWayRoads, nbTwoWaysRoads;
+    private float maxLength;
+
+    /**
+     * Create a new generator.
+     *
+     * @param mapId ID of the generated maps (at most 32 bytes are written in map
+     *        files).
+     * @param mapName Name of the generated maps.
+     * @param seed Seed of the generator.
+     */
+    protected GraphGenerator(String mapId, String mapName, long seed) {
+        this.mapId = mapId;
+        this.mapName = mapName;
+        this.seed = seed;
+        this.oneWayRatio = DEFAULT_ONE_WAY_RATIO;
+        this.maxDetour = DEFAULT_MAXIMUM_DETOUR;
+        this.origin = DEFAULT_ORIGIN;
+    }
+
+    /**
+     * @return Seed of this generator.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * @return Ratio of one-way roads among the roads that can be one-way.
+     */
+    public double getOneWayRatio() {
+        return this.oneWayRatio;
+    }
+
+    /**
+     * @param oneWayRatio New ratio of one-way roads among the roads that can be
+     *        one-way, in {@code [0, 1]}.
+     *
+     * @throws IllegalArgumentException if the ratio is not in {@code [0, 1]}.
+     */
+    public void setOneWayRatio(double oneWayRatio) {
+        if (!(oneWayRatio >= 0 && oneWayRatio <= 1)) {
+            throw new IllegalArgumentException("invalid one-way ratio: " + oneWayRatio);
+        }
+        this.oneWayRatio = oneWayRatio;
+    }
+
+    /**
+     * @return Maximum detour of roads.
+     */
+    public double getMaximumDetour() {
+        return this.maxDetour;
+    }
+
+    /**
+     * @param maxDetour New maximum detour of roads: the length of a road is at
+     *        most {@code 1 + maxDetour} times the distance between its ends.
+     *
+     * @throws IllegalArgumentException if the detour is negative.
+     */
+    public void setMaximumDetour(double maxDetour) {
+        if (!(maxDetour >= 0)) {
+            throw new IllegalArgumentException("invalid maximum detour: " + maxDetour);
+        }
+        this.maxDetour = maxDetour;
+    }
+
+    /**
+     * @return Position of the south-west corner of the generated graphs.
+     */
+    public Point getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * @param origin New position of the south-west corner of the generated
+     *        graphs.
+     */
+    public void setOrigin(Point origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * @return Number of nodes of the generated graphs.
+     */
+    public abstract int getNodeCount();
+
+    /**
+     * Place all the nodes of the graph with {@link #setPosition(int, double, double)}.
+     *
+     * @param random Random generator to use (the same sequence for each call).
+     */
+    protected abstract void generateNodes(Random random);
+
+    /**
+     * Create all the roads of the graph with {@link #addRoad(int, int, RoadType)}.
+     * This method is called twice for each graph, and must create the same roads
+     * in the same order each time.
+     *
+     * @param random Random generator to use (the same sequence for each call).
+     */
+    protected abstract void generateRoads(Random random);
+
+    /**
+     * Set the position of a node.
+     *
+     * @param node ID of the node.
+     * @param x Distance (in meters) between the node and the origin of the graph,
+     *        towards the east.
+     * @param y Distance (in meters) between the node and the origin of the graph,
+     *        towards the north.
+     */
+    protected final void setPosition(int node, double x, double y) {
+        double latitude = this.origin.getLatitude() + y / METERS_PER_DEGREE;
+        double longitude = this.origin.getLongitude() + x
+                / (METERS_PER_DEGREE * Math.cos(Math.toRadians(this.origin.getLatitude())));
+
+        // Positions are rounded as they are in map files.
+        this.longitudes[node] = ((float) (int) Math.round(longitude * 1e6)) / 1E6f;
+        this.latitudes[node] = ((float) (int) Math.round(latitude * 1e6)) / 1E6f;
+    }
+
+    /**
+     * Add a road between the two given nodes.
+     *
+     * @param origin ID of the first node.
+     * @param destination ID of the second node.
+     * @param type Type of the road.
+     */
+    protected final void addRoad(int origin, int destination, RoadType type) {
+
+        // Draw the attributes of the road (even during the first pass, to keep the
+        // same random sequence).
+        boolean oneWay = canBeOneWay(type) && this.random.nextDouble() < this.oneWayRatio;
+        if (oneWay && this.random.nextBoolean()) {
+            int tmp = origin;
+            origin = destination;
+            destination = tmp;
+        }
+        double detour = 1 + this.random.nextDouble() * this.maxDetour;
+
+        // First pass: count the arcs.
+        if (this.targets == null) {
+            this.offsets[origin + 1] += 1;
+            if (!oneWay) {
+                this.offsets[destination + 1] += 1;
+            }
+            return;
+        }
+
+        // Lengths are rounded up to the millimeter, as they are in map files.
+        double distance = Point.distance(this.longitudes[origin], this.latitudes[origin],
+                this.longitudes[destination], this.latitudes[destination]);
+        float length = ((float) (int) Math.ceil(distance * detour * 1000)) / 1000.0f;
+        int info = 2 * type.ordinal() + (oneWay ? 1 : 0);
+
+        int arc = this.cursors[origin]++;
+        this.targets[arc] = destination;
+        this.lengths[arc] = length;
+        this.roadInformationIndices[arc] = info;
+        this.reverseArcs[arc] = -1;
+        if (oneWay) {
+            this.nbOneWayRoads++;
+        }
+        else {
+            int reverse = this.cursors[destination]++;
+            this.targets[reverse] = origin;
+            this.lengths[reverse] = length;
+            this.roadInformationIndices[reverse] = info;
+            this.reverseArcs[reverse] = arc;
+            this.reverseArcs[arc] = reverse;
+            this.nbTwoWaysRoads++;
+        }
+        this.maxLength = Math.max(this.maxLength, length);
+    }
+
+    /**
+     * @param type Type of road.
+     *
+     * @return true if roads of the given type can be one-way.
+     */
+    protected boolean canBeOneWay(RoadType type) {
+        switch (type) {
+        case TERTIARY:
+        case RESIDENTIAL:
+        case UNCLASSIFIED:
+        case LIVING_STREET:
+        case SERVICE:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * @param type Type of road.
+     *
+     * @return Speed limit (in kilometers per hour) of the roads of the given type.
+     */
+    protected int getMaximumSpeed(RoadType type) {
+        switch (type) {
+        case MOTORWAY:
+            return 130;
+        case TRUNK:
+            return 110;
+        case MOTORWAY_LINK:
+        case PRIMARY:
+        case SECONDARY:
+            return 80;
+        case TRUNK_LINK:
+        case PRIMARY_LINK:
+        case SECONDARY_LINK:
+            return 70;
+        case RESIDENTIAL:
+        case ROUNDABOUT:
+            return 30;
+        case LIVING_STREET:
+        case SERVICE:
+        case TRACK:
+            return 20;
+        case PEDESTRIAN:
+        case CYCLEWAY:
+        case COASTLINE:
+            return 0;
+        default:
+            return 50;
+        }
+    }
+
+    /**
+     * @param type Type of road.
+     *
+     * @return Access restrictions of the roads of the given type: motorways and
+     *         trunks are forbidden to pedestrians, bicycles and agricultural
+     *         vehicles, other roads are allowed to everyone.
+     */
+    protected AccessRestrictions getAccessRestrictions(RoadType type) {
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            restrictions.put(mode, AccessRestriction.ALLOWED);
+        }
+        switch (type) {
+        case MOTORWAY:
+        case MOTORWAY_LINK:
+        case TRUNK:
+        case TRUNK_LINK:
+            restrictions.put(AccessMode.FOOT, AccessRestriction.FORBIDDEN);
+            restrictions.put(AccessMode.BICYCLE, AccessRestriction.FORBIDDEN);
+            restrictions.put(AccessMode.AGRICULTURAL, AccessRestriction.FORBIDDEN);
+            break;
+        default:
+            break;
+        }
+        return new AccessRestrictions(restrictions);
+    }
+
+    /**
+     * Generate a new graph.
+     *
+     * @return The generated graph.
+     */
+    public CompactGraph generateCompactGraph() {
+        final int nbNodes = getNodeCount();
+        try {
+            this.longitudes = new float[nbNodes];
+            this.latitudes = new float[nbNodes];
+            generateNodes(new Random(this.seed));
+
+            // Road information: one-way and two-ways roads of each type.
+            RoadType[] types = RoadType.values();
+            RoadInformation[] infos = new RoadInformation[2 * types.length];
+            for (RoadType type: types) {
+                AccessRestrictions access = getAccessRestrictions(type);
+                int speed = getMaximumSpeed(type);
+                infos[2 * type.ordinal()] = new RoadInformation(type, access, false, speed, "");
+                infos[2 * type.ordinal() + 1] = new RoadInformation(type, access, true, speed,
+                        "");
+            }
+
+            // First pass: count the arcs of each node.
+            this.offsets = new int[nbNodes + 1];
+            this.random = new Random(~this.seed);
+            generateRoads(new Random(this.seed));
+
+            for (int node = 0; node < nbNodes; ++node) {
+                this.offsets[node + 1] += this.offsets[node];
+            }
+            final int nbArcs = this.offsets[nbNodes];
+
+            // Second pass: create the arcs.
+            this.cursors = Arrays.copyOf(this.offsets, nbNodes);
+            this.targets = new int[nbArcs];
+            this.lengths = new float[nbArcs];
+            this.roadInformationIndices = new int[nbArcs];
+            this.reverseArcs = new int[nbArcs];
+            this.nbOneWayRoads = 0;
+            this.nbTwoWaysRoads = 0;
+            this.maxLength = 0;
+            this.random = new Random(~this.seed);
+            generateRoads(new Random(this.seed));
+
+            // Statistics.
+            float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                    maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+            for (int node = 0; node < nbNodes; ++node) {
+                minLongitude = Math.min(this.longitudes[node], minLongitude);
+                minLatitude = Math.min(this.latitudes[node], minLatitude);
+                maxLongitude = Math.max(this.longitudes[node], maxLongitude);
+                maxLatitude = Math.max(this.latitudes[node], maxLatitude);
+            }
+            int maxSpeed = 0;
+            for (int arc = 0; arc < nbArcs; ++arc) {
+                maxSpeed = Math.max(maxSpeed,
+                        infos[this.roadInformationIndices[arc]].getMaximumSpeed());
+            }
+
+            return new CompactGraph(this.mapId, this.mapName, this.offsets, this.targets,
+                    this.lengths, this.roadInformationIndices, infos, this.reverseArcs,
+                    this.longitudes, this.latitudes,
+                    new GraphStatistics(
+                            new BoundingBox(new Point(minLongitude, maxLatitude),
+                                    new Point(maxLongitude, minLatitude)),
+                            this.nbOneWayRoads, this.nbTwoWaysRoads, maxSpeed, this.maxLength));
+        }
+        finally {
+            this.longitudes = this.latitudes = this.lengths = null;
+            this.offsets = this.cursors = this.targets = null;
+            this.roadInformationIndices = this.reverseArcs = null;
+            this.random = null;
+        }
+    }
+
+    /**
+     * Generate a new graph, with its nodes and arcs.
+     *
+     * @return The generated graph.
+     *
+     * @see CompactGraph#getGraph()
+     */
+    public Graph generate() {
+        return generateCompactGraph().getGraph();
+    }
+
+    /**
+     * Generate a new graph and write it to the given file, in binary format (see
+     * {@link BinaryGraphWriter}).
+     *
+     * @param file File to write.
+     *
+     * @throws IOException if an error occurs while writing the file.
+     */
+    public void write(File file) throws IOException {
+        CompactGraph graph = generateCompactGraph();
+        new BinaryGraphWriter(new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16)))
+                        .writeCompactGraph(graph);
+    }
+
+    @Override
+    public String toString() {
+        return this.mapName;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println(
+                    "usage: GraphGenerator grid|geometric|hierarchical nbNodes seed output.mapgr");
+            System.exit(1);
+        }
+        final int nbNodes = Integer.parseInt(args[1]);
+        final long seed = Long.parseLong(args[2]);
+        final int side = (int) Math.ceil(Math.sqrt(nbNodes));
+
+        GraphGenerator generator;
+        if (args[0].equals("grid")) {
+            generator = new GridGraphGenerator(side, side, GridGraphGenerator.DEFAULT_SPACING,
+                    seed);
+        }
+        else if (args[0].equals("geometric")) {
+            generator = new RandomGeometricGraphGenerator(nbNodes,
+                    RandomGeometricGraphGenerator.DEFAULT_AVERAGE_DEGREE,
+                    RandomGeometricGraphGenerator.DEFAULT_SPACING, seed);
+        }
+        else if (args[0].equals("hierarchical")) {
+            generator = new HierarchicalGraphGenerator(side, side,
+                    HierarchicalGraphGenerator.DEFAULT_SPACING,
+                    HierarchicalGraphGenerator.DEFAULT_BRANCHING, seed);
+        }
+        else {
+            throw new IllegalArgumentException("invalid generator: " + args[0]);
+        }
+
+        long begin = System.nanoTime();
+        generator.write(new File(args[3]));
+        System.out.println(generator + " written to " + args[3] + " in "
+                + (System.nanoTime() - begin) / 1000000 + " ms");
+    }
+
+}
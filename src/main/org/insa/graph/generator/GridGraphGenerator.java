@@ -0,0 +1,85 @@
+package org.insa.graph.generator;
+
+import java.util.Random;
+
+import org.insa.graph.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Generator of grid graphs (like the carre-dense map): the nodes are placed on
+ * a regular grid, and each node is linked to its right and upper neighbors by
+ * residential roads.
+ * </p>
+ *
+ * <p>
+ * The ID of the node in row {@code r} (from the south) and column {@code c}
+ * (from the west) is {@code r * width + c}.
+ * </p>
+ *
+ */
+public class GridGraphGenerator extends GraphGenerator {
+
+    /**
+     * Default distance between two neighbor nodes (in meters).
+     */
+    public static final double DEFAULT_SPACING = 100;
+
+    // Number of columns and rows, and distance between two neighbor nodes.
+    private final int width, height;
+    private final double spacing;
+
+    /**
+     * Create a new generator of grid graphs.
+     *
+     * @param width Number of columns of the grid.
+     * @param height Number of rows of the grid.
+     * @param spacing Distance between two neighbor nodes (in meters).
+     * @param seed Seed of the generator.
+     *
+     * @throws IllegalArgumentException if the size of the grid or the spacing is
+     *         not positive.
+     */
+    public GridGraphGenerator(int width, int height, double spacing, long seed) {
+        super("grid-" + width + "x" + height + "-" + seed,
+                "Synthetic grid " + width + "x" + height + " (seed " + seed + ")", seed);
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid grid size: " + width + "x" + height);
+        }
+        if (!(spacing > 0)) {
+            throw new IllegalArgumentException("invalid spacing: " + spacing);
+        }
+        this.width = width;
+        this.height = height;
+        this.spacing = spacing;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return this.width * this.height;
+    }
+
+    @Override
+    protected void generateNodes(Random random) {
+        for (int row = 0; row < this.height; ++row) {
+            for (int col = 0; col < this.width; ++col) {
+                setPosition(row * this.width + col, col * this.spacing, row * this.spacing);
+            }
+        }
+    }
+
+    @Override
+    protected void generateRoads(Random random) {
+        for (int row = 0; row < this.height; ++row) {
+            for (int col = 0; col < this.width; ++col) {
+                int node = row * this.width + col;
+                if (col + 1 < this.width) {
+                    addRoad(node, node + 1, RoadType.RESIDENTIAL);
+                }
+                if (row + 1 < this.height) {
+                    addRoad(node, node + this.width, RoadType.RESIDENTIAL);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.insa.graph.generator;
+
+import java.util.Random;
+
+import org.insa.graph.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Generator of hierarchical road networks: the nodes are placed on a grid with
+ * some random noise, and the rows and columns of the grid are roads of
+ * different classes. With a branching factor {@code b}, every {@code b}-th line
+ * is a tertiary road, every {@code b}<sup>2</sup>-th line a secondary road,
+ * every {@code b}<sup>3</sup>-th line a primary road and every
+ * {@code b}<sup>4</sup>-th line a motorway, the other lines being residential
+ * streets.
+ * </p>
+ *
+ * <p>
+ * Motorways can only be entered at interchanges, i.e. where they cross a
+ * secondary road or a more important one: elsewhere, the crossing roads go over
+ * the motorway without stopping (the nodes on each side of the motorway are
+ * directly linked).
+ * </p>
+ *
+ * <p>
+ * The ID of the node in row {@code r} (from the south) and column {@code c}
+ * (from the west) is {@code r * width + c}.
+ * </p>
+ *
+ */
+public class HierarchicalGraphGenerator extends GraphGenerator {
+
+    /**
+     * Default distance between two neighbor nodes (in meters).
+     */
+    public static final double DEFAULT_SPACING = 150;
+
+    /**
+     * Default branching factor of the hierarchy.
+     */
+    public static final int DEFAULT_BRANCHING = 4;
+
+    // Types of the roads of each level of the hierarchy, from the lowest one.
+    private static final RoadType[] LEVELS = { RoadType.RESIDENTIAL, RoadType.TERTIARY,
+            RoadType.SECONDARY, RoadType.PRIMARY, RoadType.MOTORWAY };
+
+    // Level of the motorways, and lowest level of the roads with an interchange
+    // on the motorways.
+    private static final int MOTORWAY_LEVEL = LEVELS.length - 1;
+    private static final int INTERCHANGE_LEVEL = 2;
+
+    // Maximum distance between a node and its position on the grid, relative to
+    // the spacing.
+    private static final double NOISE = 0.2;
+
+    // Number of columns and rows, distance between two neighbor nodes and
+    // branching factor.
+    private final int width, height;
+    private final double spacing;
+    private final int branching;
+
+    /**
+     * Create a new generator of hierarchical road networks.
+     *
+     * @param width Number of columns of the grid.
+     * @param height Number of rows of the grid.
+     * @param spacing Distance between two neighbor nodes (in meters).
+     * @param branching Number of lines of each level between two lines of the
+     *        next level.
+     * @param seed Seed of the generator.
+     *
+     * @throws IllegalArgumentException if the size of the grid or the spacing is
+     *         not positive, or if the branching factor is less than 2.
+     */
+    public HierarchicalGraphGenerator(int width, int height, double spacing, int branching,
+            long seed) {
+        super("hierarchical-" + width + "x" + height + "-" + seed, "Synthetic road network "
+                + width + "x" + height + " (seed " + seed + ")", seed);
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid grid size: " + width + "x" + height);
+        }
+        if (!(spacing > 0)) {
+            throw new IllegalArgumentException("invalid spacing: " + spacing);
+        }
+        if (branching < 2) {
+            throw new IllegalArgumentException("invalid branching factor: " + branching);
+        }
+        this.width = width;
+        this.height = height;
+        this.spacing = spacing;
+        this.branching = branching;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return this.width * this.height;
+    }
+
+    /**
+     * @param line Index of a row or of a column.
+     *
+     * @return Level of the roads of the given line.
+     */
+    private int levelOf(int line) {
+        int level = 0;
+        for (long period = this.branching; level < MOTORWAY_LEVEL
+                && line % period == 0; period *= this.branching) {
+            ++level;
+        }
+        return level;
+    }
+
+    /**
+     * @param lineLevel Level of a line.
+     * @param crossingLevel Level of a line crossing the first one.
+     *
+     * @return true if the roads of the first line stop at the crossing, false if
+     *         they go over it (i.e. if the crossing line is a motorway without
+     *         interchange).
+     */
+    private static boolean stopsAt(int lineLevel, int crossingLevel) {
+        return crossingLevel < MOTORWAY_LEVEL || lineLevel >= INTERCHANGE_LEVEL;
+    }
+
+    @Override
+    protected void generateNodes(Random random) {
+        for (int row = 0; row < this.height; ++row) {
+            for (int col = 0; col < this.width; ++col) {
+                double dx = (2 * random.nextDouble() - 1) * NOISE * this.spacing;
+                double dy = (2 * random.nextDouble() - 1) * NOISE * this.spacing;
+                setPosition(row * this.width + col, col * this.spacing + dx,
+                        row * this.spacing + dy);
+            }
+        }
+    }
+
+    @Override
+    protected void generateRoads(Random random) {
+        for (int row = 0; row < this.height; ++row) {
+            int rowLevel = levelOf(row);
+            for (int col = 0; col < this.width; ++col) {
+                int colLevel = levelOf(col);
+                int node = row * this.width + col;
+
+                // Road along the row, to the next column where the row stops.
+                if (stopsAt(rowLevel, colLevel)) {
+                    int next = col + 1;
+                    if (next < this.width && !stopsAt(rowLevel, levelOf(next))) {
+                        ++next;
+                    }
+                    if (next < this.width) {
+                        addRoad(node, row * this.width + next, LEVELS[rowLevel]);
+                    }
+                }
+
+                // Road along the column, to the next row where the column stops.
+                if (stopsAt(colLevel, rowLevel)) {
+                    int next = row + 1;
+                    if (next < this.height && !stopsAt(colLevel, levelOf(next))) {
+                        ++next;
+                    }
+                    if (next < this.height) {
+                        addRoad(node, next * this.width + col, LEVELS[colLevel]);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.insa.graph.generator;
+
+import java.util.Random;
+
+import org.insa.graph.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Generator of random geometric graphs: the nodes are placed uniformly at
+ * random in a square, and every two nodes closer than a given radius are linked
+ * by a residential road. The radius is chosen to get the requested average
+ * number of roads per node, so the graph may be disconnected when this number
+ * is small (below 5 or so).
+ * </p>
+ *
+ * <p>
+ * Pairs of close nodes are found by placing the nodes in square cells whose side
+ * is the radius, so the generation runs in linear time in the number of roads.
+ * </p>
+ *
+ */
+public class RandomGeometricGraphGenerator extends GraphGenerator {
+
+    /**
+     * Default average number of roads per node.
+     */
+    public static final double DEFAULT_AVERAGE_DEGREE = 6;
+
+    /**
+     * Default average distance between a node and its closest neighbor (in
+     * meters), which gives the size of the square.
+     */
+    public static final double DEFAULT_SPACING = 100;
+
+    // Number of nodes, side of the square and radius (in meters).
+    private final int nbNodes;
+    private final double side, radius;
+
+    // Position of the nodes (in meters) and nodes sorted by cell: the nodes of
+    // cell i are cellNodes[cellOffsets[i]] to cellNodes[cellOffsets[i + 1] - 1].
+    private float[] xs, ys;
+    private int nbCellsPerSide;
+    private int[] cellOffsets, cellNodes;
+
+    /**
+     * Create a new generator of random geometric graphs.
+     *
+     * @param nbNodes Number of nodes.
+     * @param averageDegree Average number of roads per node.
+     * @param spacing Average distance between neighbor nodes (in meters): the side
+     *        of the square is {@code spacing * sqrt(nbNodes)}.
+     * @param seed Seed of the generator.
+     *
+     * @throws IllegalArgumentException if one of the parameters is not positive.
+     */
+    public RandomGeometricGraphGenerator(int nbNodes, double averageDegree, double spacing,
+            long seed) {
+        super("geometric-" + nbNodes + "-" + seed,
+                "Synthetic geometric graph " + nbNodes + " (seed " + seed + ")", seed);
+        if (nbNodes <= 0) {
+            throw new IllegalArgumentException("invalid number of nodes: " + nbNodes);
+        }
+        if (!(averageDegree > 0)) {
+            throw new IllegalArgumentException("invalid average degree: " + averageDegree);
+        }
+        if (!(spacing > 0)) {
+            throw new IllegalArgumentException("invalid spacing: " + spacing);
+        }
+        this.nbNodes = nbNodes;
+        this.side = spacing * Math.sqrt(nbNodes);
+
+        // Each node has on average nbNodes * PI * radius^2 / side^2 neighbors.
+        this.radius = spacing * Math.sqrt(averageDegree / Math.PI);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return this.nbNodes;
+    }
+
+    /**
+     * @return Index of the cell containing the given position.
+     */
+    private int cellOf(float x, float y) {
+        int col = Math.min((int) (x / this.radius), this.nbCellsPerSide - 1);
+        int row = Math.min((int) (y / this.radius), this.nbCellsPerSide - 1);
+        return row * this.nbCellsPerSide + col;
+    }
+
+    @Override
+    protected void generateNodes(Random random) {
+        this.xs = new float[this.nbNodes];
+        this.ys = new float[this.nbNodes];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            this.xs[node] = (float) (random.nextDouble() * this.side);
+            this.ys[node] = (float) (random.nextDouble() * this.side);
+            setPosition(node, this.xs[node], this.ys[node]);
+        }
+
+        // Sort the nodes by cell (counting sort).
+        this.nbCellsPerSide = (int) Math.max(1,
+                Math.min(Math.ceil(this.side / this.radius), Math.sqrt(Integer.MAX_VALUE - 1)));
+        int nbCells = this.nbCellsPerSide * this.nbCellsPerSide;
+        this.cellOffsets = new int[nbCells + 1];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            this.cellOffsets[cellOf(this.xs[node], this.ys[node]) + 1] += 1;
+        }
+        for (int cell = 0; cell < nbCells; ++cell) {
+            this.cellOffsets[cell + 1] += this.cellOffsets[cell];
+        }
+        int[] cursors = new int[nbCells];
+        this.cellNodes = new int[this.nbNodes];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            int cell = cellOf(this.xs[node], this.ys[node]);
+            this.cellNodes[this.cellOffsets[cell] + cursors[cell]++] = node;
+        }
+    }
+
+    @Override
+    protected void generateRoads(Random random) {
+        final double radius2 = this.radius * this.radius;
+        for (int node = 0; node < this.nbNodes; ++node) {
+            int cell = cellOf(this.xs[node], this.ys[node]);
+            int row = cell / this.nbCellsPerSide, col = cell % this.nbCellsPerSide;
+
+            // Link the node to the next nodes (by ID) in the 9 cells around it.
+            for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1,
+                    this.nbCellsPerSide - 1); ++r) {
+                for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1,
+                        this.nbCellsPerSide - 1); ++c) {
+                    int other = r * this.nbCellsPerSide + c;
+                    for (int i = this.cellOffsets[other]; i < this.cellOffsets[other + 1]; ++i) {
+                        int neighbor = this.cellNodes[i];
+                        double dx = this.xs[neighbor] - this.xs[node],
+                                dy = this.ys[neighbor] - this.ys[node];
+                        if (neighbor > node && dx * dx + dy * dy <= radius2) {
+                            addRoad(node, neighbor, RoadType.RESIDENTIAL);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
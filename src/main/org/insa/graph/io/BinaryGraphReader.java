@@ -1,20 +1,24 @@
 package org.insa.graph.io;
 
+import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.List;
 
 import org.insa.graph.AccessRestrictions;
 import org.insa.graph.AccessRestrictions.AccessMode;
 import org.insa.graph.AccessRestrictions.AccessRestriction;
 import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
 import org.insa.graph.Graph;
 import org.insa.graph.GraphStatistics;
 import org.insa.graph.GraphStatistics.BoundingBox;
 import org.insa.graph.Node;
 import org.insa.graph.Point;
+import org.insa.graph.PointBuffer;
 import org.insa.graph.RoadInformation;
 import org.insa.graph.RoadInformation.RoadType;
 
@@ -26,7 +30,7 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
     // Map version and magic number targeted for this reader.
     private static final int VERSION = 5;
-    private static final int MAGIC_NUMBER = 0x208BC3B3;
+    protected static final int MAGIC_NUMBER = 0x208BC3B3;
 
     // Length of the map id field (in bytes)
     protected static final int MAP_ID_FIELD_LENGTH = 32;
@@ -34,6 +38,43 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     // List of observers
     protected List<GraphReaderObserver> observers = new ArrayList<>();
 
+    // Id and name of the map being read (see readMapHeader()).
+    protected String mapId, mapName;
+
+    // Access restrictions, in the order of their 4-bits value in files (i.e.
+    // FORBIDDEN is 0 or PRIVATE is 2) - UKNOWN is not included because value above
+    // 6 (FORESTRY) are all considered unknown. The order of values inside this
+    // array is VERY IMPORTANT.
+    // See the following for more information:
+    // https://github.com/Holt59/OSM2Graph/blob/master/src/main/org/laas/osm2graph/model/AccessData.java
+    protected static final AccessRestriction[] ACCESS_RESTRICTIONS = new AccessRestriction[] {
+            AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
+            AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
+            AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
+
+    // Access modes, in the order of their 4-bits group in files, i.e. FOOT is the
+    // first group (4 lowest bits), and so on (null for filling cells). The order
+    // of values inside this array is VERY IMPORTANT.
+    protected static final AccessMode[] ACCESS_MODES = new AccessMode[] { AccessMode.FOOT, null,
+            AccessMode.BICYCLE, AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL,
+            AccessMode.MOTORCYCLE, AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null,
+            AccessMode.PUBLIC_TRANSPORT };
+
+    // Ordinal of the restriction of each 4-bits value in files (values above 6 are
+    // UNKNOWN), and position of the 4-bits group of the mode of each group of files
+    // in the packed form of AccessRestrictions (see AccessRestrictions(int)).
+    private static final int[] RESTRICTION_ORDINALS = new int[16];
+    private static final int[] MODE_SHIFTS;
+
+    static {
+        Arrays.fill(RESTRICTION_ORDINALS, AccessRestriction.UNKNOWN.ordinal());
+        for (int value = 0; value < ACCESS_RESTRICTIONS.length; ++value) {
+            RESTRICTION_ORDINALS[value] = ACCESS_RESTRICTIONS[value].ordinal();
+        }
+        MODE_SHIFTS = Arrays.stream(ACCESS_MODES).filter(mode -> mode != null)
+                .mapToInt(mode -> 4 * mode.ordinal()).toArray();
+    }
+
     /**
      * Parse the given long value into a new instance of AccessRestrictions.
      * 
@@ -42,43 +83,12 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
      * @return New instance of access restrictions parsed from the given value.
      */
     protected static AccessRestrictions toAccessInformation(final long access) {
-
-        // See the following for more information:
-        // https://github.com/Holt59/OSM2Graph/blob/master/src/main/org/laas/osm2graph/model/AccessData.java
-
-        // The order of values inside this array is VERY IMPORTANT: For allRestrictions,
-        // the order correspond to the 4 bits value (i.e. FORBIDDEN is 0 or PRIVATE is
-        // 2) - UKNOWN is not included because value above 6 (FORESTRY) are all
-        // considered unknown.
-        final AccessRestriction[] allRestrictions = new AccessRestriction[] {
-                AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
-                AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
-                AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
-
-        // The order of values inside this array is VERY IMPORTANT: The order is such
-        // that each 4-bits group of the long value is processed in the correct order,
-        // i.e. FOOT is processed first (4 lowest bits), and so on.
-        final AccessMode[] allModes = new AccessMode[] { AccessMode.FOOT, null, AccessMode.BICYCLE,
-                AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL, AccessMode.MOTORCYCLE,
-                AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null, AccessMode.PUBLIC_TRANSPORT };
-
-        // fill maps...
-        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
-        long copyAccess = access;
-        for (AccessMode mode: allModes) {
-            if (mode == null) {
-                continue; // filling cells
-            }
-            int value = (int) (copyAccess & 0xf);
-            if (value < allRestrictions.length) {
-                restrictions.put(mode, allRestrictions[value]);
-            }
-            else {
-                restrictions.put(mode, AccessRestriction.UNKNOWN);
-            }
-            copyAccess = copyAccess >> 4;
+        // Groups are consecutive in files, filling cells are not stored.
+        int restrictions = 0;
+        for (int group = 0; group < MODE_SHIFTS.length; ++group) {
+            int value = (int) (access >>> (4 * group)) & 0xf;
+            restrictions |= RESTRICTION_ORDINALS[value] << MODE_SHIFTS[group];
         }
-
         return new AccessRestrictions(restrictions);
     }
 
@@ -149,22 +159,27 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
     @Override
     public Graph read() throws IOException {
+        Graph graph = read(this.dis);
+        this.dis.close();
+        return graph;
+    }
 
-        // Read and check magic number and file version.
-        checkMagicNumberOrThrow(dis.readInt());
-        checkVersionOrThrow(dis.readInt());
-
-        // Read map id.
-        String mapId;
-        String mapName = "";
+    /**
+     * Read a graph, reading the nodes and the arcs from the given input, and the
+     * header, the descriptors and the markers between sections from the stream of
+     * this reader.
+     * 
+     * @param input Input to read the nodes and the arcs from (the stream of this
+     *        reader, or any input reading the same file at the same position).
+     * 
+     * @return The graph read.
+     * 
+     * @throws IOException When an exception occurs while reading the graph.
+     */
+    protected Graph read(DataInput input) throws IOException {
 
-        if (getCurrentVersion() < 6) {
-            mapId = "0x" + Integer.toHexString(dis.readInt());
-        }
-        else {
-            mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
-            mapName = dis.readUTF();
-        }
+        // Read and check magic number and file version, then map id and name.
+        readMapHeader();
 
         observers.forEach((observer) -> observer.notifyStartReading(mapId));
 
@@ -172,152 +187,455 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         int nbDesc = dis.readInt();
         int nbNodes = dis.readInt();
 
-        // Number of successors for each nodes.
-        int[] nbSuccessors = new int[nbNodes];
-        int nbTotalSuccessors = 0;
-
-        // Construct an array list with initial capacity of nbNodes.
-        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
-
         // Read nodes.
-        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
-                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        int[] nbSuccessors = new int[nbNodes];
         observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        readNodes(input, 0, nbNodes, longitudes, latitudes, nbSuccessors);
+        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
         for (int node = 0; node < nbNodes; ++node) {
-            // Read longitude / latitude.
-            float longitude = ((float) dis.readInt()) / 1E6f;
-            float latitude = ((float) dis.readInt()) / 1E6f;
-
-            // Update minimum / maximum.
-            minLongitude = Math.min(longitude, minLongitude);
-            minLatitude = Math.min(latitude, minLatitude);
-            maxLongitude = Math.max(longitude, maxLongitude);
-            maxLatitude = Math.max(latitude, maxLatitude);
-
-            // Update information.
-            nbSuccessors[node] = dis.readUnsignedByte();
-            nbTotalSuccessors += nbSuccessors[node];
-
-            // Create node.
-            final Node aNode = new Node(node, new Point(longitude, latitude));
+            final Node aNode = new Node(node, new Point(longitudes[node], latitudes[node]));
             nodes.add(aNode);
             observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
         }
+        final int nbTotalSuccessors = getTotal(nbSuccessors);
 
         // Check format.
         checkByteOrThrow(255);
 
         // Read descriptors.
-        RoadInformation[] descs = new RoadInformation[nbDesc];
-
-        // Read
-        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
-        int maxSpeed = 0;
-        for (int descr = 0; descr < nbDesc; ++descr) {
-            final RoadInformation roadinf = readRoadInformation();
-            descs[descr] = roadinf;
-            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
-
-            // Update max speed
-            maxSpeed = Math.max(roadinf.getMaximumSpeed(), maxSpeed);
-        }
+        RoadInformation[] descs = readDescriptors(nbDesc);
 
         // Check format.
         checkByteOrThrow(254);
 
-        // Read successors and convert to arcs.
+        // Read successors and convert to arcs, the intermediate points of all the arcs
+        // are stored in a single buffer.
+        PointBuffer points = new PointBuffer(nbTotalSuccessors);
+        ArcRecord record = new ArcRecord();
         float maxLength = 0;
-        final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
-        observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(nbTotalSuccessors));
         for (int node = 0; node < nbNodes; ++node) {
             for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
+                readArc(input, record);
+                maxLength = Math.max(record.length, maxLength);
 
-                // Read target node number.
-                int destNode = this.read24bits();
+                // Chain of intermediate points corresponding to the segments.
+                int offset = points.addPoints(record.nbSegments);
+                readArcPoints(input, longitudes[node], latitudes[node], record.nbSegments,
+                        points, offset);
 
-                // Read information number.
-                int descrNum = this.read24bits();
-
-                // Length of the arc.
-                float length;
-                if (getCurrentVersion() < 8) {
-                    length = dis.readUnsignedShort();
-                }
-                else {
-                    length = dis.readInt() / 1000.0f;
+                // Add successor to initial arc.
+                RoadInformation info = descs[record.descriptor];
+                Arc arc = Node.linkNodes(nodes.get(node), nodes.get(record.destination),
+                        getArcLength(record, node, longitudes, latitudes), info, points,
+                        offset, record.nbSegments);
+                if (info.isOneWay()) {
+                    nbOneWayRoad++;
                 }
-                maxLength = Math.max(length, maxLength);
+                observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+            }
+        }
+
+        // Check format.
+        checkByteOrThrow(253);
+        points.trimToSize();
 
-                length = Math.max(length, (float) Point.distance(nodes.get(node).getPoint(),
-                        nodes.get(destNode).getPoint()));
+        observers.forEach((observer) -> observer.notifyEndReading());
 
-                // Number of segments.
-                int nbSegments = dis.readUnsignedShort();
+        return new Graph(mapId, mapName, nodes,
+                new GraphStatistics(getBoundingBox(longitudes, latitudes), nbOneWayRoad,
+                        nbTotalSuccessors - nbOneWayRoad, getMaximumSpeed(descs), maxLength));
+    }
 
-                // Chain of points corresponding to the segments.
-                ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
+    /**
+     * <p>
+     * Read a graph and returns its compact representation, without creating any
+     * {@link Node} or {@link Arc}.
+     * </p>
+     * 
+     * <p>
+     * Arc points are skipped, and observers are only notified about the start and
+     * the end of each section (nodes, descriptors and arcs) and about descriptors.
+     * </p>
+     * 
+     * @return The compact graph read.
+     * 
+     * @throws IOException When an exception occurs while reading the graph.
+     * 
+     * @see CompactGraph#getGraph()
+     */
+    public CompactGraph readCompactGraph() throws IOException {
+        CompactGraph graph = readCompactGraph(this.dis);
+        this.dis.close();
+        return graph;
+    }
 
-                for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
+    /**
+     * Read a graph and returns its compact representation, reading the nodes and
+     * the arcs from the given input as {@link #read(DataInput)} does.
+     * 
+     * @param input Input to read the nodes and the arcs from.
+     * 
+     * @return The compact graph read.
+     * 
+     * @throws IOException When an exception occurs while reading the graph.
+     */
+    protected CompactGraph readCompactGraph(DataInput input) throws IOException {
 
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
+        // Read and check magic number and file version, then map id and name.
+        readMapHeader();
 
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
-                }
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
 
-                points.add(nodes.get(destNode).getPoint());
+        // Number of descriptors and nodes.
+        int nbDesc = dis.readInt();
+        int nbNodes = dis.readInt();
 
-                RoadInformation info = descs[descrNum];
-                Node orig = nodes.get(node);
-                Node dest = nodes.get(destNode);
+        // Read nodes.
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        int[] nbSuccessors = new int[nbNodes];
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        readNodes(input, 0, nbNodes, longitudes, latitudes, nbSuccessors);
+        final int nbTotalSuccessors = getTotal(nbSuccessors);
 
-                // Add successor to initial arc.
-                Arc arc = Node.linkNodes(orig, dest, length, info, points);
-                if (info.isOneWay()) {
+        // Check format.
+        checkByteOrThrow(255);
+
+        // Read descriptors.
+        RoadInformation[] descs = readDescriptors(nbDesc);
+
+        // Check format.
+        checkByteOrThrow(254);
+
+        // Read successors: records are kept in file order to create arcs in the same
+        // order as Node.linkNodes would.
+        int[] recordDestinations = new int[nbTotalSuccessors];
+        int[] recordDescriptors = new int[nbTotalSuccessors];
+        float[] recordLengths = new float[nbTotalSuccessors];
+        int[] nbArcs = new int[nbNodes + 1];
+
+        ArcRecord arcRecord = new ArcRecord();
+        float maxLength = 0;
+        int nbOneWayRoad = 0;
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(nbTotalSuccessors));
+        for (int node = 0, record = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++record) {
+                readArc(input, arcRecord);
+                maxLength = Math.max(arcRecord.length, maxLength);
+                skipArcPoints(input, arcRecord.nbSegments);
+
+                int destNode = arcRecord.destination;
+                recordDestinations[record] = destNode;
+                recordDescriptors[record] = arcRecord.descriptor;
+                recordLengths[record] = getArcLength(arcRecord, node, longitudes, latitudes);
+
+                nbArcs[node + 1] += 1;
+                if (descs[arcRecord.descriptor].isOneWay()) {
                     nbOneWayRoad++;
                 }
-                observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+                else {
+                    nbArcs[destNode + 1] += 1;
+                }
             }
         }
 
         // Check format.
         checkByteOrThrow(253);
 
+        // Build the arrays of arcs.
+        int[] offsets = nbArcs;
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] += offsets[node];
+        }
+        int[] cursors = Arrays.copyOf(offsets, nbNodes);
+        final int nbTotalArcs = offsets[nbNodes];
+        int[] targets = new int[nbTotalArcs];
+        float[] lengths = new float[nbTotalArcs];
+        int[] roadInformationIndices = new int[nbTotalArcs];
+        int[] reverseArcs = new int[nbTotalArcs];
+        for (int node = 0, record = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++record) {
+                int destNode = recordDestinations[record];
+                int arc = cursors[node]++;
+                targets[arc] = destNode;
+                lengths[arc] = recordLengths[record];
+                roadInformationIndices[arc] = recordDescriptors[record];
+                reverseArcs[arc] = -1;
+                if (!descs[recordDescriptors[record]].isOneWay()) {
+                    int reverse = cursors[destNode]++;
+                    targets[reverse] = node;
+                    lengths[reverse] = recordLengths[record];
+                    roadInformationIndices[reverse] = recordDescriptors[record];
+                    reverseArcs[reverse] = arc;
+                    reverseArcs[arc] = reverse;
+                }
+            }
+        }
+
         observers.forEach((observer) -> observer.notifyEndReading());
 
-        this.dis.close();
+        return new CompactGraph(mapId, mapName, offsets, targets, lengths,
+                roadInformationIndices, descs, reverseArcs, longitudes, latitudes,
+                new GraphStatistics(getBoundingBox(longitudes, latitudes), nbOneWayRoad,
+                        nbTotalSuccessors - nbOneWayRoad, getMaximumSpeed(descs), maxLength));
+    }
 
-        return new Graph(mapId, mapName, nodes,
-                new GraphStatistics(
-                        new BoundingBox(new Point(minLongitude, maxLatitude),
-                                new Point(maxLongitude, minLatitude)),
-                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength));
+    /**
+     * Read the given range of nodes from the given input, which must be positioned
+     * on the first node of the range.
+     * 
+     * @param input Input to read from.
+     * @param first ID of the first node to read.
+     * @param last ID of the last node to read (exclusive).
+     * @param longitudes Array where the longitude of each node is stored.
+     * @param latitudes Array where the latitude of each node is stored.
+     * @param nbSuccessors Array where the number of successors of each node is
+     *        stored.
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     */
+    protected static void readNodes(DataInput input, int first, int last, float[] longitudes,
+            float[] latitudes, int[] nbSuccessors) throws IOException {
+        for (int node = first; node < last; ++node) {
+            longitudes[node] = ((float) input.readInt()) / 1E6f;
+            latitudes[node] = ((float) input.readInt()) / 1E6f;
+            nbSuccessors[node] = input.readUnsignedByte();
+        }
+    }
+
+    /**
+     * Read the given number of descriptors from the stream of this reader,
+     * notifying the observers about each of them.
+     * 
+     * @param nbDesc Number of descriptors to read.
+     * 
+     * @return The descriptors read.
+     * 
+     * @throws IOException if an error occurs while reading from the stream.
+     */
+    protected RoadInformation[] readDescriptors(int nbDesc) throws IOException {
+        RoadInformation[] descs = new RoadInformation[nbDesc];
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            final RoadInformation roadinf = readRoadInformation(dis);
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+        }
+        return descs;
+    }
+
+    /**
+     * Attributes of an arc read by {@link #readArc(DataInput, ArcRecord)}, reused
+     * for all the arcs read.
+     */
+    protected static class ArcRecord {
+
+        // Destination node and index of the descriptor.
+        int destination, descriptor;
+
+        // Length of the arc, as stored in the file.
+        float length;
+
+        // Number of segments (i.e. of intermediate points) of the arc.
+        int nbSegments;
+
+    }
+
+    /**
+     * Read the next arc from the given input, except for its intermediate points
+     * (see {@link #readArcPoints(DataInput, float, float, int, PointBuffer, int)}
+     * and {@link #skipArcPoints(DataInput, int)}).
+     * 
+     * @param input Input to read from.
+     * @param record Record where the attributes of the arc are stored.
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     */
+    protected void readArc(DataInput input, ArcRecord record) throws IOException {
+        record.destination = read24bits(input);
+        record.descriptor = read24bits(input);
+        if (getCurrentVersion() < 8) {
+            record.length = input.readUnsignedShort();
+        }
+        else {
+            record.length = input.readInt() / 1000.0f;
+        }
+        record.nbSegments = input.readUnsignedShort();
+    }
+
+    /**
+     * Read the intermediate points of an arc from the given input, which must be
+     * positioned after the arc (see {@link #readArc(DataInput, ArcRecord)}).
+     * 
+     * @param input Input to read from.
+     * @param longitude Longitude of the origin of the arc.
+     * @param latitude Latitude of the origin of the arc.
+     * @param nbSegments Number of segments of the arc.
+     * @param points Buffer where the points are stored.
+     * @param offset Index of the first point of the arc in the buffer (the buffer
+     *        must already contain all the points of the arc).
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     */
+    protected static void readArcPoints(DataInput input, float longitude, float latitude,
+            int nbSegments, PointBuffer points, int offset) throws IOException {
+        for (int seg = 0; seg < nbSegments; ++seg) {
+            longitude += input.readShort() / 2.0e5f;
+            latitude += input.readShort() / 2.0e5f;
+            points.set(offset + seg, longitude, latitude);
+        }
+    }
+
+    /**
+     * Skip the intermediate points of an arc.
+     * 
+     * @param input Input to read from.
+     * @param nbSegments Number of segments of the arc.
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     */
+    protected static void skipArcPoints(DataInput input, int nbSegments) throws IOException {
+        if (input.skipBytes(4 * nbSegments) != 4 * nbSegments) {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * @return Length of the given arc from the given origin: its length in the
+     *         file, or the distance between its ends if it is longer.
+     */
+    protected static float getArcLength(ArcRecord record, int origin, float[] longitudes,
+            float[] latitudes) {
+        return Math.max(record.length, (float) Point.distance(longitudes[origin],
+                latitudes[origin], longitudes[record.destination],
+                latitudes[record.destination]));
+    }
+
+    /**
+     * @return Sum of the given values.
+     */
+    protected static int getTotal(int[] values) {
+        int total = 0;
+        for (int value: values) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * @return Bounding box of the given nodes.
+     */
+    protected static BoundingBox getBoundingBox(float[] longitudes, float[] latitudes) {
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < longitudes.length; ++node) {
+            minLongitude = Math.min(longitudes[node], minLongitude);
+            minLatitude = Math.min(latitudes[node], minLatitude);
+            maxLongitude = Math.max(longitudes[node], maxLongitude);
+            maxLatitude = Math.max(latitudes[node], maxLatitude);
+        }
+        return new BoundingBox(new Point(minLongitude, maxLatitude),
+                new Point(maxLongitude, minLatitude));
     }
 
     /**
-     * Read the next road information from the stream.
+     * @return Maximum speed of the given descriptors.
+     */
+    protected static int getMaximumSpeed(RoadInformation[] descs) {
+        int maxSpeed = 0;
+        for (RoadInformation desc: descs) {
+            maxSpeed = Math.max(desc.getMaximumSpeed(), maxSpeed);
+        }
+        return maxSpeed;
+    }
+
+    /**
+     * Read 24 bits in BigEndian order from the given input.
      * 
-     * @return The next RoadInformation in the stream.
+     * @param input Input to read from.
+     * 
+     * @return Integer value read from the next 24 bits of the input.
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     */
+    protected static int read24bits(DataInput input) throws IOException {
+        int x = input.readUnsignedShort();
+        return (x << 8) | input.readUnsignedByte();
+    }
+
+    /**
+     * Read and check the magic number and the version of the file, then read the
+     * id and the name of the map.
      * 
      * @throws IOException if an error occurs while reading from the stream.
      */
-    private RoadInformation readRoadInformation() throws IOException {
-        char type = (char) dis.readUnsignedByte();
-        int x = dis.readUnsignedByte();
+    protected void readMapHeader() throws IOException {
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        if (getCurrentVersion() < 6) {
+            mapId = "0x" + Integer.toHexString(dis.readInt());
+            mapName = "";
+        }
+        else {
+            mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+            mapName = dis.readUTF();
+        }
+    }
+
+    /**
+     * Read the next road information from the given input.
+     * 
+     * @param input Input to read from (the stream of this reader or any input
+     *        positioned on a road information of the same file).
+     * 
+     * @return The next RoadInformation in the input.
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     */
+    protected RoadInformation readRoadInformation(DataInput input) throws IOException {
+        char type = (char) input.readUnsignedByte();
+        int x = input.readUnsignedByte();
         AccessRestrictions access = new AccessRestrictions();
         if (getCurrentVersion() >= 7) {
-            access = toAccessInformation(dis.readLong());
+            access = toAccessInformation(input.readLong());
         }
         else if (getCurrentVersion() >= 6) {
             // TODO: Try to create something...
-            dis.readUnsignedShort();
+            input.readUnsignedShort();
         }
         return new RoadInformation(toRoadType(type), access, (x & 0x80) > 0, (x & 0x7F) * 5,
-                dis.readUTF());
+                input.readUTF());
+    }
+
+
+    /**
+     * Skip the next road information in the given input.
+     * 
+     * @param input Input to read from.
+     * 
+     * @throws IOException if an error occurs while reading from the input.
+     * 
+     * @see #readRoadInformation(DataInput)
+     */
+    protected void skipRoadInformation(DataInput input) throws IOException {
+        // Type and speed, access restrictions, then name.
+        int length = 2;
+        if (getCurrentVersion() >= 7) {
+            length += 8;
+        }
+        else if (getCurrentVersion() >= 6) {
+            length += 2;
+        }
+        if (input.skipBytes(length) != length) {
+            throw new EOFException();
+        }
+        int nameLength = input.readUnsignedShort();
+        if (input.skipBytes(nameLength) != nameLength) {
+            throw new EOFException();
+        }
     }
 
 }
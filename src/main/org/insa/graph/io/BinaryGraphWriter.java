@@ -0,0 +1,334 @@
+package org.insa.graph.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graph.AccessRestrictions;
+import org.insa.graph.AccessRestrictions.AccessMode;
+import org.insa.graph.AccessRestrictions.AccessRestriction;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphWriter} to write graphs in binary format
+ * (version 8), readable by {@link BinaryGraphReader}.
+ * </p>
+ *
+ * <p>
+ * Two-ways roads are written once (the reader creates both arcs), and the
+ * statistics of the graph are not written since the reader computes them. The
+ * format limits the number of nodes and of road information to 2<sup>24</sup>,
+ * and the number of roads written from each node to 255. Two-ways roads are
+ * written from the node of their first arc, unless their intermediate points
+ * can only be encoded from the other node.
+ * </p>
+ *
+ */
+public class BinaryGraphWriter extends BinaryWriter implements GraphWriter {
+
+    // Version of the files written by this writer.
+    protected static final int VERSION = 8;
+
+    // Maximum number of nodes and of road information (24-bits indices).
+    private static final int MAX_INDEX = 1 << 24;
+
+    // Maximum number of roads written from a node.
+    private static final int MAX_RECORDS = 255;
+
+    /**
+     * Convert a road type to its corresponding character.
+     *
+     * @param type Road type to convert.
+     *
+     * @return Character corresponding to the given road type (see
+     *         {@link BinaryGraphReader#toRoadType(char)}).
+     */
+    protected static char toRoadTypeCharacter(RoadType type) {
+        switch (type) {
+        case MOTORWAY:
+            return 'a';
+        case TRUNK:
+            return 'b';
+        case PRIMARY:
+            return 'c';
+        case SECONDARY:
+            return 'd';
+        case MOTORWAY_LINK:
+            return 'e';
+        case TRUNK_LINK:
+            return 'f';
+        case PRIMARY_LINK:
+            return 'g';
+        case SECONDARY_LINK:
+            return 'h';
+        case TERTIARY:
+            return 'i';
+        case RESIDENTIAL:
+            return 'j';
+        case LIVING_STREET:
+            return 'm';
+        case SERVICE:
+            return 'n';
+        case ROUNDABOUT:
+            return 'o';
+        case PEDESTRIAN:
+            return 'p';
+        case CYCLEWAY:
+            return 'r';
+        case TRACK:
+            return 's';
+        case COASTLINE:
+            return 'z';
+        default:
+            return 'k';
+        }
+    }
+
+    /**
+     * Convert access restrictions to their long value (see
+     * {@link BinaryGraphReader#toAccessInformation(long)}).
+     *
+     * @param access Access restrictions to convert (null if unknown).
+     *
+     * @return Long value corresponding to the given access restrictions.
+     */
+    protected static long toAccessValue(AccessRestrictions access) {
+        final List<AccessRestriction> allRestrictions = Arrays
+                .asList(BinaryGraphReader.ACCESS_RESTRICTIONS);
+        long value = 0;
+        int shift = 0;
+        for (AccessMode mode: BinaryGraphReader.ACCESS_MODES) {
+            if (mode == null) {
+                continue; // filling cells (skipped by the reader, without any bits)
+            }
+            int code = access == null ? -1
+                    : allRestrictions.indexOf(access.getRestrictionFor(mode));
+            value |= (long) (code == -1 ? 0xf : code) << shift;
+            shift += 4;
+        }
+        return value;
+    }
+
+    /**
+     * @param coordinate Longitude or latitude (in degrees).
+     *
+     * @return Value written for the given coordinate (in millionths of degrees),
+     *         chosen, if possible, so that the reader gets back exactly the same
+     *         float.
+     */
+    private static int toMicroDegrees(float coordinate) {
+        int value = (int) Math.round(coordinate * 1e6);
+        for (int delta = 0; delta < 16; ++delta) {
+            if (((float) (value + delta)) / 1E6f == coordinate) {
+                return value + delta;
+            }
+            if (((float) (value - delta)) / 1E6f == coordinate) {
+                return value - delta;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Create a new BinaryGraphWriter that writes to the given output stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public BinaryGraphWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The intermediate points of the arcs are written.
+     * </p>
+     *
+     * @throws IllegalArgumentException if the graph cannot be represented in the
+     *         binary format.
+     */
+    @Override
+    public void writeGraph(Graph graph) throws IOException {
+        write(graph.getCompactGraph(), true);
+    }
+
+    /**
+     * Write the given compact graph, without any intermediate point and without
+     * creating any {@link org.insa.graph.Node} or {@link org.insa.graph.Arc}.
+     *
+     * @param graph Graph to write.
+     *
+     * @throws IOException When an error occurs while writing the graph.
+     * @throws IllegalArgumentException if the graph cannot be represented in the
+     *         binary format.
+     *
+     * @see BinaryGraphReader#readCompactGraph()
+     */
+    public void writeCompactGraph(CompactGraph graph) throws IOException {
+        write(graph, false);
+    }
+
+    /**
+     * Encode the intermediate points of an arc (all its points but the first and
+     * the last ones), each relative to the previous one, in the same way as the
+     * reader decodes them.
+     *
+     * @param graph Graph of the arc (created from an object graph).
+     * @param node Origin of the arc.
+     * @param arc Index of the arc.
+     *
+     * @return Differences of longitude and latitude of the intermediate points
+     *         (in units of 5e-6 degrees), or null if a difference is too large for
+     *         the binary format.
+     */
+    private static short[] encodePoints(CompactGraph graph, int node, int arc) {
+        List<Point> points = graph.getArc(arc).getPoints();
+        short[] deltas = new short[2 * Math.max(points.size() - 2, 0)];
+        float lastLongitude = ((float) toMicroDegrees(graph.getLongitude(node))) / 1E6f;
+        float lastLatitude = ((float) toMicroDegrees(graph.getLatitude(node))) / 1E6f;
+        for (int seg = 0; seg < deltas.length / 2; ++seg) {
+            Point point = points.get(seg + 1);
+            int dlon = Math.round((point.getLongitude() - lastLongitude) * 2.0e5f);
+            int dlat = Math.round((point.getLatitude() - lastLatitude) * 2.0e5f);
+            if (dlon != (short) dlon || dlat != (short) dlat) {
+                return null;
+            }
+            deltas[2 * seg] = (short) dlon;
+            deltas[2 * seg + 1] = (short) dlat;
+
+            // Same computation as the reader, to avoid accumulating errors.
+            lastLongitude += dlon / 2.0e5f;
+            lastLatitude += dlat / 2.0e5f;
+        }
+        return deltas;
+    }
+
+    /**
+     * @param graph Graph of the arc.
+     * @param node Origin of the arc.
+     * @param arc Index of the arc.
+     * @param withPoints true if the intermediate points of the arcs are written.
+     *
+     * @return true if the given arc is written, i.e. if it is a one-way road or
+     *         the chosen arc of a two-ways road: the first one, unless only the
+     *         points of the second one can be encoded.
+     */
+    private static boolean isWritten(CompactGraph graph, int node, int arc,
+            boolean withPoints) {
+        int reverse = graph.getReverseArc(arc);
+        if (reverse < 0) {
+            return true;
+        }
+        if (withPoints) {
+            boolean encodable = encodePoints(graph, node, arc) != null;
+            if (encodable != (encodePoints(graph, graph.getTarget(arc), reverse) != null)) {
+                return encodable;
+            }
+        }
+        return arc < reverse;
+    }
+
+    /**
+     * Write the given graph.
+     *
+     * @param graph Graph to write.
+     * @param withPoints true to write the intermediate points of the arcs (from
+     *        the object graph of the compact graph).
+     */
+    private void write(CompactGraph graph, boolean withPoints) throws IOException {
+        final int nbNodes = graph.size();
+        final List<RoadInformation> infos = graph.getRoadInformations();
+        if (nbNodes > MAX_INDEX) {
+            throw new IllegalArgumentException("invalid number of nodes: " + nbNodes);
+        }
+        if (infos.size() > MAX_INDEX) {
+            throw new IllegalArgumentException(
+                    "invalid number of road information: " + infos.size());
+        }
+
+        // Write magic number and version.
+        dos.writeInt(BinaryGraphReader.MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+
+        // Write map id and name.
+        String mapId = graph.getMapId() == null ? "" : graph.getMapId();
+        dos.write(Arrays.copyOf(mapId.getBytes("UTF-8"), BinaryGraphReader.MAP_ID_FIELD_LENGTH));
+        dos.writeUTF(graph.getMapName() == null ? "" : graph.getMapName());
+
+        // Number of descriptors and nodes.
+        dos.writeInt(infos.size());
+        dos.writeInt(nbNodes);
+
+        // Write nodes with their number of roads.
+        for (int node = 0; node < nbNodes; ++node) {
+            int nbRecords = 0;
+            for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+                if (isWritten(graph, node, arc, withPoints)) {
+                    ++nbRecords;
+                }
+            }
+            if (nbRecords > MAX_RECORDS) {
+                throw new IllegalArgumentException(
+                        "invalid number of roads for node " + node + ": " + nbRecords);
+            }
+            dos.writeInt(toMicroDegrees(graph.getLongitude(node)));
+            dos.writeInt(toMicroDegrees(graph.getLatitude(node)));
+            dos.writeByte(nbRecords);
+        }
+
+        dos.writeByte(255);
+
+        // Write descriptors.
+        for (RoadInformation info: infos) {
+            int speed = Math.max(0, Math.min(0x7F, Math.round(info.getMaximumSpeed() / 5.0f)));
+            dos.writeByte(toRoadTypeCharacter(info.getType()));
+            dos.writeByte((info.isOneWay() ? 0x80 : 0) | speed);
+            dos.writeLong(toAccessValue(info.getAccessRestrictions()));
+            dos.writeUTF(info.getName() == null ? "" : info.getName());
+        }
+
+        dos.writeByte(254);
+
+        // Write roads.
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+                if (!isWritten(graph, node, arc, withPoints)) {
+                    continue;
+                }
+                short[] deltas = withPoints ? encodePoints(graph, node, arc) : new short[0];
+                if (deltas == null) {
+                    throw new IllegalArgumentException("invalid segment (too long) in arc "
+                            + arc + ": " + graph.getArc(arc).getPoints());
+                }
+
+                // The reader keeps the largest of the length and of the distance
+                // between the nodes, so the length is rounded down.
+                int length = (int) Math.round(graph.getLength(arc) * 1000.0);
+                if (length / 1000.0f > graph.getLength(arc)) {
+                    --length;
+                }
+
+                write24bits(graph.getTarget(arc));
+                write24bits(graph.getRoadInformationIndex(arc));
+                dos.writeInt(length);
+                dos.writeShort(deltas.length / 2);
+                for (short delta: deltas) {
+                    dos.writeShort(delta);
+                }
+            }
+        }
+
+        dos.writeByte(253);
+
+        dos.flush();
+        dos.close();
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.insa.graph.io;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Implementation of {@link DataInput} reading directly from a byte buffer,
+ * starting at the current position of the buffer and moving it forward, so
+ * that the code decoding a file through a {@link DataInput} can read a file
+ * mapped in memory without going through a stream.
+ * </p>
+ *
+ * <p>
+ * The buffer must be in big-endian order (the default). Reading past the limit
+ * of the buffer throws a {@link java.nio.BufferUnderflowException} instead of an
+ * {@link java.io.EOFException}.
+ * </p>
+ *
+ */
+class ByteBufferDataInput implements DataInput {
+
+    // Buffer to read from.
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a new input reading from the given buffer.
+     *
+     * @param buffer Buffer to read from.
+     */
+    public ByteBufferDataInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) {
+        this.buffer.get(bytes);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) {
+        this.buffer.get(bytes, offset, length);
+    }
+
+    @Override
+    public int skipBytes(int n) {
+        n = Math.max(0, Math.min(n, this.buffer.remaining()));
+        this.buffer.position(this.buffer.position() + n);
+        return n;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return this.buffer.get() != 0;
+    }
+
+    @Override
+    public byte readByte() {
+        return this.buffer.get();
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return Byte.toUnsignedInt(this.buffer.get());
+    }
+
+    @Override
+    public short readShort() {
+        return this.buffer.getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return Short.toUnsignedInt(this.buffer.getShort());
+    }
+
+    @Override
+    public char readChar() {
+        return this.buffer.getChar();
+    }
+
+    @Override
+    public int readInt() {
+        return this.buffer.getInt();
+    }
+
+    @Override
+    public long readLong() {
+        return this.buffer.getLong();
+    }
+
+    @Override
+    public float readFloat() {
+        return this.buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() {
+        return this.buffer.getDouble();
+    }
+
+    /**
+     * Not supported: the binary formats of this package do not contain lines.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public String readLine() {
+        throw new UnsupportedOperationException("readLine");
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.insa.graph.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading from a byte buffer, starting at the current position of
+ * the buffer and moving it forward, so that the buffer and the stream can be
+ * used alternately.
+ *
+ */
+class ByteBufferInputStream extends InputStream {
+
+    // Buffer to read from.
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a new input stream reading from the given buffer.
+     *
+     * @param buffer Buffer to read from.
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return this.buffer.hasRemaining() ? Byte.toUnsignedInt(this.buffer.get()) : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!this.buffer.hasRemaining()) {
+            return -1;
+        }
+        length = Math.min(length, this.buffer.remaining());
+        this.buffer.get(bytes, offset, length);
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return this.buffer.remaining();
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.insa.graph.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Factory class used to create graph readers for binary graph files.
+ *
+ */
+public class GraphReaderFactory {
+
+    /**
+     * Name of the system property that can be used to select the default type of
+     * reader (e.g. {@code -Dorg.insa.graph.reader=MAPPED}).
+     */
+    public static final String READER_TYPE_PROPERTY = "org.insa.graph.reader";
+
+    /**
+     * Available types of graph readers.
+     *
+     */
+    public enum ReaderType {
+
+        /**
+         * {@link BinaryGraphReader}, reading through a buffered input stream.
+         */
+        STREAM("Stream"),
+
+        /**
+         * {@link MappedBinaryGraphReader}, reading from a file mapped in memory.
+         */
+        MAPPED("Memory-mapped"),
+
+        /**
+         * {@link ParallelBinaryGraphReader}, reading from a file mapped in memory
+         * using multiple threads.
+         */
+        PARALLEL("Memory-mapped (parallel)");
+
+        // Name of this type of reader.
+        private final String name;
+
+        private ReaderType(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return A human-readable name for this type of reader.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+    }
+
+    /**
+     * Retrieve the default type of reader, as specified by the
+     * {@link #READER_TYPE_PROPERTY} system property, or {@link ReaderType#STREAM}
+     * if the property is not set or invalid.
+     *
+     * @return The default type of reader.
+     */
+    public static ReaderType getDefaultReaderType() {
+        String value = System.getProperty(READER_TYPE_PROPERTY);
+        if (value != null) {
+            for (ReaderType type: ReaderType.values()) {
+                if (type.name().equalsIgnoreCase(value.trim())) {
+                    return type;
+                }
+            }
+        }
+        return ReaderType.STREAM;
+    }
+
+    /**
+     * Create a reader of the default type for the given file.
+     *
+     * @param file File to read.
+     *
+     * @return A new graph reader for the given file.
+     *
+     * @throws IOException if the file cannot be opened.
+     *
+     * @see #getDefaultReaderType()
+     */
+    public static GraphReader createGraphReader(File file) throws IOException {
+        return createGraphReader(file, getDefaultReaderType());
+    }
+
+    /**
+     * Create a reader of the given type for the given file.
+     *
+     * @param file File to read.
+     * @param type Type of reader to create.
+     *
+     * @return A new graph reader for the given file.
+     *
+     * @throws IOException if the file cannot be opened.
+     */
+    public static GraphReader createGraphReader(File file, ReaderType type) throws IOException {
+        switch (type) {
+        case MAPPED:
+            if (!file.canRead()) {
+                throw new IOException("cannot read file: " + file);
+            }
+            return new MappedBinaryGraphReader(file);
+        case PARALLEL:
+            if (!file.canRead()) {
+                throw new IOException("cannot read file: " + file);
+            }
+            return new ParallelBinaryGraphReader(file);
+        case STREAM:
+        default:
+            return new BinaryGraphReader(
+                    new DataInputStream(new BufferedInputStream(new FileInputStream(file))));
+        }
+    }
+
+}
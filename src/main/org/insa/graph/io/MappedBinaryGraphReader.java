@@ -0,0 +1,104 @@
+package org.insa.graph.io;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} to read graph in binary format from a
+ * file mapped in memory.
+ * </p>
+ *
+ * <p>
+ * This reader reads the same files as {@link BinaryGraphReader} (versions 5 to
+ * 8), but the file is mapped in memory (see
+ * {@link FileChannel#map(MapMode, long, long)}) and nodes and arcs are decoded
+ * by the code of {@link BinaryGraphReader} directly from the mapped buffer (see
+ * {@link BinaryGraphReader#read(java.io.DataInput)}) instead of going through a
+ * {@link DataInputStream}. The header and the descriptors, which are a small
+ * part of the file, are parsed from a stream over the same buffer.
+ * </p>
+ *
+ */
+public class MappedBinaryGraphReader extends BinaryGraphReader {
+
+    // File to read.
+    private final File file;
+
+    /**
+     * Create a new MappedBinaryGraphReader that reads from the given file.
+     *
+     * @param file File to read from.
+     */
+    public MappedBinaryGraphReader(File file) {
+        super(null);
+        this.file = file;
+    }
+
+    /**
+     * Map the file of this reader in memory.
+     *
+     * @return A buffer mapping the whole file.
+     *
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    protected ByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.file.toPath(),
+                StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file too large to be mapped: " + this.file);
+            }
+            return channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Override
+    public Graph read() throws IOException {
+        try {
+            // The header, the descriptors and the markers between sections are read
+            // through the stream of BinaryGraphReader, which moves the buffer forward.
+            ByteBuffer buffer = map();
+            this.dis = new DataInputStream(new ByteBufferInputStream(buffer));
+            return read(buffer);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new BadFormatException();
+        }
+    }
+
+    @Override
+    public CompactGraph readCompactGraph() throws IOException {
+        try {
+            ByteBuffer buffer = map();
+            this.dis = new DataInputStream(new ByteBufferInputStream(buffer));
+            return readCompactGraph(new ByteBufferDataInput(buffer));
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new BadFormatException();
+        }
+    }
+
+    /**
+     * Read a graph from the given buffer, which must also be the source of the
+     * stream of this reader.
+     *
+     * @param buffer Buffer to read from.
+     *
+     * @return The graph read.
+     *
+     * @throws IOException When the content of the buffer is not a valid graph.
+     */
+    protected Graph read(ByteBuffer buffer) throws IOException {
+        return read(new ByteBufferDataInput(buffer));
+    }
+
+}
@@ -0,0 +1,351 @@
+package org.insa.graph.io;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.GraphStatistics;
+import org.insa.graph.Node;
+import org.insa.graph.Point;
+import org.insa.graph.PointBuffer;
+import org.insa.graph.RoadInformation;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} to read graph in binary format from a
+ * file mapped in memory, using multiple threads.
+ * </p>
+ *
+ * <p>
+ * Nodes have a fixed-size representation in the file, and each node gives its
+ * number of successors, so the file is first scanned to find the position of
+ * each descriptor and of the first arc of each node. Nodes, descriptors and arcs
+ * (including their points) are then decoded by chunks in parallel, with the
+ * same code as {@link BinaryGraphReader}.
+ * </p>
+ *
+ * <p>
+ * Arcs are linked (see {@link Node#linkNodes}) by the calling thread, in the
+ * order of the file, so the graph read is exactly the same as the one read by
+ * {@link BinaryGraphReader}. Observers are also notified by the calling thread,
+ * in the same order, as soon as each chunk has been decoded.
+ * </p>
+ *
+ */
+public class ParallelBinaryGraphReader extends MappedBinaryGraphReader {
+
+    // Size of a node in the file (in bytes): longitude, latitude, nbSuccessors.
+    private static final int NODE_SIZE = 9;
+
+    // Number of chunks per thread, to balance the work between threads.
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Number of threads used to read the graph.
+    private final int nbThreads;
+
+    /**
+     * Create a new ParallelBinaryGraphReader that reads from the given file using
+     * as many threads as available processors.
+     *
+     * @param file File to read from.
+     */
+    public ParallelBinaryGraphReader(File file) {
+        this(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new ParallelBinaryGraphReader that reads from the given file using
+     * the given number of threads.
+     *
+     * @param file File to read from.
+     * @param nbThreads Number of threads to use (at least 1).
+     */
+    public ParallelBinaryGraphReader(File file, int nbThreads) {
+        super(file);
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * @return Number of threads used by this reader.
+     */
+    public int getNumberOfThreads() {
+        return this.nbThreads;
+    }
+
+    /**
+     * Decoded arcs of a range of nodes.
+     */
+    private static class ArcChunk {
+
+        // First node and last node (exclusive) of this chunk.
+        final int firstNode, lastNode;
+
+        // Attributes of the arcs, in file order.
+        final int[] destinations, descriptors;
+        final float[] lengths;
+
+        // Maximum length (as read from the file) in this chunk.
+        float maxLength = 0;
+
+        ArcChunk(int firstNode, int lastNode, int nbArcs) {
+            this.firstNode = firstNode;
+            this.lastNode = lastNode;
+            this.destinations = new int[nbArcs];
+            this.descriptors = new int[nbArcs];
+            this.lengths = new float[nbArcs];
+        }
+
+    }
+
+    @Override
+    protected Graph read(ByteBuffer buffer) throws IOException {
+        ExecutorService executor = Tasks.newFixedThreadPool(this.nbThreads, "graph-reader");
+        try {
+            return read(buffer, executor);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read a graph from the given buffer, using the given executor to decode
+     * nodes, descriptors and arcs.
+     */
+    private Graph read(ByteBuffer buffer, ExecutorService executor) throws IOException {
+
+        // Read and check magic number and file version, then map id and name.
+        readMapHeader();
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Number of descriptors and nodes.
+        final int nbDesc = buffer.getInt();
+        final int nbNodes = buffer.getInt();
+        final int nodesPosition = buffer.position();
+
+        // Read nodes.
+        final Node[] nodes = new Node[nbNodes];
+        final float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        final int[] nbSuccessors = new int[nbNodes];
+        List<int[]> nodeChunks = split(nbNodes);
+        List<Future<Void>> nodeFutures = new ArrayList<>(nodeChunks.size());
+        for (int[] chunk: nodeChunks) {
+            nodeFutures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    ByteBuffer local = buffer.duplicate();
+                    local.position(nodesPosition + chunk[0] * NODE_SIZE);
+                    readNodes(new ByteBufferDataInput(local), chunk[0], chunk[1], longitudes,
+                            latitudes, nbSuccessors);
+                    for (int node = chunk[0]; node < chunk[1]; ++node) {
+                        nodes[node] = new Node(node,
+                                new Point(longitudes[node], latitudes[node]));
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        for (int i = 0; i < nodeChunks.size(); ++i) {
+            await(nodeFutures.get(i));
+            for (int node = nodeChunks.get(i)[0]; node < nodeChunks.get(i)[1]; ++node) {
+                final Node aNode = nodes[node];
+                observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+            }
+        }
+        final int nbTotalSuccessors = getTotal(nbSuccessors);
+
+        // Check format.
+        seek(buffer, nodesPosition + nbNodes * NODE_SIZE);
+        checkByteOrThrow(255);
+
+        // Find the position of each descriptor.
+        final DataInput input = new ByteBufferDataInput(buffer);
+        final int[] descPositions = new int[nbDesc];
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            descPositions[descr] = buffer.position();
+            skipRoadInformation(input);
+        }
+
+        // Check format.
+        checkByteOrThrow(254);
+
+        // Read descriptors.
+        final RoadInformation[] descs = new RoadInformation[nbDesc];
+        List<int[]> descChunks = split(nbDesc);
+        List<Future<Void>> descFutures = new ArrayList<>(descChunks.size());
+        for (int[] chunk: descChunks) {
+            descFutures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    ByteBuffer local = buffer.duplicate();
+                    local.position(descPositions[chunk[0]]);
+                    DataInput localInput = new ByteBufferDataInput(local);
+                    for (int descr = chunk[0]; descr < chunk[1]; ++descr) {
+                        descs[descr] = readRoadInformation(localInput);
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        // Find the position of the first arc of each node, and the index of the first
+        // point of each arc, while descriptors are being read.
+        final int[] recordPositions = new int[nbNodes + 1];
+        final int[] pointOffsets = new int[nbTotalSuccessors + 1];
+        ArcRecord arcRecord = new ArcRecord();
+        for (int node = 0, record = 0; node < nbNodes; ++node) {
+            recordPositions[node] = buffer.position();
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++record) {
+                readArc(input, arcRecord);
+                skipArcPoints(input, arcRecord.nbSegments);
+                pointOffsets[record + 1] = pointOffsets[record] + arcRecord.nbSegments;
+            }
+        }
+        recordPositions[nbNodes] = buffer.position();
+
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        for (int i = 0; i < descChunks.size(); ++i) {
+            await(descFutures.get(i));
+            for (int descr = descChunks.get(i)[0]; descr < descChunks.get(i)[1]; ++descr) {
+                final RoadInformation roadinf = descs[descr];
+                observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+            }
+        }
+
+        // Read arcs (and their points).
+        final PointBuffer points = new PointBuffer(0);
+        points.addPoints(pointOffsets[nbTotalSuccessors]);
+        final int[] firstRecords = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            firstRecords[node + 1] = firstRecords[node] + nbSuccessors[node];
+        }
+        List<int[]> arcChunks = split(nbNodes);
+        List<Future<ArcChunk>> arcFutures = new ArrayList<>(arcChunks.size());
+        for (int[] range: arcChunks) {
+            arcFutures.add(executor.submit(new Callable<ArcChunk>() {
+                @Override
+                public ArcChunk call() throws IOException {
+                    ArcChunk chunk = new ArcChunk(range[0], range[1],
+                            firstRecords[range[1]] - firstRecords[range[0]]);
+                    ByteBuffer local = buffer.duplicate();
+                    local.position(recordPositions[range[0]]);
+                    DataInput localInput = new ByteBufferDataInput(local);
+                    ArcRecord arc = new ArcRecord();
+                    int record = firstRecords[range[0]], index = 0;
+                    for (int node = range[0]; node < range[1]; ++node) {
+                        for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++record, ++index) {
+                            readArc(localInput, arc);
+                            chunk.maxLength = Math.max(arc.length, chunk.maxLength);
+                            readArcPoints(localInput, longitudes[node], latitudes[node],
+                                    arc.nbSegments, points, pointOffsets[record]);
+                            chunk.destinations[index] = arc.destination;
+                            chunk.descriptors[index] = arc.descriptor;
+                            chunk.lengths[index] = getArcLength(arc, node, longitudes,
+                                    latitudes);
+                        }
+                    }
+                    return chunk;
+                }
+            }));
+        }
+
+        // Link nodes in the order of the file.
+        float maxLength = 0;
+        int nbOneWayRoad = 0;
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(nbTotalSuccessors));
+        for (Future<ArcChunk> future: arcFutures) {
+            ArcChunk chunk = await(future);
+            maxLength = Math.max(chunk.maxLength, maxLength);
+            int record = firstRecords[chunk.firstNode], index = 0;
+            for (int node = chunk.firstNode; node < chunk.lastNode; ++node) {
+                for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++record, ++index) {
+                    RoadInformation info = descs[chunk.descriptors[index]];
+                    Arc arc = Node.linkNodes(nodes[node], nodes[chunk.destinations[index]],
+                            chunk.lengths[index], info, points, pointOffsets[record],
+                            pointOffsets[record + 1] - pointOffsets[record]);
+                    if (info.isOneWay()) {
+                        nbOneWayRoad++;
+                    }
+                    observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+                }
+            }
+        }
+
+        // Check format.
+        seek(buffer, recordPositions[nbNodes]);
+        checkByteOrThrow(253);
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new Graph(mapId, mapName, Arrays.asList(nodes),
+                new GraphStatistics(getBoundingBox(longitudes, latitudes), nbOneWayRoad,
+                        nbTotalSuccessors - nbOneWayRoad, getMaximumSpeed(descs), maxLength));
+    }
+
+    /**
+     * Set the position of the given buffer.
+     *
+     * @param buffer Buffer to update.
+     * @param position New position.
+     *
+     * @throws BadFormatException if the position is after the end of the buffer.
+     */
+    private static void seek(ByteBuffer buffer, int position) throws BadFormatException {
+        if (position < 0 || position > buffer.limit()) {
+            throw new BadFormatException();
+        }
+        buffer.position(position);
+    }
+
+    /**
+     * Split the range [0, size) in chunks.
+     *
+     * @param size Size of the range to split.
+     *
+     * @return List of chunks {first, last (exclusive)}.
+     */
+    private List<int[]> split(int size) {
+        int nbChunks = Math.max(1, Math.min(size, this.nbThreads * CHUNKS_PER_THREAD));
+        List<int[]> chunks = new ArrayList<>(nbChunks);
+        for (int i = 0; i < nbChunks; ++i) {
+            chunks.add(new int[] { (int) ((long) size * i / nbChunks),
+                    (int) ((long) size * (i + 1) / nbChunks) });
+        }
+        return chunks;
+    }
+
+    /**
+     * Wait for the given task to complete and return its result, re-throwing the
+     * exception thrown by the task if any.
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return Tasks.await(future, IOException.class);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading graph", exception);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new BadFormatException();
+        }
+    }
+
+}
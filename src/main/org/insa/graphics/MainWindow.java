@@ -23,6 +23,7 @@ import java.util.List;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.ButtonGroup;
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -32,6 +33,7 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
@@ -58,9 +60,10 @@ import org.insa.algo.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 import org.insa.algo.weakconnectivity.WeaklyConnectedComponentsData;
 import org.insa.graph.Graph;
 import org.insa.graph.Path;
-import org.insa.graph.io.BinaryGraphReader;
 import org.insa.graph.io.BinaryPathReader;
 import org.insa.graph.io.GraphReader;
+import org.insa.graph.io.GraphReaderFactory;
+import org.insa.graph.io.GraphReaderFactory.ReaderType;
 import org.insa.graph.io.MapMismatchException;
 import org.insa.graphics.AlgorithmPanel.StartActionEvent;
 import org.insa.graphics.drawing.BasicGraphPalette;
@@ -95,6 +98,9 @@ public class MainWindow extends JFrame {
     // Path to the last opened graph file.
     private String graphFilePath;
 
+    // Type of reader used to open graph files.
+    private ReaderType readerType = GraphReaderFactory.getDefaultReaderType();
+
     // Drawing and click adapter.
     protected Drawing drawing;
     private final MapViewDrawing mapViewDrawing;
@@ -296,17 +302,17 @@ public class MainWindow extends JFrame {
                 JFileChooser chooser = FileUtils.createFileChooser(FolderType.Map);
                 if (chooser.showOpenDialog(MainWindow.this) == JFileChooser.APPROVE_OPTION) {
                     graphFilePath = chooser.getSelectedFile().getAbsolutePath();
-                    DataInputStream stream;
+                    GraphReader reader;
                     try {
-                        stream = new DataInputStream(new BufferedInputStream(
-                                new FileInputStream(chooser.getSelectedFile())));
+                        reader = GraphReaderFactory.createGraphReader(chooser.getSelectedFile(),
+                                readerType);
                     }
                     catch (IOException e1) {
                         JOptionPane.showMessageDialog(MainWindow.this,
                                 "Cannot open the selected file.");
                         return;
                     }
-                    loadGraph(new BinaryGraphReader(stream));
+                    loadGraph(reader);
                 }
             }
         };
@@ -685,11 +691,29 @@ public class MainWindow extends JFrame {
             }
         });
 
+        // Graph reader items
+        JMenu readerMenu = new JMenu("Map Reader");
+        ButtonGroup readerGroup = new ButtonGroup();
+        for (ReaderType type: ReaderType.values()) {
+            JRadioButtonMenuItem readerItem = new JRadioButtonMenuItem(type.getName(),
+                    type == readerType);
+            readerItem.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    readerType = type;
+                }
+            });
+            readerGroup.add(readerItem);
+            readerMenu.add(readerItem);
+        }
+
         // Build the first menu.
         JMenu fileMenu = new JMenu("File");
         fileMenu.add(openMapItem);
         fileMenu.add(openPathItem);
         fileMenu.addSeparator();
+        fileMenu.add(readerMenu);
+        fileMenu.addSeparator();
         fileMenu.add(closeItem);
 
         // Second menu
@@ -680,7 +680,8 @@ public class BasicDrawing extends JPanel implements Drawing {
         this.removeMouseWheelListener(zoomAndPanListener);
 
         for (Node node: graph.getNodes()) {
-            for (Arc arc: node.getSuccessors()) {
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessor(i);
                 // Draw arcs only if there are one-way arcs or if origin is lower than
                 // destination, avoid drawing two-ways arc twice.
                 if (arc.getRoadInformation().isOneWay()
@@ -0,0 +1,146 @@
+package org.insa.algo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.algo.AbstractInputData.Mode;
+import org.insa.graph.AccessRestrictions;
+import org.insa.graph.AccessRestrictions.AccessMode;
+import org.insa.graph.AccessRestrictions.AccessRestriction;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.RoadInformation.RoadType;
+import org.insa.graph.generator.HierarchicalGraphGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompiledArcInspectorTest {
+
+    // Graph with all the access restrictions for all the modes, and a generated
+    // graph.
+    private static Graph restricted, generated;
+
+    @BeforeClass
+    public static void initAll() {
+        AccessMode[] modes = AccessMode.values();
+        AccessRestriction[] restrictions = AccessRestriction.values();
+        RoadType[] types = RoadType.values();
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 40; ++i) {
+            nodes.add(new Node(i, new Point(1.4f + 0.001f * (i % 8), 43.5f + 0.001f * (i / 8))));
+        }
+        for (int i = 0; i < 150; ++i) {
+            // Each mode goes through all the restrictions, with different periods.
+            EnumMap<AccessMode, AccessRestriction> access = new EnumMap<>(AccessMode.class);
+            for (AccessMode mode: modes) {
+                access.put(mode, restrictions[(i / (mode.ordinal() + 1)) % restrictions.length]);
+            }
+            RoadInformation info = new RoadInformation(types[i % types.length],
+                    i % 11 == 0 ? new AccessRestrictions() : new AccessRestrictions(access),
+                    i % 3 == 0, 5 * (i % 27), "road " + i);
+            Node.linkNodes(nodes.get(i % nodes.size()), nodes.get((7 * i + 3) % nodes.size()),
+                    10 + i * 3.5f, info, new ArrayList<>());
+        }
+        restricted = new Graph("0x1", "Restrictions", nodes, null);
+        generated = new HierarchicalGraphGenerator(16, 16, 150, 2, 9).generate();
+    }
+
+    private static void assertSameAsInspector(Graph graph, ArcInspector inspector) {
+        CompactGraph compact = graph.getCompactGraph();
+        CompiledArcInspector compiled = CompiledArcInspector.of(graph, inspector);
+        assertEquals(compact.getArcCount(), compiled.getArcCount());
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            assertEquals(inspector.isAllowed(compact.getArc(arc)), compiled.isAllowed(arc));
+            assertEquals((float) inspector.getCost(compact.getArc(arc)), compiled.getCost(arc),
+                    0);
+        }
+    }
+
+    @Test
+    public void testAllFilters() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            assertSameAsInspector(restricted, inspector);
+            assertSameAsInspector(generated, inspector);
+        }
+    }
+
+    @Test
+    public void testRestrictionsCovered() {
+        // Every filter that checks restrictions forbids some arcs and allows others.
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            CompiledArcInspector compiled = CompiledArcInspector.of(restricted, inspector);
+            int nbAllowed = 0;
+            for (int arc = 0; arc < compiled.getArcCount(); ++arc) {
+                nbAllowed += compiled.isAllowed(arc) ? 1 : 0;
+            }
+            assertTrue(nbAllowed > 0);
+            if (inspector.toString().contains("only") || inspector.getMaximumSpeed() > 0) {
+                assertTrue(nbAllowed < compiled.getArcCount());
+            }
+        }
+    }
+
+    @Test
+    public void testCache() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(1);
+        CompiledArcInspector compiled = CompiledArcInspector.of(restricted, inspector);
+        assertSame(compiled, CompiledArcInspector.of(restricted, inspector));
+        assertNotSame(compiled, CompiledArcInspector.of(generated, inspector));
+        assertNotSame(compiled,
+                CompiledArcInspector.of(restricted, ArcInspectorFactory.getAllFilters().get(3)));
+    }
+
+    @Test
+    public void testUnusedInspectorCollected() throws InterruptedException {
+        // Compile an inspector that is only referenced by the test.
+        ArcInspector base = ArcInspectorFactory.getAllFilters().get(0);
+        ArcInspector inspector = new ArcInspector() {
+
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return base.isAllowed(arc);
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return base.getCost(arc);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return base.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return base.getMode();
+            }
+
+        };
+        WeakReference<CompiledArcInspector> compiled = new WeakReference<>(
+                CompiledArcInspector.of(generated, inspector));
+        inspector = null;
+
+        // The compiled inspector is dropped once the inspector is collected.
+        for (int i = 0; i < 50 && compiled.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+            CompiledArcInspector.of(generated, base);
+        }
+        assertNull(compiled.get());
+    }
+
+}
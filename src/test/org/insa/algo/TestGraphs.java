@@ -0,0 +1,84 @@
+package org.insa.algo;
+
+import java.util.ArrayList;
+
+import org.insa.graph.AccessRestrictions;
+import org.insa.graph.Node;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Small graphs shared by the tests of the algorithms.
+ * </p>
+ *
+ * <p>
+ * The grid graph has nodes on a grid with 4 columns (node {@code i} is in row
+ * {@code i / 4} and column {@code i % 4}, 0.01 degree apart), linked by one-way
+ * motorways at 36 km/h and two-way primary roads at 72 km/h, plus one extra
+ * node after the grid:
+ * </p>
+ *
+ * <pre>
+ *   8 &lt;-&gt; 9 &lt;-&gt; 10 --&gt; 11
+ *   |^     |      |^     |^
+ *   v|     v      v|     v|
+ *   4 &lt;-&gt; 5 &lt;--  6 &lt;-&gt;  7
+ *   |^     |^     ^      |^
+ *   v|     v|     |      v|
+ *   0 &lt;-&gt; 1 --&gt; 2 &lt;-&gt;  3
+ * </pre>
+ *
+ */
+public final class TestGraphs {
+
+    /**
+     * Roads of the grid graph.
+     */
+    public static final RoadInformation ONE_WAY = new RoadInformation(RoadType.MOTORWAY,
+            new AccessRestrictions(), true, 36, ""),
+            TWO_WAYS = new RoadInformation(RoadType.PRIMARY, new AccessRestrictions(), false, 72,
+                    "");
+
+    // Arcs of the grid graph: origin, destination, length (in meters), and 1 for
+    // a one-way road.
+    private static final int[][] GRID_ARCS = { { 0, 1, 900, 0 }, { 1, 2, 800, 1 },
+            { 2, 3, 1000, 0 }, { 4, 5, 1200, 0 }, { 6, 5, 800, 1 }, { 6, 7, 900, 0 },
+            { 8, 9, 700, 0 }, { 9, 10, 700, 0 }, { 10, 11, 1500, 1 }, { 0, 4, 1200, 0 },
+            { 5, 1, 1100, 0 }, { 2, 6, 1200, 1 }, { 7, 3, 1300, 0 }, { 4, 8, 600, 0 },
+            { 9, 5, 1000, 1 }, { 6, 10, 500, 0 }, { 11, 7, 800, 0 } };
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Create the nodes of the grid graph with the given number of rows, linked by
+     * the roads between them, and an isolated node after the grid.
+     *
+     * @param nbRows Number of rows of the grid (1 to 3).
+     * @param extraNodePoint true if the extra node is placed on the next row of
+     *        the grid, false if it has no coordinates.
+     *
+     * @return The {@code 4 * nbRows + 1} nodes of the graph, indexed by ID.
+     */
+    public static Node[] createGrid(int nbRows, boolean extraNodePoint) {
+        if (nbRows < 1 || nbRows > 3) {
+            throw new IllegalArgumentException("invalid number of rows: " + nbRows);
+        }
+        Node[] nodes = new Node[4 * nbRows + 1];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, i < nodes.length - 1 || extraNodePoint
+                    ? new Point(1.0f + 0.01f * (i % 4), 43.0f + 0.01f * (i / 4))
+                    : null);
+        }
+        for (int[] arc: GRID_ARCS) {
+            if (arc[0] < nodes.length - 1 && arc[1] < nodes.length - 1) {
+                Node.linkNodes(nodes[arc[0]], nodes[arc[1]], arc[2],
+                        arc[3] == 1 ? ONE_WAY : TWO_WAYS, new ArrayList<>());
+            }
+        }
+        return nodes;
+    }
+
+}
@@ -0,0 +1,165 @@
+package org.insa.algo.arcflags;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.TestGraphs;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.io.MapMismatchException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ArcFlagsTest {
+
+    // Graph and nodes.
+    private static Graph graph;
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        // Nodes on a small grid (3 rows, 4 columns), and a node without coordinates
+        // linked to node 3.
+        nodes = TestGraphs.createGrid(3, false);
+        Node.linkNodes(nodes[3], nodes[12], 400, TestGraphs.TWO_WAYS, new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Check that Dijkstra's algorithm restricted to the arcs flagged for the
+     * region of the destination finds the same costs as Dijkstra.
+     */
+    private void checkArcFlags(ArcFlags flags, ArcInspector inspector) {
+        for (Node origin: nodes) {
+            for (Node destination: nodes) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                if (expected.getStatus() != Status.OPTIMAL) {
+                    continue;
+                }
+                int region = flags.getRegion(destination.getId());
+                double cost = 0;
+                for (Arc arc: expected.getPath().getArcs()) {
+                    cost += inspector.getCost(arc);
+                }
+
+                // Costs of the shortest paths using only flagged arcs.
+                double[] distances = new double[nodes.length];
+                Arrays.fill(distances, Double.POSITIVE_INFINITY);
+                distances[origin.getId()] = 0;
+                for (int i = 0; i < nodes.length; ++i) {
+                    for (int arc = 0; arc < graph.getCompactGraph().getArcCount(); ++arc) {
+                        Arc original = graph.getCompactGraph().getArc(arc);
+                        if (flags.isFlagged(arc, region) && inspector.isAllowed(original)) {
+                            int from = original.getOrigin().getId();
+                            int to = original.getDestination().getId();
+                            distances[to] = Math.min(distances[from] + inspector.getCost(original),
+                                    distances[to]);
+                        }
+                    }
+                }
+                assertEquals(cost, distances[destination.getId()], 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testGridPartition() {
+        int[] regions = ArcFlagsBuilder.createGridPartition(graph, 3, 4);
+        assertEquals(nodes.length, regions.length);
+        for (int i = 0; i < nodes.length - 1; ++i) {
+            for (int j = 0; j < i; ++j) {
+                assertTrue(regions[i] != regions[j]);
+            }
+        }
+        assertEquals(0, regions[12]);
+
+        regions = ArcFlagsBuilder.createGridPartition(graph, 1, 2);
+        assertEquals(regions[0], regions[1]);
+        assertEquals(regions[2], regions[3]);
+        assertTrue(regions[1] != regions[2]);
+    }
+
+    @Test
+    public void testFilters() throws InterruptedException {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int size = 1; size <= 4; ++size) {
+                ArcFlags flags = new ArcFlagsBuilder(graph, inspector, 2).build(size, size);
+                assertEquals(nodes.length, flags.getNodeCount());
+                assertEquals(graph.getCompactGraph().getArcCount(), flags.getArcCount());
+                checkArcFlags(flags, inspector);
+            }
+        }
+    }
+
+    @Test
+    public void testAlgorithm() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        for (Node origin: nodes) {
+            for (Node destination: nodes) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new ArcFlagsAlgorithm(data).run();
+                assertEquals(expected.getStatus(), actual.getStatus());
+                if (expected.getStatus() == Status.OPTIMAL) {
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(expected.getPath().getMinimumTravelTime(),
+                            actual.getPath().getMinimumTravelTime(), 1e-3);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadWrite() throws IOException, InterruptedException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        ArcFlags expected = new ArcFlagsBuilder(graph, inspector).build(3, 4);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryArcFlagsWriter(new DataOutputStream(output)).writeArcFlags(expected);
+        ArcFlags actual = new BinaryArcFlagsReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readArcFlags(graph, inspector);
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getInspectorKey(), actual.getInspectorKey());
+        assertEquals(expected.getRegionCount(), actual.getRegionCount());
+        for (Node node: nodes) {
+            assertEquals(expected.getRegion(node.getId()), actual.getRegion(node.getId()));
+        }
+        for (int arc = 0; arc < expected.getArcCount(); ++arc) {
+            for (int region = 0; region < expected.getRegionCount(); ++region) {
+                assertEquals(expected.isFlagged(arc, region), actual.isFlagged(arc, region));
+            }
+        }
+    }
+
+    @Test(expected = MapMismatchException.class)
+    public void testReadOtherMap() throws IOException, InterruptedException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ArcFlags flags = new ArcFlagsBuilder(graph, inspector).build(2, 2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryArcFlagsWriter(new DataOutputStream(output)).writeArcFlags(flags);
+        new BinaryArcFlagsReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readArcFlags(new Graph("Other", "", Arrays.asList(nodes), null),
+                                inspector);
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.insa.algo.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.TestGraphs;
+import org.insa.algo.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.PrimitiveDijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchRoutingServiceTest {
+
+    // Graph and nodes.
+    private static Graph graph;
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        // Nodes on a small grid (3 rows, 4 columns), and a node without coordinates
+        // linked to node 3.
+        nodes = TestGraphs.createGrid(3, false);
+        Node.linkNodes(nodes[3], nodes[12], 400, TestGraphs.TWO_WAYS, new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * @return All the queries between the nodes of the graph, for all the filters.
+     */
+    private static List<ShortestPathData> getQueries() {
+        List<ShortestPathData> queries = new ArrayList<>();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Node origin: nodes) {
+                for (Node destination: nodes) {
+                    queries.add(new ShortestPathData(graph, origin, destination, inspector));
+                }
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * @return Cost of the given solution (or -1 if infeasible).
+     */
+    private static double getCost(ShortestPathSolution solution) {
+        if (!solution.isFeasible()) {
+            return -1;
+        }
+        double cost = 0;
+        for (Arc arc: solution.getPath().getArcs()) {
+            cost += solution.getInputData().getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Check the given result against Dijkstra's algorithm.
+     */
+    private void checkResult(List<ShortestPathData> queries, BatchResult result) {
+        assertEquals(queries.size(), result.size());
+        for (int i = 0; i < queries.size(); ++i) {
+            ShortestPathSolution solution = result.getSolutions().get(i);
+            assertTrue(solution.getInputData() == queries.get(i));
+            assertEquals(getCost(new DijkstraAlgorithm(queries.get(i)).run()), getCost(solution),
+                    1e-3);
+        }
+        assertTrue(result.getThroughput() > 0);
+        assertTrue(result.getLatency(50).compareTo(result.getLatency(99)) <= 0);
+        assertTrue(result.getLatency(99).compareTo(result.getLatency(100)) <= 0);
+    }
+
+    @Test
+    public void testFixedThreadPool() throws InterruptedException {
+        List<ShortestPathData> queries = getQueries();
+        try (BatchRoutingService service = BatchRoutingService.withFixedThreadPool(graph,
+                PrimitiveDijkstraAlgorithm::new, 3)) {
+            checkResult(queries, service.run(queries));
+            checkResult(queries, service.run(queries.stream()));
+        }
+    }
+
+    @Test
+    public void testExecutor() throws InterruptedException {
+        List<ShortestPathData> queries = getQueries();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (BatchRoutingService service = new BatchRoutingService(graph,
+                BidirectionalDijkstraAlgorithm::new, executor)) {
+            checkResult(queries, service.run(queries));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws InterruptedException {
+        Assume.assumeTrue(BatchRoutingService.isVirtualThreadAvailable());
+        List<ShortestPathData> queries = getQueries();
+        try (BatchRoutingService service = BatchRoutingService.withVirtualThreads(graph,
+                PrimitiveDijkstraAlgorithm::new)) {
+            checkResult(queries, service.run(queries));
+        }
+    }
+
+    @Test
+    public void testEmpty() throws InterruptedException {
+        try (BatchRoutingService service = BatchRoutingService.withFixedThreadPool(graph,
+                PrimitiveDijkstraAlgorithm::new, 1)) {
+            BatchResult result = service.run(new ArrayList<>());
+            assertEquals(0, result.size());
+            assertEquals(0, result.getLatency(99).toNanos());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherGraph() throws InterruptedException {
+        Graph other = new Graph("ID", "", Arrays.asList(nodes), null);
+        try (BatchRoutingService service = BatchRoutingService.withFixedThreadPool(graph,
+                PrimitiveDijkstraAlgorithm::new, 1)) {
+            service.run(Arrays.asList(new ShortestPathData(other, nodes[0], nodes[1],
+                    ArcInspectorFactory.getAllFilters().get(0))));
+        }
+    }
+
+}
@@ -0,0 +1,200 @@
+package org.insa.algo.contraction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.TestGraphs;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.generator.HierarchicalGraphGenerator;
+import org.insa.graph.io.MapMismatchException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ContractionHierarchyTest {
+
+    // Graph and nodes.
+    private static Graph graph;
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        // Nodes on a small grid (3 rows, 4 columns), and an isolated node, with a second
+        // road between nodes 11 and 7.
+        nodes = TestGraphs.createGrid(3, true);
+        Node.linkNodes(nodes[11], nodes[7], 1200, TestGraphs.TWO_WAYS, new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Check that the given hierarchy finds the same costs as Dijkstra, and that
+     * the unpacked paths are valid and have these costs.
+     */
+    private void checkHierarchy(ContractionHierarchy hierarchy, ArcInspector inspector) {
+        for (Node origin: nodes) {
+            for (Node destination: nodes) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                double cost = hierarchy.getQuery().run(origin.getId(), destination.getId());
+                if (expected.getStatus() == Status.OPTIMAL) {
+                    double expectedCost = 0;
+                    for (Arc arc: expected.getPath().getArcs()) {
+                        expectedCost += inspector.getCost(arc);
+                    }
+                    assertEquals(expectedCost, cost, 1e-3);
+
+                    ShortestPathSolution actual = new ContractionHierarchyAlgorithm(data).run();
+                    assertEquals(Status.OPTIMAL, actual.getStatus());
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(origin, actual.getPath().getOrigin());
+                    assertEquals(destination, actual.getPath().getDestination());
+                    double actualCost = 0;
+                    for (Arc arc: actual.getPath().getArcs()) {
+                        actualCost += inspector.getCost(arc);
+                    }
+                    assertEquals(expectedCost, actualCost, 1e-3);
+                }
+                else if (origin != destination) {
+                    assertTrue(Double.isInfinite(cost));
+                    assertEquals(Status.INFEASIBLE,
+                            new ContractionHierarchyAlgorithm(data).run().getStatus());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilters() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph, inspector)
+                    .build();
+            assertEquals(nodes.length, hierarchy.size());
+            boolean[] ranks = new boolean[nodes.length];
+            for (Node node: nodes) {
+                ranks[hierarchy.getRank(node.getId())] = true;
+            }
+            for (boolean rank: ranks) {
+                assertTrue(rank);
+            }
+            checkHierarchy(hierarchy, inspector);
+        }
+    }
+
+    /**
+     * Check that the given hierarchies have the same ranks and edges.
+     */
+    private static void assertSameHierarchy(ContractionHierarchy expected,
+            ContractionHierarchy actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int node = 0; node < expected.size(); ++node) {
+            assertEquals(expected.getRank(node), actual.getRank(node));
+        }
+        for (int edge = 0; edge < expected.getEdgeCount(); ++edge) {
+            assertEquals(expected.getSource(edge), actual.getSource(edge));
+            assertEquals(expected.getTarget(edge), actual.getTarget(edge));
+            assertEquals(expected.getCost(edge), actual.getCost(edge), 0);
+            assertEquals(expected.getMiddle(edge), actual.getMiddle(edge));
+            assertEquals(expected.getFirstChild(edge), actual.getFirstChild(edge));
+            assertEquals(expected.getSecondChild(edge), actual.getSecondChild(edge));
+        }
+    }
+
+    @Test
+    public void testThreads() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            assertSameHierarchy(new ContractionHierarchyBuilder(graph, inspector, 1).build(),
+                    new ContractionHierarchyBuilder(graph, inspector, 4).build());
+        }
+    }
+
+    @Test
+    public void testThreadsGeneratedGraph() {
+        // Large enough for the parallel loops of the builder to be split in many
+        // tasks.
+        Graph generated = new HierarchicalGraphGenerator(60, 60, 150, 3, 11).generate();
+        for (ArcInspector inspector: new ArcInspector[] {
+                ArcInspectorFactory.getAllFilters().get(0),
+                ArcInspectorFactory.getAllFilters().get(2) }) {
+            ContractionHierarchy expected = new ContractionHierarchyBuilder(generated, inspector,
+                    1).build();
+            for (int nbThreads: new int[] { 2, 4 }) {
+                assertSameHierarchy(expected,
+                        new ContractionHierarchyBuilder(generated, inspector, nbThreads).build());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfThreads() {
+        new ContractionHierarchyBuilder(graph, ArcInspectorFactory.getAllFilters().get(0), 0);
+    }
+
+    @Test
+    public void testFactory() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ContractionHierarchy hierarchy = ContractionHierarchyFactory.getHierarchy(graph,
+                inspector);
+        assertTrue(hierarchy == ContractionHierarchyFactory.getHierarchy(graph, inspector));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        ContractionHierarchy expected = new ContractionHierarchyBuilder(graph, inspector).build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryContractionHierarchyWriter(new DataOutputStream(output))
+                .writeHierarchy(expected);
+        ContractionHierarchy actual = new BinaryContractionHierarchyReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readHierarchy(graph, inspector);
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getInspectorKey(), actual.getInspectorKey());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (Node node: nodes) {
+            assertEquals(expected.getRank(node.getId()), actual.getRank(node.getId()));
+        }
+        for (int edge = 0; edge < expected.getEdgeCount(); ++edge) {
+            assertEquals(expected.getSource(edge), actual.getSource(edge));
+            assertEquals(expected.getTarget(edge), actual.getTarget(edge));
+            assertEquals(expected.getCost(edge), actual.getCost(edge), 0);
+            assertEquals(expected.getMiddle(edge), actual.getMiddle(edge));
+            assertEquals(expected.getFirstChild(edge), actual.getFirstChild(edge));
+            assertEquals(expected.getSecondChild(edge), actual.getSecondChild(edge));
+        }
+        checkHierarchy(actual, inspector);
+    }
+
+    @Test(expected = MapMismatchException.class)
+    public void testReadOtherMap() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph, inspector)
+                .build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryContractionHierarchyWriter(new DataOutputStream(output))
+                .writeHierarchy(hierarchy);
+        new BinaryContractionHierarchyReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readHierarchy(new Graph("Other", "", Arrays.asList(nodes), null),
+                                inspector);
+    }
+
+}
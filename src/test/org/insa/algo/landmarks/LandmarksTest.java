@@ -0,0 +1,141 @@
+package org.insa.algo.landmarks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.TestGraphs;
+import org.insa.algo.landmarks.LandmarksBuilder.Selection;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.io.MapMismatchException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class LandmarksTest {
+
+    // Graph and nodes.
+    private static Graph graph;
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        // Nodes on a small grid (2 rows, 4 columns), and an isolated node.
+        nodes = TestGraphs.createGrid(2, true);
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Check that the lower bounds of the given landmarks are not greater than the
+     * actual costs, and that A* with landmarks finds the same costs as Dijkstra.
+     */
+    private void checkLandmarks(Landmarks landmarks, ArcInspector inspector) {
+        for (Node origin: nodes) {
+            for (Node destination: nodes) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new ALTAlgorithm(data).run();
+                assertEquals(expected.getStatus(), actual.getStatus());
+                if (expected.getStatus() == Status.OPTIMAL) {
+                    double cost = 0;
+                    for (Arc arc: expected.getPath().getArcs()) {
+                        cost += inspector.getCost(arc);
+                    }
+                    assertTrue(landmarks.getLowerBound(origin.getId(),
+                            destination.getId()) <= cost + 1e-3);
+                    assertEquals(expected.getPath().getLength(), actual.getPath().getLength(),
+                            1e-3);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSelections() throws InterruptedException {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Selection selection: Selection.values()) {
+                Landmarks landmarks = new LandmarksBuilder(graph, inspector, 2).build(3,
+                        selection);
+                assertEquals(3, landmarks.size());
+                assertEquals(nodes.length, landmarks.getNodeCount());
+                for (int i = 0; i < landmarks.size(); ++i) {
+                    assertEquals(0, landmarks.getDistanceFrom(i, landmarks.getLandmark(i)), 0);
+                    assertEquals(0, landmarks.getDistanceTo(i, landmarks.getLandmark(i)), 0);
+                }
+                checkLandmarks(landmarks, inspector);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundedDistances() {
+        // The distance from the landmark (node 0) to node 1 is 1000000.04, stored as
+        // 1000000.0625 (floats are 0.0625 apart around 1000000), so the bound from
+        // node 0 to node 1 must still not exceed 1000000.04.
+        float stored = (float) 1000000.04;
+        assertTrue(stored > 1000000.04);
+        Landmarks landmarks = new Landmarks("ID", "", new int[] { 0 }, 2,
+                new float[] { 0, stored }, new float[] { 0, Float.POSITIVE_INFINITY });
+        double bound = landmarks.getLowerBound(0, 1);
+        assertTrue(bound <= 1000000.04);
+        assertTrue(bound > 999999.8);
+    }
+
+    @Test
+    public void testTooManyLandmarks() throws InterruptedException {
+        Landmarks landmarks = new LandmarksBuilder(graph,
+                ArcInspectorFactory.getAllFilters().get(0)).build(20, Selection.AVOID);
+        assertEquals(nodes.length, landmarks.size());
+    }
+
+    @Test
+    public void testReadWrite() throws IOException, InterruptedException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        Landmarks expected = new LandmarksBuilder(graph, inspector).build(4, Selection.FARTHEST);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryLandmarksWriter(new DataOutputStream(output)).writeLandmarks(expected);
+        Landmarks actual = new BinaryLandmarksReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readLandmarks(graph, inspector);
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getInspectorKey(), actual.getInspectorKey());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.getLandmark(i), actual.getLandmark(i));
+            for (Node node: nodes) {
+                assertEquals(expected.getDistanceFrom(i, node.getId()),
+                        actual.getDistanceFrom(i, node.getId()), 0);
+                assertEquals(expected.getDistanceTo(i, node.getId()),
+                        actual.getDistanceTo(i, node.getId()), 0);
+            }
+        }
+    }
+
+    @Test(expected = MapMismatchException.class)
+    public void testReadOtherMap() throws IOException, InterruptedException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        Landmarks landmarks = new LandmarksBuilder(graph, inspector).build(2, Selection.PLANAR);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryLandmarksWriter(new DataOutputStream(output)).writeLandmarks(landmarks);
+        new BinaryLandmarksReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readLandmarks(new Graph("Other", "", Arrays.asList(nodes), null),
+                                inspector);
+    }
+
+}
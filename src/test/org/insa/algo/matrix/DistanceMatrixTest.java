@@ -0,0 +1,138 @@
+package org.insa.algo.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.TestGraphs;
+import org.insa.algo.contraction.BucketDistanceMatrixBuilder;
+import org.insa.algo.contraction.ContractionHierarchyBuilder;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DistanceMatrixTest {
+
+    // Graph and nodes.
+    private static Graph graph;
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        // Nodes on a small grid (3 rows, 4 columns), and a node without coordinates
+        // linked to node 3.
+        nodes = TestGraphs.createGrid(3, false);
+        Node.linkNodes(nodes[3], nodes[12], 400, TestGraphs.TWO_WAYS, new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Check the given matrix against Dijkstra's algorithm.
+     */
+    private void checkMatrix(DistanceMatrix matrix, List<Node> origins, List<Node> destinations,
+            ArcInspector inspector) {
+        assertEquals(origins.size(), matrix.getOriginCount());
+        assertEquals(destinations.size(), matrix.getDestinationCount());
+        double[][] costs = matrix.toArray();
+        for (int i = 0; i < origins.size(); ++i) {
+            for (int j = 0; j < destinations.size(); ++j) {
+                Node origin = origins.get(i), destination = destinations.get(j);
+                assertEquals(origin.getId(), matrix.getOrigin(i));
+                assertEquals(destination.getId(), matrix.getDestination(j));
+                double expected = Double.POSITIVE_INFINITY;
+                if (origin == destination) {
+                    expected = 0;
+                }
+                else {
+                    ShortestPathSolution solution = new DijkstraAlgorithm(
+                            new ShortestPathData(graph, origin, destination, inspector)).run();
+                    if (solution.getStatus() == Status.OPTIMAL) {
+                        expected = 0;
+                        for (Arc arc: solution.getPath().getArcs()) {
+                            expected += inspector.getCost(arc);
+                        }
+                    }
+                }
+                assertEquals(expected, matrix.getCost(i, j), 1e-3);
+                assertEquals(matrix.getCost(i, j), costs[i][j], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testOneToMany() throws InterruptedException {
+        List<Node> all = Arrays.asList(nodes);
+        List<Node> some = Arrays.asList(nodes[3], nodes[0], nodes[12], nodes[3], nodes[7]);
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            DistanceMatrixBuilder builder = new DistanceMatrixBuilder(graph, inspector, 2);
+            checkMatrix(builder.build(all, all), all, all, inspector);
+            checkMatrix(builder.build(some, all), some, all, inspector);
+            checkMatrix(builder.build(all, some), all, some, inspector);
+        }
+    }
+
+    @Test
+    public void testBuckets() throws InterruptedException {
+        List<Node> all = Arrays.asList(nodes);
+        List<Node> some = Arrays.asList(nodes[3], nodes[0], nodes[12], nodes[3], nodes[7]);
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            BucketDistanceMatrixBuilder builder = new BucketDistanceMatrixBuilder(
+                    new ContractionHierarchyBuilder(graph, inspector).build(), 2);
+            checkMatrix(builder.build(all, all), all, all, inspector);
+            checkMatrix(builder.build(some, all), some, all, inspector);
+            checkMatrix(builder.build(all, some), all, some, inspector);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws InterruptedException {
+        DistanceMatrix matrix = new DistanceMatrixBuilder(graph,
+                ArcInspectorFactory.getAllFilters().get(0)).build(new int[0], new int[] { 1 });
+        assertEquals(0, matrix.getOriginCount());
+        assertEquals(1, matrix.getDestinationCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNode() throws InterruptedException {
+        new DistanceMatrixBuilder(graph, ArcInspectorFactory.getAllFilters().get(0))
+                .build(new int[] { 0 }, new int[] { nodes.length });
+    }
+
+    @Test
+    public void testTooLarge() throws InterruptedException {
+        assertEquals(DistanceMatrix.MAX_SIZE, DistanceMatrix.getSize(1, DistanceMatrix.MAX_SIZE));
+
+        // 70000 x 70000 costs overflow an int, and could not be stored anyway.
+        int[] ids = new int[70000];
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        try {
+            new DistanceMatrixBuilder(graph, inspector).build(ids, ids);
+            fail("too large matrix built");
+        }
+        catch (IllegalArgumentException exception) {
+            assertEquals("invalid matrix size: 70000 x 70000", exception.getMessage());
+        }
+        try {
+            new BucketDistanceMatrixBuilder(
+                    new ContractionHierarchyBuilder(graph, inspector).build()).build(ids, ids);
+            fail("too large matrix built");
+        }
+        catch (IllegalArgumentException exception) {
+            assertEquals("invalid matrix size: 70000 x 70000", exception.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+package org.insa.algo.overlay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.TestGraphs;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.io.MapMismatchException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class OverlayTest {
+
+    // Graph and nodes.
+    private static Graph graph;
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        // Nodes on a small grid (3 rows, 4 columns), and a node without coordinates
+        // linked to node 3.
+        nodes = TestGraphs.createGrid(3, false);
+        Node.linkNodes(nodes[3], nodes[12], 400, TestGraphs.TWO_WAYS, new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    private static double getCost(ShortestPathSolution solution, ArcInspector inspector) {
+        double cost = 0;
+        for (Arc arc: solution.getPath().getArcs()) {
+            cost += inspector.getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Check that queries on the given metric find the same costs as Dijkstra, and
+     * paths with these costs.
+     */
+    private void checkMetric(OverlayMetric metric, ArcInspector inspector) {
+        CompactGraph compactGraph = graph.getCompactGraph();
+        OverlayQuery query = new OverlayQuery(graph, metric, inspector);
+        for (Node origin: nodes) {
+            for (Node destination: nodes) {
+                if (origin == destination) {
+                    continue;
+                }
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                double cost = query.run(origin.getId(), destination.getId());
+                if (expected.getStatus() != Status.OPTIMAL) {
+                    assertTrue(Double.isInfinite(cost));
+                    continue;
+                }
+                double expectedCost = getCost(expected, inspector);
+                assertEquals(expectedCost, cost, 1e-3);
+
+                int node = origin.getId();
+                double pathCost = 0;
+                for (int arc: query.getArcs()) {
+                    assertEquals(node, compactGraph.getOrigin(arc));
+                    pathCost += inspector.getCost(compactGraph.getArc(arc));
+                    node = compactGraph.getTarget(arc);
+                }
+                assertEquals(destination.getId(), node);
+                assertEquals(expectedCost, pathCost, 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testPartition() {
+        int[] cellSizes = { 2, 4, 8 };
+        OverlayGraph overlay = new OverlayBuilder(graph).build(cellSizes);
+        assertEquals(cellSizes.length, overlay.getLevelCount());
+        for (int level = 1; level <= overlay.getLevelCount(); ++level) {
+            int[] sizes = new int[overlay.getCellCount(level)];
+            for (Node node: nodes) {
+                sizes[overlay.getCell(node.getId(), level)]++;
+            }
+            for (int size: sizes) {
+                assertTrue(size > 0 && size <= cellSizes[level - 1]);
+            }
+
+            // Cells are nested...
+            for (Node node: nodes) {
+                for (Node other: nodes) {
+                    if (level < overlay.getLevelCount() && overlay.getCell(node.getId(),
+                            level) == overlay.getCell(other.getId(), level)) {
+                        assertEquals(overlay.getCell(node.getId(), level + 1),
+                                overlay.getCell(other.getId(), level + 1));
+                    }
+                }
+            }
+
+            // ...and their boundaries are made of the ends of the arcs between cells.
+            boolean[] isEntry = new boolean[nodes.length], isExit = new boolean[nodes.length];
+            for (Node node: nodes) {
+                for (Arc arc: node.getSuccessors()) {
+                    int target = arc.getDestination().getId();
+                    if (overlay.getCell(node.getId(), level) != overlay.getCell(target, level)) {
+                        isExit[node.getId()] = true;
+                        isEntry[target] = true;
+                    }
+                }
+            }
+            for (Node node: nodes) {
+                int cell = overlay.getCell(node.getId(), level);
+                int entry = overlay.getEntryIndex(level, node.getId());
+                int exit = overlay.getExitIndex(level, node.getId());
+                assertEquals(isEntry[node.getId()], entry != -1);
+                assertEquals(isExit[node.getId()], exit != -1);
+                if (entry != -1) {
+                    assertEquals(node.getId(), overlay.getEntry(level, cell, entry));
+                }
+                if (exit != -1) {
+                    assertEquals(node.getId(), overlay.getExit(level, cell, exit));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilters() throws InterruptedException {
+        int[][] cellSizes = { { 1 }, { 3 }, { 2, 4, 8 }, { 1, 2, 3, 6 } };
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int[] sizes: cellSizes) {
+                OverlayGraph overlay = new OverlayBuilder(graph).build(sizes);
+                checkMetric(new OverlayCustomizer(graph, overlay, inspector, 2).customize(),
+                        inspector);
+            }
+        }
+    }
+
+    @Test
+    public void testThreads() throws InterruptedException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        OverlayGraph overlay = new OverlayBuilder(graph).build(2, 4, 8);
+        OverlayMetric expected = new OverlayCustomizer(graph, overlay, inspector, 1).customize();
+        OverlayMetric actual = new OverlayCustomizer(graph, overlay, inspector, 4).customize();
+        for (int level = 1; level <= overlay.getLevelCount(); ++level) {
+            for (int cell = 0; cell < overlay.getCellCount(level); ++cell) {
+                for (int entry = 0; entry < overlay.getEntryCount(level, cell); ++entry) {
+                    for (int exit = 0; exit < overlay.getExitCount(level, cell); ++exit) {
+                        assertEquals(expected.getWeight(level, cell, entry, exit),
+                                actual.getWeight(level, cell, entry, exit), 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAlgorithm() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Node origin: nodes) {
+                for (Node destination: nodes) {
+                    ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                            inspector);
+                    ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                    ShortestPathSolution actual = new CRPAlgorithm(data).run();
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (expected.getStatus() == Status.OPTIMAL) {
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(getCost(expected, inspector), getCost(actual, inspector),
+                                1e-3);
+                    }
+                }
+            }
+        }
+        assertNotEquals(OverlayFactory.getMetric(graph, ArcInspectorFactory.getAllFilters().get(0)),
+                OverlayFactory.getMetric(graph, ArcInspectorFactory.getAllFilters().get(2)));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        OverlayGraph expected = new OverlayBuilder(graph).build(2, 4, 8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryOverlayWriter(new DataOutputStream(output)).writeOverlay(expected);
+        OverlayGraph actual = new BinaryOverlayReader(
+                new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                        .readOverlay(graph);
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getLevelCount(), actual.getLevelCount());
+        for (int level = 1; level <= expected.getLevelCount(); ++level) {
+            assertEquals(expected.getCellCount(level), actual.getCellCount(level));
+            assertEquals(expected.getCliqueSize(level), actual.getCliqueSize(level));
+            for (Node node: nodes) {
+                assertEquals(expected.getCell(node.getId(), level),
+                        actual.getCell(node.getId(), level));
+                assertEquals(expected.getEntryIndex(level, node.getId()),
+                        actual.getEntryIndex(level, node.getId()));
+                assertEquals(expected.getExitIndex(level, node.getId()),
+                        actual.getExitIndex(level, node.getId()));
+            }
+            for (int cell = 0; cell < expected.getCellCount(level); ++cell) {
+                assertEquals(expected.getEntryCount(level, cell),
+                        actual.getEntryCount(level, cell));
+                assertEquals(expected.getExitCount(level, cell), actual.getExitCount(level, cell));
+                assertEquals(expected.getCliqueOffset(level, cell),
+                        actual.getCliqueOffset(level, cell));
+            }
+        }
+    }
+
+    @Test(expected = MapMismatchException.class)
+    public void testReadMismatch() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryOverlayWriter(new DataOutputStream(output))
+                .writeOverlay(new OverlayBuilder(graph).build());
+        new BinaryOverlayReader(new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+                .readOverlay(new Graph("Other", "", Arrays.asList(nodes), null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCellSizes() {
+        new OverlayBuilder(graph).build(4, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfThreads() {
+        new OverlayCustomizer(graph, new OverlayBuilder(graph).build(),
+                ArcInspectorFactory.getAllFilters().get(0), 0);
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.insa.algo.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.insa.algo.AbstractInputData.Mode;
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.utils.Tasks;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.generator.RandomGeometricGraphGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DeltaSteppingAlgorithmTest {
+
+    // Generated graph, large and dense enough for the frontiers to be relaxed in
+    // parallel.
+    private static Graph graph;
+
+    // Origins and destinations of the queries.
+    private static final int NB_QUERIES = 12;
+    private static Node[] origins, destinations;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = new RandomGeometricGraphGenerator(6000, 10, 150, 21).generate();
+        Random random = new Random(5);
+        origins = new Node[NB_QUERIES];
+        destinations = new Node[NB_QUERIES];
+        for (int i = 0; i < NB_QUERIES; ++i) {
+            origins[i] = graph.get(random.nextInt(graph.size()));
+            destinations[i] = graph.get(random.nextInt(graph.size()));
+        }
+    }
+
+    /**
+     * Check that the given delta-stepping run finds a path with the same cost as
+     * Dijkstra.
+     */
+    private static void assertSameAsDijkstra(ShortestPathData data,
+            DeltaSteppingAlgorithm algorithm) {
+        ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+        ShortestPathSolution actual = algorithm.run();
+        assertEquals(expected.getStatus(), actual.getStatus());
+        if (expected.getStatus() == Status.OPTIMAL) {
+            double cost = data.getMode() == Mode.LENGTH
+                    ? expected.getPath().getLength()
+                    : expected.getPath().getMinimumTravelTime();
+            assertEquals(expected.getPath().getLength(), actual.getPath().getLength(),
+                    data.getMode() == Mode.LENGTH ? 1e-4 * cost : 1e9);
+            assertEquals(expected.getPath().getMinimumTravelTime(),
+                    actual.getPath().getMinimumTravelTime(),
+                    data.getMode() == Mode.TIME ? 1e-4 * cost : 1e9);
+            assertEquals(cost, algorithm.getDistance(data.getDestination().getId()),
+                    1e-4 * cost);
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        for (ArcInspector inspector: new ArcInspector[] {
+                ArcInspectorFactory.getAllFilters().get(0),
+                ArcInspectorFactory.getAllFilters().get(2) }) {
+            double defaultDelta = DeltaSteppingAlgorithm.getDefaultDelta(inspector.getMode());
+            for (double delta: new double[] { defaultDelta / 10, defaultDelta,
+                    defaultDelta * 100, defaultDelta * 1000 }) {
+                for (int i = 0; i < NB_QUERIES; ++i) {
+                    ShortestPathData data = new ShortestPathData(graph, origins[i],
+                            destinations[i], inspector);
+                    assertSameAsDijkstra(data, new DeltaSteppingAlgorithm(data, delta, 4));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExecutor() throws InterruptedException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ExecutorService executor = Tasks.newFixedThreadPool(3, "delta-stepping-test");
+        try {
+            for (int i = 0; i < NB_QUERIES; ++i) {
+                ShortestPathData data = new ShortestPathData(graph, origins[i], destinations[i],
+                        inspector);
+                assertSameAsDijkstra(data, new DeltaSteppingAlgorithm(data,
+                        DeltaSteppingAlgorithm.DEFAULT_LENGTH_DELTA * 10, 3, executor));
+            }
+
+            // The executor is still usable after the runs.
+            assertEquals(Integer.valueOf(1), Tasks.await(executor.submit(() -> 1)));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentQueries() throws InterruptedException {
+        // Queries running at the same time share the pool of threads.
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        ExecutorService callers = Tasks.newFixedThreadPool(3, "delta-stepping-callers");
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < NB_QUERIES; ++i) {
+                final int query = i;
+                futures.add(callers.submit(() -> {
+                    ShortestPathData data = new ShortestPathData(graph, origins[query],
+                            destinations[query], inspector);
+                    assertSameAsDijkstra(data, new DeltaSteppingAlgorithm(data,
+                            DeltaSteppingAlgorithm.DEFAULT_TIME_DELTA * 10, 2));
+                }));
+            }
+            for (Future<?> future: futures) {
+                Tasks.await(future);
+            }
+        }
+        finally {
+            callers.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.insa.algo.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.algo.AbstractInputData.Mode;
+import org.insa.algo.shortestpath.HeuristicProvider.Bound;
+import org.insa.graph.AccessRestrictions;
+import org.insa.graph.Graph;
+import org.insa.graph.GraphStatistics;
+import org.insa.graph.Node;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.RoadInformation.RoadType;
+import org.junit.Test;
+
+public class HeuristicProviderTest {
+
+    // Maximum speed of the roads of the graphs (in km/h).
+    private static final int MAXIMUM_SPEED = 130;
+
+    // Absolute tolerance on the distances (in meters), since Point.distance loses
+    // precision on short distances (arc cosine of a value close to 1).
+    private static final double TOLERANCE = 0.5;
+
+    /**
+     * @return Distance between the given nodes (Point.distance returns NaN
+     *         instead of 0 for very close points).
+     */
+    private static double distance(Node first, Node second) {
+        double distance = Point.distance(first.getPoint(), second.getPoint());
+        return Double.isNaN(distance) ? 0 : distance;
+    }
+
+    /**
+     * Create a graph with nodes drawn in the given area, linked by a few roads
+     * with a maximum speed of {@link #MAXIMUM_SPEED}.
+     */
+    private static Graph createGraph(float longitude, float latitude, float width,
+            float height, int nbNodes, long seed) {
+        Random random = new Random(seed);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < nbNodes; ++i) {
+            nodes.add(new Node(i, new Point(longitude + width * random.nextFloat(),
+                    latitude + height * random.nextFloat())));
+        }
+        RoadInformation motorway = new RoadInformation(RoadType.MOTORWAY,
+                new AccessRestrictions(), true, MAXIMUM_SPEED, "");
+        RoadInformation street = new RoadInformation(RoadType.RESIDENTIAL,
+                new AccessRestrictions(), false, 30, "");
+        for (int i = 1; i < nbNodes; ++i) {
+            Node.linkNodes(nodes.get(i - 1), nodes.get(i),
+                    (float) Point.distance(nodes.get(i - 1).getPoint(), nodes.get(i).getPoint()),
+                    i % 5 == 0 ? motorway : street, new ArrayList<>());
+        }
+        return new Graph("0x" + seed, "", nodes, null);
+    }
+
+    /**
+     * Check that the heuristics of the given graph, with both bounds and in both
+     * modes, never overestimate the distance (or the travel time at the maximum
+     * speed) between two nodes.
+     */
+    private static void assertAdmissible(Graph graph) {
+        HeuristicProvider provider = HeuristicProvider.of(graph);
+        double metersPerSecond = MAXIMUM_SPEED * 1000.0 / 3600.0;
+        for (Bound bound: Bound.values()) {
+            for (Node destination: graph.getNodes()) {
+                Heuristic length = provider.getHeuristic(destination.getId(), Mode.LENGTH,
+                        GraphStatistics.NO_MAXIMUM_SPEED, bound);
+                Heuristic time = provider.getHeuristic(destination.getId(), Mode.TIME,
+                        GraphStatistics.NO_MAXIMUM_SPEED, bound);
+                for (Node node: graph.getNodes()) {
+                    double distance = distance(node, destination);
+                    double estimate = length.estimate(node.getId());
+                    assertTrue(bound + ": " + estimate + " > " + distance,
+                            estimate >= 0 && estimate <= distance + TOLERANCE);
+                    assertTrue(time.estimate(node.getId()) >= 0);
+                    assertTrue(time.estimate(node.getId()) <= (distance + TOLERANCE)
+                            / metersPerSecond);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMidLatitudes() {
+        // Around Toulouse (about 80 x 110 km) and across Belgium (about 280 x 220 km).
+        assertAdmissible(createGraph(1.0f, 43.2f, 1.0f, 1.0f, 150, 1));
+        assertAdmissible(createGraph(2.5f, 49.5f, 4.0f, 2.0f, 150, 2));
+    }
+
+    @Test
+    public void testHighLatitudes() {
+        // Northern Norway (about 200 x 330 km), Scandinavia (about 1400 x 1450 km),
+        // Svalbard (about 230 x 330 km) and a small area close to the North Pole.
+        assertAdmissible(createGraph(16.0f, 68.5f, 5.0f, 3.0f, 150, 3));
+        assertAdmissible(createGraph(5.0f, 58.0f, 26.0f, 13.0f, 150, 9));
+        assertAdmissible(createGraph(12.0f, 77.0f, 10.0f, 3.0f, 150, 4));
+        assertAdmissible(createGraph(-40.0f, 88.5f, 80.0f, 1.0f, 150, 5));
+    }
+
+    @Test
+    public void testWideGraphs() {
+        // Across Russia (about 6700 km wide): the great circle between the ends
+        // reaches 74 degrees, far above the graph.
+        assertAdmissible(createGraph(0.0f, 59.0f, 120.0f, 2.0f, 150, 10));
+
+        // More than half the Earth in longitude.
+        assertAdmissible(createGraph(-100.0f, 40.0f, 250.0f, 30.0f, 150, 11));
+    }
+
+    @Test
+    public void testSouthernLatitudes() {
+        // Tierra del Fuego (about 300 x 220 km), across the antimeridian (Fiji).
+        assertAdmissible(createGraph(-70.0f, -55.0f, 4.5f, 2.0f, 150, 6));
+        assertAdmissible(createGraph(179.0f, -18.0f, 1.9f, 1.0f, 150, 7));
+    }
+
+    @Test
+    public void testPrecision() {
+        // The great-circle bound is the distance itself, the equirectangular bound
+        // is not far below it on a regional graph.
+        Graph graph = createGraph(1.0f, 43.2f, 1.0f, 1.0f, 50, 8);
+        HeuristicProvider provider = HeuristicProvider.of(graph);
+        Node destination = graph.get(0);
+        Heuristic greatCircle = provider.getHeuristic(0, Mode.LENGTH,
+                GraphStatistics.NO_MAXIMUM_SPEED, Bound.GREAT_CIRCLE);
+        Heuristic equirectangular = provider.getHeuristic(0, Mode.LENGTH,
+                GraphStatistics.NO_MAXIMUM_SPEED, Bound.EQUIRECTANGULAR);
+        for (Node node: graph.getNodes()) {
+            double distance = distance(node, destination);
+            assertEquals(distance, greatCircle.estimate(node.getId()), TOLERANCE);
+            assertTrue(equirectangular.estimate(node.getId()) >= 0.95 * distance - TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testNoCoordinates() {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node(0, null));
+        nodes.add(new Node(1, new Point(1.0f, 43.0f)));
+        HeuristicProvider provider = HeuristicProvider.of(new Graph("0x0", "", nodes, null));
+        for (Bound bound: Bound.values()) {
+            assertEquals(0, provider.getHeuristic(1, Mode.LENGTH,
+                    GraphStatistics.NO_MAXIMUM_SPEED, bound).estimate(0), 0);
+            assertEquals(0, provider.getHeuristic(1, Mode.TIME,
+                    GraphStatistics.NO_MAXIMUM_SPEED, bound).estimate(1), 0);
+        }
+    }
+
+}
@@ -1,14 +1,19 @@
 package org.insa.algo.shortestpath;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
 
 import org.insa.algo.AbstractSolution.Status;
 import org.insa.algo.*;
+import org.insa.algo.utils.PriorityQueueType;
 import org.insa.graph.*;
 import org.insa.graph.RoadInformation.RoadType;
+import org.insa.graph.generator.HierarchicalGraphGenerator;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -19,6 +24,10 @@ public class ShortestPathTestDijkstra {
 	
 	private static Node[] nodes;
 	
+	/* Filtres utilisés pour comparer les algorithmes : distance et temps */
+	private static final ArcInspector[] FILTERS = { ArcInspectorFactory.getAllFilters().get(0),
+			ArcInspectorFactory.getAllFilters().get(2) };
+	
 	@SuppressWarnings("unused")
 	private static Arc x1x2, x1x3, x2x4, x2x5, x2x6, x3x1, x3x2, x3x6, x5x3, x5x4, x5x6, x6x5;
 	
@@ -82,4 +91,109 @@ public class ShortestPathTestDijkstra {
     		}	
     	}
 	}
-}
\ No newline at end of file
+
+	/*
+	 * Compare les solutions d'un algorithme à celles d'un algorithme de référence
+	 * pour tous les couples de sommets, avec chaque filtre (même statut, et même
+	 * longueur et même durée à la tolérance près, ou mêmes arcs si sameArcs).
+	 */
+	private static void assertSameSolutions(Function<ShortestPathData, ShortestPathAlgorithm> reference,
+			Function<ShortestPathData, ShortestPathAlgorithm> algorithm, double tolerance, boolean sameArcs) {
+		for (ArcInspector inspector: FILTERS) {
+			for (Node origin: nodes) {
+				for (Node destination: nodes) {
+					ShortestPathData data = new ShortestPathData(graph, origin, destination, inspector);
+					ShortestPathSolution expected = reference.apply(data).doRun();
+					ShortestPathSolution actual = algorithm.apply(data).doRun();
+					assertEquals(expected.getStatus(), actual.getStatus());
+					if (expected.getStatus() == Status.OPTIMAL) {
+						if (sameArcs) {
+							assertEquals(expected.getPath().getArcs(), actual.getPath().getArcs());
+						}
+						assertEquals(expected.getPath().getLength(), actual.getPath().getLength(), tolerance);
+						assertEquals(expected.getPath().getMinimumTravelTime(),
+								actual.getPath().getMinimumTravelTime(), tolerance);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPrimitiveDijkstra() {
+		assertSameSolutions(DijkstraAlgorithm::new, PrimitiveDijkstraAlgorithm::new, 0, true);
+	}
+
+	@Test
+	public void testBidirectionalDijkstra() {
+		assertSameSolutions(DijkstraAlgorithm::new, BidirectionalDijkstraAlgorithm::new, 1e-6, false);
+	}
+
+	@Test
+	public void testBidirectionalAStar() {
+		assertSameSolutions(DijkstraAlgorithm::new, BidirectionalAStarAlgorithm::new, 1e-6, false);
+	}
+
+	/* Coût d'un chemin pour les données (somme des coûts de ses arcs) */
+	private static double getCost(ShortestPathData data, Path path) {
+		double cost = 0;
+		for (Arc arc: path.getArcs()) {
+			cost += data.getCost(arc);
+		}
+		return cost;
+	}
+
+	@Test
+	public void testBidirectionalAStarCoordinates() {
+		// Generated graph with real coordinates (the heuristic is not 0) and both
+		// one-way and two-way roads.
+		Graph generated = new HierarchicalGraphGenerator(30, 30, 150, 3, 13).generate();
+		Random random = new Random(7);
+		for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+			for (int i = 0; i < 40; i++) {
+				ShortestPathData data = new ShortestPathData(generated,
+						generated.get(random.nextInt(generated.size())),
+						generated.get(random.nextInt(generated.size())), inspector);
+				ShortestPathSolution expected = new DijkstraAlgorithm(data).doRun();
+				ShortestPathSolution actual = new BidirectionalAStarAlgorithm(data).doRun();
+				assertEquals(expected.getStatus(), actual.getStatus());
+				if (expected.getStatus() == Status.OPTIMAL) {
+					double cost = getCost(data, expected.getPath());
+					assertTrue(actual.getPath().isValid());
+					assertEquals(data.getOrigin(), actual.getPath().getOrigin());
+					assertEquals(data.getDestination(), actual.getPath().getDestination());
+					assertEquals(cost, getCost(data, actual.getPath()), 1e-5 * cost);
+					if (inspector == ArcInspectorFactory.getAllFilters().get(2)) {
+						// Fastest path for cars: the cost is the travel time.
+						assertEquals(expected.getPath().getMinimumTravelTime(),
+								actual.getPath().getMinimumTravelTime(), 1e-5 * cost);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDeltaStepping() {
+		for (double delta: new double[] { 0.5, 2, 100 }) {
+			assertSameSolutions(BellmanFordAlgorithm::new, data -> new DeltaSteppingAlgorithm(data, delta, 2),
+					1e-6, false);
+		}
+	}
+
+	@Test
+	public void testRadixDijkstra() {
+		// Costs are rounded to the thousandth of their unit.
+		assertSameSolutions(BellmanFordAlgorithm::new, RadixDijkstraAlgorithm::new, 1e-2, false);
+	}
+
+	@Test
+	public void testQueueTypes() {
+		for (PriorityQueueType queueType: PriorityQueueType.values()) {
+			assertSameSolutions(BellmanFordAlgorithm::new, data -> new DijkstraAlgorithm(data, queueType),
+					1e-6, false);
+			assertSameSolutions(BellmanFordAlgorithm::new, data -> new AStarAlgorithm(data, queueType),
+					1e-6, false);
+		}
+	}
+}
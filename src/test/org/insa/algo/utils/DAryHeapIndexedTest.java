@@ -0,0 +1,20 @@
+package org.insa.algo.utils;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class DAryHeapIndexedTest extends DAryHeapTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        // Use the index of the elements in the data as keys, with 8 children per
+        // node.
+        Map<MutableInteger, Integer> keys = new IdentityHashMap<>();
+        for (int i = 0; i < parameters.data.length; ++i) {
+            keys.put(parameters.data[i], i);
+        }
+        return new DAryHeap<>(8, MutableInteger::get, x -> keys.getOrDefault(x, -1),
+                parameters.data.length);
+    }
+
+}
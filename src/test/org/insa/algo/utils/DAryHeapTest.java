@@ -0,0 +1,15 @@
+package org.insa.algo.utils;
+
+public class DAryHeapTest extends PriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new DAryHeap<>(4, MutableInteger::get);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new DAryHeap<>((DAryHeap<MutableInteger>) queue);
+    }
+
+}
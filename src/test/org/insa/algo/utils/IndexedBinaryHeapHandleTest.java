@@ -0,0 +1,10 @@
+package org.insa.algo.utils;
+
+public class IndexedBinaryHeapHandleTest extends IndexedBinaryHeapTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new IndexedBinaryHeap<>();
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.insa.algo.utils;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class IndexedBinaryHeapTest extends PriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        // Use the index of the elements in the data as keys.
+        Map<MutableInteger, Integer> keys = new IdentityHashMap<>();
+        for (int i = 0; i < parameters.data.length; ++i) {
+            keys.put(parameters.data[i], i);
+        }
+        return new IndexedBinaryHeap<>(x -> keys.getOrDefault(x, -1), parameters.data.length);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new IndexedBinaryHeap<>((IndexedBinaryHeap<MutableInteger>) queue);
+    }
+
+}
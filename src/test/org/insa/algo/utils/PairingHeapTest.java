@@ -0,0 +1,15 @@
+package org.insa.algo.utils;
+
+public class PairingHeapTest extends PriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new PairingHeap<>();
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new PairingHeap<>((PairingHeap<MutableInteger>) queue);
+    }
+
+}
@@ -0,0 +1,208 @@
+package org.insa.algo.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.insa.graph.Graph;
+import org.junit.Test;
+
+public class PreprocessingCacheTest {
+
+    /**
+     * @return A new empty graph with the given map ID.
+     */
+    private static Graph createGraph(String mapId) {
+        return new Graph(mapId, "", new ArrayList<>(), null);
+    }
+
+    @Test
+    public void testCache() {
+        PreprocessingCache<Object> cache = new PreprocessingCache<>();
+        Graph graph = createGraph("0x1"), other = createGraph("0x1");
+        Object key = new Object();
+        Object data = cache.get(graph, key, Object::new);
+        assertSame(data, cache.get(graph, key, Object::new));
+        assertNotSame(data, cache.get(graph, new Object(), Object::new));
+        assertNotSame(data, cache.get(other, key, Object::new));
+    }
+
+    @Test
+    public void testConcurrentCallers() throws InterruptedException {
+        PreprocessingCache<Object> cache = new PreprocessingCache<>();
+        Graph graph = createGraph("0x1");
+        Object key = new Object();
+        CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+        AtomicInteger nbBuilds = new AtomicInteger();
+        ExecutorService executor = Tasks.newFixedThreadPool(4, "preprocessing-cache-test");
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                futures.add(executor.submit(() -> cache.get(graph, key, () -> {
+                    nbBuilds.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (InterruptedException exception) {
+                        throw new IllegalStateException(exception);
+                    }
+                    return new Object();
+                })));
+            }
+
+            // Data for another key is available while the first one is being built.
+            started.await();
+            Object data = new Object();
+            assertSame(data, cache.get(graph, new Object(), () -> data));
+
+            release.countDown();
+            Object result = Tasks.await(futures.get(0));
+            for (Future<Object> future: futures) {
+                assertSame(result, Tasks.await(future));
+            }
+            assertEquals(1, nbBuilds.get());
+        }
+        finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        PreprocessingCache<Object> cache = new PreprocessingCache<>();
+        Graph graph = createGraph("0x1");
+        Object key = new Object();
+        try {
+            cache.get(graph, key, () -> {
+                throw new ArithmeticException("failure");
+            });
+            fail("exception not re-thrown");
+        }
+        catch (ArithmeticException exception) {
+            assertEquals("failure", exception.getMessage());
+        }
+
+        // The failed build is not cached.
+        Object data = new Object();
+        assertSame(data, cache.get(graph, key, () -> data));
+    }
+
+    @Test
+    public void testFile() {
+        File directory = new File("preprocessing");
+        assertEquals(new File(directory, "0x1_2f_3.mapch"),
+                PreprocessingCache.getFile(directory, createGraph("0x1/2f 3"), null, "mapch"));
+        assertEquals(new File(directory, "0x1_" + String.format("%08x", "key".hashCode())
+                + ".mapalt"), PreprocessingCache.getFile(directory, createGraph("0x1"), "key",
+                        "mapalt"));
+    }
+
+    @Test
+    public void testReadOrBuild() throws IOException {
+        File directory = Files.createTempDirectory("preprocessing").toFile();
+        File file = new File(new File(directory, "sub"), "data.txt");
+        PreprocessingCache.Reader<String> reader = f -> {
+            String content = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+            if (!content.startsWith("data")) {
+                throw new IOException("invalid content: " + content);
+            }
+            return content;
+        };
+        PreprocessingCache.Writer<String> writer = (f, data) -> Files.write(f.toPath(),
+                data.getBytes(StandardCharsets.UTF_8));
+        try {
+            // Without a file, the data is only built.
+            assertEquals("data1", PreprocessingCache.readOrBuild(null, reader, () -> "data1",
+                    writer));
+
+            // The data is built and written, and then read.
+            assertEquals("data2", PreprocessingCache.readOrBuild(file, reader, () -> "data2",
+                    writer));
+            assertTrue(file.isFile());
+            assertEquals("data2", PreprocessingCache.readOrBuild(file, reader, () -> "data3",
+                    writer));
+
+            // An invalid file is replaced.
+            writer.write(file, "invalid");
+            assertEquals("data4", PreprocessingCache.readOrBuild(file, reader, () -> "data4",
+                    writer));
+            assertEquals("data4", reader.read(file));
+        }
+        finally {
+            file.delete();
+            file.getParentFile().delete();
+            directory.delete();
+        }
+        assertNull(System.getProperty(PreprocessingCache.DIRECTORY_PROPERTY));
+        assertNull(PreprocessingCache.getDirectory());
+    }
+
+    @Test
+    public void testReadOrBuildFailures() throws IOException {
+        File file = Files.createTempFile("preprocessing", ".txt").toFile();
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+
+        };
+        Logger logger = Logger.getLogger(PreprocessingCache.class.getName());
+        logger.addHandler(handler);
+        try {
+            // The file cannot be read and the data cannot be written: both failures
+            // are logged, and the file is deleted.
+            Files.write(file.toPath(), "invalid".getBytes(StandardCharsets.UTF_8));
+            assertEquals("data", PreprocessingCache.readOrBuild(file, f -> {
+                throw new IOException("invalid file");
+            }, () -> "data", (f, data) -> {
+                Files.write(f.toPath(), "partial".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("disk full");
+            }));
+            assertFalse(file.exists());
+            assertEquals(2, records.size());
+            for (LogRecord record: records) {
+                assertEquals(Level.WARNING, record.getLevel());
+                assertTrue(record.getMessage().contains(file.toString()));
+            }
+            assertTrue(records.get(0).getMessage().contains("invalid file"));
+            assertTrue(records.get(1).getMessage().contains("disk full"));
+        }
+        finally {
+            logger.removeHandler(handler);
+            file.delete();
+        }
+    }
+
+}
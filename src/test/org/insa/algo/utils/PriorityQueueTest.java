@@ -1,6 +1,7 @@
 package org.insa.algo.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -40,6 +41,36 @@ public abstract class PriorityQueueTest {
      */
     public abstract PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue);
 
+    /**
+     * Restore the order of the given queue after the value of the given element
+     * has been modified, using decrease-key or update if the queue is an
+     * {@link AddressablePriorityQueue}, or removing the element before the
+     * modification and inserting it back after otherwise.
+     * 
+     * @param queue Queue containing the element.
+     * @param x Element to modify.
+     * @param value New value for the element.
+     */
+    private static void update(PriorityQueue<MutableInteger> queue, MutableInteger x,
+            int value) {
+        if (!(queue instanceof AddressablePriorityQueue)) {
+            queue.remove(x);
+            x.set(value);
+            queue.insert(x);
+            return;
+        }
+        AddressablePriorityQueue<MutableInteger> addressable;
+        addressable = (AddressablePriorityQueue<MutableInteger>) queue;
+        boolean decrease = value < x.get();
+        x.set(value);
+        if (decrease) {
+            addressable.decreaseKey(x);
+        }
+        else {
+            addressable.update(x);
+        }
+    }
+
     protected static class MutableInteger implements Comparable<MutableInteger> {
 
         // Actual value
@@ -317,4 +348,57 @@ public abstract class PriorityQueueTest {
         }
     }
 
+    @Test
+    public void testDecreaseKey() {
+        Assume.assumeFalse(queue.isEmpty());
+        int min = Collections.min(Arrays.asList(parameters.data)).get();
+        for (MutableInteger mi: parameters.data) {
+            update(queue, mi, --min);
+            assertEquals(parameters.data.length, queue.size());
+            assertEquals(mi, queue.findMin());
+        }
+    }
+
+    @Test
+    public void testUpdate() {
+        Assume.assumeFalse(queue.isEmpty());
+        int max = Collections.max(Arrays.asList(parameters.data)).get();
+        for (int i = 0; i < parameters.data.length; i += 2) {
+            update(queue, parameters.data[i], ++max);
+        }
+        assertEquals(parameters.data.length, queue.size());
+        MutableInteger[] range = Arrays.copyOf(parameters.data, parameters.data.length);
+        Arrays.sort(range);
+        for (MutableInteger x: range) {
+            assertEquals(x, queue.deleteMin());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testContainsAndClear() {
+        Assume.assumeTrue(queue instanceof AddressablePriorityQueue);
+        AddressablePriorityQueue<MutableInteger> addressable;
+        addressable = (AddressablePriorityQueue<MutableInteger>) queue;
+        for (MutableInteger x: parameters.data) {
+            assertTrue(addressable.contains(x));
+        }
+        if (!queue.isEmpty()) {
+            MutableInteger min = queue.deleteMin();
+            assertFalse(addressable.contains(min));
+            queue.insert(min);
+        }
+        addressable.clear();
+        assertTrue(queue.isEmpty());
+        for (MutableInteger x: parameters.data) {
+            assertFalse(addressable.contains(x));
+        }
+
+        // Elements can be inserted again after a clear.
+        for (MutableInteger x: parameters.data) {
+            queue.insert(x);
+        }
+        assertEquals(parameters.data.length, queue.size());
+    }
+
 }
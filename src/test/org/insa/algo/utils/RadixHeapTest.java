@@ -0,0 +1,85 @@
+package org.insa.algo.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RadixHeapTest {
+
+    @Test
+    public void testSorted() {
+        RadixHeap heap = new RadixHeap();
+        long[] keys = { 7, 0, 3, 1L << 40, 3, 12, 1000, 5, 1L << 40, Long.MAX_VALUE };
+        for (int i = 0; i < keys.length; ++i) {
+            heap.insert(i, keys[i]);
+        }
+        assertEquals(keys.length, heap.size());
+        long last = 0;
+        while (!heap.isEmpty()) {
+            long min = heap.findMinKey();
+            int item = heap.deleteMin();
+            assertEquals(keys[item], heap.getLastKey());
+            assertEquals(min, heap.getLastKey());
+            assertTrue(last <= heap.getLastKey());
+            last = heap.getLastKey();
+        }
+    }
+
+    @Test
+    public void testMonotone() {
+        // Insert keys above the last key removed, as Dijkstra's algorithm does, and
+        // check the heap against a naive scan.
+        Random random = new Random(42);
+        RadixHeap heap = new RadixHeap();
+        long[] keys = new long[5000];
+        boolean[] present = new boolean[keys.length];
+        int nbItems = 0, size = 0;
+        for (int step = 0; step < 20000; ++step) {
+            if (nbItems < keys.length && (size == 0 || random.nextInt(3) > 0)) {
+                keys[nbItems] = heap.getLastKey() + random.nextInt(1 << random.nextInt(20));
+                present[nbItems] = true;
+                heap.insert(nbItems, keys[nbItems]);
+                nbItems++;
+                size++;
+            }
+            else if (size == 0) {
+                break;
+            }
+            else {
+                long expected = Long.MAX_VALUE;
+                for (int i = 0; i < nbItems; ++i) {
+                    if (present[i]) {
+                        expected = Math.min(keys[i], expected);
+                    }
+                }
+                int item = heap.deleteMin();
+                assertTrue(present[item]);
+                assertEquals(expected, keys[item]);
+                assertEquals(expected, heap.getLastKey());
+                present[item] = false;
+                size--;
+            }
+            assertEquals(size, heap.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotMonotone() {
+        RadixHeap heap = new RadixHeap();
+        heap.insert(0, 10);
+        heap.deleteMin();
+        heap.insert(1, 9);
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testEmpty() {
+        RadixHeap heap = new RadixHeap();
+        heap.insert(0, 10);
+        heap.clear();
+        heap.deleteMin();
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.insa.algo.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.insa.graph.Node;
+import org.junit.Test;
+
+public class SearchWorkspaceTest {
+
+    @Test
+    public void testReset() {
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(10)) {
+            workspace.setDistance(3, 2.5, 7);
+            workspace.mark(3);
+            workspace.setObject(4, "label");
+            workspace.getHeap().insert(5, 1.0);
+
+            assertTrue(workspace.isReached(3));
+            assertEquals(2.5, workspace.getDistance(3), 0);
+            assertEquals(7, workspace.getPredecessorArc(3));
+            assertTrue(workspace.isMarked(3));
+            assertEquals("label", workspace.getObject(4));
+            assertEquals(Double.POSITIVE_INFINITY, workspace.getDistance(4), 0);
+
+            workspace.reset();
+            for (int node = 0; node < 10; ++node) {
+                assertFalse(workspace.isReached(node));
+                assertFalse(workspace.isMarked(node));
+                assertEquals(Double.POSITIVE_INFINITY, workspace.getDistance(node), 0);
+                assertEquals(-1, workspace.getPredecessorArc(node));
+                assertNull(workspace.getObject(node));
+            }
+            assertTrue(workspace.getHeap().isEmpty());
+            assertFalse(workspace.getHeap().contains(5));
+        }
+    }
+
+    @Test
+    public void testObjectsReleased() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(100);
+        for (int node = 0; node < 100; node += 3) {
+            workspace.setObject(node, "label " + node);
+        }
+        workspace.setObject(3, "other label");
+        workspace.setObject(6, null);
+        assertEquals(33, workspace.getObjectCount());
+        assertEquals("other label", workspace.getObject(3));
+
+        // Objects are released by reset()...
+        workspace.reset();
+        assertEquals(0, workspace.getObjectCount());
+        workspace.setObject(6, "label");
+        workspace.setObject(99, "label");
+        assertEquals(2, workspace.getObjectCount());
+
+        // ...and by close(), so pooled workspaces do not keep them reachable.
+        workspace.close();
+        assertEquals(0, workspace.getObjectCount());
+        try (SearchWorkspace reused = SearchWorkspace.acquire(100)) {
+            assertSame(workspace, reused);
+            assertNull(reused.getObject(6));
+        }
+    }
+
+    @Test
+    public void testPool() {
+        SearchWorkspace first = SearchWorkspace.acquire(10);
+        SearchWorkspace second = SearchWorkspace.acquire(10);
+        assertNotSame(first, second);
+        first.setDistance(1, 1.0, 0);
+        first.close();
+        second.close();
+
+        // Workspaces are reused, reset, and grown if needed.
+        SearchWorkspace third = SearchWorkspace.acquire(20);
+        SearchWorkspace fourth = SearchWorkspace.acquire(5);
+        assertSame(second, third);
+        assertSame(first, fourth);
+        assertTrue(third.capacity() >= 20);
+        assertTrue(fourth.capacity() >= 10);
+        assertFalse(fourth.isReached(1));
+        third.close();
+        fourth.close();
+    }
+
+    @Test
+    public void testLabelQueues() {
+        for (PriorityQueueType type: PriorityQueueType.values()) {
+            PriorityQueue<Label> queue;
+            try (SearchWorkspace workspace = SearchWorkspace.acquire(10)) {
+                queue = workspace.getLabelQueue(type);
+                for (int node = 0; node < 10; node += 2) {
+                    queue.insert(new Label(new Node(node, null)));
+                }
+            }
+
+            // Queues whose creation depends on the capacity are reused, and emptied.
+            try (SearchWorkspace workspace = SearchWorkspace.acquire(10)) {
+                PriorityQueue<Label> reused = workspace.getLabelQueue(type);
+                assertEquals(queue instanceof AddressablePriorityQueue, queue == reused);
+                assertTrue(reused.isEmpty());
+                reused.insert(new Label(new Node(2, null)));
+                assertEquals(2, reused.deleteMin().getNode().getId());
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleClose() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        workspace.close();
+        workspace.close();
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.insa.algo.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TasksTest {
+
+    @Test
+    public void testThreadPool() throws InterruptedException {
+        ExecutorService executor = Tasks.newFixedThreadPool(2, "tasks-test");
+        try {
+            assertTrue(Tasks.await(executor.submit(() -> Thread.currentThread().isDaemon())));
+            assertEquals("tasks-test",
+                    Tasks.await(executor.submit(() -> Thread.currentThread().getName())));
+        }
+        finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSharedPool() throws InterruptedException {
+        ExecutorService executor = Tasks.getSharedPool(2);
+        assertSame(executor, Tasks.getSharedPool(2));
+        assertNotSame(executor, Tasks.getSharedPool(3));
+        assertTrue(Tasks.await(executor.submit(() -> Thread.currentThread().isDaemon())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfThreads() {
+        Tasks.newFixedThreadPool(0, "tasks-test");
+    }
+
+    @Test
+    public void testAwaitExceptions() throws InterruptedException {
+        ExecutorService executor = Tasks.newFixedThreadPool(1, "tasks-test");
+        try {
+            try {
+                Tasks.await(executor.submit(() -> {
+                    throw new ArithmeticException("runtime");
+                }));
+                fail("exception not re-thrown");
+            }
+            catch (ArithmeticException exception) {
+                assertEquals("runtime", exception.getMessage());
+            }
+
+            try {
+                Tasks.await(executor.submit(() -> {
+                    throw new IOException("checked");
+                }));
+                fail("exception not re-thrown");
+            }
+            catch (IllegalStateException exception) {
+                assertTrue(exception.getCause() instanceof IOException);
+            }
+
+            try {
+                Tasks.await(executor.submit(() -> {
+                    throw new IOException("checked");
+                }), IOException.class);
+                fail("exception not re-thrown");
+            }
+            catch (IOException exception) {
+                assertEquals("checked", exception.getMessage());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.insa.graph;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graph.AccessRestrictions.AccessMode;
+import org.insa.graph.AccessRestrictions.AccessRestriction;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AccessRestrictionsTest {
+
+    // Random restrictions and the maps used to create them.
+    private static List<EnumMap<AccessMode, AccessRestriction>> maps;
+    private static List<AccessRestrictions> restrictions;
+
+    // Random sets of modes and restrictions to query.
+    private static List<EnumSet<AccessMode>> modeSets;
+    private static List<EnumSet<AccessRestriction>> restrictionSets;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(42);
+        AccessRestriction[] allRestrictions = AccessRestriction.values();
+
+        maps = new ArrayList<>();
+        restrictions = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            EnumMap<AccessMode, AccessRestriction> map = new EnumMap<>(AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                // Leave some modes unset (unknown).
+                if (random.nextInt(8) != 0) {
+                    map.put(mode, allRestrictions[random.nextInt(allRestrictions.length)]);
+                }
+            }
+            maps.add(map);
+            restrictions.add(new AccessRestrictions(map));
+        }
+
+        modeSets = new ArrayList<>();
+        restrictionSets = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            EnumSet<AccessMode> modes = EnumSet.noneOf(AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                if (random.nextInt(3) == 0) {
+                    modes.add(mode);
+                }
+            }
+            modeSets.add(modes);
+            EnumSet<AccessRestriction> set = EnumSet.noneOf(AccessRestriction.class);
+            for (AccessRestriction restriction: allRestrictions) {
+                if (random.nextBoolean()) {
+                    set.add(restriction);
+                }
+            }
+            restrictionSets.add(set);
+        }
+        modeSets.add(AccessMode.ALL);
+        restrictionSets.add(AccessRestriction.ALLOWED_FOR_SOMETHING);
+    }
+
+    @Test
+    public void testDefault() {
+        AccessRestrictions access = new AccessRestrictions();
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(AccessRestriction.UNKNOWN, access.getRestrictionFor(mode));
+        }
+    }
+
+    @Test
+    public void testGetRestrictionFor() {
+        for (int i = 0; i < maps.size(); ++i) {
+            for (AccessMode mode: AccessMode.values()) {
+                assertEquals(maps.get(i).getOrDefault(mode, AccessRestriction.UNKNOWN),
+                        restrictions.get(i).getRestrictionFor(mode));
+            }
+        }
+    }
+
+    @Test
+    public void testPacked() {
+        for (int i = 0; i < maps.size(); ++i) {
+            int packed = 0;
+            for (AccessMode mode: AccessMode.values()) {
+                packed |= maps.get(i).getOrDefault(mode, AccessRestriction.UNKNOWN)
+                        .ordinal() << (4 * mode.ordinal());
+            }
+            AccessRestrictions access = new AccessRestrictions(packed);
+            for (AccessMode mode: AccessMode.values()) {
+                assertEquals(restrictions.get(i).getRestrictionFor(mode),
+                        access.getRestrictionFor(mode));
+            }
+            for (EnumSet<AccessRestriction> set: restrictionSets) {
+                int mask = AccessRestriction.maskOf(set);
+                assertEquals(restrictions.get(i).getAllowedModes(mask),
+                        access.getAllowedModes(mask));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPacked() {
+        new AccessRestrictions(AccessRestriction.values().length << 8);
+    }
+
+    @Test
+    public void testIsAllowedForAny() {
+        for (int i = 0; i < maps.size(); ++i) {
+            AccessRestrictions access = restrictions.get(i);
+            for (EnumSet<AccessRestriction> set: restrictionSets) {
+                int mask = AccessRestriction.maskOf(set);
+                for (AccessMode mode: AccessMode.values()) {
+                    boolean expected = set.contains(
+                            maps.get(i).getOrDefault(mode, AccessRestriction.UNKNOWN));
+                    assertEquals(expected, access.isAllowedForAny(mode, set));
+                    assertEquals(expected, access.isAllowedForAny(mode, mask));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAreAllAllowedForAny() {
+        for (int i = 0; i < maps.size(); ++i) {
+            AccessRestrictions access = restrictions.get(i);
+            for (EnumSet<AccessRestriction> set: restrictionSets) {
+                for (EnumSet<AccessMode> modes: modeSets) {
+                    boolean expected = true;
+                    for (AccessMode mode: modes) {
+                        expected = expected && set.contains(
+                                maps.get(i).getOrDefault(mode, AccessRestriction.UNKNOWN));
+                    }
+                    assertEquals(expected, access.areAllAllowedForAny(modes, set));
+                    assertEquals(expected, access.areAllAllowedForAny(AccessMode.maskOf(modes),
+                            AccessRestriction.maskOf(set)));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+package org.insa.graph;
+
+import static org.insa.graph.PointBufferTest.assertPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graph.RoadInformation.RoadType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArcPointsTest {
+
+    // Roads of the graphs.
+    private static final RoadInformation ONE_WAY = new RoadInformation(RoadType.MOTORWAY,
+            new AccessRestrictions(), true, 130, ""),
+            TWO_WAYS = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(), false,
+                    50, "");
+
+    // Origin, destination, number of intermediate points and road of each arc.
+    // Two-way roads are linked from both the lower and the higher ID, since the
+    // points are then reversed.
+    private static final int[][] ARCS = { { 0, 1, 0 }, { 1, 2, 1 }, { 3, 2, 3 }, { 0, 3, 2 },
+            { 4, 0, 0 }, { 2, 4, 4 }, { 4, 1, 1 } };
+    private static final boolean[] ONE_WAYS = { true, false, false, true, false, true, true };
+
+    // Graphs with the points of the arcs in lists and in a buffer, and buffer.
+    private Graph listGraph, bufferGraph;
+    private PointBuffer buffer;
+
+    /**
+     * @return Intermediate point of the given arc.
+     */
+    private static Point getIntermediatePoint(int arc, int index) {
+        return new Point(10 * arc + index, -10 * arc - index);
+    }
+
+    /**
+     * @return Point of the given node.
+     */
+    private static Point getNodePoint(int node) {
+        return new Point(0.5f + node, 45.5f + node);
+    }
+
+    @Before
+    public void initAll() {
+        List<Node> listNodes = new ArrayList<>(), bufferNodes = new ArrayList<>();
+        for (int node = 0; node < 5; ++node) {
+            listNodes.add(new Node(node, getNodePoint(node)));
+            bufferNodes.add(new Node(node, getNodePoint(node)));
+        }
+        this.buffer = new PointBuffer(1);
+        for (int arc = 0; arc < ARCS.length; ++arc) {
+            int origin = ARCS[arc][0], destination = ARCS[arc][1], count = ARCS[arc][2];
+            RoadInformation info = ONE_WAYS[arc] ? ONE_WAY : TWO_WAYS;
+
+            // Points as stored by the list-based reader: origin, intermediate points
+            // and destination.
+            ArrayList<Point> points = new ArrayList<>();
+            points.add(getNodePoint(origin));
+            int offset = this.buffer.size();
+            for (int i = 0; i < count; ++i) {
+                Point point = getIntermediatePoint(arc, i);
+                points.add(point);
+                this.buffer.add(point.getLongitude(), point.getLatitude());
+            }
+            points.add(getNodePoint(destination));
+
+            Node.linkNodes(listNodes.get(origin), listNodes.get(destination), 100, info,
+                    points);
+            Node.linkNodes(bufferNodes.get(origin), bufferNodes.get(destination), 100, info,
+                    this.buffer, offset, count);
+        }
+        this.listGraph = new Graph("0x1", "", listNodes, null);
+        this.bufferGraph = new Graph("0x1", "", bufferNodes, null);
+    }
+
+    /**
+     * Check that both lists contain points with the same coordinates.
+     */
+    private static void assertSamePoints(List<Point> expected, List<Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertPoint(expected.get(i).getLongitude(), expected.get(i).getLatitude(),
+                    actual.get(i));
+        }
+    }
+
+    /**
+     * @return The arcs from the given origin to the given destination in the given
+     *         graph.
+     */
+    private static List<Arc> getArcs(Graph graph, int origin, int destination) {
+        List<Arc> arcs = new ArrayList<>();
+        for (Arc arc: graph.get(origin).getSuccessors()) {
+            if (arc.getDestination().getId() == destination) {
+                arcs.add(arc);
+            }
+        }
+        return arcs;
+    }
+
+    @Test
+    public void testOrderAndLength() {
+        for (int arc = 0; arc < ARCS.length; ++arc) {
+            int origin = ARCS[arc][0], destination = ARCS[arc][1], count = ARCS[arc][2];
+            List<Arc> arcs = getArcs(this.bufferGraph, origin, destination);
+            assertEquals(1, arcs.size());
+            List<Point> points = arcs.get(0).getPoints();
+            assertEquals(count + 2, points.size());
+            assertSamePoints(Arrays.asList(getNodePoint(origin)), points.subList(0, 1));
+            for (int i = 0; i < count; ++i) {
+                Point expected = getIntermediatePoint(arc, i);
+                assertPoint(expected.getLongitude(), expected.getLatitude(), points.get(i + 1));
+            }
+            assertSamePoints(Arrays.asList(getNodePoint(destination)),
+                    points.subList(count + 1, count + 2));
+            try {
+                points.get(count + 2);
+                fail("point " + (count + 2) + " of an arc with " + points.size() + " points");
+            }
+            catch (IndexOutOfBoundsException exception) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testReversal() {
+        for (int arc = 0; arc < ARCS.length; ++arc) {
+            int origin = ARCS[arc][0], destination = ARCS[arc][1];
+            List<Arc> reverse = getArcs(this.bufferGraph, destination, origin);
+            if (ONE_WAYS[arc]) {
+                continue;
+            }
+            assertEquals(1, reverse.size());
+            List<Point> forward = getArcs(this.bufferGraph, origin, destination).get(0)
+                    .getPoints();
+            List<Point> backward = reverse.get(0).getPoints();
+            assertEquals(forward.size(), backward.size());
+            for (int i = 0; i < forward.size(); ++i) {
+                Point point = forward.get(forward.size() - 1 - i);
+                assertPoint(point.getLongitude(), point.getLatitude(), backward.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsLists() {
+        for (Node node: this.listGraph.getNodes()) {
+            List<Arc> listArcs = node.getSuccessors(),
+                    bufferArcs = this.bufferGraph.get(node.getId()).getSuccessors();
+            assertEquals(listArcs.size(), bufferArcs.size());
+            for (int i = 0; i < listArcs.size(); ++i) {
+                Arc listArc = listArcs.get(i), bufferArc = bufferArcs.get(i);
+                assertEquals(listArc.getDestination().getId(),
+                        bufferArc.getDestination().getId());
+                assertEquals(listArc.getClass(), bufferArc.getClass());
+                assertSamePoints(listArc.getPoints(), bufferArc.getPoints());
+            }
+        }
+    }
+
+    @Test
+    public void testTranspose() {
+        for (Graph graph: new Graph[] { this.listGraph, this.bufferGraph }) {
+            Graph transpose = graph.transpose();
+            for (Node node: graph.getNodes()) {
+                for (Arc arc: node.getSuccessors()) {
+                    // The transposed arc goes the other way, with the same points.
+                    int nbTransposed = 0;
+                    for (Arc transposed: getArcs(transpose, arc.getDestination().getId(),
+                            node.getId())) {
+                        List<Point> points = transposed.getPoints();
+                        assertEquals(arc.getPoints().size(), points.size());
+                        boolean same = true;
+                        for (int i = 0; i < points.size(); ++i) {
+                            Point expected = arc.getPoints().get(points.size() - 1 - i);
+                            same &= expected.getLongitude() == points.get(i).getLongitude()
+                                    && expected.getLatitude() == points.get(i).getLatitude();
+                        }
+                        nbTransposed += same ? 1 : 0;
+                    }
+                    assertEquals(1, nbTransposed);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransposeSharesPoints() {
+        Graph transpose = this.bufferGraph.transpose();
+
+        // Arc 2 is a two-way road linked from the higher ID (points reversed in the
+        // buffer), arc 5 a one-way road (copied by copyArc).
+        for (int arc: new int[] { 2, 5 }) {
+            int origin = ARCS[arc][0], destination = ARCS[arc][1];
+            List<Point> before = getArcs(transpose, destination, origin).get(0).getPoints();
+            int index = before.size() - 2;
+            Point point = before.get(index);
+
+            // Modify the point in the buffer: the transposed arc sees the change, so
+            // the points are shared and not copied.
+            int bufferIndex = -1;
+            for (int i = 0; i < this.buffer.size(); ++i) {
+                if (this.buffer.getLongitude(i) == point.getLongitude()
+                        && this.buffer.getLatitude(i) == point.getLatitude()) {
+                    bufferIndex = i;
+                }
+            }
+            assertTrue(bufferIndex >= 0);
+            this.buffer.set(bufferIndex, 1000 + arc, 2000 + arc);
+            assertPoint(1000 + arc, 2000 + arc,
+                    getArcs(transpose, destination, origin).get(0).getPoints().get(index));
+            assertPoint(1000 + arc, 2000 + arc, getArcs(this.bufferGraph, origin, destination)
+                    .get(0).getPoints().get(before.size() - 1 - index));
+        }
+    }
+
+    @Test
+    public void testNodePointsShared() {
+        // The ends of the packed arcs are the points of the nodes, not copies.
+        for (Node node: this.bufferGraph.getNodes()) {
+            for (Arc arc: node.getSuccessors()) {
+                List<Point> points = arc.getPoints();
+                assertSame(node.getPoint(), points.get(0));
+                assertSame(arc.getDestination().getPoint(), points.get(points.size() - 1));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        this.bufferGraph.get(0).getSuccessors().get(0).getPoints().set(0, new Point(0, 0));
+    }
+
+}
@@ -0,0 +1,164 @@
+package org.insa.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.insa.graph.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    // List of nodes
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+
+        // Create nodes
+        nodes = new Node[5];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(i, -i));
+        }
+
+        Node.linkNodes(nodes[0], nodes[1], 1,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null),
+                new ArrayList<>());
+        Node.linkNodes(nodes[0], nodes[2], 2,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null),
+                new ArrayList<>());
+        Node.linkNodes(nodes[0], nodes[4], 3,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null), new ArrayList<>());
+        Node.linkNodes(nodes[1], nodes[2], 4,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null),
+                new ArrayList<>());
+        Node.linkNodes(nodes[2], nodes[3], 5,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null), new ArrayList<>());
+        Node.linkNodes(nodes[3], nodes[0], 6,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null),
+                new ArrayList<>());
+        Node.linkNodes(nodes[4], nodes[0], 7,
+                new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null), new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+
+    }
+
+    @Test
+    public void testSuccessors() {
+        CompactGraph compact = graph.getCompactGraph();
+        assertSame(compact, graph.getCompactGraph());
+        assertEquals(graph.size(), compact.size());
+
+        int nbArcs = 0;
+        for (Node node: graph) {
+            assertEquals(node.getNumberOfSuccessors(),
+                    compact.getNumberOfSuccessors(node.getId()));
+            int arc = compact.getFirstArc(node.getId());
+            for (Arc successor: node.getSuccessors()) {
+                assertSame(successor, compact.getArc(arc));
+                assertEquals(node.getId(), compact.getOrigin(arc));
+                assertEquals(successor.getDestination().getId(), compact.getTarget(arc));
+                assertEquals(successor.getLength(), compact.getLength(arc), 1e-6);
+                assertSame(successor.getRoadInformation(), compact.getRoadInformation(arc));
+                ++arc;
+                ++nbArcs;
+            }
+            assertEquals(compact.getEndArc(node.getId()), arc);
+        }
+        assertEquals(nbArcs, compact.getArcCount());
+    }
+
+    @Test
+    public void testReverseArcs() {
+        CompactGraph compact = graph.getCompactGraph();
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            int reverse = compact.getReverseArc(arc);
+            if (compact.getRoadInformation(arc).isOneWay()) {
+                assertEquals(-1, reverse);
+            }
+            else {
+                assertEquals(arc, compact.getReverseArc(reverse));
+                assertEquals(compact.getOrigin(arc), compact.getTarget(reverse));
+                assertEquals(compact.getTarget(arc), compact.getOrigin(reverse));
+            }
+        }
+    }
+
+    @Test
+    public void testGetGraph() {
+        CompactGraph compact = graph.getCompactGraph();
+
+        // The graph created from a compact graph has the same structure.
+        Graph other = new CompactGraph("ID", "", offsetsOf(compact), targetsOf(compact),
+                lengthsOf(compact), infoIndicesOf(compact),
+                compact.getRoadInformations().toArray(new RoadInformation[0]),
+                reversesOf(compact), new float[graph.size()], new float[graph.size()], null)
+                        .getGraph();
+        assertEquals(graph.size(), other.size());
+        for (Node node: graph) {
+            Node otherNode = other.get(node.getId());
+            assertEquals(node.getNumberOfSuccessors(), otherNode.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i), otherArc = otherNode.getSuccessors()
+                        .get(i);
+                assertEquals(arc.getDestination(), otherArc.getDestination());
+                assertEquals(arc.getLength(), otherArc.getLength(), 1e-6);
+                assertSame(arc.getRoadInformation(), otherArc.getRoadInformation());
+            }
+        }
+        assertSame(other, other.getCompactGraph().getGraph());
+
+        // Two-ways roads are represented by a single forward arc.
+        assertEquals(graph.transpose().getCompactGraph().getArcCount(),
+                other.transpose().getCompactGraph().getArcCount());
+    }
+
+    private static int[] offsetsOf(CompactGraph compact) {
+        int[] offsets = new int[compact.size() + 1];
+        for (int node = 0; node < compact.size(); ++node) {
+            offsets[node + 1] = compact.getEndArc(node);
+        }
+        return offsets;
+    }
+
+    private static int[] targetsOf(CompactGraph compact) {
+        int[] targets = new int[compact.getArcCount()];
+        for (int arc = 0; arc < targets.length; ++arc) {
+            targets[arc] = compact.getTarget(arc);
+        }
+        return targets;
+    }
+
+    private static float[] lengthsOf(CompactGraph compact) {
+        float[] lengths = new float[compact.getArcCount()];
+        for (int arc = 0; arc < lengths.length; ++arc) {
+            lengths[arc] = compact.getLength(arc);
+        }
+        return lengths;
+    }
+
+    private static int[] infoIndicesOf(CompactGraph compact) {
+        int[] indices = new int[compact.getArcCount()];
+        for (int arc = 0; arc < indices.length; ++arc) {
+            indices[arc] = compact.getRoadInformationIndex(arc);
+        }
+        return indices;
+    }
+
+    private static int[] reversesOf(CompactGraph compact) {
+        int[] reverses = new int[compact.getArcCount()];
+        for (int arc = 0; arc < reverses.length; ++arc) {
+            reverses[arc] = compact.getReverseArc(arc);
+        }
+        return reverses;
+    }
+
+}
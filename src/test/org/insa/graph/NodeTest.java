@@ -1,6 +1,7 @@
 package org.insa.graph;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -86,4 +87,24 @@ public class NodeTest {
                 getFirstArcBetween(nodes[1], nodes[0]).getRoadInformation());
     }
 
+    @Test
+    public void testGetSuccessor() {
+        for (Node node: nodes) {
+            assertEquals(node.getSuccessors().size(), node.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                assertSame(node.getSuccessors().get(i), node.getSuccessor(i));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetSuccessorOutOfBounds() {
+        nodes[5].getSuccessor(0);
+    }
+
+    @Test
+    public void testGetSuccessorsView() {
+        assertSame(nodes[0].getSuccessors(), nodes[0].getSuccessors());
+    }
+
 }
@@ -0,0 +1,102 @@
+package org.insa.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class PointBufferTest {
+
+    /**
+     * Check that the given point has the given coordinates.
+     */
+    static void assertPoint(float longitude, float latitude, Point point) {
+        assertEquals(longitude, point.getLongitude(), 0);
+        assertEquals(latitude, point.getLatitude(), 0);
+    }
+
+    @Test
+    public void testAdd() {
+        // Start with a small capacity so the buffer grows several times.
+        PointBuffer buffer = new PointBuffer(1);
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i, buffer.add(i, -i / 2.0f));
+            assertEquals(i + 1, buffer.size());
+        }
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i, buffer.getLongitude(i), 0);
+            assertEquals(-i / 2.0f, buffer.getLatitude(i), 0);
+            assertPoint(i, -i / 2.0f, buffer.getPoint(i));
+        }
+    }
+
+    @Test
+    public void testAddPointsAndSet() {
+        PointBuffer buffer = new PointBuffer();
+        buffer.add(1, 2);
+        assertEquals(1, buffer.addPoints(40));
+        assertEquals(41, buffer.size());
+        assertEquals(0, buffer.getLongitude(40), 0);
+        for (int i = 1; i < 41; ++i) {
+            buffer.set(i, i, 2 * i);
+        }
+        assertPoint(1, 2, buffer.getPoint(0));
+        for (int i = 1; i < 41; ++i) {
+            assertPoint(i, 2 * i, buffer.getPoint(i));
+        }
+        assertEquals(41, buffer.add(5, 6));
+    }
+
+    @Test
+    public void testSetOutOfBounds() {
+        PointBuffer buffer = new PointBuffer(10);
+        buffer.add(1, 2);
+        for (int index: new int[] { -1, 1, 9 }) {
+            try {
+                buffer.set(index, 0, 0);
+                fail("point " + index + " set in a buffer of size 1");
+            }
+            catch (IndexOutOfBoundsException exception) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testReverse() {
+        PointBuffer buffer = new PointBuffer();
+        for (int i = 0; i < 10; ++i) {
+            buffer.add(i, i + 0.5f);
+        }
+
+        // Odd and even ranges, a single point and an empty range.
+        buffer.reverse(1, 5);
+        buffer.reverse(6, 4);
+        buffer.reverse(0, 1);
+        buffer.reverse(3, 0);
+        int[] expected = { 0, 5, 4, 3, 2, 1, 9, 8, 7, 6 };
+        for (int i = 0; i < expected.length; ++i) {
+            assertPoint(expected[i], expected[i] + 0.5f, buffer.getPoint(i));
+        }
+    }
+
+    @Test
+    public void testTrimToSize() {
+        PointBuffer buffer = new PointBuffer(100);
+        buffer.add(1, 2);
+        buffer.add(3, 4);
+        buffer.trimToSize();
+        assertEquals(2, buffer.size());
+        assertPoint(3, 4, buffer.getPoint(1));
+
+        // The buffer can still grow after being trimmed.
+        assertEquals(2, buffer.add(5, 6));
+        assertPoint(1, 2, buffer.getPoint(0));
+        assertPoint(5, 6, buffer.getPoint(2));
+
+        PointBuffer empty = new PointBuffer();
+        empty.trimToSize();
+        assertEquals(0, empty.add(7, 8));
+    }
+
+}
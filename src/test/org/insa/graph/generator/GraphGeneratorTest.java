@@ -0,0 +1,170 @@
+package org.insa.graph.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.algo.AbstractSolution.Status;
+import org.insa.algo.ArcInspector;
+import org.insa.algo.ArcInspectorFactory;
+import org.insa.algo.shortestpath.BellmanFordAlgorithm;
+import org.insa.algo.shortestpath.DijkstraAlgorithm;
+import org.insa.algo.shortestpath.ShortestPathData;
+import org.insa.algo.shortestpath.ShortestPathSolution;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation.RoadType;
+import org.insa.graph.io.BinaryGraphReader;
+import org.insa.graph.io.BinaryGraphWriter;
+import org.junit.Test;
+
+public class GraphGeneratorTest {
+
+    private static GraphGenerator[] generators(long seed) {
+        return new GraphGenerator[] { new GridGraphGenerator(12, 9, 100, seed),
+                new RandomGeometricGraphGenerator(150, 6, 100, seed),
+                new HierarchicalGraphGenerator(20, 18, 150, 2, seed) };
+    }
+
+    /**
+     * @return Description of the arcs of the given node, sorted.
+     */
+    private static List<String> describe(CompactGraph graph, int node) {
+        List<String> arcs = new ArrayList<>();
+        for (int arc = graph.getFirstArc(node); arc < graph.getEndArc(node); ++arc) {
+            arcs.add(graph.getTarget(arc) + " " + graph.getLength(arc) + " "
+                    + graph.getRoadInformation(arc) + " " + (graph.getReverseArc(arc) >= 0));
+        }
+        Collections.sort(arcs);
+        return arcs;
+    }
+
+    private static void assertSameGraph(CompactGraph expected, CompactGraph actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getArcCount(), actual.getArcCount());
+        for (int node = 0; node < expected.size(); ++node) {
+            assertEquals(expected.getLongitude(node), actual.getLongitude(node), 0);
+            assertEquals(expected.getLatitude(node), actual.getLatitude(node), 0);
+            assertEquals(describe(expected, node), describe(actual, node));
+        }
+    }
+
+    @Test
+    public void testDeterministic() {
+        GraphGenerator[] first = generators(42), second = generators(42),
+                other = generators(43);
+        for (int i = 0; i < first.length; ++i) {
+            CompactGraph graph = first[i].generateCompactGraph();
+            assertSameGraph(graph, second[i].generateCompactGraph());
+            assertSameGraph(graph, first[i].generateCompactGraph());
+
+            CompactGraph different = other[i].generateCompactGraph();
+            boolean same = graph.getArcCount() == different.getArcCount();
+            for (int node = 0; same && node < graph.size(); ++node) {
+                same = graph.getLongitude(node) == different.getLongitude(node)
+                        && describe(graph, node).equals(describe(different, node));
+            }
+            assertTrue(!same);
+        }
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        for (GraphGenerator generator: generators(7)) {
+            CompactGraph graph = generator.generateCompactGraph();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new BinaryGraphWriter(new DataOutputStream(bytes)).writeCompactGraph(graph);
+            CompactGraph read = new BinaryGraphReader(
+                    new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+                            .readCompactGraph();
+            assertEquals(graph.getMapId(), read.getMapId());
+            assertSameGraph(graph, read);
+            assertEquals(graph.getGraphInformation().getOneWayRoadCount(),
+                    read.getGraphInformation().getOneWayRoadCount());
+            assertEquals(graph.getGraphInformation().getTwoWaysRoadCount(),
+                    read.getGraphInformation().getTwoWaysRoadCount());
+        }
+    }
+
+    @Test
+    public void testGrid() {
+        GridGraphGenerator generator = new GridGraphGenerator(12, 9, 100, 3);
+        generator.setOrigin(new Point(2, 45));
+        CompactGraph graph = generator.generateCompactGraph();
+        assertEquals(12 * 9, graph.size());
+        assertEquals(12 * 8 + 9 * 11,
+                graph.getGraphInformation().getOneWayRoadCount()
+                        + graph.getGraphInformation().getTwoWaysRoadCount());
+        assertEquals(2, graph.getLongitude(0), 1e-6);
+        assertEquals(45, graph.getLatitude(0), 1e-6);
+
+        // Only two-ways roads, without any detour.
+        generator.setOneWayRatio(0);
+        generator.setMaximumDetour(0);
+        graph = generator.generateCompactGraph();
+        assertEquals(0, graph.getGraphInformation().getOneWayRoadCount());
+        for (int arc = 0; arc < graph.getArcCount(); ++arc) {
+            assertEquals(100, graph.getLength(arc), 1);
+        }
+    }
+
+    @Test
+    public void testLengths() {
+        for (GraphGenerator generator: generators(11)) {
+            Graph graph = generator.generate();
+            graph.forEach(node -> node.forEach(arc -> {
+                assertTrue(arc.getLength() >= Point.distance(node.getPoint(),
+                        arc.getDestination().getPoint()));
+                assertTrue(arc.getLength() <= 1.2 * Point.distance(node.getPoint(),
+                        arc.getDestination().getPoint()) + 1);
+            }));
+        }
+    }
+
+    @Test
+    public void testHierarchy() {
+        CompactGraph graph = new HierarchicalGraphGenerator(20, 18, 150, 2, 5)
+                .generateCompactGraph();
+        int nbMotorways = 0;
+        for (int arc = 0; arc < graph.getArcCount(); ++arc) {
+            if (graph.getRoadInformation(arc).getType() == RoadType.MOTORWAY) {
+                ++nbMotorways;
+                assertNotEquals(0, graph.getRoadInformation(arc).getMaximumSpeed());
+            }
+        }
+        assertTrue(nbMotorways > 0);
+    }
+
+    @Test
+    public void testShortestPaths() {
+        Graph graph = new HierarchicalGraphGenerator(10, 10, 150, 2, 13).generate();
+        for (ArcInspector inspector: new ArcInspector[] {
+                ArcInspectorFactory.getAllFilters().get(0),
+                ArcInspectorFactory.getAllFilters().get(2) }) {
+            for (int i = 0; i < graph.size(); i += 7) {
+                for (int j = 0; j < graph.size(); j += 11) {
+                    ShortestPathData data = new ShortestPathData(graph, graph.get(i),
+                            graph.get(j), inspector);
+                    ShortestPathSolution expected = new BellmanFordAlgorithm(data).run();
+                    ShortestPathSolution actual = new DijkstraAlgorithm(data).run();
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (expected.getStatus() == Status.OPTIMAL) {
+                        assertEquals(expected.getPath().getLength(),
+                                actual.getPath().getLength(), 1e-2);
+                    }
+                }
+            }
+        }
+    }
+
+}
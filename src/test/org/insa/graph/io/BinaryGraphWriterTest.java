@@ -0,0 +1,188 @@
+package org.insa.graph.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.graph.AccessRestrictions;
+import org.insa.graph.AccessRestrictions.AccessMode;
+import org.insa.graph.AccessRestrictions.AccessRestriction;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BinaryGraphWriterTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        restrictions.put(AccessMode.MOTORCAR, AccessRestriction.ALLOWED);
+        restrictions.put(AccessMode.FOOT, AccessRestriction.FORBIDDEN);
+        restrictions.put(AccessMode.BICYCLE, AccessRestriction.PRIVATE);
+        AccessRestrictions access = new AccessRestrictions(restrictions);
+
+        RoadInformation motorway = new RoadInformation(RoadType.MOTORWAY, access, true, 130,
+                "A61"),
+                street = new RoadInformation(RoadType.RESIDENTIAL, access, false, 30,
+                        "Avenue de Rangueil"),
+                track = new RoadInformation(RoadType.TRACK, null, false, 0, null);
+
+        Node[] nodes = new Node[4];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.45f + 0.01f * i, 43.57f - 0.005f * i));
+        }
+
+        Node.linkNodes(nodes[0], nodes[1], 5000, street, points(nodes[0], nodes[1], 2));
+        Node.linkNodes(nodes[2], nodes[1], 4000, street, points(nodes[2], nodes[1], 1));
+        Node.linkNodes(nodes[1], nodes[3], 6000, motorway, points(nodes[1], nodes[3], 0));
+        Node.linkNodes(nodes[3], nodes[0], 7000, track, points(nodes[3], nodes[0], 3));
+        Node.linkNodes(nodes[3], nodes[2], 8000, motorway, points(nodes[3], nodes[2], 1));
+
+        graph = new Graph("0x400", "Writer test", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * @return Points of an arc between the two given nodes, with the given number
+     *         of intermediate points.
+     */
+    private static ArrayList<Point> points(Node origin, Node destination, int nbIntermediate) {
+        ArrayList<Point> points = new ArrayList<>();
+        points.add(origin.getPoint());
+        for (int i = 1; i <= nbIntermediate; ++i) {
+            float ratio = (float) i / (nbIntermediate + 1);
+            points.add(new Point(
+                    origin.getPoint().getLongitude()
+                            + ratio * (destination.getPoint().getLongitude()
+                                    - origin.getPoint().getLongitude())
+                            + 0.001f,
+                    origin.getPoint().getLatitude() + ratio
+                            * (destination.getPoint().getLatitude()
+                                    - origin.getPoint().getLatitude())));
+        }
+        points.add(destination.getPoint());
+        return points;
+    }
+
+    /**
+     * @return Description of the arcs of the given node, sorted.
+     */
+    private static List<String> describe(Node node) {
+        List<String> arcs = new ArrayList<>();
+        for (Arc arc: node.getSuccessors()) {
+            RoadInformation info = arc.getRoadInformation();
+            StringBuilder builder = new StringBuilder();
+            builder.append(arc.getDestination().getId() + " " + arc.getLength() + " "
+                    + info.getType() + " " + info.isOneWay() + " " + info.getMaximumSpeed()
+                    + " " + (info.getName() == null ? "" : info.getName()));
+            for (AccessMode mode: AccessMode.values()) {
+                builder.append(" " + (info.getAccessRestrictions() == null
+                        ? AccessRestriction.UNKNOWN
+                        : info.getAccessRestrictions().getRestrictionFor(mode)));
+            }
+            for (Point point: arc.getPoints()) {
+                builder.append(String.format(" (%.4f, %.4f)", point.getLongitude(),
+                        point.getLatitude()));
+            }
+            arcs.add(builder.toString());
+        }
+        Collections.sort(arcs);
+        return arcs;
+    }
+
+    /**
+     * @return Content of the file written for the given graph.
+     */
+    private static byte[] write(Graph graph, boolean compact) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryGraphWriter writer = new BinaryGraphWriter(new DataOutputStream(bytes));
+        if (compact) {
+            writer.writeCompactGraph(graph.getCompactGraph());
+        }
+        else {
+            writer.writeGraph(graph);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static BinaryGraphReader reader(byte[] bytes) {
+        return new BinaryGraphReader(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testWriteGraph() throws IOException {
+        Graph read = reader(write(graph, false)).read();
+        assertEquals(graph.getMapId(), read.getMapId());
+        assertEquals(graph.getMapName(), read.getMapName());
+        assertEquals(graph.size(), read.size());
+        assertEquals(2, read.getGraphInformation().getOneWayRoadCount());
+        assertEquals(3, read.getGraphInformation().getTwoWaysRoadCount());
+        for (Node node: graph) {
+            Node other = read.get(node.getId());
+            assertEquals(node.getPoint().getLongitude(), other.getPoint().getLongitude(), 0);
+            assertEquals(node.getPoint().getLatitude(), other.getPoint().getLatitude(), 0);
+            assertEquals(describe(node), describe(other));
+        }
+    }
+
+    @Test
+    public void testWriteCompactGraph() throws IOException {
+        CompactGraph compact = graph.getCompactGraph();
+        CompactGraph read = reader(write(graph, true)).readCompactGraph();
+        assertEquals(compact.size(), read.size());
+        assertEquals(compact.getArcCount(), read.getArcCount());
+        for (int node = 0; node < compact.size(); ++node) {
+            List<String> expected = new ArrayList<>(), actual = new ArrayList<>();
+            for (int arc = compact.getFirstArc(node); arc < compact.getEndArc(node); ++arc) {
+                expected.add(compact.getTarget(arc) + " " + compact.getLength(arc) + " "
+                        + compact.getRoadInformation(arc).getType() + " "
+                        + (compact.getReverseArc(arc) >= 0));
+            }
+            for (int arc = read.getFirstArc(node); arc < read.getEndArc(node); ++arc) {
+                actual.add(read.getTarget(arc) + " " + read.getLength(arc) + " "
+                        + read.getRoadInformation(arc).getType() + " "
+                        + (read.getReverseArc(arc) >= 0));
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testWriteAgain() throws IOException {
+        // A graph read from a file is written exactly as the file.
+        byte[] bytes = write(graph, false);
+        assertEquals(Arrays.toString(bytes), Arrays.toString(write(reader(bytes).read(), false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyRoads() throws IOException {
+        RoadInformation oneWay = new RoadInformation(RoadType.SERVICE, null, true, 20, "");
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node(0, new Point(0, 0)));
+        for (int i = 1; i <= 256; ++i) {
+            nodes.add(new Node(i, new Point(0, 0.0001f * i)));
+            Node.linkNodes(nodes.get(0), nodes.get(i), 1000, oneWay, new ArrayList<>());
+        }
+        write(new Graph("0x0", "", nodes, null), false);
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.insa.graph.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.insa.graph.AccessRestrictions.AccessMode;
+import org.insa.graph.Arc;
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.Point;
+import org.insa.graph.RoadInformation;
+
+/**
+ * Graph files and comparisons shared by the tests of the graph readers.
+ *
+ */
+final class GraphFiles {
+
+    private GraphFiles() {
+    }
+
+    /**
+     * Create an object graph from the given compact graph, with intermediate
+     * points on its roads (none, one or two points, alternately on each side of
+     * the road).
+     *
+     * @param compact Graph to copy.
+     *
+     * @return A new graph with the same nodes and roads as the given one.
+     */
+    public static Graph withPoints(CompactGraph compact) {
+        List<Node> nodes = new ArrayList<>(compact.size());
+        for (int node = 0; node < compact.size(); ++node) {
+            nodes.add(new Node(node,
+                    new Point(compact.getLongitude(node), compact.getLatitude(node))));
+        }
+        for (int node = 0; node < compact.size(); ++node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getEndArc(node); ++arc) {
+                int reverse = compact.getReverseArc(arc);
+                if (reverse >= 0 && reverse < arc) {
+                    continue;
+                }
+                Point origin = nodes.get(node).getPoint(),
+                        destination = nodes.get(compact.getTarget(arc)).getPoint();
+                int nbIntermediate = arc % 3;
+                ArrayList<Point> points = new ArrayList<>();
+                points.add(origin);
+                for (int i = 1; i <= nbIntermediate; ++i) {
+                    float ratio = (float) i / (nbIntermediate + 1);
+                    float offset = (i % 2 == 0 ? 1 : -1) * 2e-4f;
+                    points.add(new Point(
+                            origin.getLongitude()
+                                    + ratio * (destination.getLongitude() - origin.getLongitude())
+                                    + offset,
+                            origin.getLatitude()
+                                    + ratio * (destination.getLatitude() - origin.getLatitude())
+                                    - offset));
+                }
+                points.add(destination);
+                Node.linkNodes(nodes.get(node), nodes.get(compact.getTarget(arc)),
+                        compact.getLength(arc), compact.getRoadInformation(arc), points);
+            }
+        }
+        return new Graph(compact.getMapId(), compact.getMapName(), nodes, null);
+    }
+
+    /**
+     * Write the given graph (with its intermediate points) to the given file.
+     *
+     * @param graph Graph to write.
+     * @param file File to write.
+     *
+     * @return The given file.
+     *
+     * @throws IOException if an error occurs while writing the file.
+     */
+    public static File write(Graph graph, File file) throws IOException {
+        new BinaryGraphWriter(new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))).writeGraph(graph);
+        return file;
+    }
+
+    /**
+     * @return Description of the given road information.
+     */
+    private static String describe(RoadInformation info) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(info.getType() + " " + info.isOneWay() + " " + info.getMaximumSpeed()
+                + " " + info.getName());
+        for (AccessMode mode: AccessMode.values()) {
+            builder.append(" " + info.getAccessRestrictions().getRestrictionFor(mode));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Check that the two given graphs are exactly the same: same nodes, same arcs
+     * in the same order, with the same points and road information.
+     *
+     * @param expected Expected graph.
+     * @param actual Graph to check.
+     */
+    public static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getOneWayRoadCount(),
+                actual.getGraphInformation().getOneWayRoadCount());
+        assertEquals(expected.getGraphInformation().getTwoWaysRoadCount(),
+                actual.getGraphInformation().getTwoWaysRoadCount());
+        assertEquals(expected.getGraphInformation().getMaximumSpeed(),
+                actual.getGraphInformation().getMaximumSpeed());
+        assertEquals(expected.getGraphInformation().getMaximumLength(),
+                actual.getGraphInformation().getMaximumLength(), 0);
+        for (Node node: expected) {
+            Node other = actual.get(node.getId());
+            assertEquals(node.getId(), other.getId());
+            assertEquals(node.getPoint().getLongitude(), other.getPoint().getLongitude(), 0);
+            assertEquals(node.getPoint().getLatitude(), other.getPoint().getLatitude(), 0);
+            assertEquals(node.getNumberOfSuccessors(), other.getNumberOfSuccessors());
+            Iterator<Arc> arcs = other.iterator();
+            for (Arc arc: node) {
+                Arc read = arcs.next();
+                assertEquals(arc.getDestination().getId(), read.getDestination().getId());
+                assertEquals(arc.getLength(), read.getLength(), 0);
+                assertEquals(describe(arc.getRoadInformation()),
+                        describe(read.getRoadInformation()));
+                List<Point> points = arc.getPoints(), readPoints = read.getPoints();
+                assertEquals(points.size(), readPoints.size());
+                for (int i = 0; i < points.size(); ++i) {
+                    assertEquals(points.get(i).getLongitude(),
+                            readPoints.get(i).getLongitude(), 0);
+                    assertEquals(points.get(i).getLatitude(), readPoints.get(i).getLatitude(),
+                            0);
+                }
+            }
+        }
+    }
+
+}
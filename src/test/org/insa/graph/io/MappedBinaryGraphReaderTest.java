@@ -0,0 +1,125 @@
+package org.insa.graph.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.insa.graph.CompactGraph;
+import org.insa.graph.Graph;
+import org.insa.graph.generator.HierarchicalGraphGenerator;
+import org.insa.graph.io.GraphReaderFactory.ReaderType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedBinaryGraphReaderTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    // File of a generated map, with intermediate points on its roads.
+    private static File file;
+
+    // Graph read from the file by the stream reader.
+    private static Graph expected;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        file = GraphFiles.write(GraphFiles.withPoints(
+                new HierarchicalGraphGenerator(40, 30, 150, 4, 3).generateCompactGraph()),
+                folder.newFile("hierarchical.mapgr"));
+        expected = streamReader(file).read();
+    }
+
+    private static BinaryGraphReader streamReader(File file) throws IOException {
+        return new BinaryGraphReader(
+                new DataInputStream(new BufferedInputStream(new FileInputStream(file))));
+    }
+
+    /**
+     * Write the first bytes of the map file to a new file.
+     */
+    private static File truncate(int length) throws IOException {
+        File truncated = folder.newFile();
+        Files.write(truncated.toPath(),
+                Arrays.copyOf(Files.readAllBytes(file.toPath()), length));
+        return truncated;
+    }
+
+    private static void assertTruncated(GraphReader reader) {
+        try {
+            reader.read();
+            fail("truncated file read without error");
+        }
+        catch (BadFormatException | EOFException exception) {
+            // Expected.
+        }
+        catch (IOException exception) {
+            fail("unexpected exception: " + exception);
+        }
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        GraphFiles.assertSameGraph(expected, new MappedBinaryGraphReader(file).read());
+    }
+
+    @Test
+    public void testReadCompactGraph() throws IOException {
+        CompactGraph compact = streamReader(file).readCompactGraph(),
+                mapped = new MappedBinaryGraphReader(file).readCompactGraph();
+        assertEquals(compact.size(), mapped.size());
+        assertEquals(compact.getArcCount(), mapped.getArcCount());
+        for (int node = 0; node < compact.size(); ++node) {
+            assertEquals(compact.getFirstArc(node), mapped.getFirstArc(node));
+        }
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            assertEquals(compact.getTarget(arc), mapped.getTarget(arc));
+            assertEquals(compact.getLength(arc), mapped.getLength(arc), 0);
+            assertEquals(compact.getReverseArc(arc), mapped.getReverseArc(arc));
+            assertEquals(compact.getRoadInformationIndex(arc),
+                    mapped.getRoadInformationIndex(arc));
+        }
+    }
+
+    @Test
+    public void testFactory() throws IOException {
+        assertTrue(GraphReaderFactory.createGraphReader(file,
+                ReaderType.MAPPED) instanceof MappedBinaryGraphReader);
+        GraphFiles.assertSameGraph(expected,
+                GraphReaderFactory.createGraphReader(file, ReaderType.STREAM).read());
+        GraphFiles.assertSameGraph(expected,
+                GraphReaderFactory.createGraphReader(file, ReaderType.MAPPED).read());
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        int length = (int) file.length();
+        for (int size: new int[] { 0, 6, 30, 100, length / 3, length / 2, length - 5,
+                length - 1 }) {
+            File truncated = truncate(size);
+            assertTruncated(streamReader(truncated));
+            assertTruncated(new MappedBinaryGraphReader(truncated));
+        }
+    }
+
+    @Test(expected = BadMagicNumberException.class)
+    public void testBadMagicNumber() throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[0] ^= 0x40;
+        File corrupted = folder.newFile();
+        Files.write(corrupted.toPath(), bytes);
+        new MappedBinaryGraphReader(corrupted).read();
+    }
+
+}
@@ -0,0 +1,150 @@
+package org.insa.graph.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graph.Arc;
+import org.insa.graph.Graph;
+import org.insa.graph.Node;
+import org.insa.graph.RoadInformation;
+import org.insa.graph.generator.HierarchicalGraphGenerator;
+import org.insa.graph.io.GraphReaderFactory.ReaderType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelBinaryGraphReaderTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    // File of a generated map, large enough to be read in many chunks.
+    private static File file;
+
+    // Graph read from the file by the stream reader.
+    private static Graph expected;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        file = GraphFiles.write(GraphFiles.withPoints(
+                new HierarchicalGraphGenerator(80, 60, 150, 4, 17).generateCompactGraph()),
+                folder.newFile("hierarchical.mapgr"));
+        expected = new BinaryGraphReader(
+                new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+                        .read();
+    }
+
+    /**
+     * Observer recording the IDs of the nodes and of the origins of the arcs, in
+     * the order of the notifications.
+     */
+    private static class RecordingObserver implements GraphReaderObserver {
+
+        final List<Integer> nodes = new ArrayList<>(), arcs = new ArrayList<>();
+        int nbDescriptors = 0, nbEnd = 0;
+
+        @Override
+        public void notifyStartReading(String mapId) {
+        }
+
+        @Override
+        public void notifyEndReading() {
+            ++nbEnd;
+        }
+
+        @Override
+        public void notifyStartReadingNodes(int nNodes) {
+        }
+
+        @Override
+        public void notifyNewNodeRead(Node node) {
+            nodes.add(node.getId());
+        }
+
+        @Override
+        public void notifyStartReadingDescriptors(int nDesc) {
+        }
+
+        @Override
+        public void notifyNewDescriptorRead(RoadInformation desc) {
+            ++nbDescriptors;
+        }
+
+        @Override
+        public void notifyStartReadingArcs(int nArcs) {
+        }
+
+        @Override
+        public void notifyNewArcRead(Arc arc) {
+            arcs.add(arc.getOrigin().getId());
+        }
+
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        for (int nbThreads: new int[] { 1, 2, 3, 8 }) {
+            GraphFiles.assertSameGraph(expected,
+                    new ParallelBinaryGraphReader(file, nbThreads).read());
+        }
+    }
+
+    @Test
+    public void testObservers() throws IOException {
+        RecordingObserver streamObserver = new RecordingObserver(),
+                parallelObserver = new RecordingObserver();
+        BinaryGraphReader reader = new BinaryGraphReader(
+                new DataInputStream(new BufferedInputStream(new FileInputStream(file))));
+        reader.addObserver(streamObserver);
+        reader.read();
+        ParallelBinaryGraphReader parallel = new ParallelBinaryGraphReader(file, 3);
+        parallel.addObserver(parallelObserver);
+        parallel.read();
+
+        assertEquals(streamObserver.nodes, parallelObserver.nodes);
+        assertEquals(streamObserver.arcs, parallelObserver.arcs);
+        assertEquals(streamObserver.nbDescriptors, parallelObserver.nbDescriptors);
+        assertEquals(1, parallelObserver.nbEnd);
+    }
+
+    @Test
+    public void testFactory() throws IOException {
+        GraphFiles.assertSameGraph(expected,
+                GraphReaderFactory.createGraphReader(file, ReaderType.PARALLEL).read());
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        for (int size: new int[] { 50, bytes.length / 4, bytes.length / 2,
+                bytes.length - 3 }) {
+            File truncated = folder.newFile();
+            Files.write(truncated.toPath(), Arrays.copyOf(bytes, size));
+            try {
+                new ParallelBinaryGraphReader(truncated, 2).read();
+                fail("truncated file read without error");
+            }
+            catch (BadFormatException | EOFException exception) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfThreads() {
+        new ParallelBinaryGraphReader(file, 0);
+    }
+
+}